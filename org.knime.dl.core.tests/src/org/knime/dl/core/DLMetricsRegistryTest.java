@@ -0,0 +1,133 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DLMetricsRegistry}.
+ */
+public class DLMetricsRegistryTest {
+
+	@Test
+	public void testTimersAndCountersAreRegisteredOnce() {
+		final DLMetricsRegistry metrics = new DLMetricsRegistry();
+		assertTrue(metrics.isEnabled());
+		assertTrue(metrics.isEmpty());
+		final DLTimer timer = metrics.timer("a");
+		assertSame(timer, metrics.timer("a"));
+		final DLCounter counter = metrics.counter("b");
+		assertSame(counter, metrics.counter("b"));
+		assertEquals(1, metrics.getTimers().size());
+		assertEquals(1, metrics.getCounters().size());
+		assertFalse(metrics.isEmpty());
+	}
+
+	@Test
+	public void testRecordAndReset() {
+		final DLMetricsRegistry metrics = new DLMetricsRegistry();
+		final DLTimer timer = metrics.timer("a");
+		timer.record(2_000_000);
+		timer.record(4_000_000, 3);
+		assertEquals(6_000_000, timer.getTotalNanos());
+		assertEquals(4, timer.getCount());
+		assertEquals(6.0, timer.getTotalMillis(), 1e-9);
+		assertEquals(1.5, timer.getMeanMillis(), 1e-9);
+		final DLCounter counter = metrics.counter("b");
+		counter.increment();
+		counter.add(4);
+		assertEquals(5, counter.getValue());
+		metrics.reset();
+		assertEquals(0, timer.getTotalNanos());
+		assertEquals(0, timer.getCount());
+		assertEquals(0, counter.getValue());
+		// references stay valid after a reset
+		assertSame(timer, metrics.timer("a"));
+	}
+
+	@Test
+	public void testSummaryIsSortedByTotalTime() {
+		final DLMetricsRegistry metrics = new DLMetricsRegistry();
+		metrics.timer("fast").record(1_000_000);
+		metrics.timer("slow").record(3_000_000);
+		metrics.counter("batches").add(2);
+		final String[] lines = metrics.getSummary().split("\\R");
+		assertEquals(3, lines.length);
+		assertEquals("slow: 3.0 ms (1 x, 3.00 ms avg)", lines[0]);
+		assertEquals("fast: 1.0 ms (1 x, 1.00 ms avg)", lines[1]);
+		assertEquals("batches: 2", lines[2]);
+	}
+
+	@Test
+	public void testDisabledRegistryDoesNotRecord() {
+		final DLMetricsRegistry metrics = DLMetricsRegistry.disabled();
+		assertFalse(metrics.isEnabled());
+		final DLTimer timer = metrics.timer("a");
+		assertEquals(0, timer.start());
+		timer.record(1_000_000);
+		metrics.counter("b").increment();
+		assertEquals(0, timer.getTotalNanos());
+		assertEquals(0, metrics.counter("b").getValue());
+		assertTrue(metrics.isEmpty());
+		assertEquals("", metrics.getSummary());
+	}
+
+	@Test
+	public void testFlowVariableNames() {
+		final DLMetricsRegistry metrics = new DLMetricsRegistry();
+		assertEquals("dl.metrics.network_loading_ms",
+			DLMetricsRegistry.getFlowVariableName(metrics.timer("Network loading")));
+		assertEquals("dl.metrics.transfer_to_python_ms",
+			DLMetricsRegistry.getFlowVariableName(metrics.timer(" Transfer to (Python) ")));
+		assertEquals("dl.metrics.cache_hits", DLMetricsRegistry.getFlowVariableName(metrics.counter("Cache hits")));
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DLTraceRecorder}.
+ */
+public class DLTraceRecorderTest {
+
+	@Test
+	public void testTimersRecordSpansOnceRecorderIsAttached() {
+		final DLMetricsRegistry metrics = new DLMetricsRegistry();
+		final DLTimer before = metrics.timer("before");
+		before.stop(before.start());
+		final DLTraceRecorder trace = new DLTraceRecorder();
+		metrics.setTraceRecorder(trace);
+		assertTrue(metrics.getTraceRecorder().isPresent());
+		before.stop(before.start());
+		final DLTimer after = metrics.timer("after");
+		after.stop(after.start());
+		// recording an interval that was measured elsewhere does not create a span
+		after.record(1_000);
+		assertEquals(2, trace.getNumSpans());
+		metrics.setTraceRecorder(null);
+		before.stop(before.start());
+		assertEquals(2, trace.getNumSpans());
+	}
+
+	@Test
+	public void testDisabledRegistryIgnoresRecorder() {
+		final DLMetricsRegistry metrics = DLMetricsRegistry.disabled();
+		metrics.setTraceRecorder(new DLTraceRecorder());
+		assertFalse(metrics.getTraceRecorder().isPresent());
+	}
+
+	@Test
+	public void testSpansBeyondMaximumAreDropped() {
+		final DLTraceRecorder trace = new DLTraceRecorder(2);
+		for (int i = 0; i < 5; i++) {
+			trace.recordSpan("span", DLTraceRecorder.PROCESS_PYTHON, "main", i, 1);
+		}
+		assertEquals(2, trace.getNumSpans());
+		assertEquals(3, trace.getNumDroppedSpans());
+	}
+
+	@Test
+	public void testChromeTrace() throws IOException {
+		final DLTraceRecorder trace = new DLTraceRecorder();
+		trace.recordSpan("Network \"execution\"", DLTraceRecorder.PROCESS_JAVA, "worker", 10, 5);
+		trace.recordSpan("Prediction", DLTraceRecorder.PROCESS_PYTHON, "MainThread", 12, 2);
+		final StringBuilder sb = new StringBuilder();
+		trace.writeChromeTrace(sb);
+		final String expected = "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n" //
+			+ "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Java\"}},\n" //
+			+ "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"worker\"}},\n" //
+			+ "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":2,\"args\":{\"name\":\"Python\"}},\n" //
+			+ "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":2,\"tid\":1,\"args\":{\"name\":\"MainThread\"}},\n" //
+			+ "{\"name\":\"Network \\\"execution\\\"\",\"cat\":\"Java\",\"ph\":\"X\",\"ts\":10,\"dur\":5,\"pid\":1,"
+			+ "\"tid\":1},\n" //
+			+ "{\"name\":\"Prediction\",\"cat\":\"Python\",\"ph\":\"X\",\"ts\":12,\"dur\":2,\"pid\":2,\"tid\":1}\n" //
+			+ "]}\n";
+		assertEquals(expected, sb.toString());
+	}
+
+	@Test
+	public void testSpansRecordedWhileWritingAreNotIncluded() throws IOException {
+		final DLTraceRecorder trace = new DLTraceRecorder();
+		trace.recordSpan("Prediction", DLTraceRecorder.PROCESS_PYTHON, "MainThread", 12, 2);
+		final StringBuilder sb = new StringBuilder();
+		// the appendable records a further span while the trace is being written
+		trace.writeChromeTrace(new Appendable() {
+
+			@Override
+			public Appendable append(final CharSequence csq) {
+				if (csq.toString().contains("thread_name")) {
+					trace.recordSpan("Late", DLTraceRecorder.PROCESS_JAVA, "worker", 20, 1);
+				}
+				sb.append(csq);
+				return this;
+			}
+
+			@Override
+			public Appendable append(final CharSequence csq, final int start, final int end) {
+				return append(csq.subSequence(start, end));
+			}
+
+			@Override
+			public Appendable append(final char c) {
+				sb.append(c);
+				return this;
+			}
+		});
+		final String expected = "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n" //
+			+ "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Python\"}},\n" //
+			+ "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"MainThread\"}},\n" //
+			+ "{\"name\":\"Prediction\",\"cat\":\"Python\",\"ph\":\"X\",\"ts\":12,\"dur\":2,\"pid\":1,\"tid\":1}\n" //
+			+ "]}\n";
+		assertEquals(expected, sb.toString());
+		assertEquals(2, trace.getNumSpans());
+	}
+
+	@Test
+	public void testEpochMicrosAreMonotonic() {
+		final long t0 = System.nanoTime();
+		final long t1 = t0 + 1_000_000;
+		assertEquals(1_000, DLTraceRecorder.toEpochMicros(t1) - DLTraceRecorder.toEpochMicros(t0), 1);
+	}
+}
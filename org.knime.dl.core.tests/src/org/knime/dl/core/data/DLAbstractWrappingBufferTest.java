@@ -106,4 +106,31 @@ public void testGetStorageForWritingOverflow() throws Exception {
 			final double[] storage = buffer.getStorageForWriting(1, 10);
 		}
 	}
+
+	@Test
+	public void testTruncate() throws Exception {
+		try (DLDefaultDoubleBuffer buffer = new DLDefaultDoubleBuffer(10)) {
+			buffer.putAll(new double[] { 1, 2, 3, 4 });
+			buffer.readNextDouble();
+			buffer.readNextDouble();
+			buffer.readNextDouble();
+			buffer.truncate(2);
+			assertEquals(2, buffer.size());
+			assertEquals(2, buffer.getNextReadPosition());
+			buffer.put(5);
+			assertEquals(3, buffer.size());
+			final double[] storage = buffer.getStorageForReading(0, 3);
+			assertEquals(1, storage[0], 0);
+			assertEquals(2, storage[1], 0);
+			assertEquals(5, storage[2], 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTruncateBeyondSize() throws Exception {
+		try (DLDefaultDoubleBuffer buffer = new DLDefaultDoubleBuffer(10)) {
+			buffer.putAll(new double[] { 1, 2 });
+			buffer.truncate(3);
+		}
+	}
 }
@@ -76,10 +76,21 @@ public void testPutBoolean() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
             assertEquals(buffer.m_nextWrite, 0);
             buffer.put(true);
-            assertEquals(true, buffer.m_storage[0]);
+            assertEquals(1L, buffer.m_storage[0]);
             assertEquals(1, buffer.m_nextWrite);
             buffer.put(false);
-            assertEquals(false, buffer.m_storage[1]);
+            assertEquals(1L, buffer.m_storage[0]);
+        }
+    }
+
+    @Test
+    public void testPutBooleanClearsReusedStorage() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
+            buffer.putAll(alternatingBooleanArray(10));
+            buffer.reset();
+            buffer.put(false);
+            buffer.put(true);
+            assertEquals(0x156L, buffer.m_storage[0]);
         }
     }
 
@@ -96,7 +107,8 @@ public void testPutAllBoolean() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
             final boolean[] expected = alternatingBooleanArray(10);
             buffer.putAll(expected);
-            assertArrayEquals(expected, buffer.m_storage);
+            assertArrayEquals(new long[]{0x155L}, buffer.m_storage);
+            assertArrayEquals(expected, buffer.toBitArray());
         }
     }
 
@@ -107,6 +119,79 @@ public void testPutAllBooleanOverflow() throws Exception {
         }
     }
 
+    @Test
+    public void testPutAllBits() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(70)) {
+            buffer.put(true);
+            // bits 0, 3 and 63 of the first word, bit 64 and 68 of the second word
+            buffer.putAllBits(new long[]{0x8000000000000009L, 0x11L}, 69);
+            assertEquals(70, buffer.m_nextWrite);
+            // bits 0, 1 and 4 of the first word, bits 64, 65 and 69 of the second word
+            assertArrayEquals(new long[]{0x13L, 0x23L}, buffer.m_storage);
+            final boolean[] bits = buffer.toBitArray();
+            for (int i = 0; i < 70; i++) {
+                final boolean expected = i == 0 || i == 1 || i == 4 || i == 64 || i == 65 || i == 69;
+                assertEquals("Bit " + i, expected, bits[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testPutAllBitsOverwritesReusedStorage() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(130)) {
+            buffer.putAllBits(new long[]{-1L, -1L, -1L}, 130);
+            buffer.reset();
+            buffer.put(true);
+            buffer.putAllBits(new long[]{0L, 0L}, 100);
+            assertArrayEquals(new long[]{1L, 0xFFFFFFE000000000L, 0x3L}, buffer.m_storage);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutAllBitsTooFewWords() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(100)) {
+            buffer.putAllBits(new long[]{-1L}, 65);
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutAllBitsOverflow() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
+            buffer.putAllBits(new long[]{-1L}, 11);
+        }
+    }
+
+    @Test
+    public void testReadToBitWords() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(140)) {
+            buffer.putAllBits(new long[]{0x8000000000000009L, 0x11L, 0x5L}, 140);
+            final long[] words = new long[2];
+            buffer.readNextBit();
+            buffer.readNextBit();
+            buffer.readNextBit();
+            // bits 3 to 68
+            buffer.readToBitWords(words, 66);
+            assertArrayEquals(new long[]{0x3000000000000001L, 0x2L}, words);
+            assertEquals(69, buffer.getNextReadPosition());
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testReadToBitWordsUnderflow() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
+            buffer.putAll(booleanRange(10));
+            buffer.readToBitWords(new long[1], 11);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadToBitWordsTooFewWords() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(100)) {
+            buffer.zeroPad(100);
+            buffer.readToBitWords(new long[1], 65);
+        }
+    }
+
     @Test
     public void testToDoubleArray() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
@@ -575,8 +660,7 @@ public void testZeroPad() throws Exception {
             buffer.putAll(booleanRange(10));
             buffer.reset();
             buffer.zeroPad(10);
-            final boolean[] expected = new boolean[10];
-            assertArrayEquals(expected, buffer.m_storage);
+            assertArrayEquals(new long[1], buffer.m_storage);
         }
     }
 
@@ -597,17 +681,18 @@ public void testZeroPadOverflow() throws Exception {
     @Test
     public void testSetStorage() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
-            final boolean[] expected = booleanRange(10);
-            buffer.setStorage(expected, 10);
+            final long[] storage = new long[]{0x175L};
+            buffer.setStorage(storage, 10);
             assertEquals(0, buffer.m_nextRead);
-            assertArrayEquals(expected, buffer.m_storage);
+            assertArrayEquals(storage, buffer.m_storage);
+            assertArrayEquals(booleanRange(10), buffer.toBitArray());
         }
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testSetStorageWrongCapacity() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
-            final boolean[] storage = booleanRange(11);
+            final long[] storage = new long[2];
             buffer.setStorage(storage, 10);
         }
     }
@@ -10,6 +10,8 @@
 import org.knime.core.data.vector.bitvector.DenseBitVector;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bitvector.SparseBitVector;
+import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLReadableBitBuffer;
 import org.knime.dl.core.data.DLWritableBitBuffer;
@@ -41,6 +43,32 @@ public void testConvert() {
         assertEquals(input.get(4), outputAsReadable.readNextBit());
     }
 
+    @Test
+    public void testConvertMultipleWords() {
+        final DLBitVectorToBitTensorConverterFactory factory = new DLBitVectorToBitTensorConverterFactory();
+        final DLDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer> converter = factory.createConverter();
+        final BitVectorValue dense =
+            new DenseBitVectorCellFactory(new DenseBitVector(new long[]{0x8000000000000001L, 0x5L}, 70))
+                .createDataCell();
+        final SparseBitVector sparseVector = new SparseBitVector(70);
+        sparseVector.set(1);
+        sparseVector.set(69);
+        final BitVectorValue sparse = new SparseBitVectorCellFactory(sparseVector).createDataCell();
+
+        final DLTensor<DLWritableBitBuffer> output = (DLTensor<DLWritableBitBuffer>)createTensor(Boolean.class, 2, 70);
+        converter.convert(Collections.singletonList(dense), output);
+        converter.convert(Collections.singletonList(sparse), output);
+        final DLReadableBitBuffer outputAsReadable = (DLReadableBitBuffer)output.getBuffer();
+
+        assertEquals(140, outputAsReadable.size());
+        for (int i = 0; i < 70; i++) {
+            assertEquals("Bit " + i, dense.get(i), outputAsReadable.readNextBit());
+        }
+        for (int i = 0; i < 70; i++) {
+            assertEquals("Bit " + i, sparse.get(i), outputAsReadable.readNextBit());
+        }
+    }
+
     @Test
     public void testGetName() {
         final DLBitVectorToBitTensorConverterFactory factory = new DLBitVectorToBitTensorConverterFactory();
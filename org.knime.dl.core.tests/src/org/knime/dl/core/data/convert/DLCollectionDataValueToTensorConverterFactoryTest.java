@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.createTensor;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableFloatBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+
+/**
+ * Tests {@link DLCollectionDataValueToTensorConverterFactory}.
+ */
+public class DLCollectionDataValueToTensorConverterFactoryTest {
+
+	@Test
+	public void testConvertPrimitiveCollections() {
+		final DLCollectionDataValueToTensorConverterFactory<DoubleValue, DLWritableFloatBuffer> factory =
+				new DLCollectionDataValueToTensorConverterFactory<>(new DLDoubleValueToFloatTensorConverterFactory());
+		final DLDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer> converter =
+				factory.createConverter();
+		final CollectionDataValue doubles = CollectionCellFactory
+				.createListCell(Arrays.asList(new DoubleCell(0.5), new DoubleCell(-2d), new DoubleCell(3d)));
+		final CollectionDataValue ints = CollectionCellFactory
+				.createListCell(Arrays.asList(new IntCell(1), new IntCell(-4), new IntCell(7)));
+		final CollectionDataValue longs = CollectionCellFactory
+				.createListCell(Arrays.asList(new LongCell(5L), new LongCell(0L), new LongCell(-1L)));
+
+		final DLTensor<DLWritableFloatBuffer> output =
+				(DLTensor<DLWritableFloatBuffer>) createTensor(Float.class, 3, 3);
+		converter.convert(Collections.singletonList(doubles), output);
+		converter.convert(Collections.singletonList(ints), output);
+		converter.convert(Collections.singletonList(longs), output);
+		final DLReadableFloatBuffer outputAsReadable = (DLReadableFloatBuffer) output.getBuffer();
+
+		assertEquals(9, outputAsReadable.size());
+		final float[] expected = { 0.5f, -2f, 3f, 1f, -4f, 7f, 5f, 0f, -1f };
+		for (final float value : expected) {
+			assertEquals(value, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		}
+	}
+
+	@Test
+	public void testConvertMixedCollection() {
+		final DLCollectionDataValueToTensorConverterFactory<DoubleValue, DLWritableFloatBuffer> factory =
+				new DLCollectionDataValueToTensorConverterFactory<>(new DLDoubleValueToFloatTensorConverterFactory());
+		final DLDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer> converter =
+				factory.createConverter();
+		// the elements do not share a primitive cell type, so they are converted one by one
+		final CollectionDataValue mixed = CollectionCellFactory.createListCell(
+				Arrays.<DataCell> asList(new DoubleCell(0.25), new IntCell(2), new LongCell(-3L)));
+
+		final DLTensor<DLWritableFloatBuffer> output =
+				(DLTensor<DLWritableFloatBuffer>) createTensor(Float.class, 1, 3);
+		converter.convert(Collections.singletonList(mixed), output);
+		final DLReadableFloatBuffer outputAsReadable = (DLReadableFloatBuffer) output.getBuffer();
+
+		assertEquals(3, outputAsReadable.size());
+		assertEquals(0.25f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		assertEquals(2f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		assertEquals(-3f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+	}
+}
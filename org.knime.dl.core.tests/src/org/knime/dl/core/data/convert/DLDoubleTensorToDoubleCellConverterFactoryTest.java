@@ -43,6 +43,29 @@ public void testConvert() {
 		assertEquals(1d / 0d, output[2].getDoubleValue(), DOUBLE_EPSILON);
 	}
 
+	@Test
+	public void testConvertSubsequentBatches() {
+		final DLTensorToDataCellConverter<DLReadableDoubleBuffer, DoubleCell> converter =
+				new DLDoubleTensorToDoubleCellConverterFactory().createConverter();
+		final DLTensor<DLReadableDoubleBuffer> input = (DLTensor<DLReadableDoubleBuffer>) createTensor(Double.class, 2,
+				2);
+		final DLWritableDoubleBuffer buffer = (DLWritableDoubleBuffer) input.getBuffer();
+		buffer.putAll(new double[] { 1d, 2d, 3d, 4d });
+		final DoubleCell[] output = new DoubleCell[4];
+		converter.convert(input, output, null);
+		assertEquals(4d, output[3].getDoubleValue(), DOUBLE_EPSILON);
+		// a smaller, incomplete batch must not see values of the previous one
+		buffer.reset();
+		buffer.putAll(new double[] { 5d, 6d });
+		final DoubleCell[] incomplete = new DoubleCell[4];
+		converter.convert(input, incomplete, null);
+		assertEquals(5d, incomplete[0].getDoubleValue(), DOUBLE_EPSILON);
+		assertEquals(6d, incomplete[1].getDoubleValue(), DOUBLE_EPSILON);
+		assertEquals(null, incomplete[2]);
+		// the cells of the previous batch are unaffected
+		assertEquals(1d, output[0].getDoubleValue(), DOUBLE_EPSILON);
+	}
+
 	@Test
 	public void testGetDestCount() {
 		final DLDoubleTensorToDoubleCellConverterFactory factory = new DLDoubleTensorToDoubleCellConverterFactory();
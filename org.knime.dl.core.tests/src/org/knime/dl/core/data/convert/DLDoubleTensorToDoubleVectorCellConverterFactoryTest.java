@@ -0,0 +1,99 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.createTensor;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
+import org.knime.core.data.vector.doublevector.DoubleVectorValue;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+
+/**
+ * Tests {@link DLDoubleTensorToDoubleVectorCellConverterFactory}.
+ */
+public class DLDoubleTensorToDoubleVectorCellConverterFactoryTest {
+
+	@Test
+	public void testConvert() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		@SuppressWarnings("unchecked")
+		final DLTensor<DLWritableDoubleBuffer> tensor = (DLTensor<DLWritableDoubleBuffer>) createTensor(Double.class,
+				3, 2);
+		// an incomplete batch of two examples
+		tensor.getBuffer().putAll(new double[] { 0.5, 1d / 0d, -2d, 0d / 0d });
+		assertEquals(1, factory.getDestCount(tensor.getSpec()).getAsLong());
+		final DataCell[] cells = new DataCell[3];
+		@SuppressWarnings("unchecked")
+		final DLTensor<DLReadableDoubleBuffer> readable = (DLTensor<DLReadableDoubleBuffer>) (DLTensor<?>) tensor;
+		factory.createConverter().convert(readable, cells, null);
+		assertVector(cells[0], 0.5, 1d / 0d);
+		assertVector(cells[1], -2d, 0d / 0d);
+		assertNull(cells[2]);
+	}
+
+	@Test
+	public void testGetDestType() {
+		assertEquals(DoubleVectorCellFactory.TYPE,
+				new DLDoubleTensorToDoubleVectorCellConverterFactory().getDestType());
+	}
+
+	private static void assertVector(final DataCell cell, final double... expected) {
+		final DoubleVectorValue vector = (DoubleVectorValue) cell;
+		assertEquals(expected.length, vector.getLength());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], vector.getValue(i), DOUBLE_EPSILON);
+		}
+	}
+}
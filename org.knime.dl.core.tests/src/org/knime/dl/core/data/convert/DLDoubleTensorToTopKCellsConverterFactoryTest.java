@@ -0,0 +1,111 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.convert;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.createTensor;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+
+/**
+ * Tests {@link DLDoubleTensorToTopKCellsConverterFactory}.
+ */
+public class DLDoubleTensorToTopKCellsConverterFactoryTest {
+
+	@Test
+	public void testSelectTopK() {
+		final int[] top = new int[3];
+		DLDoubleTensorToTopKCellsConverterFactory.selectTopK(new double[] { 0.1, 0.4, 0.2, 0.3 }, top);
+		assertArrayEquals(new int[] { 1, 3, 2 }, top);
+		// ties are resolved in favor of the smaller index, NaN is smaller than everything else
+		DLDoubleTensorToTopKCellsConverterFactory.selectTopK(new double[] { Double.NaN, 0.5, 0.5, 0.1 }, top);
+		assertArrayEquals(new int[] { 1, 2, 3 }, top);
+	}
+
+	@Test
+	public void testConvert() {
+		final DLDoubleTensorToTopKCellsConverterFactory factory = new DLDoubleTensorToTopKCellsConverterFactory(2);
+		@SuppressWarnings("unchecked")
+		final DLTensor<DLWritableDoubleBuffer> tensor = (DLTensor<DLWritableDoubleBuffer>) createTensor(Double.class,
+				2, 4);
+		tensor.getBuffer().putAll(new double[] { 0.1, 0.6, 0.2, 0.1, 0.7, 0.0, 0.1, 0.2 });
+		assertEquals(4, factory.getDestCount(tensor.getSpec()).getAsLong());
+		final DataCell[] cells = new DataCell[8];
+		@SuppressWarnings("unchecked")
+		final DLTensor<DLReadableDoubleBuffer> readable = (DLTensor<DLReadableDoubleBuffer>) (DLTensor<?>) tensor;
+		factory.createConverter().convert(readable, cells, null);
+		assertEquals(1, ((IntCell) cells[0]).getIntValue());
+		assertEquals(2, ((IntCell) cells[1]).getIntValue());
+		assertEquals(0.6, ((DoubleCell) cells[2]).getDoubleValue(), DOUBLE_EPSILON);
+		assertEquals(0.2, ((DoubleCell) cells[3]).getDoubleValue(), DOUBLE_EPSILON);
+		assertEquals(0, ((IntCell) cells[4]).getIntValue());
+		assertEquals(3, ((IntCell) cells[5]).getIntValue());
+		assertEquals(0.7, ((DoubleCell) cells[6]).getDoubleValue(), DOUBLE_EPSILON);
+		assertEquals(0.2, ((DoubleCell) cells[7]).getDoubleValue(), DOUBLE_EPSILON);
+	}
+
+	@Test
+	public void testApplicableToExamplesOfSizeK() {
+		final DLDoubleTensorToTopKCellsConverterFactory factory = new DLDoubleTensorToTopKCellsConverterFactory(3);
+		assertEquals(6, factory.getDestCount(createTensor(Double.class, 1, 3).getSpec()).getAsLong());
+	}
+
+	@Test
+	public void testNotApplicableToSmallExamples() {
+		final DLDoubleTensorToTopKCellsConverterFactory factory = new DLDoubleTensorToTopKCellsConverterFactory(5);
+		assertFalse(factory.getDestCount(createTensor(Double.class, 1, 4).getSpec()).isPresent());
+	}
+}
@@ -14,6 +14,7 @@
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.def.DoubleCell;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLReadableFloatBuffer;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
@@ -43,6 +44,35 @@ public void testConvert() {
 		assertTrue(Double.isInfinite(input.get(2).getDoubleValue()));
 	}
 
+	@Test
+	public void testConvertPrimitives() {
+		final DLDoubleValueToFloatTensorConverterFactory factory = new DLDoubleValueToFloatTensorConverterFactory();
+		final DLPrimitiveDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer> converter =
+				(DLPrimitiveDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>) factory.createConverter();
+		final DLPrimitiveValues doubles = new DLPrimitiveValues(3, false);
+		doubles.getDoubles()[0] = 0.5;
+		doubles.getDoubles()[1] = -2d;
+		doubles.getDoubles()[2] = 1d / 0d;
+		final DLPrimitiveValues longs = new DLPrimitiveValues(3, true);
+		longs.getLongs()[0] = 3;
+		longs.getLongs()[1] = -4;
+		longs.getLongs()[2] = 0;
+
+		final DLTensor<DLWritableFloatBuffer> output = (DLTensor<DLWritableFloatBuffer>) createTensor(Float.class, 2,
+				3);
+		converter.convertPrimitives(doubles, output);
+		converter.convertPrimitives(longs, output);
+		final DLReadableFloatBuffer outputAsReadable = (DLReadableFloatBuffer) output.getBuffer();
+
+		assertEquals(6, outputAsReadable.size());
+		assertEquals(0.5f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		assertEquals(-2f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		assertTrue(Float.isInfinite(outputAsReadable.readNextFloat()));
+		assertEquals(3f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		assertEquals(-4f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+		assertEquals(0f, outputAsReadable.readNextFloat(), DOUBLE_EPSILON);
+	}
+
 	@Test
 	public void testGetDestCount() {
 		final DLDoubleValueToFloatTensorConverterFactory factory = new DLDoubleValueToFloatTensorConverterFactory();
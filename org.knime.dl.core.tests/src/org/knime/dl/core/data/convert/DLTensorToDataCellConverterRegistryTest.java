@@ -47,8 +47,10 @@
 package org.knime.dl.core.data.convert;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -102,6 +104,18 @@ public void testMatching() {
 		testForSource(src);
 	}
 
+	@Test
+	public void testTopKIsOfferedUpToExampleSize() {
+		final DLTensorSpec spec = new DLDefaultTensorSpec(new DLDefaultTensorId("input"), "input", 1,
+				new DLDefaultFixedTensorShape(new long[] { 3l }), double.class, DLDimensionOrder.TCDHW);
+		final List<Integer> ks = REGISTRY.getFactoriesForSourceType(DLReadableDoubleBuffer.class, spec).stream()
+				.filter(DLDoubleTensorToTopKCellsConverterFactory.class::isInstance)
+				.map(f -> ((DLDoubleTensorToTopKCellsConverterFactory) f).getK()).sorted()
+				.collect(Collectors.toList());
+		// k equal to the example size yields a full ranking, larger k are not applicable
+		Assert.assertEquals(Arrays.asList(1, 3), ks);
+	}
+
 	private void testForSource(final Class<? extends DLReadableBuffer> source) {
 		final DLTensorSpec spec = new DLDefaultTensorSpec(new DLDefaultTensorId("input"), "input", 1,
 				new DLDefaultFixedTensorShape(new long[] { 2l }), DLTestUtil.TENSOR_FACTORY.getElementType(source),
@@ -0,0 +1,148 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DLExecutionBatchSizeTuner}.
+ */
+public class DLExecutionBatchSizeTunerTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	/**
+	 * Executes the warm-up and the measured batch at the current batch size with the given throughput.
+	 */
+	private static void runStep(final DLExecutionBatchSizeTuner tuner, final double rowsPerSecond,
+			final long memory) {
+		final int batchSize = tuner.getBatchSize();
+		final long nanos = (long) (batchSize / rowsPerSecond * SECOND);
+		tuner.batchEnded(batchSize, nanos, memory);
+		tuner.batchEnded(batchSize, nanos, memory);
+	}
+
+	@Test
+	public void testDoublesWhileThroughputImproves() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 1000, -1);
+		runStep(tuner, 100, -1);
+		assertEquals(20, tuner.getBatchSize());
+		runStep(tuner, 200, -1);
+		assertEquals(40, tuner.getBatchSize());
+		// less than 5% improvement
+		runStep(tuner, 202, -1);
+		assertTrue(tuner.isSettled());
+		assertEquals(20, tuner.getBatchSize());
+		runStep(tuner, 1000, -1);
+		assertEquals(20, tuner.getBatchSize());
+	}
+
+	@Test
+	public void testWarmUpBatchIsNotMeasured() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 1000, -1);
+		tuner.batchEnded(10, SECOND, -1);
+		assertEquals(10, tuner.getBatchSize());
+		tuner.batchEnded(10, SECOND, -1);
+		assertEquals(20, tuner.getBatchSize());
+	}
+
+	@Test
+	public void testIncompleteBatchIsIgnored() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 1000, -1);
+		tuner.batchEnded(5, SECOND, -1);
+		tuner.batchEnded(5, SECOND, -1);
+		assertEquals(10, tuner.getBatchSize());
+		assertFalse(tuner.isSettled());
+	}
+
+	@Test
+	public void testRespectsMaxBatchSize() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 30, -1);
+		runStep(tuner, 100, -1);
+		assertEquals(20, tuner.getBatchSize());
+		runStep(tuner, 200, -1);
+		assertEquals(30, tuner.getBatchSize());
+		runStep(tuner, 300, -1);
+		assertTrue(tuner.isSettled());
+		assertEquals(30, tuner.getBatchSize());
+	}
+
+	@Test
+	public void testFallsBackIfMemoryBudgetIsExceeded() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 1000, 1000);
+		runStep(tuner, 100, 500);
+		runStep(tuner, 200, 1500);
+		assertTrue(tuner.isSettled());
+		assertEquals(10, tuner.getBatchSize());
+	}
+
+	@Test
+	public void testDoesNotFallBackBelowInitialBatchSize() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 1000, 1000);
+		runStep(tuner, 100, 1500);
+		assertTrue(tuner.isSettled());
+		assertEquals(10, tuner.getBatchSize());
+	}
+
+	@Test
+	public void testStopsIfPredictedMemoryExceedsBudget() {
+		final DLExecutionBatchSizeTuner tuner = new DLExecutionBatchSizeTuner(10, 1000, 1000);
+		runStep(tuner, 100, 400);
+		assertEquals(20, tuner.getBatchSize());
+		// 20 bytes per example, 40 examples would need 1000 bytes
+		runStep(tuner, 200, 600);
+		assertEquals(40, tuner.getBatchSize());
+		// still 20 bytes per example, 80 examples would need 1800 bytes
+		runStep(tuner, 400, 1000);
+		assertTrue(tuner.isSettled());
+		assertEquals(40, tuner.getBatchSize());
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.testing.DLTestingTensorFactory;
+
+/**
+ * Tests {@link DLExecutionResultCache}.
+ */
+public class DLExecutionResultCacheTest {
+
+	private static final int BATCH_SIZE = 4;
+
+	private static final DLTensorId INPUT_ID = new DLDefaultTensorId("input");
+
+	private static final DLTensorId OUTPUT_ID = new DLDefaultTensorId("output");
+
+	private final DLTestingTensorFactory m_tensorFactory = new DLTestingTensorFactory();
+
+	@Test
+	public void testHitIsRemovedFromBatchAndServedFromCache() {
+		try (final DLExecutionResultCache cache = new DLExecutionResultCache(1024, m_tensorFactory)) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = createInput();
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = createOutput();
+
+			// first batch: both rows are executed
+			assertFalse(cache.lookUpLastExample(write(input, 1f, 2f), input));
+			assertFalse(cache.lookUpLastExample(write(input, 3f, 4f), input));
+			assertEquals(4, input.get(INPUT_ID).getBuffer().size());
+			executeBatch(input, output, 10d, 20d);
+			cache.putNextMiss(output, 0);
+			cache.putNextMiss(output, 1);
+			assertNull(cache.pollHit());
+			assertEquals(2, cache.size());
+
+			// second batch: the duplicate does not take up space in the batch
+			final DataRow duplicate = write(input, 1f, 2f);
+			assertTrue(cache.lookUpLastExample(duplicate, input));
+			assertEquals(0, input.get(INPUT_ID).getBuffer().size());
+			assertFalse(cache.lookUpLastExample(write(input, 5f, 6f), input));
+			assertEquals(2, input.get(INPUT_ID).getBuffer().size());
+
+			// the hit is emitted before the newly executed row
+			assertSame(duplicate, cache.pollHit());
+			final DLReadableDoubleBuffer hitOutput =
+					(DLReadableDoubleBuffer) cache.getHitOutput().get(OUTPUT_ID).getBuffer();
+			assertEquals(1, hitOutput.size());
+			assertEquals(10d, hitOutput.readNextDouble(), 0d);
+			assertNull(cache.pollHit());
+
+			assertEquals(1, cache.getHits());
+			assertEquals(3, cache.getMisses());
+			assertEquals(0.25, cache.getHitRate(), 1e-9);
+		}
+	}
+
+	@Test
+	public void testHitIsEmittedAfterPrecedingMisses() {
+		try (final DLExecutionResultCache cache = new DLExecutionResultCache(1024, m_tensorFactory)) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = createInput();
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = createOutput();
+			assertFalse(cache.lookUpLastExample(write(input, 1f, 2f), input));
+			executeBatch(input, output, 10d);
+			cache.putNextMiss(output, 0);
+
+			assertFalse(cache.lookUpLastExample(write(input, 3f, 4f), input));
+			final DataRow duplicate = write(input, 1f, 2f);
+			assertTrue(cache.lookUpLastExample(duplicate, input));
+			// the preceding miss has not been emitted yet
+			assertNull(cache.pollHit());
+			executeBatch(input, output, 20d);
+			cache.putNextMiss(output, 0);
+			assertSame(duplicate, cache.pollHit());
+		}
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntryIsEvicted() {
+		// room for two outputs
+		try (final DLExecutionResultCache cache = new DLExecutionResultCache(2 * Double.BYTES, m_tensorFactory)) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = createInput();
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = createOutput();
+			assertFalse(cache.lookUpLastExample(write(input, 1f, 1f), input));
+			assertFalse(cache.lookUpLastExample(write(input, 2f, 2f), input));
+			executeBatch(input, output, 1d, 2d);
+			cache.putNextMiss(output, 0);
+			cache.putNextMiss(output, 1);
+
+			// touch the first entry, then add a third one which evicts the second
+			assertTrue(cache.lookUpLastExample(write(input, 1f, 1f), input));
+			assertFalse(cache.lookUpLastExample(write(input, 3f, 3f), input));
+			assertTrue(cache.pollHit() != null);
+			executeBatch(input, output, 3d);
+			cache.putNextMiss(output, 0);
+			assertEquals(2, cache.size());
+
+			assertTrue(cache.lookUpLastExample(write(input, 1f, 1f), input));
+			assertFalse(cache.lookUpLastExample(write(input, 2f, 2f), input));
+		}
+	}
+
+	@Test
+	public void testPendingHitIsNotEvicted() {
+		// room for a single output
+		try (final DLExecutionResultCache cache = new DLExecutionResultCache(Double.BYTES, m_tensorFactory)) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = createInput();
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = createOutput();
+			assertFalse(cache.lookUpLastExample(write(input, 1f, 1f), input));
+			executeBatch(input, output, 1d);
+			cache.putNextMiss(output, 0);
+
+			assertFalse(cache.lookUpLastExample(write(input, 2f, 2f), input));
+			final DataRow duplicate = write(input, 1f, 1f);
+			assertTrue(cache.lookUpLastExample(duplicate, input));
+			executeBatch(input, output, 2d);
+			// must not overwrite the output of the pending hit
+			cache.putNextMiss(output, 0);
+			assertSame(duplicate, cache.pollHit());
+			final DLReadableDoubleBuffer hitOutput =
+					(DLReadableDoubleBuffer) cache.getHitOutput().get(OUTPUT_ID).getBuffer();
+			assertEquals(1d, hitOutput.readNextDouble(), 0d);
+		}
+	}
+
+	@Test
+	public void testCacheIsDisabledIfOutputExceedsCapacity() {
+		try (final DLExecutionResultCache cache = new DLExecutionResultCache(Double.BYTES - 1, m_tensorFactory)) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = createInput();
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = createOutput();
+			assertFalse(cache.lookUpLastExample(write(input, 1f, 1f), input));
+			executeBatch(input, output, 1d);
+			cache.putNextMiss(output, 0);
+			assertFalse(cache.isEnabled());
+			assertFalse(cache.lookUpLastExample(write(input, 1f, 1f), input));
+			assertEquals(0, cache.getHits());
+		}
+	}
+
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createInput() {
+		final DLTensorSpec spec = new DLDefaultTensorSpec(INPUT_ID, "input", BATCH_SIZE,
+				new DLDefaultFixedTensorShape(new long[] { 2 }), float.class, DLDimensionOrder.TDHWC);
+		return Collections.singletonMap(INPUT_ID, m_tensorFactory.createWritableTensor(spec));
+	}
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> createOutput() {
+		final DLTensorSpec spec = new DLDefaultTensorSpec(OUTPUT_ID, "output", BATCH_SIZE,
+				new DLDefaultFixedTensorShape(new long[] { 1 }), double.class, DLDimensionOrder.TDHWC);
+		return Collections.singletonMap(OUTPUT_ID, m_tensorFactory.createReadableTensor(spec));
+	}
+
+	private static DataRow write(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input,
+			final float... values) {
+		((DLWritableFloatBuffer) input.get(INPUT_ID).getBuffer()).putAll(values);
+		return new DefaultRow("Row" + values[0], new StringCell("dummy"));
+	}
+
+	/**
+	 * Resets the input and writes the given values into the output, as if the batch was executed.
+	 */
+	private static void executeBatch(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input,
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output, final double... values) {
+		input.get(INPUT_ID).getBuffer().reset();
+		final DLReadableBuffer buffer = output.get(OUTPUT_ID).getBuffer();
+		buffer.reset();
+		((DLWritableDoubleBuffer) buffer).putAll(values);
+	}
+}
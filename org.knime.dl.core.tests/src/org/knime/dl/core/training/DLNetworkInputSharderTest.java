@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.testing.DLTestingTensorFactory;
+
+/**
+ * Tests {@link DLNetworkInputSharder}.
+ */
+public class DLNetworkInputSharderTest {
+
+	private static final DLTensorId INPUT_ID = new DLDefaultTensorId("input");
+
+	private static final int BATCH_SIZE = 5;
+
+	private final DLTestingTensorFactory m_tensorFactory = new DLTestingTensorFactory();
+
+	private final DLTensorSpec m_spec = new DLDefaultTensorSpec(INPUT_ID, "input", BATCH_SIZE,
+			new DLDefaultFixedTensorShape(new long[] { 2 }), double.class, DLDimensionOrder.TDHWC);
+
+	@Test
+	public void testShardBatchSizesDistributeRemainder() {
+		assertArrayEquals(new long[] { 3, 2 }, DLNetworkInputSharder.getShardBatchSizes(5, 2));
+		assertArrayEquals(new long[] { 2, 2, 2 }, DLNetworkInputSharder.getShardBatchSizes(6, 3));
+		assertArrayEquals(new long[] { 1, 1, 1, 1 }, DLNetworkInputSharder.getShardBatchSizes(4, 4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBatchSizeSmallerThanNumShardsIsRejected() {
+		DLNetworkInputSharder.getShardBatchSizes(3, 4);
+	}
+
+	@Test
+	public void testShardsReceiveDisjointPartsOfEachBatch() throws Exception {
+		final CountingProvider provider = new CountingProvider();
+		try (final DLNetworkInputSharder sharder = new DLNetworkInputSharder(provider,
+				Collections.singleton(m_spec), 2, m_tensorFactory)) {
+			assertEquals(3, sharder.getShardOffset(1));
+			// first batch contains the values 0 to 9, second batch 100 to 109
+			assertArrayEquals(new double[] { 0, 1, 2, 3, 4, 5 }, read(sharder.getShard(0).get(0)), 0d);
+			assertArrayEquals(new double[] { 100, 101, 102, 103, 104, 105 }, read(sharder.getShard(0).get(1)), 0d);
+			assertEquals(2, provider.m_numPreparedBatches);
+			assertEquals(2, sharder.getNumPendingBatches());
+			assertArrayEquals(new double[] { 6, 7, 8, 9 }, read(sharder.getShard(1).get(0)), 0d);
+			assertEquals(1, sharder.getNumPendingBatches());
+			assertArrayEquals(new double[] { 106, 107, 108, 109 }, read(sharder.getShard(1).get(1)), 0d);
+			assertEquals(0, sharder.getNumPendingBatches());
+			// every global batch is prepared only once
+			assertEquals(2, provider.m_numPreparedBatches);
+		}
+	}
+
+	private static double[] read(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		final DLReadableDoubleBuffer buffer = (DLReadableDoubleBuffer) input.get(INPUT_ID).getBuffer();
+		final double[] values = new double[(int) buffer.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = buffer.readNextDouble();
+		}
+		return values;
+	}
+
+	private final class CountingProvider implements DLNetworkInputProvider {
+
+		private final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_input = new HashMap<>();
+
+		private int m_numPreparedBatches;
+
+		private CountingProvider() {
+			m_input.put(INPUT_ID, m_tensorFactory.createWritableTensor(m_spec));
+		}
+
+		@Override
+		public long getNumBatches() {
+			return 2;
+		}
+
+		@Override
+		public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex) {
+			final DLWritableDoubleBuffer buffer = (DLWritableDoubleBuffer) m_input.get(INPUT_ID).getBuffer();
+			for (int i = 0; i < BATCH_SIZE * 2; i++) {
+				buffer.put(m_numPreparedBatches * 100d + i);
+			}
+			m_numPreparedBatches++;
+			return m_input;
+		}
+
+		@Override
+		public void close() {
+			m_input.values().forEach(DLTensor::close);
+		}
+	}
+}
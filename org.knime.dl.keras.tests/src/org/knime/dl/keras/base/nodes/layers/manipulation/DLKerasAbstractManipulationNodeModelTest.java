@@ -0,0 +1,217 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.layers.manipulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.knime.dl.keras.base.nodes.layers.manipulation.DLKerasAbstractManipulationNodeModel.OUTPUT_NETWORK_VAR;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.knime.core.data.filestore.FileStore;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+import org.knime.dl.core.DLNetworkFileStoreLocation;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.util.DLUtils;
+import org.knime.python2.testing.PreferencesSetup;
+
+/**
+ * Checks that manipulation nodes share the file store of their input network if the manipulation did not change the
+ * network, and save a new copy otherwise.
+ */
+public class DLKerasAbstractManipulationNodeModelTest {
+
+    private static final String BUNDLE_ID = "org.knime.dl.keras.tests";
+
+    @ClassRule
+    public static final TestRule preferencesSetup = new PreferencesSetup("org.knime.dl.keras.tests");
+
+    private ExecutionContext m_exec;
+
+    private DLKerasNetworkPortObject m_inputPortObject;
+
+    @Before
+    public void setUp() throws Exception {
+        m_exec = createExecutionContext();
+        // the input network must live in a file store to be shareable
+        final FileStore fileStore = m_exec.createFileStore("input_network.h5");
+        Files.copy(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/simple_test_model.h5").toPath(),
+            fileStore.getFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+        final DLPythonDefaultNetworkReader<DLKerasTensorFlowNetwork> reader =
+            new DLPythonDefaultNetworkReader<>(new DLKerasTensorFlowNetworkLoader());
+        try (final DLPythonContext context =
+            new DLKerasPythonContext(DLPythonPreferences.getPythonKerasCommandPreference())) {
+            final DLKerasTensorFlowNetwork network =
+                reader.read(new DLNetworkFileStoreLocation(fileStore), true, context, DLNotCancelable.INSTANCE);
+            m_inputPortObject = new DLKerasNetworkPortObject(network, fileStore);
+        }
+    }
+
+    @Test
+    public void testUnchangedNetworkSharesFileStore() throws Exception {
+        // freezes exactly the layers that are already frozen
+        final URI output = execute("for l in " + OUTPUT_NETWORK_VAR + ".layers:\n    l.trainable = l.trainable");
+        assertEquals(m_inputPortObject.getNetwork().getSource().getURI(), output);
+    }
+
+    @Test
+    public void testChangedNetworkIsSaved() throws Exception {
+        final URI output = execute("for l in " + OUTPUT_NETWORK_VAR + ".layers:\n    l.trainable = False");
+        assertNotEquals(m_inputPortObject.getNetwork().getSource().getURI(), output);
+        assertTrue("Manipulated network was not saved.", new File(output).length() > 0);
+    }
+
+    @Test
+    public void testNetworkWithWeightsModifiedInPlaceIsSaved() throws Exception {
+        // keeps the weight variables but changes their values
+        final URI output = execute("import keras.backend as K\n" //
+            + "for w in " + OUTPUT_NETWORK_VAR + ".weights:\n    K.set_value(w, K.get_value(w) + 1)");
+        assertNotEquals(m_inputPortObject.getNetwork().getSource().getURI(), output);
+        assertTrue("Manipulated network was not saved.", new File(output).length() > 0);
+    }
+
+    /**
+     * Runs the given manipulation on the input network and returns the location of the output network.
+     */
+    private URI execute(final String manipulationSourceCode) throws Exception {
+        final PortObject[] outputs =
+            new TestManipulationNodeModel(manipulationSourceCode).execute(new PortObject[]{m_inputPortObject}, m_exec);
+        return ((DLKerasNetworkPortObject)outputs[0]).getNetwork().getSource().getURI();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static ExecutionContext createExecutionContext() {
+        final NodeFactory<NodeModel> factory =
+            (NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(factory),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    private static final class TestManipulationNodeModel extends DLKerasAbstractManipulationNodeModel {
+
+        private final String m_manipulationSourceCode;
+
+        private TestManipulationNodeModel(final String manipulationSourceCode) {
+            m_manipulationSourceCode = manipulationSourceCode;
+        }
+
+        @Override
+        protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+            return inSpecs;
+        }
+
+        @Override
+        protected String createManipulationSourceCode(final DLKerasNetworkSpec networkSpec) {
+            return m_manipulationSourceCode;
+        }
+
+        @Override
+        protected void saveSettingsToDerived(final NodeSettingsWO settings) {
+            // no settings
+        }
+
+        @Override
+        protected void validateSettingsDerived(final NodeSettingsRO settings) throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void loadValidatedSettingsFromDerived(final NodeSettingsRO settings)
+            throws InvalidSettingsException {
+            // no settings
+        }
+
+        @Override
+        protected void reset() {
+            // nothing to do
+        }
+
+        @Override
+        protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+            // nothing to do
+        }
+
+        @Override
+        protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+            // nothing to do
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.util.Version;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Tests {@link DLKerasNetworkSpecReader}.
+ */
+public class DLKerasNetworkSpecReaderTest {
+
+    private static final String SEQUENTIAL_CONV_NETWORK = "{\"class_name\": \"Sequential\", \"config\": {\"name\": "
+        + "\"sequential_1\", \"layers\": [{\"class_name\": \"Conv2D\", \"config\": {\"name\": \"conv2d_1\", "
+        + "\"batch_input_shape\": [null, 28, 28, 1], \"dtype\": \"float32\", \"filters\": 32, \"kernel_size\": [3, 3], "
+        + "\"strides\": [1, 1], \"padding\": \"valid\", \"data_format\": \"channels_last\", "
+        + "\"dilation_rate\": [1, 1]}}, "
+        + "{\"class_name\": \"MaxPooling2D\", \"config\": {\"name\": \"max_pooling2d_1\", \"pool_size\": [2, 2], "
+        + "\"padding\": \"valid\", \"strides\": [2, 2], \"data_format\": \"channels_last\"}}, {\"class_name\": "
+        + "\"Flatten\", \"config\": {\"name\": \"flatten_1\", \"data_format\": \"channels_last\"}}, {\"class_name\": "
+        + "\"Dense\", \"config\": {\"name\": \"dense_1\", \"units\": 10}}]}, \"keras_version\": \"2.2.4\", "
+        + "\"backend\": \"tensorflow\"}";
+
+    private static final String FUNCTIONAL_LAMBDA_NETWORK = "{\"class_name\": \"Model\", \"config\": {\"name\": "
+        + "\"model_1\", \"layers\": [{\"name\": \"input_1\", \"class_name\": \"InputLayer\", \"config\": "
+        + "{\"batch_input_shape\": [null, 5], \"dtype\": \"float32\", \"name\": \"input_1\"}, \"inbound_nodes\": []}, "
+        + "{\"name\": \"lambda_1\", \"class_name\": \"Lambda\", \"config\": {\"name\": \"lambda_1\"}, "
+        + "\"inbound_nodes\": [[[\"input_1\", 0, 0, {}]]]}], \"input_layers\": [[\"input_1\", 0, 0]], "
+        + "\"output_layers\": [[\"lambda_1\", 0, 0]]}, \"keras_version\": \"2.2.4\", \"backend\": \"tensorflow\"}";
+
+    private static final String FUNCTIONAL_EMBEDDING_NETWORK = "{\"class_name\": \"Model\", \"config\": {\"name\": "
+        + "\"model_1\", \"layers\": [{\"name\": \"input_1\", \"class_name\": \"InputLayer\", \"config\": "
+        + "{\"batch_input_shape\": [null, 10], \"dtype\": \"int32\", \"name\": \"input_1\"}, \"inbound_nodes\": []}, "
+        + "{\"name\": \"embedding_1\", \"class_name\": \"Embedding\", \"config\": {\"name\": \"embedding_1\", "
+        + "\"input_dim\": 100, \"output_dim\": 8}, \"inbound_nodes\": [[[\"input_1\", 0, 0, {}]]]}], "
+        + "\"input_layers\": [[\"input_1\", 0, 0]], \"output_layers\": [[\"embedding_1\", 0, 0]]}, "
+        + "\"keras_version\": \"2.2.4\", \"backend\": \"tensorflow\"}";
+
+    @Rule
+    public TemporaryFolder m_tmp = new TemporaryFolder();
+
+    @Test
+    public void testReadFunctionalH5() throws Exception {
+        final File file =
+            DLUtils.Files.getFileFromSameBundle(DLKerasNetworkSpecReaderTest.class, "data/multi_in_out.h5");
+        final DLKerasNetworkSpecReader reader = DLKerasNetworkSpecReader.read(file);
+        assertEquals(0, reader.getKerasVersion().compareTo(new Version(2, 0, 5)));
+        final DLTensorSpec[] inputs = reader.getInputSpecs();
+        assertEquals(2, inputs.length);
+        assertSpec(inputs[0], "input_1_0:0", 10);
+        assertSpec(inputs[1], "input_2_0:0", 5);
+        final DLTensorSpec[] hidden = reader.getHiddenOutputSpecs();
+        assertEquals(3, hidden.length);
+        assertSpec(hidden[0], "input_1_0:0", 10);
+        assertSpec(hidden[1], "input_2_0:0", 5);
+        assertSpec(hidden[2], "concatenate_1_0:0", 15);
+        final DLTensorSpec[] outputs = reader.getOutputSpecs();
+        assertEquals(2, outputs.length);
+        assertSpec(outputs[0], "dense_1_0:0", 1);
+        assertSpec(outputs[1], "dense_2_0:0", 5);
+    }
+
+    @Test
+    public void testReadSequentialJson() throws Exception {
+        final DLKerasNetworkSpecReader reader = DLKerasNetworkSpecReader.read(writeJson(SEQUENTIAL_CONV_NETWORK));
+        assertEquals(0, reader.getKerasVersion().compareTo(new Version(2, 2, 4)));
+        final DLTensorSpec[] inputs = reader.getInputSpecs();
+        assertEquals(1, inputs.length);
+        assertSpec(inputs[0], "conv2d_1_0:0", 28, 28, 1);
+        final DLTensorSpec[] hidden = reader.getHiddenOutputSpecs();
+        assertEquals(3, hidden.length);
+        assertSpec(hidden[0], "conv2d_1_0:0", 26, 26, 32);
+        assertSpec(hidden[1], "max_pooling2d_1_0:0", 13, 13, 32);
+        assertSpec(hidden[2], "flatten_1_0:0", 5408);
+        final DLTensorSpec[] outputs = reader.getOutputSpecs();
+        assertEquals(1, outputs.length);
+        assertSpec(outputs[0], "dense_1_0:0", 10);
+    }
+
+    @Test
+    public void testEmbeddingOfIntegerInputOutputsFloats() throws Exception {
+        // The embedding does not specify its data type and therefore computes in floatx instead of int32.
+        final DLKerasNetworkSpecReader reader = DLKerasNetworkSpecReader.read(writeJson(FUNCTIONAL_EMBEDDING_NETWORK));
+        final DLTensorSpec[] inputs = reader.getInputSpecs();
+        assertEquals(1, inputs.length);
+        assertEquals("input_1_0:0", inputs[0].getIdentifier().getIdentifierString());
+        assertEquals(int.class, inputs[0].getElementType());
+        final DLTensorSpec[] outputs = reader.getOutputSpecs();
+        assertEquals(1, outputs.length);
+        assertSpec(outputs[0], "embedding_1_0:0", 10, 8);
+    }
+
+    @Test(expected = DLInvalidSourceException.class)
+    public void testRejectMalformedJson() throws Exception {
+        DLKerasNetworkSpecReader.read(writeJson("{\"class_name\": \"Model\", \"config\": "));
+    }
+
+    @Test(expected = DLInvalidSourceException.class)
+    public void testRejectSequentialInCompatibilityMode() throws Exception {
+        DLKerasNetworkSpecReader
+            .read(DLUtils.Files.getFileFromSameBundle(DLKerasNetworkSpecReaderTest.class, "data/simple_test_model.h5"));
+    }
+
+    @Test(expected = DLInvalidSourceException.class)
+    public void testRejectUnsupportedLayer() throws Exception {
+        DLKerasNetworkSpecReader.read(writeJson(FUNCTIONAL_LAMBDA_NETWORK));
+    }
+
+    private File writeJson(final String json) throws IOException {
+        final File file = m_tmp.newFile("network.json");
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void assertSpec(final DLTensorSpec spec, final String id, final long... shape) {
+        assertEquals(id, spec.getIdentifier().getIdentifierString());
+        assertFalse(spec.getBatchSize().isPresent());
+        assertArrayEquals(shape, DLUtils.Shapes.getFixedShape(spec.getShape()).get());
+        assertEquals(float.class, spec.getElementType());
+        assertEquals(DLDimensionOrder.TDHWC, spec.getDimensionOrder());
+    }
+}
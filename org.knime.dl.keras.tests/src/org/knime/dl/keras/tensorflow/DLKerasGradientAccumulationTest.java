@@ -0,0 +1,137 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.tensorflow;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.testing.PreferencesSetup;
+
+/**
+ * Tests the accumulation of gradients over several batches (DLKerasGradientAccumulation.py) by comparing against
+ * training with correspondingly larger batches.
+ */
+public class DLKerasGradientAccumulationTest {
+
+    @ClassRule
+    public static final TestRule preferencesSetup = new PreferencesSetup("org.knime.dl.keras.tests");
+
+    private static final String SETUP = DLPythonUtils.createSourceCodeBuilder() //
+        .a("import numpy as np") //
+        .n("import keras") //
+        .n("from keras import backend as K") //
+        .n("from keras.layers import Dense, Input") //
+        .n("from keras.models import Model") //
+        .n("import DLKerasGradientAccumulation") //
+        .n("def create_model():") //
+        .n("    inputs = Input((3,))") //
+        .n("    return Model(inputs, Dense(1, kernel_initializer='ones', bias_initializer='zeros')(inputs))") //
+        .n("def train_accumulated(x, y, batch_size, steps):") //
+        .n("    model = create_model()") //
+        .n("    optimizer = DLKerasGradientAccumulation.accumulate_gradients(keras.optimizers.SGD(), steps, ") //
+        .a("model.trainable_weights)") //
+        .n("    model.compile(loss='mse', optimizer=optimizer)") //
+        .n("    callback = DLKerasGradientAccumulation.DLKerasGradientAccumulationCallback(optimizer)") //
+        .n("    model.fit(x, y, batch_size=batch_size, epochs=1, shuffle=False, verbose=0, callbacks=[callback])") //
+        .n("    return model") //
+        .n("def assert_same_weights(model, reference):") //
+        .n("    assert not np.allclose(model.get_weights()[0], 1), 'The model was not trained.'") //
+        .n("    assert all(np.allclose(w, r) for w, r in zip(model.get_weights(), reference.get_weights())), ") //
+        .a("'Unexpected weights: ' + str(model.get_weights()) + ', expected: ' + str(reference.get_weights())") //
+        .n("x = np.arange(18, dtype=np.float32).reshape((6, 3)) / 10") //
+        .n("y = np.arange(6, dtype=np.float32).reshape((6, 1))") //
+        .n("reference = create_model()") //
+        .n("reference.compile(loss='mse', optimizer=keras.optimizers.SGD())") //
+        .toString();
+
+    private DLPythonContext m_context;
+
+    @Before
+    public void createContext() {
+        m_context = new DLKerasPythonContext(DLPythonPreferences.getPythonKerasCommandPreference());
+    }
+
+    @After
+    public void closeContext() {
+        m_context.close();
+    }
+
+    @Test
+    public void testAccumulatedBatchesEqualLargerBatch() throws Exception {
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a(SETUP) //
+            .n("names = ['gradients', 'update', 'update_add', 'update_sub']") //
+            .n("backend_functions = [getattr(K, n, None) for n in names]") //
+            .n("model = train_accumulated(x[:4], y[:4], 2, 2)") //
+            .n("assert [getattr(K, n, None) for n in names] == backend_functions, ") //
+            .a("'The back end must not be modified.'") //
+            .n("reference.fit(x[:4], y[:4], batch_size=4, epochs=1, shuffle=False, verbose=0)") //
+            .n("assert_same_weights(model, reference)") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+
+    @Test
+    public void testRemainingBatchesAreAppliedAtEpochEnd() throws Exception {
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a(SETUP) //
+            // two accumulated batches, followed by a single remaining one
+            .n("model = train_accumulated(x, y, 2, 2)") //
+            .n("reference.fit(x[:4], y[:4], batch_size=4, epochs=1, shuffle=False, verbose=0)") //
+            .n("reference.fit(x[4:], y[4:], batch_size=2, epochs=1, shuffle=False, verbose=0)") //
+            .n("assert_same_weights(model, reference)") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+}
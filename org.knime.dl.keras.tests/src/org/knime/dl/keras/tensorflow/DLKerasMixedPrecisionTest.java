@@ -0,0 +1,184 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.tensorflow;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.testing.PreferencesSetup;
+
+/**
+ * Tests the conversion of Keras models for mixed-precision training (DLKerasMixedPrecision.py) and its fallback to
+ * float32.
+ */
+public class DLKerasMixedPrecisionTest {
+
+    @ClassRule
+    public static final TestRule preferencesSetup = new PreferencesSetup("org.knime.dl.keras.tests");
+
+    private static final String CREATE_MODEL = DLPythonUtils.createSourceCodeBuilder() //
+        .a("import numpy as np") //
+        .n("import keras") //
+        .n("from keras.layers import Dense, Input") //
+        .n("from keras.models import Model") //
+        .n("import DLKerasMixedPrecision") //
+        .n("inputs = Input((3,))") //
+        .n("hidden = Dense(4, name='hidden')(inputs)") //
+        .n("model = Model(inputs, Dense(2, name='output')(hidden))") //
+        .toString();
+
+    private DLPythonContext m_context;
+
+    @Before
+    public void createContext() {
+        m_context = new DLKerasPythonContext(DLPythonPreferences.getPythonKerasCommandPreference());
+    }
+
+    @After
+    public void closeContext() {
+        m_context.close();
+    }
+
+    @Test
+    public void testConvertsToMixedPrecision() throws Exception {
+        final String supportedCode = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import keras") //
+            .n("import pandas as pd") //
+            .n("global supported") //
+            .n("supported = pd.DataFrame(data=[hasattr(getattr(keras, 'mixed_precision', None), ") //
+            .a("'LossScaleOptimizer')])") //
+            .toString();
+        m_context.executeInKernel(supportedCode, DLNotCancelable.INSTANCE);
+        final ExecutionContext exec = createExecutionContext();
+        Assume.assumeTrue("The installed Keras version does not support mixed precision.",
+            ((BooleanValue)m_context.getKernel().getDataTable("supported", exec, exec).iterator().next().getCell(0))
+                .getBooleanValue());
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a(CREATE_MODEL) //
+            // reduced-precision arithmetic is emulated on the CPU, which suffices to test the conversion
+            .n("is_gpu_available = DLKerasMixedPrecision._is_gpu_available") //
+            .n("DLKerasMixedPrecision._is_gpu_available = lambda: True") //
+            .n("try:") //
+            .n("    mixed, input_dtype = DLKerasMixedPrecision.create_mixed_precision_model(model, ") //
+            .a("DLKerasMixedPrecision.POLICY_FLOAT16)") //
+            .n("finally:") //
+            .n("    DLKerasMixedPrecision._is_gpu_available = is_gpu_available") //
+            .n("assert mixed is not model, 'The model was not converted.'") //
+            .n("assert input_dtype == np.float16, 'Unexpected input dtype: ' + str(input_dtype)") //
+            .n("assert mixed.get_layer('hidden')._compute_dtype == 'float16', ") //
+            .a("'Hidden layers must compute in float16.'") //
+            // output layers keep computing in float32 for numerical stability
+            .n("assert mixed.get_layer('output')._compute_dtype == 'float32', ") //
+            .a("'Output layers must compute in float32.'") //
+            .n("assert model.get_layer('hidden')._compute_dtype == 'float32', ") //
+            .a("'The converted model must not be affected.'") //
+            .n("assert all(w.dtype == np.float32 for w in mixed.get_weights()), ") //
+            .a("'Master weights must be kept in float32.'") //
+            .n("assert all(np.array_equal(m, w) for m, w in zip(mixed.get_weights(), model.get_weights())), ") //
+            .a("'The converted model must start with the weights of the model.'") //
+            .n("prediction = mixed.predict(np.ones((2, 3), dtype=input_dtype))") //
+            .n("assert prediction.dtype == np.float32, 'Unexpected output dtype: ' + str(prediction.dtype)") //
+            .n("optimizer = DLKerasMixedPrecision.wrap_optimizer(keras.optimizers.SGD(), ") //
+            .a("DLKerasMixedPrecision.POLICY_FLOAT16)") //
+            .n("assert isinstance(optimizer, keras.mixed_precision.LossScaleOptimizer), ") //
+            .a("'float16 training requires loss scaling.'") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+
+    @Test
+    public void testFallsBackWithoutLossScaleOptimizer() throws Exception {
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a(CREATE_MODEL) //
+            .n("import types") //
+            .n("import warnings") //
+            // mimics a Keras version that predates mixed-precision training
+            .n("mixed_precision = getattr(keras, 'mixed_precision', None)") //
+            .n("keras.mixed_precision = types.SimpleNamespace()") //
+            .n("try:") //
+            .n("    with warnings.catch_warnings(record=True) as caught:") //
+            .n("        warnings.simplefilter('always')") //
+            .n("        converted, input_dtype = DLKerasMixedPrecision.create_mixed_precision_model(model, ") //
+            .a("DLKerasMixedPrecision.POLICY_FLOAT16)") //
+            .n("finally:") //
+            .n("    if mixed_precision is None:") //
+            .n("        del keras.mixed_precision") //
+            .n("    else:") //
+            .n("        keras.mixed_precision = mixed_precision") //
+            .n("assert converted is model, 'Training must fall back to the unconverted model.'") //
+            .n("assert input_dtype is None, 'Unexpected input dtype: ' + str(input_dtype)") //
+            .n("assert any('float32' in str(w.message) for w in caught), 'The fallback was not reported.'") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static ExecutionContext createExecutionContext() {
+        final NodeFactory<NodeModel> factory =
+            (NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(factory),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+}
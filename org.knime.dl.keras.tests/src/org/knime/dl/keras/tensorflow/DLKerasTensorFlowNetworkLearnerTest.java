@@ -48,6 +48,12 @@
  */
 package org.knime.dl.keras.tensorflow;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Collections;
@@ -63,6 +69,15 @@
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
 import org.knime.core.util.FileUtil;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidNetworkInputException;
@@ -75,6 +90,7 @@
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
 import org.knime.dl.core.training.DLTrainingMonitor;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
 import org.knime.dl.keras.core.DLKerasPythonContext;
 import org.knime.dl.keras.core.training.DLKerasCallback;
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingConfig;
@@ -89,6 +105,7 @@
 import org.knime.dl.keras.tensorflow.core.training.DLKerasTensorFlowNetworkTrainingSession;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
+import org.knime.dl.python.util.DLPythonUtils;
 import org.knime.dl.python.prefs.DLPythonPreferences;
 import org.knime.dl.testing.DLTestTrainingMonitor;
 import org.knime.dl.util.DLUtils;
@@ -279,6 +296,305 @@ public void close() throws Exception {
 		}
 	}
 
+	@Test
+	public void testDataParallelOnLogicalCpus() throws Exception {
+		final URL source = FileUtil
+				.toURL(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/simple_test_model.h5").getAbsolutePath());
+		final DLKerasTensorFlowDefaultTrainingContext ctx = new DLKerasTensorFlowDefaultTrainingContext();
+		final DLPythonDefaultNetworkReader<DLKerasTensorFlowNetwork> reader = new DLPythonDefaultNetworkReader<>(
+				new DLKerasTensorFlowNetworkLoader());
+        final DLKerasTensorFlowNetwork network =
+            reader.read(new DLNetworkReferenceLocation(source.toURI()), true, m_context, DLNotCancelable.INSTANCE);
+
+		final int dataSetSize = 12;
+		// not a multiple of the number of replicas, the last replica takes the remainder
+		final int batchSize = 3;
+		final int numReplicas = 2;
+
+		final DLTensorSpec inputSpec = network.getSpec().getInputSpecs()[0];
+		final DLTensorSpec targetSpec = network.getSpec().getOutputSpecs()[0];
+
+		final Set<DLTensorSpec> executionInputSpecs = new HashSet<>(Arrays.asList(
+				ctx.getTensorFactory().createExecutionTensorSpec(inputSpec, batchSize,
+						DLUtils.Shapes.getFixedShape(inputSpec.getShape()).get()),
+				ctx.getTensorFactory().createExecutionTensorSpec(targetSpec, batchSize,
+						DLUtils.Shapes.getFixedShape(targetSpec.getShape()).get())));
+
+		// training:
+
+		final int epochs = 2;
+		final DLKerasOptimizer optimizer = ctx.createOptimizers().iterator().next();
+		final DLKerasLossFunction loss = ctx.createLossFunctions().iterator().next();
+        final Map<DLTensorId, DLKerasLossFunction> losses = new HashMap<>(network.getSpec().getOutputSpecs().length);
+		for (int i = 0; i < network.getSpec().getOutputSpecs().length; i++) {
+            losses.put(network.getSpec().getOutputSpecs()[i].getIdentifier(), loss);
+		}
+
+		final List<DLKerasCallback> callbacks = Collections.emptyList();
+		final DLKerasTrainingConfig config = new DLKerasDefaultTrainingConfig(epochs, batchSize, null, optimizer,
+				losses, callbacks, numReplicas, true);
+		final DLTrainingMonitor<DLKerasTrainingStatus> monitor = new DLTestTrainingMonitor<>(
+				new DLKerasDefaultTrainingStatus(1, dataSetSize / batchSize));
+
+        try (final DLKerasTensorFlowNetworkTrainingSession session = ctx.createTrainingSession(m_context, network,
+            config, executionInputSpecs, createInputPreparer(dataSetSize, batchSize), null)) {
+			session.run(monitor);
+			// The network was fit through one replica per logical CPU device, each of which received its slice of
+			// every global batch.
+			final String assertReplicatedCode = DLPythonUtils.createSourceCodeBuilder() //
+					.n("import numpy as np") //
+					.n("from keras import backend as K") //
+					.n("from keras.layers import Lambda") //
+					.n("from keras.models import load_model") //
+					.n("import DLPythonNetwork") //
+					.n("networks = [n for n in DLPythonNetwork._networks.values() ") //
+					.a("if getattr(n, 'training_model', None) is not None]") //
+					.n("assert len(networks) == 1, 'Expected exactly one trained network.'") //
+					.n("network = networks[0]") //
+					.n("training_model = network.training_model") //
+					.n("slices = [l for l in training_model.layers if isinstance(l, Lambda)]") //
+					.n("assert len(slices) == ").a(numReplicas) //
+					.a(", 'Expected one input slice per replica, got ' + str(len(slices)) + '.'") //
+					.n("devices = set(l.output.device for l in slices)") //
+					.n("assert len(devices) == ").a(numReplicas) //
+					.a(", 'Expected replicas on distinct devices, got ' + str(devices) + '.'") //
+					.n("batch = [np.full((").a(batchSize).a(",) + K.int_shape(x)[1:], 5, dtype=K.dtype(x)) ") //
+					.a("for x in training_model.inputs]") //
+					.n("sizes = sorted(len(y) for y in ") //
+					.a("K.function(training_model.inputs, [l.output for l in slices])(batch))") //
+					// batch size 3 is split into one example for the first and the remainder for the last replica
+					.n("assert sizes == [1, 2], ") //
+					.a("'Expected global batches to be split, got slices of ' + str(sizes) + '.'") //
+					.n("initial_weights = load_model(").asr(new File(source.toURI()).getAbsolutePath()) //
+					.a(", compile=False).get_weights()") //
+					.n("assert any(not np.allclose(w, i) ") //
+					.a("for w, i in zip(network.model.get_weights(), initial_weights)), ") //
+					.a("'Training did not change the weights of the network.'") //
+					// the network itself is saved along with the optimizer that trained the replicas
+					.n("assert network.model.optimizer is training_model.optimizer, ") //
+					.a("'The network was not compiled with the optimizer of the replicated model.'") //
+					.toString();
+			m_context.executeInKernel(assertReplicatedCode, DLNotCancelable.INSTANCE);
+		}
+	}
+
+	@Test
+	public void testParameterAveragingInMultipleKernels() throws Exception {
+		final URL source = FileUtil
+				.toURL(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/simple_test_model.h5").getAbsolutePath());
+		final DLKerasTensorFlowDefaultTrainingContext ctx = new DLKerasTensorFlowDefaultTrainingContext();
+		final DLPythonDefaultNetworkReader<DLKerasTensorFlowNetwork> reader = new DLPythonDefaultNetworkReader<>(
+				new DLKerasTensorFlowNetworkLoader());
+        final DLKerasTensorFlowNetwork network =
+            reader.read(new DLNetworkReferenceLocation(source.toURI()), true, m_context, DLNotCancelable.INSTANCE);
+
+		final int dataSetSize = 12;
+		// not a multiple of the number of kernels, the first kernel takes the remainder
+		final int batchSize = 3;
+		final int numKernels = 2;
+		// the last batches of the first two epochs are not followed by a synchronization but the last batch of training
+		// is, such that all replicas share the same weights when the final synchronization takes place
+		final int syncInterval = 3;
+
+		final DLTensorSpec inputSpec = network.getSpec().getInputSpecs()[0];
+		final DLTensorSpec targetSpec = network.getSpec().getOutputSpecs()[0];
+
+		final Set<DLTensorSpec> executionInputSpecs = new HashSet<>(Arrays.asList(
+				ctx.getTensorFactory().createExecutionTensorSpec(inputSpec, batchSize,
+						DLUtils.Shapes.getFixedShape(inputSpec.getShape()).get()),
+				ctx.getTensorFactory().createExecutionTensorSpec(targetSpec, batchSize,
+						DLUtils.Shapes.getFixedShape(targetSpec.getShape()).get())));
+
+		// training:
+
+		final int epochs = 3;
+		final DLKerasOptimizer optimizer = ctx.createOptimizers().iterator().next();
+		final DLKerasLossFunction loss = ctx.createLossFunctions().iterator().next();
+        final Map<DLTensorId, DLKerasLossFunction> losses = new HashMap<>(network.getSpec().getOutputSpecs().length);
+		for (int i = 0; i < network.getSpec().getOutputSpecs().length; i++) {
+            losses.put(network.getSpec().getOutputSpecs()[i].getIdentifier(), loss);
+		}
+
+		final List<DLKerasCallback> callbacks = Collections.emptyList();
+		final DLKerasTrainingConfig config = new DLKerasDefaultTrainingConfig(epochs, batchSize, null, optimizer,
+				losses, callbacks);
+		final DLTrainingMonitor<DLKerasTrainingStatus> monitor = new DLTestTrainingMonitor<>(
+				new DLKerasDefaultTrainingStatus(epochs, dataSetSize / batchSize));
+
+        try (final DLKerasTensorFlowNetworkTrainingSession session = ctx.createTrainingSession(m_context, network,
+            config, executionInputSpecs, createInputPreparer(dataSetSize, batchSize), null)) {
+			session.setParameterAveraging(numKernels, syncInterval,
+					() -> new DLKerasPythonContext(DLPythonPreferences.getPythonKerasCommandPreference()));
+			session.run(monitor);
+			// The workers received the averaged weights at the last synchronization and sent them back unchanged at
+			// the final one, all replicas must thus agree on the trained weights.
+			final String assertAveragedCode = DLPythonUtils.createSourceCodeBuilder() //
+					.n("import numpy as np") //
+					.n("from keras.models import load_model") //
+					.n("import DLPythonNetwork") //
+					.n("from DLKerasParameterAveraging import DLKerasParameterAveragingServer") //
+					.n("servers = [c for n in DLPythonNetwork._networks.values() ") //
+					.a("for c in n.spec.training_config.callbacks ") //
+					.a("if isinstance(c, DLKerasParameterAveragingServer)]") //
+					.n("assert len(servers) == 1, 'Expected exactly one parameter averaging server.'") //
+					.n("server = servers[0]") //
+					.n("weights = server.model.get_weights()") //
+					.n("assert len(server.worker_weights) == ").a(numKernels - 1) //
+					.a(", 'Expected weights of ' + str(").a(numKernels - 1).a(") + ' workers.'") //
+					.n("for worker_weights in server.worker_weights:") //
+					.n("    assert all(np.allclose(w, v) for w, v in zip(weights, worker_weights)), ") //
+					.a("'Replicas do not agree on the weights after synchronization.'") //
+					.n("initial_weights = load_model(").asr(new File(source.toURI()).getAbsolutePath()) //
+					.a(", compile=False).get_weights()") //
+					.n("assert any(not np.allclose(w, i) for w, i in zip(weights, initial_weights)), ") //
+					.a("'Training did not change the weights of the network.'") //
+					.toString();
+			m_context.executeInKernel(assertAveragedCode, DLNotCancelable.INSTANCE);
+		}
+	}
+
+	@Test
+	public void testTrainedNetworkIsSavedInBackground() throws Exception {
+		final URL source = FileUtil
+				.toURL(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/simple_test_model.h5").getAbsolutePath());
+		final DLPythonDefaultNetworkReader<DLKerasTensorFlowNetwork> reader = new DLPythonDefaultNetworkReader<>(
+				new DLKerasTensorFlowNetworkLoader());
+        final DLKerasTensorFlowNetwork network =
+            reader.read(new DLNetworkReferenceLocation(source.toURI()), true, m_context, DLNotCancelable.INSTANCE);
+		final DLKerasNetworkPortObject portObject = trainAndRetrieveNetwork(network, null);
+		// awaits the pending save
+		final DLKerasTensorFlowNetwork trainedNetwork = (DLKerasTensorFlowNetwork) portObject.getNetwork();
+		final File savedFile = new File(trainedNetwork.getSource().getURI());
+		assertTrue("Trained network was not saved.", savedFile.length() > 0);
+		final DLKerasTensorFlowNetwork readNetwork =
+				reader.read(trainedNetwork.getSource(), true, m_context, DLNotCancelable.INSTANCE);
+		assertArrayEquals(network.getSpec().getInputSpecs(), readNetwork.getSpec().getInputSpecs());
+		assertArrayEquals(network.getSpec().getOutputSpecs(), readNetwork.getSpec().getOutputSpecs());
+	}
+
+	@Test
+	public void testFailedBackgroundSaveIsReported() throws Exception {
+		final URL source = FileUtil
+				.toURL(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/simple_test_model.h5").getAbsolutePath());
+		final DLPythonDefaultNetworkReader<DLKerasTensorFlowNetwork> reader = new DLPythonDefaultNetworkReader<>(
+				new DLKerasTensorFlowNetworkLoader());
+        final DLKerasTensorFlowNetwork network =
+            reader.read(new DLNetworkReferenceLocation(source.toURI()), true, m_context, DLNotCancelable.INSTANCE);
+		final String failSaveCode = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLKerasNetwork") //
+				.n("def failing_save(self, path):") //
+				.n("    raise RuntimeError('Disk full.')") //
+				.n("DLKerasNetwork.DLKerasNetwork.save = failing_save") //
+				.toString();
+		final DLKerasNetworkPortObject portObject = trainAndRetrieveNetwork(network, failSaveCode);
+		try {
+			portObject.getNetwork();
+			fail("A failed save of the trained network must be reported when accessing the network.");
+		} catch (final IOException e) {
+			assertTrue("Unexpected message: " + e.getMessage(), e.getMessage().contains("Disk full."));
+		}
+	}
+
+	/**
+	 * Trains the given network for one epoch in a dedicated session and retrieves the trained network, whose save may
+	 * still be pending. The given code, if non-<code>null</code>, is executed in the session's kernel before.
+	 */
+	private DLKerasNetworkPortObject trainAndRetrieveNetwork(final DLKerasTensorFlowNetwork network,
+			final String beforeRetrievalCode) throws Exception {
+		final DLKerasTensorFlowDefaultTrainingContext ctx = new DLKerasTensorFlowDefaultTrainingContext();
+		final int dataSetSize = 10;
+		final int batchSize = 1;
+
+		final DLTensorSpec inputSpec = network.getSpec().getInputSpecs()[0];
+		final DLTensorSpec targetSpec = network.getSpec().getOutputSpecs()[0];
+
+		final Set<DLTensorSpec> executionInputSpecs = new HashSet<>(Arrays.asList(
+				ctx.getTensorFactory().createExecutionTensorSpec(inputSpec, batchSize,
+						DLUtils.Shapes.getFixedShape(inputSpec.getShape()).get()),
+				ctx.getTensorFactory().createExecutionTensorSpec(targetSpec, batchSize,
+						DLUtils.Shapes.getFixedShape(targetSpec.getShape()).get())));
+
+		// training:
+
+		final int epochs = 1;
+		final DLKerasOptimizer optimizer = ctx.createOptimizers().iterator().next();
+		final DLKerasLossFunction loss = ctx.createLossFunctions().iterator().next();
+        final Map<DLTensorId, DLKerasLossFunction> losses = new HashMap<>(network.getSpec().getOutputSpecs().length);
+		for (int i = 0; i < network.getSpec().getOutputSpecs().length; i++) {
+            losses.put(network.getSpec().getOutputSpecs()[i].getIdentifier(), loss);
+		}
+
+		final List<DLKerasCallback> callbacks = Collections.emptyList();
+		final DLKerasTrainingConfig config = new DLKerasDefaultTrainingConfig(epochs, batchSize, null, optimizer,
+				losses, callbacks);
+		final DLTrainingMonitor<DLKerasTrainingStatus> monitor = new DLTestTrainingMonitor<>(
+				new DLKerasDefaultTrainingStatus(epochs, dataSetSize / batchSize));
+
+		// The session takes ownership of its context once the trained network is retrieved, see below.
+		final DLPythonContext sessionContext =
+				new DLKerasPythonContext(DLPythonPreferences.getPythonKerasCommandPreference());
+		final DLKerasNetworkPortObject portObject;
+		try (final DLKerasTensorFlowNetworkTrainingSession session = ctx.createTrainingSession(sessionContext,
+				network, config, executionInputSpecs, createInputPreparer(dataSetSize, batchSize), null)) {
+			session.run(monitor);
+			if (beforeRetrievalCode != null) {
+				sessionContext.executeInKernel(beforeRetrievalCode, DLNotCancelable.INSTANCE);
+			}
+			portObject = (DLKerasNetworkPortObject) session.getTrainedNetwork(createExecutionContext());
+			// closing the session (and its context) is deferred until the network has been saved
+		}
+		return portObject;
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static ExecutionContext createExecutionContext() {
+		final NodeFactory<NodeModel> factory =
+				(NodeFactory) new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+		return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(factory),
+				SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+	}
+
+	/**
+	 * Creates an input preparer that provides <code>dataSetSize / batchSize</code> batches, each of which is populated
+	 * via {@link #populate(DLTensor)}.
+	 */
+	private static DLNetworkFixedSizeInputPreparer createInputPreparer(final int dataSetSize, final int batchSize) {
+		return new DLNetworkFixedSizeInputPreparer() {
+
+			private long m_currentBatch = 0;
+
+			@Override
+			public boolean hasNext() {
+				return m_currentBatch < getNumBatches();
+			}
+
+			@Override
+			public long getNumBatches() {
+				return dataSetSize / batchSize;
+			}
+
+			@Override
+			public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+					throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+				prepare(input, m_currentBatch);
+				m_currentBatch++;
+			}
+
+			@Override
+			public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input,
+					final long batchIndex) throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+				for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+					populate(tensor);
+				}
+			}
+
+			@Override
+			public void close() throws Exception {
+				// no op
+			}
+		};
+	}
+
 	private static void populate(final DLTensor<?> data) {
 		if (data.getBuffer() instanceof DLWritableFloatBuffer) {
 			final DLWritableFloatBuffer buffer = (DLWritableFloatBuffer) data.getBuffer();
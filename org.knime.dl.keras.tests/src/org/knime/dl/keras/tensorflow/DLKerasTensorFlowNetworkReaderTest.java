@@ -48,6 +48,7 @@
  */
 package org.knime.dl.keras.tensorflow;
 
+import java.io.File;
 import java.net.URL;
 
 import org.junit.After;
@@ -64,6 +65,7 @@
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
 import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.python.util.DLPythonUtils;
 import org.knime.dl.util.DLUtils;
 import org.knime.python2.testing.PreferencesSetup;
 
@@ -99,4 +101,37 @@ public void test() throws Exception {
         reader.read(new DLNetworkReferenceLocation(source.toURI()), true, m_context, DLNotCancelable.INSTANCE);
 		// TODO: test against known specs
 	}
+
+	@Test
+	public void testLazyReadThenSaveKeepsTrainingConfig() throws Exception {
+		final File directory = FileUtil.createTempDir("knime-dl-keras-lazy-read-test");
+		try {
+			final String code = DLPythonUtils.createSourceCodeBuilder() //
+					.a("import os") //
+					.n("import h5py") //
+					.n("import numpy as np") //
+					.n("from keras.layers import Dense, Input") //
+					.n("from keras.models import Model") //
+					.n("from DLKerasTensorFlowNetwork import DLKerasTensorFlowNetworkReader") //
+					.n("directory = ").asr(directory.getAbsolutePath()) //
+					.n("source = os.path.join(directory, 'source.h5')") //
+					.n("target = os.path.join(directory, 'target.h5')") //
+					.n("inputs = Input((3,))") //
+					.n("model = Model(inputs, Dense(2)(inputs))") //
+					.n("model.compile(optimizer='adam', loss='mse')") //
+					// fitting creates the state of the optimizer
+					.n("model.fit(np.zeros((4, 3)), np.zeros((4, 2)), verbose=0)") //
+					.n("model.save(source)") //
+					.n("network = DLKerasTensorFlowNetworkReader().read(source, compile=True, lazy=True)") //
+					// the model is not accessed before saving, i.e. the training config is not loaded yet
+					.n("network.save(target)") //
+					.n("with h5py.File(target, mode='r') as f:") //
+					.n("    assert 'training_config' in f.attrs, 'Training configuration was not saved.'") //
+					.n("    assert 'optimizer_weights' in f, 'State of the optimizer was not saved.'") //
+					.toString();
+			m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+		} finally {
+			FileUtil.deleteRecursively(directory);
+		}
+	}
 }
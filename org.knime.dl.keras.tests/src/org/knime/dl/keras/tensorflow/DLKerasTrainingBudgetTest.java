@@ -0,0 +1,149 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.tensorflow;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.testing.PreferencesSetup;
+
+/**
+ * Tests the training budget callback (DLKerasTrainingBudget in DLKerasTrainingCallbacks.py): its stop reasons and the
+ * restoring of the weights of the best epoch.
+ */
+public class DLKerasTrainingBudgetTest {
+
+    @ClassRule
+    public static final TestRule preferencesSetup = new PreferencesSetup("org.knime.dl.keras.tests");
+
+    private static final String SETUP = DLPythonUtils.createSourceCodeBuilder() //
+        .a("import numpy as np") //
+        .n("from keras.callbacks import LambdaCallback") //
+        .n("from keras.layers import Dense, Input") //
+        .n("from keras.models import Model") //
+        .n("import DLKerasTrainingCallbacks") //
+        .n("def create_model():") //
+        .n("    inputs = Input((3,))") //
+        .n("    model = Model(inputs, Dense(1)(inputs))") //
+        .n("    model.compile(loss='mse', optimizer='sgd')") //
+        .n("    return model") //
+        .n("def train(budget, epochs, callbacks=()):") //
+        .n("    messages = []") //
+        .n("    budget.send_to_java = lambda *message: messages.append(message)") //
+        .n("    history = model.fit(x, y, batch_size=2, epochs=epochs, shuffle=False, verbose=0, ") //
+        .a("callbacks=list(callbacks) + [budget])") //
+        .n("    return len(history.epoch), messages") //
+        .n("x = np.arange(24, dtype=np.float32).reshape((8, 3)) / 10") //
+        .n("y = np.arange(8, dtype=np.float32).reshape((8, 1))") //
+        .n("model = create_model()") //
+        .toString();
+
+    private DLPythonContext m_context;
+
+    @Before
+    public void createContext() {
+        m_context = new DLKerasPythonContext(DLPythonPreferences.getPythonKerasCommandPreference());
+    }
+
+    @After
+    public void closeContext() {
+        m_context.close();
+    }
+
+    @Test
+    public void testStopReasons() throws Exception {
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a(SETUP) //
+            // four batches per epoch
+            .n("result = train(DLKerasTrainingCallbacks.DLKerasTrainingBudget(max_batches=3), 5)") //
+            .n("assert result == (1, [('training_budget', 'max_batches')]), str(result)") //
+            .n("result = train(DLKerasTrainingCallbacks.DLKerasTrainingBudget(max_time=1e-9), 5)") //
+            .n("assert result == (1, [('training_budget', 'max_time')]), str(result)") //
+            .n("result = train(DLKerasTrainingCallbacks.DLKerasTrainingBudget(target=1e9), 5)") //
+            .n("assert result == (1, [('training_budget', 'target_reached')]), str(result)") //
+            // a budget that is not exhausted neither stops the training nor reports anything
+            .n("result = train(DLKerasTrainingCallbacks.DLKerasTrainingBudget(max_time=3600, max_batches=100), 2)") //
+            .n("assert result == (2, []), str(result)") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+
+    @Test
+    public void testRestoresWeightsOfBestEpoch() throws Exception {
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a(SETUP) //
+            // pretend that the second of the three epochs has the lowest loss
+            .n("losses = [3.0, 1.0, 2.0]") //
+            .n("fake_loss = LambdaCallback(on_epoch_end=lambda epoch, logs: logs.update(loss=losses[epoch]))") //
+            .n("def train_and_record(restore_best_weights):") //
+            .n("    weights = []") //
+            .n("    record = LambdaCallback(on_epoch_end=lambda epoch, logs: weights.append(model.get_weights()))") //
+            .n("    budget = DLKerasTrainingCallbacks.DLKerasTrainingBudget(max_batches=12, ") //
+            .a("restore_best_weights=restore_best_weights)") //
+            .n("    result = train(budget, 5, [fake_loss, record])") //
+            .n("    assert result == (3, [('training_budget', 'max_batches')]), str(result)") //
+            .n("    return weights") //
+            .n("def same_weights(w1, w2):") //
+            .n("    return all(np.allclose(a, b) for a, b in zip(w1, w2))") //
+            .n("weights = train_and_record(True)") //
+            .n("assert not same_weights(weights[1], weights[2]), 'The model was not trained.'") //
+            .n("assert same_weights(model.get_weights(), weights[1]), ") //
+            .a("'The weights of the best epoch were not restored.'") //
+            .n("weights = train_and_record(False)") //
+            .n("assert same_weights(model.get_weights(), weights[2]), ") //
+            .a("'The weights of the last epoch were replaced.'") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+}
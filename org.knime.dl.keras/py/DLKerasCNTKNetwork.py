@@ -56,8 +56,7 @@ from DLKerasNetwork import DLKerasNetworkSpec
 
 class DLKerasCNTKNetworkReader(DLKerasNetworkReader):
 
-    def read(self, path, compile=True, compatibility_mode=False):
-        model = self._read_internal(path, compile)
+    def _create_network(self, model, compatibility_mode=False):
         return DLKerasCNTKNetwork(model, compatibility_mode)
 
     def read_from_json(self, path, compatibility_mode=False):
@@ -0,0 +1,153 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+
+'''
+Compiled inference of Keras models on TensorFlow 2. The model is traced into a graph function once, optionally
+just-in-time compiled by XLA, and called directly for each batch. This avoids the per-call overhead of Keras' predict,
+which dominates the execution time of small models and batches.
+
+Calls that trace the function (usually only the first one, as the batch dimension is left unspecified) and, with XLA,
+calls with a batch size that was not compiled before are recorded as 'Inference compilation', all further calls are
+recorded as 'Compiled prediction'. Their mean time is the steady-state latency per batch.
+'''
+
+import time
+import warnings
+
+import keras
+import numpy as np
+from keras import backend as K
+
+from DLPythonInstallationTester import compare_versions
+
+MODE_FUNCTION = 'function'
+
+MODE_XLA = 'xla'
+
+METRIC_COMPILATION = 'Inference compilation'
+
+METRIC_PREDICTION = 'Compiled prediction'
+
+
+def compile_model(model, mode):
+    """
+    Returns a DLKerasCompiledModel that executes the given model according to the given compilation mode, or None if
+    the mode is not supported by the installed back end.
+    """
+    reason = _get_unsupported_reason(mode)
+    if reason is None:
+        try:
+            return DLKerasCompiledModel(model, mode == MODE_XLA)
+        except Exception as e:
+            reason = 'the network could not be traced (' + str(e) + ').'
+    warnings.warn('Compiled inference (' + str(mode) + ') is not available because ' + reason
+                  + ' The network is executed via Keras\' predict instead.')
+    return None
+
+
+class DLKerasCompiledModel(object):
+
+    def __init__(self, model, xla):
+        import tensorflow as tf
+        self._num_outputs = len(model.outputs)
+        self._input_dtypes = [np.dtype(K.dtype(x)) for x in model.inputs]
+        # The batch dimension is left unspecified (unless fixed by the model) to avoid retracing for the last,
+        # incomplete batch.
+        signature = [tf.TensorSpec(shape=K.int_shape(x), dtype=K.dtype(x)) for x in model.inputs]
+        kwargs = {}
+        if xla:
+            tf_version = tf.__version__
+            kwargs['jit_compile' if compare_versions(tf_version, '2.5.0') >= 0 else 'experimental_compile'] = True
+        self._function = tf.function(lambda inputs: model(inputs, training=False), input_signature=[signature],
+                                     **kwargs)
+        self._xla = xla
+        self._traced = False
+        # XLA compiles the traced function for each concrete input shape
+        self._compiled_batch_sizes = set()
+
+    def predict(self, X, metrics):
+        """
+        Returns the outputs of the model for the given inputs in the same format as Keras' predict.
+        """
+        X = [x.astype(dtype, copy=False) for x, dtype in zip(X, self._input_dtypes)]
+        batch_size = len(X[0])
+        tracing_count = self._get_tracing_count()
+        start = time.perf_counter()
+        Y = self._function(X)
+        if self._num_outputs == 1:
+            Y = Y[0] if isinstance(Y, (list, tuple)) else Y
+            Y = Y.numpy()
+        else:
+            Y = [y.numpy() for y in Y]
+        end = time.perf_counter()
+        if tracing_count is not None:
+            compiled = self._get_tracing_count() != tracing_count
+        else:
+            compiled = not self._traced
+        if self._xla and batch_size not in self._compiled_batch_sizes:
+            compiled = True
+            self._compiled_batch_sizes.add(batch_size)
+        self._traced = True
+        metrics.record_interval(METRIC_COMPILATION if compiled else METRIC_PREDICTION, start, end)
+        return Y
+
+    def _get_tracing_count(self):
+        # Only available in newer versions of TensorFlow.
+        get_tracing_count = getattr(self._function, 'experimental_get_tracing_count', None)
+        return get_tracing_count() if get_tracing_count is not None else None
+
+
+def _get_unsupported_reason(mode):
+    if mode not in (MODE_FUNCTION, MODE_XLA):
+        return "the mode '" + str(mode) + "' is unknown."
+    if K.backend() != 'tensorflow':
+        return 'it is only supported by the TensorFlow back end of Keras.'
+    if compare_versions(keras.__version__, '2.4.0') < 0:
+        return 'the installed Keras version does not support it (Keras 2.4 or later is required).'
+    import tensorflow as tf
+    if not tf.executing_eagerly():
+        return 'TensorFlow does not run eagerly (TensorFlow 2 is required).'
+    return None
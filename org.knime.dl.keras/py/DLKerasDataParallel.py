@@ -0,0 +1,134 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Data-parallel training of Keras models on the TensorFlow back end. Each batch is split between several replicas of the
+model that are placed on different devices and share the model's weights. This follows the approach of
+keras.utils.multi_gpu_model but also supports logical CPU devices, which allows to exercise the sharding logic on
+machines without GPUs.
+'''
+
+from keras import backend as K
+from keras.layers import Lambda
+from keras.layers import concatenate
+from keras.models import Model
+
+DEVICE_TYPE_GPU = 'gpu'
+
+DEVICE_TYPE_CPU = 'cpu'
+
+
+def replicate(model, num_replicas, device_type=DEVICE_TYPE_GPU):
+    """
+    Returns a model that splits each input batch into num_replicas slices, feeds each slice through a replica of the
+    given model on its own device and concatenates the outputs along the batch dimension. The replicas share the
+    weights of the given model, i.e. training the returned model trains the given model.
+    """
+    if num_replicas < 2:
+        raise ValueError('Data-parallel training requires at least two replicas, got ' + str(num_replicas) + '.')
+    if K.backend() != 'tensorflow':
+        raise ValueError('Data-parallel training is only supported by the TensorFlow back end of Keras.')
+    if device_type == DEVICE_TYPE_CPU:
+        devices = _get_logical_cpu_devices(model, num_replicas)
+    elif device_type == DEVICE_TYPE_GPU:
+        devices = _get_gpu_devices(num_replicas)
+    else:
+        raise ValueError("Unknown device type '" + str(device_type) + "'.")
+
+    import tensorflow as tf
+    all_outputs = [[] for _ in model.outputs]
+    for i, device in enumerate(devices):
+        with tf.device(device):
+            with tf.name_scope('replica_%d' % i):
+                inputs = []
+                for x in model.inputs:
+                    input_shape = K.int_shape(x)[1:]
+                    inputs.append(Lambda(_get_slice, output_shape=input_shape,
+                                         arguments={'i': i, 'parts': num_replicas})(x))
+                outputs = model(inputs if len(inputs) > 1 else inputs[0])
+                if not isinstance(outputs, list):
+                    outputs = [outputs]
+                for j, output in enumerate(outputs):
+                    all_outputs[j].append(output)
+    # Merge on the CPU. Output names must be retained such that losses, metrics and logs match those of the template.
+    with tf.device('/cpu:0'):
+        merged = [concatenate(outputs, axis=0, name=name) for outputs, name in zip(all_outputs, model.output_names)]
+        return Model(model.inputs, merged)
+
+
+def _get_slice(data, i, parts):
+    # The last slice takes the remainder if the batch size is not a multiple of the number of replicas.
+    shape = K.shape(data)
+    batch_size = shape[:1]
+    input_shape = shape[1:]
+    step = batch_size // parts
+    size = batch_size - step * i if i == parts - 1 else step
+    size = K.concatenate([size, input_shape], axis=0)
+    stride = K.concatenate([step, input_shape * 0], axis=0)
+    return K.slice(data, stride * i, size)
+
+
+def _get_gpu_devices(num_replicas):
+    available = K.tensorflow_backend._get_available_gpus()
+    if len(available) < num_replicas:
+        raise ValueError('Data-parallel training with ' + str(num_replicas) + ' replicas requires as many GPUs but '
+                         + 'only ' + str(len(available)) + ' are visible. Please check the CUDA visible devices.')
+    return ['/gpu:%d' % i for i in range(num_replicas)]
+
+
+def _get_logical_cpu_devices(model, num_devices):
+    import tensorflow as tf
+    session = K.get_session()
+    available = [d.name for d in session.list_devices() if d.device_type == 'CPU']
+    if len(available) < num_devices:
+        # TensorFlow only creates logical CPU devices at session creation. Weights of the model are carried over to the
+        # new session, variables of other models in the same session are re-initialized.
+        weights = model.get_weights()
+        config = tf.ConfigProto(device_count={'CPU': num_devices})
+        K.set_session(tf.Session(config=config))
+        # The replaced session would otherwise keep holding its resources until it gets garbage collected.
+        session.close()
+        model.set_weights(weights)
+    return ['/cpu:%d' % i for i in range(num_devices)]
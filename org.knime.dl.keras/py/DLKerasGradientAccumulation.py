@@ -0,0 +1,235 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+
+'''
+Gradient accumulation for Keras optimizers. The gradients of a number of consecutive batches are summed up and the
+network is updated only once per that many batches, using the average of the accumulated gradients. This trains with
+the effective batch size of all accumulated batches while only a single batch has to be held in memory at a time.
+The gradients of the batches that remain at the end of an epoch are averaged and applied at the end of the epoch.
+'''
+
+import keras
+from keras import backend as K
+
+from DLPythonInstallationTester import compare_versions
+
+
+def accumulate_gradients(optimizer, steps, params):
+    """
+    Returns an optimizer that accumulates the gradients of the given number of batches before the given optimizer
+    updates the given parameters (the trainable weights of the model) with their average. Returns the given optimizer
+    itself if steps is 1. A DLKerasGradientAccumulationCallback for the returned optimizer must be part of the callbacks
+    of the training.
+    """
+    if steps <= 1:
+        return optimizer
+    if compare_versions(keras.__version__, '2.4.0') >= 0:
+        # Keras 2.4 and later are based on tf.keras whose optimizers are not updated via get_updates.
+        _patch_apply_gradients(optimizer, steps, params)
+        return optimizer
+    if isinstance(optimizer, keras.optimizers.TFOptimizer):
+        raise ValueError('Gradient accumulation is not supported for native TensorFlow optimizers. Please use a '
+                         + 'Keras optimizer instead.')
+    return DLKerasAccumulatingOptimizer(optimizer, steps)
+
+
+def unwrap(optimizer):
+    """
+    Returns the optimizer that was passed to accumulate_gradients to obtain the given optimizer, with its original
+    behavior restored.
+    """
+    if isinstance(optimizer, DLKerasAccumulatingOptimizer):
+        return optimizer.optimizer
+    if '_dl_apply_gradients' in vars(optimizer):
+        del optimizer.apply_gradients
+        del optimizer._dl_apply_gradients
+        del optimizer._dl_flush_gradients
+    return optimizer
+
+
+class DLKerasGradientAccumulationCallback(keras.callbacks.Callback):
+    """
+    Drives an optimizer returned by accumulate_gradients: applies the accumulated gradients after every steps-th batch
+    (unless the optimizer does so itself) and the gradients of the remaining batches at the end of each epoch. Should
+    precede all other callbacks, which then see the updated weights. Note that Keras validates before the callbacks are
+    notified about the end of an epoch, i.e. before the remaining batches are applied.
+    """
+
+    def __init__(self, optimizer):
+        super().__init__()
+        self._optimizer = optimizer
+
+    def on_batch_end(self, batch, logs=None):
+        if isinstance(self._optimizer, DLKerasAccumulatingOptimizer):
+            self._optimizer.batch_accumulated()
+
+    def on_epoch_end(self, epoch, logs=None):
+        if isinstance(self._optimizer, DLKerasAccumulatingOptimizer):
+            self._optimizer.flush()
+        else:
+            self._optimizer._dl_flush_gradients()
+
+
+class DLKerasAccumulatingOptimizer(keras.optimizers.Optimizer):
+    """
+    Wraps a Keras (< 2.4) optimizer. The updates of each batch only add its gradients to accumulators. The updates of
+    the wrapped optimizer, which it computes from the averaged accumulated gradients, run in a separate step after every
+    steps-th batch, see DLKerasGradientAccumulationCallback. This keeps the gradient clipping and all of the update
+    logic of the wrapped optimizer intact. Attributes that are not defined by this class (e.g. the learning rate) are
+    delegated to the wrapped optimizer, which keeps callbacks such as ReduceLROnPlateau working.
+    """
+
+    def __init__(self, optimizer, steps, **kwargs):
+        super().__init__(**kwargs)
+        self.optimizer = optimizer
+        self.steps = steps
+        with K.name_scope(self.__class__.__name__):
+            self.accumulated_batches = K.variable(0, dtype='int64', name='accumulated_batches')
+        self._pending_batches = 0
+        self._apply_function = None
+        self._reset_function = None
+
+    def __getattr__(self, name):
+        if name == 'optimizer':
+            raise AttributeError(name)
+        return getattr(self.optimizer, name)
+
+    def get_updates(self, loss, params):
+        grads = K.gradients(loss, params)
+        accumulators = [K.zeros(K.int_shape(p), dtype=K.dtype(p)) for p in params]
+        self.updates = [K.update_add(self.accumulated_batches, 1)]
+        self.updates += [K.update_add(a, g) for a, g in zip(accumulators, grads)]
+        # The number of accumulated batches is less than steps for the batches that remain at the end of an epoch.
+        averaged = [a / K.cast(self.accumulated_batches, K.dtype(a)) for a in accumulators]
+        # Shadowing get_gradients on the instance makes the wrapped optimizer compute its updates from the averaged
+        # gradients without affecting any other optimizer.
+        self.optimizer.get_gradients = lambda _loss, _params: self._clip(averaged)
+        try:
+            optimizer_updates = self.optimizer.get_updates(loss=loss, params=params)
+        finally:
+            del self.optimizer.get_gradients
+        self._apply_function = K.function([], [], updates=optimizer_updates)
+        self._reset_function = K.function([], [], updates=[K.update(self.accumulated_batches, 0)]
+                                          + [K.update(a, K.zeros_like(a)) for a in accumulators])
+        self.weights = [self.accumulated_batches] + accumulators + self.optimizer.weights
+        return self.updates
+
+    def _clip(self, grads):
+        # Mirrors keras.optimizers.Optimizer.get_gradients.
+        clipnorm = getattr(self.optimizer, 'clipnorm', 0)
+        if clipnorm > 0:
+            norm = K.sqrt(sum([K.sum(K.square(g)) for g in grads]))
+            grads = [keras.optimizers.clip_norm(g, clipnorm, norm) for g in grads]
+        clipvalue = getattr(self.optimizer, 'clipvalue', 0)
+        if clipvalue > 0:
+            grads = [K.clip(g, -clipvalue, clipvalue) for g in grads]
+        return grads
+
+    def batch_accumulated(self):
+        """
+        Notifies the optimizer that the gradients of a batch were accumulated. Applies them every steps-th batch.
+        """
+        self._pending_batches += 1
+        if self._pending_batches >= self.steps:
+            self.flush()
+
+    def flush(self):
+        """
+        Applies the accumulated gradients, if any.
+        """
+        if self._pending_batches > 0 and self._apply_function is not None:
+            self._apply_function([])
+            self._reset_function([])
+        self._pending_batches = 0
+
+    def get_config(self):
+        config = {'optimizer': {'class_name': self.optimizer.__class__.__name__,
+                                'config': self.optimizer.get_config()},
+                  'steps': self.steps}
+        base_config = super().get_config()
+        return dict(list(base_config.items()) + list(config.items()))
+
+
+def _patch_apply_gradients(optimizer, steps, params):
+    import tensorflow as tf
+    with tf.name_scope('DLKerasGradientAccumulation'):
+        counter = tf.Variable(0, dtype=tf.int64, trainable=False, name='iterations')
+        accumulators = {id(p): tf.Variable(tf.zeros(p.shape, dtype=p.dtype), trainable=False,
+                                           name=p.name.split(':')[0] + '_accumulator') for p in params}
+    # The slots of the wrapped optimizer must exist before its updates are placed in a conditional branch.
+    if hasattr(optimizer, '_create_all_weights'):
+        optimizer._create_all_weights(params)
+    apply_gradients = optimizer.apply_gradients
+
+    def accumulating_apply_gradients(grads_and_vars, *args, **kwargs):
+        grads_and_vars = [(g, v) for g, v in grads_and_vars if g is not None]
+        for g, v in grads_and_vars:
+            accumulators[id(v)].assign_add(tf.convert_to_tensor(g))
+        iteration = counter.assign_add(1)
+
+        def update():
+            averaged = [(accumulators[id(v)] / steps, v) for _, v in grads_and_vars]
+            update_op = apply_gradients(averaged, *args, **kwargs)
+            with tf.control_dependencies([update_op] if update_op is not None else []):
+                resets = [accumulators[id(v)].assign(tf.zeros_like(v)) for _, v in grads_and_vars]
+            with tf.control_dependencies(resets):
+                return tf.constant(True)
+
+        return tf.cond(tf.equal(iteration % steps, 0), update, lambda: tf.constant(False))
+
+    def flush_gradients():
+        # tf.keras runs callbacks eagerly.
+        remaining = int(counter.numpy() % steps)
+        if remaining > 0:
+            apply_gradients([(accumulators[id(p)] / remaining, p) for p in params])
+        for accumulator in accumulators.values():
+            accumulator.assign(tf.zeros_like(accumulator))
+        counter.assign(0)
+
+    # Setting the attribute on the instance keeps the optimizer's type, e.g. for wrapping it in a LossScaleOptimizer.
+    optimizer.apply_gradients = accumulating_apply_gradients
+    optimizer._dl_apply_gradients = apply_gradients
+    optimizer._dl_flush_gradients = flush_gradients
@@ -0,0 +1,124 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+
+'''
+Mixed-precision training of Keras models on the TensorFlow back end. Layers compute in float16 or bfloat16 while their
+weights (the "master weights") are kept in float32. Training in float16 additionally scales the loss to avoid
+underflowing gradients. If the installed Keras version, the back end or the hardware does not support the requested
+policy, training falls back to float32.
+'''
+
+import warnings
+
+import keras
+import numpy as np
+from keras import backend as K
+
+POLICY_FLOAT16 = 'mixed_float16'
+
+POLICY_BFLOAT16 = 'mixed_bfloat16'
+
+
+def create_mixed_precision_model(model, policy_name, custom_objects=None):
+    """
+    Returns a copy of the given model whose layers compute according to the given policy along with the dtype in which
+    the inputs of the copy should be fed, or the given model itself along with None if the policy is not supported.
+    Output layers keep computing in float32 for numerical stability. The copy starts with the weights of the given
+    model, which are not affected by training the copy.
+    """
+    reason = _get_unsupported_reason(policy_name)
+    if reason is None:
+        try:
+            config = model.get_config()
+            output_names = set(model.output_names)
+            for layer in config['layers']:
+                if layer['class_name'] == 'InputLayer':
+                    continue
+                layer_config = layer['config']
+                layer_config['dtype'] = 'float32' if layer_config['name'] in output_names else policy_name
+            mixed = model.__class__.from_config(config, custom_objects=custom_objects)
+            mixed.set_weights(model.get_weights())
+            # bfloat16 has no numpy counterpart, such inputs are cast by the first layers of the model
+            return mixed, np.float16 if policy_name == POLICY_FLOAT16 else None
+        except Exception as e:
+            reason = 'the network could not be converted (' + str(e) + ').'
+    warnings.warn('Mixed-precision training (' + policy_name + ') is not available because ' + reason
+                  + ' Training is performed in float32 instead.')
+    return model, None
+
+
+def wrap_optimizer(optimizer, policy_name):
+    """
+    Returns an optimizer that applies dynamic loss scaling if the given policy requires it, i.e. for float16.
+    """
+    if policy_name != POLICY_FLOAT16:
+        return optimizer
+    loss_scale_optimizer = keras.mixed_precision.LossScaleOptimizer
+    if isinstance(optimizer, loss_scale_optimizer):
+        return optimizer
+    return loss_scale_optimizer(optimizer)
+
+
+def _get_unsupported_reason(policy_name):
+    if policy_name not in (POLICY_FLOAT16, POLICY_BFLOAT16):
+        return "the policy '" + str(policy_name) + "' is unknown."
+    if K.backend() != 'tensorflow':
+        return 'it is only supported by the TensorFlow back end of Keras.'
+    mixed_precision = getattr(keras, 'mixed_precision', None)
+    if mixed_precision is None or not hasattr(mixed_precision, 'LossScaleOptimizer'):
+        return 'the installed Keras version does not support it (Keras 2.4 or later is required).'
+    if not _is_gpu_available():
+        # Reduced-precision arithmetic is emulated on most CPUs and would slow down training instead.
+        return 'no GPU is available.'
+    return None
+
+
+def _is_gpu_available():
+    import tensorflow as tf
+    try:
+        return len(tf.config.list_physical_devices('GPU')) > 0
+    except AttributeError:
+        return len(tf.config.experimental.list_physical_devices('GPU')) > 0
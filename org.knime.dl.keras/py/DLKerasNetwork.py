@@ -51,6 +51,7 @@
 
 import abc
 import re
+import warnings
 from distutils.version import LooseVersion
 
 import keras
@@ -64,6 +65,7 @@ from keras.models import model_from_yaml
 from keras.layers import Lambda
 
 import DLPythonKernelGateway
+from DLKerasTrainingCallbacks import DLKerasScheduledValidation
 from DLKerasTrainingCallbacks import DLKerasTrainingMonitor
 from DLPythonDataBuffers import DLPythonDoubleBuffer
 from DLPythonDataBuffers import DLPythonFloatBuffer
@@ -76,16 +78,137 @@ from DLPythonDataBuffers import DLPythonLongBuffer
 from DLPythonDataBuffers import DLPythonStringBuffer
 from DLPythonInstallationTester import compare_versions
 from DLPythonNetwork import DLPythonNetwork
+from DLPythonNetwork import DLPythonNetworkMetrics
 from DLPythonNetwork import DLPythonNetworkReader
 from DLPythonNetwork import DLPythonNetworkSpec
 from DLPythonNetwork import DLPythonTrainingConfig
 
 
+def capture_model_state(model):
+    """
+    Captures the architecture of the given Keras model and a digest of the values of its weights, see
+    is_model_unchanged. The weights are hashed one at a time instead of being copied.
+    :param model: The Keras model.
+    :return: The captured state.
+    """
+    return type(model), _serialize_architecture(model), len(model.weights), _hash_weights(model.weights)
+
+
+def is_model_unchanged(state, model):
+    """
+    Checks whether the given Keras model equals the model whose state was captured via capture_model_state. Models are
+    equal if their architectures, ignoring their names, and the values of their weights are equal. The values are
+    compared via their digests, which also detects weights that were modified in place. The (much more expensive)
+    weights are only hashed if the architectures are equal.
+    :param state: The state captured via capture_model_state.
+    :param model: The Keras model.
+    :return: True if the models are equal.
+    """
+    model_type, architecture, num_weights, weights_digest = state
+    if type(model) is not model_type or _serialize_architecture(model) != architecture:
+        return False
+    model_weights = model.weights
+    if len(model_weights) != num_weights:
+        return False
+    return _hash_weights(model_weights) == weights_digest
+
+
+def _hash_weights(weights):
+    import hashlib
+    from keras import backend as K
+    digest = hashlib.blake2b()
+    for w in weights:
+        value = np.ascontiguousarray(K.get_value(w))
+        digest.update(str((value.dtype.str, value.shape)).encode('utf-8'))
+        digest.update(memoryview(value).cast('B'))
+    return digest.digest()
+
+
+def _serialize_architecture(model):
+    import json
+    config = model.get_config()
+    if isinstance(config, dict):
+        # Keras generates a new name for each model instance
+        config = dict(config)
+        config.pop('name', None)
+    return json.dumps(config, sort_keys=True, default=str)
+
+
+def _read_architecture(path):
+    import h5py
+    import json
+    from keras.models import model_from_config
+    with h5py.File(path, mode='r') as f:
+        model_config = f.attrs.get('model_config')
+    if model_config is None:
+        raise ValueError('No model found in config file.')
+    if isinstance(model_config, bytes):
+        model_config = model_config.decode('utf-8')
+    return model_from_config(json.loads(model_config))
+
+
+def _load_training_config(model, path):
+    """
+    Compiles the given model using the training configuration stored in the given h5 file and restores the state of the
+    optimizer. Mirrors the respective part of keras.models.load_model.
+    """
+    import h5py
+    import json
+    from keras import optimizers
+    with h5py.File(path, mode='r') as f:
+        training_config = f.attrs.get('training_config')
+        if training_config is None:
+            return
+        if isinstance(training_config, bytes):
+            training_config = training_config.decode('utf-8')
+        training_config = json.loads(training_config)
+        optimizer = optimizers.deserialize(training_config['optimizer_config'])
+        model.compile(optimizer=optimizer,
+                      loss=training_config['loss'],
+                      metrics=training_config['metrics'],
+                      loss_weights=training_config.get('loss_weights'),
+                      sample_weight_mode=training_config.get('sample_weight_mode'))
+        if 'optimizer_weights' in f and not isinstance(model.optimizer, getattr(optimizers, 'TFOptimizer', ())):
+            # Create the optimizer weights so that they can be set. tf.keras 2.4 and later no longer build them via a
+            # train function.
+            if hasattr(model, '_make_train_function'):
+                model._make_train_function()
+            else:
+                model.optimizer._create_all_weights(model.trainable_weights)
+            optimizer_weights_group = f['optimizer_weights']
+            optimizer_weight_names = [n.decode('utf8') if isinstance(n, bytes) else n for n in
+                                      optimizer_weights_group.attrs['weight_names']]
+            optimizer_weight_values = [optimizer_weights_group[n] for n in optimizer_weight_names]
+            try:
+                model.optimizer.set_weights(optimizer_weight_values)
+            except ValueError:
+                warnings.warn('Error in loading the saved optimizer state. As a result, your model is starting with '
+                              'a freshly initialized optimizer.')
+
+
 class DLKerasNetworkReader(DLPythonNetworkReader):
     __metaclass__ = abc.ABCMeta
 
+    def read(self, path, compile=True, compatibility_mode=False, lazy=False):
+        """
+        Reads the Keras network stored in the given h5 file.
+        :param path: The path to the h5 file.
+        :param compile: Whether the training configuration (loss, metrics, optimizer and its state) should be loaded.
+        :param compatibility_mode: See DLKerasNetwork._convert_sequential_to_model.
+        :param lazy: If True and compile is True, only the architecture and the weights are loaded right away. The
+            training configuration is loaded on first access of the network's model (see
+            DLKerasNetwork.load_training_config).
+        """
+        load_metrics = DLPythonNetworkMetrics()
+        model = self._read_internal(path, compile and not lazy, load_metrics)
+        network = self._create_network(model, compatibility_mode)
+        network.metrics.merge(load_metrics)
+        if compile and lazy:
+            network.defer_training_config(path)
+        return network
+
     @abc.abstractmethod
-    def read(self, path, compile=True, compatibility_mode=False):
+    def _create_network(self, model, compatibility_mode=False):
         raise NotImplementedError()
 
     @abc.abstractmethod
@@ -96,8 +219,22 @@ class DLKerasNetworkReader(DLPythonNetworkReader):
     def read_from_yaml(self, path, compatibility_mode=False):
         raise NotImplementedError()
 
-    def _read_internal(self, path, compile=True):
-        return load_model(path, compile=compile)
+    def _read_internal(self, path, compile=True, metrics=None):
+        if metrics is None:
+            metrics = DLPythonNetworkMetrics()
+        if compile:
+            with metrics.time('Network loading'):
+                return load_model(path, compile=True)
+        # Equivalent to load_model(path, compile=False) but allows reporting the individual loading phases.
+        try:
+            with metrics.time('Architecture loading'):
+                model = _read_architecture(path)
+        except Exception:
+            with metrics.time('Network loading'):
+                return load_model(path, compile=False)
+        with metrics.time('Weight loading'):
+            model.load_weights(path)
+        return model
 
     def _read_from_json_internal(self, path):
         with open(path, 'r') as f:
@@ -139,6 +276,49 @@ class DLKerasNetwork(DLPythonNetwork):
     def __init__(self, model, compatibility_mode=False):
         super().__init__(DLKerasNetwork._convert_sequential_to_model(model, compatibility_mode))
         self._training_monitor = None
+        self._deferred_training_config_path = None
+        # dtype in which training inputs are fed, None to feed them as they are received
+        self.training_input_dtype = None
+        # compilation mode for inference, see DLKerasCompiledInference, None to execute via predict
+        self.inference_compilation = None
+        # compiled models (or None if compilation is not supported) per tuple of requested outputs
+        self._compiled_models = {}
+        # model that was fit by the last call of train, differs from model if that was wrapped for training (e.g.
+        # replicated for data-parallel training)
+        self.training_model = None
+
+    @property
+    def model(self):
+        # Scripts that access the model may rely on its training configuration.
+        self.load_training_config()
+        return self._model
+
+    def defer_training_config(self, path):
+        """
+        Marks the training configuration (loss, metrics, optimizer and its state) stored in the given h5 file to be
+        loaded on demand. Execution and training via KNIME do not need it, which saves deserializing the optimizer.
+        """
+        self._deferred_training_config_path = path
+
+    def load_training_config(self):
+        """
+        Loads the deferred training configuration, if any.
+        """
+        path = self._deferred_training_config_path
+        if path is None:
+            return
+        self._deferred_training_config_path = None
+        with self.metrics.time('Training configuration loading'):
+            try:
+                _load_training_config(self._model, path)
+            except Exception as e:
+                if getattr(self._model, 'optimizer', None) is not None:
+                    # Compiling succeeded, only restoring the saved optimizer weights failed.
+                    warnings.warn("Couldn't restore the optimizer state of the Keras network. The optimizer state was "
+                                  "reset, training starts with a freshly initialized optimizer. Cause: " + str(e))
+                else:
+                    warnings.warn("Couldn't load the training configuration of the Keras network. The network remains "
+                                  "uncompiled. Cause: " + str(e))
 
     @abc.abstractmethod
     def _extract_model_spec(self):
@@ -151,9 +331,36 @@ class DLKerasNetwork(DLPythonNetwork):
         return self._spec
 
     def execute(self, in_data, batch_size, output_identifiers):
-        model = self._model
-        X = self._format_input(in_data, batch_size)
+        with self.metrics.time('Input formatting'):
+            X = self._format_input(in_data, batch_size)
+
+        if self.inference_compilation is not None:
+            compiled_model = self._get_compiled_model(output_identifiers)
+            if compiled_model is not None:
+                Y = compiled_model.predict(X, self.metrics)
+                with self.metrics.time('Output formatting'):
+                    return self._format_output(Y, output_identifiers)
 
+        # Build the model with the requested outputs
+        with self.metrics.time('Model building'):
+            intermediate_model = self._build_intermediate_model(output_identifiers)
+        with self.metrics.time('Prediction'):
+            Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
+        with self.metrics.time('Output formatting'):
+            return self._format_output(Y, output_identifiers)
+
+    def _get_compiled_model(self, output_identifiers):
+        key = tuple(output_identifiers)
+        if key not in self._compiled_models:
+            import DLKerasCompiledInference
+            with self.metrics.time('Model building'):
+                intermediate_model = self._build_intermediate_model(output_identifiers)
+            self._compiled_models[key] = DLKerasCompiledInference.compile_model(intermediate_model,
+                                                                                self.inference_compilation)
+        return self._compiled_models[key]
+
+    def _build_intermediate_model(self, output_identifiers):
+        model = self._model
         # Get the requested output tensors
         outputs = []
         for id in output_identifiers:
@@ -167,11 +374,7 @@ class DLKerasNetwork(DLPythonNetwork):
             if output_tensors[tensor_idx] in model.inputs:
                 output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
             outputs.append(output_tensors[tensor_idx])
-
-        # Build the model with the requested outputs
-        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
-        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
-        return self._format_output(Y, output_identifiers)
+        return Model(inputs=model.inputs, outputs=outputs)
 
     def train(self, training_data_supplier, validation_data_supplier=None, send_to_java=None):
         assert training_data_supplier is not None
@@ -191,7 +394,35 @@ class DLKerasNetwork(DLPythonNetwork):
         if not any(m == 'acc' or m == 'accuracy' for m in metrics):
             metrics.append('acc')
 
-        self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
+        # The training configuration set via KNIME supersedes the one stored with the network.
+        self._deferred_training_config_path = None
+        model = self._model
+        optimizer = config.optimizer
+        mixed_precision_model = None
+        if config.mixed_precision is not None:
+            import DLKerasMixedPrecision
+            with self.metrics.time('Mixed-precision conversion'):
+                model, self.training_input_dtype = DLKerasMixedPrecision.create_mixed_precision_model(
+                    model, config.mixed_precision)
+            if model is not self._model:
+                mixed_precision_model = model
+        accumulating_optimizer = None
+        if config.accumulation_steps > 1:
+            # Loss scaling (if any) must be applied to each batch, so accumulation wraps the unscaled optimizer.
+            import DLKerasGradientAccumulation
+            optimizer = DLKerasGradientAccumulation.accumulate_gradients(optimizer, config.accumulation_steps,
+                                                                         model.trainable_weights)
+            accumulating_optimizer = optimizer
+        if mixed_precision_model is not None:
+            optimizer = DLKerasMixedPrecision.wrap_optimizer(optimizer, config.mixed_precision)
+        if config.num_replicas > 1:
+            # Replicas share the weights of the model, so the model itself is trained.
+            import DLKerasDataParallel
+            with self.metrics.time('Replication'):
+                model = DLKerasDataParallel.replicate(model, config.num_replicas, config.replica_device_type)
+        with self.metrics.time('Compilation'):
+            model.compile(loss=loss, optimizer=optimizer, metrics=metrics)
+        self.training_model = model
 
         if not any(isinstance(c, DLKerasTrainingMonitor) for c in config.callbacks):
             training_monitor = DLKerasTrainingMonitor(self)
@@ -201,22 +432,52 @@ class DLKerasNetwork(DLPythonNetwork):
         for c in config.callbacks:
             c.send_to_java = send_to_java
 
+        callbacks = config.callbacks
         if validation_data_supplier is not None:
             validation_data_generator = validation_data_supplier.get_generator()
             validation_steps = validation_data_supplier.steps
+            if config.validation_frequency > 1 or config.validation_subset_fraction < 1:
+                # Keras validates after each epoch and does not report per-batch results. Validation is scheduled by a
+                # callback instead that precedes all others, which thus see its metrics.
+                callbacks = [DLKerasScheduledValidation(validation_data_generator, validation_steps,
+                                                        config.validation_frequency, config.epochs,
+                                                        config.validation_subset_fraction)] + callbacks
+                validation_data_generator = None
+                validation_steps = None
         else:
             validation_data_generator = None
             validation_steps = None
+        if accumulating_optimizer is not None:
+            # Precedes all other callbacks which thus see the weights updated from the accumulated gradients.
+            callback = DLKerasGradientAccumulation.DLKerasGradientAccumulationCallback(accumulating_optimizer)
+            callbacks = [callback] + callbacks
 
         kw_max_queue = 'max_queue_size' if compare_versions(keras.__version__, "2.0.5") > 0 else 'max_q_size'
-        history = self._model.fit_generator(training_data_supplier.get_generator(),
-                                            training_data_supplier.steps,
-                                            epochs=config.epochs,
-                                            verbose=1,
-                                            callbacks=config.callbacks,
-                                            validation_data=validation_data_generator,
-                                            validation_steps=validation_steps,
-                                            **{kw_max_queue: 1})
+        try:
+            with self.metrics.time('Training'):
+                history = model.fit_generator(training_data_supplier.get_generator(),
+                                              training_data_supplier.steps,
+                                              epochs=config.epochs,
+                                              verbose=1,
+                                              callbacks=callbacks,
+                                              validation_data=validation_data_generator,
+                                              validation_steps=validation_steps,
+                                              **{kw_max_queue: 1})
+        finally:
+            self.training_input_dtype = None
+            if accumulating_optimizer is not None:
+                # The network is saved along with its optimizer, which must not be the accumulating one.
+                unwrapped_optimizer = DLKerasGradientAccumulation.unwrap(accumulating_optimizer)
+                if self._model.optimizer is accumulating_optimizer:
+                    self._model.optimizer = unwrapped_optimizer
+            if mixed_precision_model is not None:
+                # The float32 master weights are carried over to the network itself, which keeps computing in
+                # float32 during execution and is what gets saved.
+                self._model.set_weights(mixed_precision_model.get_weights())
+        if model is not self._model:
+            # Only the mixed-precision and/or replicated model was compiled. The network itself is compiled the same
+            # way to be saved along with the training configuration and the state of the (unwrapped) optimizer.
+            self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
         return history.history
 
     def stop_early(self):
@@ -229,6 +490,8 @@ class DLKerasNetwork(DLPythonNetwork):
         if not (self._model.layers or []):
             raise ValueError("Failed to save empty Keras deep learning network. " +
                              "Please add at least one layer to the network in order to be able to save it.")
+        # A lazily read network must not lose the training configuration and optimizer state it was stored with.
+        self.load_training_config()
         try:
             self._model.save(path)
         except Exception as e:
@@ -312,3 +575,13 @@ class DLKerasTrainingConfig(DLPythonTrainingConfig):
         self.loss = {}
         self.metrics = ['acc']
         self.callbacks = []
+        # data-parallel training, see DLKerasDataParallel
+        self.num_replicas = 1
+        self.replica_device_type = 'gpu'
+        # validation scheduling, see DLKerasScheduledValidation
+        self.validation_frequency = 1
+        self.validation_subset_fraction = 1.0
+        # mixed-precision policy, see DLKerasMixedPrecision
+        self.mixed_precision = None
+        # number of batches per optimizer update, see DLKerasGradientAccumulation
+        self.accumulation_steps = 1
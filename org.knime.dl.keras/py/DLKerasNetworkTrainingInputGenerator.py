@@ -48,8 +48,11 @@
 @author Christian Dietz, KNIME GmbH, Konstanz, Germany
 '''
 
+import numpy as np
+
 from DLPythonKernelGateway import global_workspace
 from DLPythonNetworkTrainingInputGenerator import DLPythonNetworkTrainingInputGenerator
+from DLPythonTrainingDataShards import DLPythonTrainingDataShards
 
 
 class DLKerasNetworkTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator):
@@ -72,7 +75,9 @@ class DLKerasNetworkTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator
         self._request_from_java = request_from_java
 
     def _get_batch(self, batch_index):
-        self._request_from_java(self._message_category, batch_index)
+        data_kind = 'Validation' if self._is_validation_data else 'Training'
+        with self._network.metrics.time(data_kind + ' data request'):
+            self._request_from_java(self._message_category, batch_index)
         # TODO: pre-allocate dictionaries
         training_data = {}
         for input_name in self._input_names:
@@ -83,5 +88,49 @@ class DLKerasNetworkTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator
             workspace_target_name = target_name + "_validation" if self._is_validation_data else target_name
             target_data[target_name] = global_workspace()[workspace_target_name]
         # TODO: move formatting logic from network to generator, remove dependency on network
-        return (self._network._format_input(training_data, self._batch_size),
-                self._network._format_target(target_data, self._batch_size))
+        with self._network.metrics.time(data_kind + ' data formatting'):
+            inputs = self._network._format_input(training_data, self._batch_size)
+            return (_cast_inputs(self._network, inputs), self._network._format_target(target_data, self._batch_size))
+
+
+class DLKerasShardedTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator):
+    """
+    Reads the training batches from the shard files that were staged on disk by Java instead of requesting them via the
+    bridge. If a shuffle seed is given, the batches are visited in a different random order in each epoch after the
+    first one.
+    """
+
+    def __init__(self, network, steps, batch_size, directory, batches_per_shard, file_prefixes, shuffle_seed=None):
+        assert network is not None
+        input_names = [s.identifier for s in network.spec.input_specs]
+        target_names = [s.identifier for s in network.spec.output_specs]
+        super().__init__(input_names, target_names, steps, batch_size)
+        self._network = network
+        self._shards = DLPythonTrainingDataShards(directory, batch_size, batches_per_shard, file_prefixes)
+        self._random = np.random.RandomState(shuffle_seed % 2 ** 32) if shuffle_seed is not None else None
+        self._batch_order = np.arange(steps)
+        self._epoch = -1
+
+    def _get_batch(self, batch_index):
+        if batch_index == 0:
+            self._epoch += 1
+            # the first epoch sees the batches in staging order, which already is shuffled if requested
+            if self._random is not None and self._epoch > 0:
+                self._batch_order = self._random.permutation(self._steps)
+        staged_index = int(self._batch_order[batch_index])
+        with self._network.metrics.time('Training data shard read'):
+            inputs = [self._shards.get_batch(name, staged_index) for name in self._input_names]
+            targets = [self._shards.get_batch(name, staged_index) for name in self._target_names]
+        return (_cast_inputs(self._network, inputs), targets)
+
+    def close(self):
+        # unmaps the shards, files that are still mapped cannot be deleted on Windows
+        self._shards.close()
+
+
+def _cast_inputs(network, inputs):
+    input_dtype = network.training_input_dtype
+    if input_dtype is not None:
+        # mixed-precision training: feed floating point inputs in the precision the network computes in
+        inputs = [x.astype(input_dtype, copy=False) if np.issubdtype(x.dtype, np.floating) else x for x in inputs]
+    return inputs
@@ -0,0 +1,159 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Data-parallel training of Keras models in several Python processes by means of parameter averaging. Each process trains
+its own replica of the model on a disjoint shard of every batch. Every sync_interval batches, the primary process
+collects the weights of all workers over a local connection, averages them and sends the averaged weights back. The
+states of the optimizers are not synchronized.
+'''
+
+import os
+from multiprocessing.connection import Client
+from multiprocessing.connection import Listener
+
+import numpy as np
+from keras.callbacks import Callback
+
+from DLKerasTrainingCallbacks import DLKerasAbstractTrainingCallback
+
+_MESSAGE_SYNC = 'sync'
+
+_MESSAGE_FINAL = 'final'
+
+
+def _average(weights):
+    return [np.mean(np.stack(ws), axis=0).astype(ws[0].dtype) for ws in zip(*weights)]
+
+
+class DLKerasParameterAveragingServer(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Callback of the primary process. Workers connect to it when training starts.
+    """
+
+    def __init__(self, num_workers, sync_interval):
+        super().__init__()
+        self._num_workers = num_workers
+        self._sync_interval = sync_interval
+        self._authkey = os.urandom(16)
+        self._listener = Listener(('localhost', 0), authkey=self._authkey)
+        self._connections = None
+        self._num_batches = 0
+        # weights the workers sent at the last synchronization
+        self.worker_weights = None
+
+    @property
+    def port(self):
+        return self._listener.address[1]
+
+    @property
+    def authkey(self):
+        return self._authkey.hex()
+
+    def on_train_begin(self, logs=None):
+        self._connections = [self._listener.accept() for _ in range(self._num_workers)]
+        self._listener.close()
+        self._num_batches = 0
+
+    def on_batch_end(self, batch, logs=None):
+        self._num_batches += 1
+        if self._num_batches % self._sync_interval == 0:
+            self._synchronize(_MESSAGE_SYNC)
+
+    def on_train_end(self, logs=None):
+        # Workers stop at their next synchronization point, i.e. at the latest when they have finished training.
+        self._synchronize(_MESSAGE_FINAL)
+        for c in self._connections:
+            c.close()
+
+    def _synchronize(self, message):
+        for c in self._connections:
+            c.send(message)
+        self.worker_weights = [c.recv() for c in self._connections]
+        averaged = _average([self.model.get_weights()] + self.worker_weights)
+        self.model.set_weights(averaged)
+        if message == _MESSAGE_SYNC:
+            for c in self._connections:
+                c.send(averaged)
+
+
+class DLKerasParameterAveragingWorker(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Callback of a worker process.
+    """
+
+    def __init__(self, port, authkey, sync_interval):
+        super().__init__()
+        self._address = ('localhost', port)
+        self._authkey = bytes.fromhex(authkey)
+        self._sync_interval = sync_interval
+        self._connection = None
+        self._num_batches = 0
+        self._finished = False
+
+    def on_train_begin(self, logs=None):
+        # Connecting blocks until the primary process has started training.
+        self._connection = Client(self._address, authkey=self._authkey)
+        self._num_batches = 0
+        self._finished = False
+
+    def on_batch_end(self, batch, logs=None):
+        self._num_batches += 1
+        if self._num_batches % self._sync_interval == 0 and not self._finished:
+            self._synchronize()
+
+    def on_train_end(self, logs=None):
+        if not self._finished:
+            self._synchronize()
+        self._connection.close()
+
+    def _synchronize(self):
+        message = self._connection.recv()
+        self._connection.send(self.model.get_weights())
+        if message == _MESSAGE_SYNC:
+            self.model.set_weights(self._connection.recv())
+        else:
+            self._finished = True
+            self.model.stop_training = True
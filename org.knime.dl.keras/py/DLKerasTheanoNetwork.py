@@ -56,8 +56,7 @@ from DLKerasNetwork import DLKerasNetworkSpec
 
 class DLKerasTheanoNetworkReader(DLKerasNetworkReader):
 
-    def read(self, path, compile=True, compatibility_mode=False):
-        model = self._read_internal(path, compile)
+    def _create_network(self, model, compatibility_mode=False):
         return DLKerasTheanoNetwork(model, compatibility_mode)
 
     def read_from_json(self, path, compatibility_mode=False):
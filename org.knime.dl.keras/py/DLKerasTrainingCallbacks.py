@@ -50,7 +50,9 @@
 
 import abc
 import sys
+import time
 
+import numpy as np
 from keras.callbacks import Callback
 from keras.callbacks import EarlyStopping
 from keras.callbacks import ReduceLROnPlateau
@@ -106,15 +108,129 @@ class DLKerasTerminateOnNaN(TerminateOnNaN, DLKerasAbstractTrainingCallback):
             self.send_to_java('terminate_on_nan', batch)
 
 
+class DLKerasTrainingBudget(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Stops training after the current batch once the maximum training time (in seconds) or the maximum number of batches
+    is exceeded, or once the monitored quantity reaches the target value. A limit of zero disables the respective
+    budget, a target of None disables the target. If restore_best_weights is set, the weights of the epoch with the best
+    value of the monitored quantity are kept in memory and restored when the budget stops the training.
+    """
+
+    def __init__(self, max_time=0, max_batches=0, monitor='loss', target=None, mode='auto',
+                 restore_best_weights=True):
+        super().__init__()
+        self._max_time = max_time
+        self._max_batches = max_batches
+        self._monitor = monitor
+        self._target = target
+        if mode not in ('auto', 'min', 'max'):
+            raise ValueError("Unknown mode '" + str(mode) + "'.")
+        if mode == 'auto':
+            mode = 'max' if 'acc' in monitor else 'min'
+        self._is_better = np.greater if mode == 'max' else np.less
+        self._restore_best_weights = restore_best_weights
+        self._start = None
+        self._num_batches = 0
+        self._stop_reason = None
+        self._best = None
+        self._best_epoch = None
+        self._best_weights = None
+
+    def on_train_begin(self, logs=None):
+        self._start = time.perf_counter()
+        self._num_batches = 0
+        self._stop_reason = None
+        self._best = None
+        self._best_epoch = None
+        self._best_weights = None
+
+    def on_batch_end(self, batch, logs=None):
+        self._num_batches += 1
+        if self._max_batches > 0 and self._num_batches >= self._max_batches:
+            self._stop('max_batches')
+        elif self._max_time > 0 and time.perf_counter() - self._start >= self._max_time:
+            self._stop('max_time')
+
+    def on_epoch_end(self, epoch, logs=None):
+        current = logs.get(self._monitor) if logs else None
+        # the monitored quantity may not be available in each epoch (e.g. if validation is not performed in each epoch)
+        if current is None or np.isnan(current):
+            return
+        if self._best is None or self._is_better(current, self._best):
+            self._best = current
+            self._best_epoch = epoch
+            if self._restore_best_weights:
+                self._best_weights = self.model.get_weights()
+        if self._target is not None and not self._is_better(self._target, current):
+            self._stop('target_reached')
+
+    def on_train_end(self, logs=None):
+        if self._stop_reason is None:
+            return
+        sys.stdout.flush()  # flush Keras info message
+        if self._best_weights is not None:
+            self.model.set_weights(self._best_weights)
+            self._best_weights = None
+            print("Restored the weights of epoch " + str(self._best_epoch + 1) + " (" + self._monitor + ": " +
+                  str(self._best) + ").")
+        self.send_to_java('training_budget', self._stop_reason)
+
+    def _stop(self, reason):
+        if self._stop_reason is None:
+            self._stop_reason = reason
+        self.model.stop_training = True
+
+
+class DLKerasScheduledValidation(Callback):
+    """
+    Validates the model after every validation_frequency-th epoch and after the last epoch instead of after each epoch.
+    Must precede all other callbacks that consume validation metrics. If the validation data is a random subset of the
+    actual validation data, the half-widths of the 95% confidence intervals of the estimated metrics are added to the
+    logs as 'val_<metric>_ci'.
+    """
+
+    def __init__(self, generator, steps, validation_frequency, epochs, subset_fraction=1.0):
+        super().__init__()
+        self._generator = generator
+        self._steps = steps
+        self._validation_frequency = validation_frequency
+        self._epochs = epochs
+        self._subset_fraction = subset_fraction
+
+    def on_epoch_end(self, epoch, logs=None):
+        if logs is None or ((epoch + 1) % self._validation_frequency != 0 and epoch + 1 != self._epochs):
+            return
+        results = []
+        for _ in range(self._steps):
+            x, y = next(self._generator)
+            results.append(np.atleast_1d(self.model.test_on_batch(x, y)))
+        results = np.asarray(results, dtype=np.float64)
+        means = results.mean(axis=0)
+        if self._subset_fraction < 1 and self._steps > 1:
+            # The batches are random samples of the validation data. Apply the finite population correction since the
+            # subset is drawn without replacement.
+            standard_errors = results.std(axis=0, ddof=1) / np.sqrt(self._steps) * np.sqrt(1 - self._subset_fraction)
+            half_widths = 1.96 * standard_errors
+        else:
+            half_widths = None
+        for i, name in enumerate(self.model.metrics_names):
+            logs['val_' + name] = means[i]
+            if half_widths is not None:
+                logs['val_' + name + '_ci'] = half_widths[i]
+
+
 class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
     def __init__(self, network):
         super().__init__()
         self._network = network
         self._stop_training = False
+        self._batch_start = None
 
     def stop_early(self):
         self._stop_training = True
-        self._network.model.stop_training = True
+        # the model that is being fit may be a data-parallel replica of the network's model
+        model = self.model if self.model is not None else self._network.model
+        model.stop_training = True
 
     def on_train_begin(self, logs=None):
         # metrics_names = self.params['metrics']
@@ -134,6 +250,8 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         if logs:
             loss = logs.get('val_loss')
             acc = logs.get('val_acc')
+            loss_ci = logs.get('val_loss_ci')
+            acc_ci = logs.get('val_acc_ci')
             if acc is None:
                 # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
                 # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric
@@ -142,13 +260,24 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
                 len_accs = len(accs)
                 if len_accs > 0:
                     acc = sum(accs) / len_accs
+                acc_cis = [v for k, v in logs.items() if k.startswith('val_') and k.endswith('_acc_ci')]
+                if len(acc_cis) > 0:
+                    acc_ci = sum(acc_cis) / len(acc_cis)
 
-            self.send_to_java('epoch_end', str(acc) + ';' + str(loss))
+            # metrics that are not available in this epoch (e.g. if validation is not performed in each epoch) are
+            # reported as NaN
+            self.send_to_java('epoch_end', ';'.join('NaN' if v is None else str(v) for v in [acc, loss, acc_ci,
+                                                                                              loss_ci]))
 
     def on_batch_begin(self, batch, logs=None):
         self.send_to_java('batch_begin')
+        self._batch_start = time.perf_counter()
 
     def on_batch_end(self, batch, logs=None):
+        if self._batch_start is not None:
+            # the forward and backward pass of the batch, data is fetched before on_batch_begin is called
+            self._network.metrics.record_interval('Training step', self._batch_start, time.perf_counter())
+            self._batch_start = None
         if logs:
             loss = logs.get('loss')
             acc = logs.get('acc')
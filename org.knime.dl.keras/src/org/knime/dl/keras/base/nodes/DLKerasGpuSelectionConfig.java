@@ -65,12 +65,40 @@ public final class DLKerasGpuSelectionConfig extends AbstractConfig {
 
     static final String CFG_KEY_CUDA_VISIBLE_DEVICES = "cuda_visible_devices";
 
+    static final String CFG_KEY_DATA_PARALLEL = "data_parallel";
+
+    static final String CFG_KEY_NUM_REPLICAS = "num_replicas";
+
+    static final String CFG_KEY_REPLICATE_ON_CPU = "replicate_on_cpu";
+
+    static final String CFG_KEY_PARAMETER_AVERAGING = "parameter_averaging";
+
+    static final String CFG_KEY_NUM_KERNELS = "num_kernels";
+
+    static final String CFG_KEY_SYNC_INTERVAL = "sync_interval";
+
+    private final boolean m_supportsDataParallelism;
+
     /**
      * Creates a new GPU selection configuration
      */
     public DLKerasGpuSelectionConfig() {
+        this(false);
+    }
+
+    /**
+     * Creates a new GPU selection configuration
+     *
+     * @param supportsDataParallelism whether the configuration additionally contains settings for data-parallel
+     *            training
+     */
+    public DLKerasGpuSelectionConfig(final boolean supportsDataParallelism) {
         super(CFG_KEY_ROOT);
+        m_supportsDataParallelism = supportsDataParallelism;
         putCudaVisibleDevices();
+        if (supportsDataParallelism) {
+            putDataParallelism();
+        }
     }
 
     /**
@@ -80,13 +108,145 @@ public ConfigEntry<String> getCudaVisibleDevices() {
         return get(CFG_KEY_CUDA_VISIBLE_DEVICES, String.class);
     }
 
+    /**
+     * @return whether this configuration contains the settings for data-parallel training
+     */
+    public boolean supportsDataParallelism() {
+        return m_supportsDataParallelism;
+    }
+
+    /**
+     * @return a config entry that specifies whether the model is trained data-parallel, i.e. each batch is split
+     *         between several replicas of the model. Only available if {@link #supportsDataParallelism()}.
+     */
+    public ConfigEntry<Boolean> getDataParallelEntry() {
+        return get(CFG_KEY_DATA_PARALLEL, Boolean.class);
+    }
+
+    /**
+     * @return a config entry for the number of model replicas in data-parallel training. Only available if
+     *         {@link #supportsDataParallelism()}.
+     */
+    public ConfigEntry<Integer> getNumReplicasEntry() {
+        return get(CFG_KEY_NUM_REPLICAS, Integer.class);
+    }
+
+    /**
+     * @return a config entry that specifies whether the replicas are placed on logical CPU devices instead of GPUs.
+     *         Only available if {@link #supportsDataParallelism()}.
+     */
+    public ConfigEntry<Boolean> getReplicateOnCpuEntry() {
+        return get(CFG_KEY_REPLICATE_ON_CPU, Boolean.class);
+    }
+
+    /**
+     * @return the number of model replicas that are used for training, 1 if data-parallel training is disabled or not
+     *         supported
+     */
+    public int getNumReplicas() {
+        return m_supportsDataParallelism && getDataParallelEntry().getValue() ? getNumReplicasEntry().getValue() : 1;
+    }
+
+    /**
+     * @return a config entry that specifies whether the model is trained data-parallel in several Python kernels whose
+     *         weights are averaged periodically. Only available if {@link #supportsDataParallelism()}.
+     */
+    public ConfigEntry<Boolean> getParameterAveragingEntry() {
+        return get(CFG_KEY_PARAMETER_AVERAGING, Boolean.class);
+    }
+
+    /**
+     * @return a config entry for the number of Python kernels in parameter averaging training. Only available if
+     *         {@link #supportsDataParallelism()}.
+     */
+    public ConfigEntry<Integer> getNumKernelsEntry() {
+        return get(CFG_KEY_NUM_KERNELS, Integer.class);
+    }
+
+    /**
+     * @return a config entry for the number of batches between two synchronizations of the weights in parameter
+     *         averaging training. Only available if {@link #supportsDataParallelism()}.
+     */
+    public ConfigEntry<Integer> getSyncIntervalEntry() {
+        return get(CFG_KEY_SYNC_INTERVAL, Integer.class);
+    }
+
+    /**
+     * @return the number of Python kernels that are used for training, 1 if parameter averaging is disabled or not
+     *         supported
+     */
+    public int getNumKernels() {
+        return m_supportsDataParallelism && getParameterAveragingEntry().getValue() ? getNumKernelsEntry().getValue()
+            : 1;
+    }
+
     @Override
     protected boolean handleFailureToLoadConfig(final NodeSettingsRO settings, final Exception cause) {
         putCudaVisibleDevices();
+        if (m_supportsDataParallelism) {
+            putDataParallelism();
+        }
         return true;
     }
 
     private void putCudaVisibleDevices() {
         put(new DefaultConfigEntry<String>(CFG_KEY_CUDA_VISIBLE_DEVICES, String.class, ""));
     }
+
+    private void putDataParallelism() {
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_DATA_PARALLEL, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): training was not data-parallel before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_NUM_REPLICAS, Integer.class, 2) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9)
+                m_value = 2;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_REPLICATE_ON_CPU, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9)
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_PARAMETER_AVERAGING, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): training used a single kernel before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_NUM_KERNELS, Integer.class, 2) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9)
+                m_value = 2;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_SYNC_INTERVAL, Integer.class, 1) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9)
+                m_value = 1;
+                return true;
+            }
+        });
+    }
 }
@@ -75,5 +75,41 @@ public DLKerasGpuSelectionPanel(final DLKerasGpuSelectionConfig cfg) {
 
         addDoubleColumnRow(getFirstComponent(m_dcCudaVisibleDevices, JLabel.class),
             getFirstComponent(m_dcCudaVisibleDevices, JTextField.class));
+
+        if (cfg.supportsDataParallelism()) {
+            final ConfigEntry<Boolean> dataParallel = cfg.getDataParallelEntry();
+            addCheckboxRow(ConfigUtil.toSettingsModelBoolean(dataParallel),
+                "Split each batch between multiple devices (data-parallel)", true);
+            final ConfigEntry<Integer> numReplicas = cfg.getNumReplicasEntry();
+            addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(numReplicas, 2, Integer.MAX_VALUE),
+                "Number of devices", 1);
+            final ConfigEntry<Boolean> replicateOnCpu = cfg.getReplicateOnCpuEntry();
+            addCheckboxRow(ConfigUtil.toSettingsModelBoolean(replicateOnCpu),
+                "Use logical CPU devices instead of GPUs", true);
+            final Runnable updateEnabled = () -> {
+                numReplicas.setEnabled(dataParallel.getValue());
+                replicateOnCpu.setEnabled(dataParallel.getValue());
+            };
+            updateEnabled.run();
+            dataParallel.addValueChangeListener((e, oldValue) -> updateEnabled.run());
+            dataParallel.addLoadListener(e -> updateEnabled.run());
+
+            final ConfigEntry<Boolean> parameterAveraging = cfg.getParameterAveragingEntry();
+            addCheckboxRow(ConfigUtil.toSettingsModelBoolean(parameterAveraging),
+                "Train in multiple Python processes and average their weights (experimental)", true);
+            final ConfigEntry<Integer> numKernels = cfg.getNumKernelsEntry();
+            addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(numKernels, 2, Integer.MAX_VALUE),
+                "Number of processes", 1);
+            final ConfigEntry<Integer> syncInterval = cfg.getSyncIntervalEntry();
+            addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(syncInterval, 1, Integer.MAX_VALUE),
+                "Batches between weight averaging", 1);
+            final Runnable updateAveragingEnabled = () -> {
+                numKernels.setEnabled(parameterAveraging.getValue());
+                syncInterval.setEnabled(parameterAveraging.getValue());
+            };
+            updateAveragingEnabled.run();
+            parameterAveraging.addValueChangeListener((e, oldValue) -> updateAveragingEnabled.run());
+            parameterAveraging.addLoadListener(e -> updateAveragingEnabled.run());
+        }
     }
 }
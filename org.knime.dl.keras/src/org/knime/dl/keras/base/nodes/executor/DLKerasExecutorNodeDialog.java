@@ -63,6 +63,8 @@ public class DLKerasExecutorNodeDialog extends DLAbstractPythonBasedExecutorNode
 
     private final DLKerasGpuSelectionConfig m_gpuSelection;
 
+    private final DLKerasInferenceCompilationConfig m_inferenceCompilation;
+
     DLKerasExecutorNodeDialog() {
         super(DLKerasExecutorNodeModel::getDefaultPythonCommand);
         final DLDefaultNodeDialogTab advancedTab = new DLDefaultNodeDialogTab("Advanced Options");
@@ -72,6 +74,10 @@ public class DLKerasExecutorNodeDialog extends DLAbstractPythonBasedExecutorNode
         final DLKerasGpuSelectionPanel gpuSelectionPanel = new DLKerasGpuSelectionPanel(m_gpuSelection);
         setWrapperPanel(advancedTab.getTabRoot());
         addDialogComponentGroupWithBorder(gpuSelectionPanel, "GPU Selection");
+
+        m_inferenceCompilation = DLKerasExecutorNodeModel.createInferenceCompilationConfig();
+        addDialogComponentGroupWithBorder(new DLKerasInferenceCompilationPanel(m_inferenceCompilation),
+            "Inference Compilation");
     }
 
     @Override
@@ -79,6 +85,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         super.loadSettingsFrom(settings, specs);
         try {
             m_gpuSelection.loadFromSettings(settings);
+            m_inferenceCompilation.loadFromSettings(settings);
         } catch (final InvalidSettingsException e1) {
             throw new NotConfigurableException(e1.getMessage(), e1);
         }
@@ -88,5 +95,6 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
     protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSettingsException {
         super.saveSettingsTo(settings);
         m_gpuSelection.saveToSettings(settings);
+        m_inferenceCompilation.saveToSettings(settings);
     }
 }
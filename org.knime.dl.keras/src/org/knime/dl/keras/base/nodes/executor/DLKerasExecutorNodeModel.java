@@ -58,12 +58,15 @@
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLThreadingOptions;
 import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
 import org.knime.dl.core.execution.DLExecutionContext;
 import org.knime.dl.core.execution.DLNetworkExecutionSession;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.base.nodes.DLKerasGpuSelectionConfig;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
+import org.knime.dl.keras.core.execution.DLKerasInferenceCompilation;
+import org.knime.dl.keras.core.execution.DLKerasNetworkExecutionSession;
 import org.knime.dl.python.base.node.DLAbstractPythonBasedExecutorNodeModel;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.execution.DLPythonNetworkExecutionSession;
@@ -87,11 +90,18 @@ static DLKerasGpuSelectionConfig createGpuSelectionConfig() {
         return new DLKerasGpuSelectionConfig();
     }
 
+    static DLKerasInferenceCompilationConfig createInferenceCompilationConfig() {
+        return new DLKerasInferenceCompilationConfig();
+    }
+
     private DLKerasGpuSelectionConfig m_gpuSelection;
 
+    private final DLKerasInferenceCompilationConfig m_inferenceCompilation;
+
     DLKerasExecutorNodeModel() {
         super(DLKerasNetworkPortObjectBase.TYPE, DLKerasExecutorNodeModel::getDefaultPythonCommand);
         m_gpuSelection = createGpuSelectionConfig();
+        m_inferenceCompilation = createInferenceCompilationConfig();
     }
 
     @Override
@@ -116,6 +126,19 @@ protected <N extends DLNetwork> DLNetworkExecutionSession createExecutionSession
                     + "' because the selected backend does not support setting environment variables.");
             }
         }
+        if (session instanceof DLPythonNetworkExecutionSession) {
+            final DLThreadingOptions threading =
+                getThreadingOptions().orElseGet(DLPythonPreferences::getThreadingPreference).resolve(1);
+            LOGGER.debug("Using threading options of the back end: " + threading + ".");
+            ((DLPythonNetworkExecutionSession)session).setThreadingOptions(threading);
+        }
+        final DLKerasInferenceCompilation compilation = m_inferenceCompilation.getInferenceCompilation();
+        if (session instanceof DLKerasNetworkExecutionSession) {
+            ((DLKerasNetworkExecutionSession)session).setInferenceCompilation(compilation);
+        } else if (compilation != DLKerasInferenceCompilation.NONE) {
+            LOGGER.warn("Could not compile the network for inference because the selected back end does not "
+                + "support it.");
+        }
         return session;
     }
 
@@ -124,6 +147,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         super.saveSettingsTo(settings);
         try {
             m_gpuSelection.saveToSettings(settings);
+            m_inferenceCompilation.saveToSettings(settings);
         } catch (final InvalidSettingsException e) {
             throw new RuntimeException(e.getMessage(), e);
         }
@@ -133,5 +157,6 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
     protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
         super.loadValidatedSettingsFrom(settings);
         m_gpuSelection.loadFromSettings(settings);
+        m_inferenceCompilation.loadFromSettings(settings);
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.executor;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.dl.base.settings.AbstractConfig;
+import org.knime.dl.base.settings.AbstractStandardConfigEntry;
+import org.knime.dl.base.settings.ConfigEntry;
+import org.knime.dl.keras.core.execution.DLKerasInferenceCompilation;
+
+/**
+ * Settings of the Keras executor that control how the network is compiled for inference.
+ */
+final class DLKerasInferenceCompilationConfig extends AbstractConfig {
+
+    static final String CFG_KEY_ROOT = "inference_compilation_settings";
+
+    static final String CFG_KEY_INFERENCE_COMPILATION = "inference_compilation";
+
+    DLKerasInferenceCompilationConfig() {
+        super(CFG_KEY_ROOT);
+        putInferenceCompilation();
+    }
+
+    /**
+     * @return a config entry for the compilation mode
+     */
+    ConfigEntry<DLKerasInferenceCompilation> getInferenceCompilationEntry() {
+        return get(CFG_KEY_INFERENCE_COMPILATION, DLKerasInferenceCompilation.class);
+    }
+
+    /**
+     * @return the configured compilation mode
+     */
+    DLKerasInferenceCompilation getInferenceCompilation() {
+        return getInferenceCompilationEntry().getValue();
+    }
+
+    @Override
+    protected boolean handleFailureToLoadConfig(final NodeSettingsRO settings, final Exception cause) {
+        // backward compatibility (5.9): networks were always executed via Keras' prediction loop before
+        putInferenceCompilation();
+        return true;
+    }
+
+    private void putInferenceCompilation() {
+        put(new DLKerasInferenceCompilationConfigEntry(CFG_KEY_INFERENCE_COMPILATION,
+            DLKerasInferenceCompilation.NONE));
+    }
+
+    /**
+     * Persists the {@link DLKerasInferenceCompilation#getIdentifier() identifier} of the compilation mode, which,
+     * unlike its user-facing name, is stable.
+     */
+    private static final class DLKerasInferenceCompilationConfigEntry
+        extends AbstractStandardConfigEntry<DLKerasInferenceCompilation> {
+
+        private DLKerasInferenceCompilationConfigEntry(final String entryKey,
+            final DLKerasInferenceCompilation value) {
+            super(entryKey, DLKerasInferenceCompilation.class, value);
+        }
+
+        @Override
+        protected void saveEntry(final NodeSettingsWO settings) {
+            settings.addString(m_key, m_value.getIdentifier());
+        }
+
+        @Override
+        protected void loadEntry(final NodeSettingsRO settings) throws InvalidSettingsException {
+            final String identifier = settings.getString(m_key);
+            m_value = DLKerasInferenceCompilation.fromIdentifier(identifier).orElseThrow(
+                () -> new InvalidSettingsException("Unknown inference compilation '" + identifier + "'."));
+        }
+    }
+}
@@ -49,6 +49,8 @@
 import java.io.IOException;
 import java.net.URI;
 
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.StringValue;
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
@@ -64,6 +66,7 @@
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetworkFileStoreLocation;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
@@ -94,6 +97,10 @@ public abstract class DLKerasAbstractManipulationNodeModel extends PythonBasedNo
 
     private static final String NETWORK_TYPE_IDENTIFIER = "network_type_identifier";
 
+    private static final String INPUT_NETWORK_STATE = "input_network_state";
+
+    private static final String NETWORK_UNCHANGED = "network_unchanged";
+
     static PythonCommandConfig createPythonCommandConfig() {
         return new PythonCommandConfig(PythonVersion.PYTHON3, DLPythonPreferences::getCondaInstallationPath,
             DLPythonPreferences::getPythonKerasCommandPreference);
@@ -139,10 +146,18 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
             final String getModelSourceCode = createGetModelSourceCode(inputNetworkHandle);
             pythonContext.executeInKernel(getModelSourceCode, cancelable);
 
+            // Remember the architecture and weights of the unmodified network
+            pythonContext.executeInKernel(createCaptureInputStateSourceCode(), cancelable);
+
             // Manipulate the layers
             final String manipulateSourceCode = createManipulationSourceCode(inputNetwork.getSpec());
             pythonContext.executeInKernel(manipulateSourceCode, cancelable);
 
+            // Share the input network's storage instead of saving an identical copy
+            if (isNetworkUnchanged(exec, cancelable, pythonContext)) {
+                return new PortObject[]{new DLKerasNetworkPortObject(inputNetwork)};
+            }
+
             // Save the output network
             final DLPythonNetworkPortObject<?> outputPortObject = saveOutputNetwork(exec, cancelable, pythonContext);
             return new PortObject[]{outputPortObject};
@@ -159,6 +174,37 @@ private static String createGetModelSourceCode(final DLPythonNetworkHandle input
             .toString();
     }
 
+    private static String createCaptureInputStateSourceCode() {
+        return DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLKerasNetwork") //
+            .n("global ").a(INPUT_NETWORK_STATE) //
+            .n(INPUT_NETWORK_STATE).a(" = DLKerasNetwork.capture_model_state(").a(OUTPUT_NETWORK_VAR).a(")") //
+            .toString();
+    }
+
+    /**
+     * Compares the architecture and weights of the input network and the manipulated network. Equal networks mean that
+     * the manipulation did not change the network (e.g. freezing layers that were already frozen or selecting the
+     * existing outputs), in which case the output port object can share the storage of the input network. Weights are
+     * only compared if the architectures are equal.
+     */
+    private static boolean isNetworkUnchanged(final ExecutionContext exec, final DLCancelable cancelable,
+        final DLPythonContext pythonContext) throws DLCanceledExecutionException, IOException,
+        CanceledExecutionException {
+        final String compareSourceCode = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLKerasNetwork") //
+            .n("import pandas as pd") //
+            .n("global ").a(NETWORK_UNCHANGED) //
+            .n(NETWORK_UNCHANGED).a(" = pd.DataFrame(data=[DLKerasNetwork.is_model_unchanged(")
+            /**/ .a(INPUT_NETWORK_STATE).a(", ").a(OUTPUT_NETWORK_VAR).a(")])") //
+            .n("del ").a(INPUT_NETWORK_STATE) //
+            .toString();
+        pythonContext.executeInKernel(compareSourceCode, cancelable);
+        final DataRow unchanged =
+            pythonContext.getKernel().getDataTable(NETWORK_UNCHANGED, exec, exec).iterator().next();
+        return ((BooleanValue)unchanged.getCell(0)).getBooleanValue();
+    }
+
     private static <N extends DLPythonNetwork> DLPythonNetworkPortObject<?> saveOutputNetwork(
         final ExecutionContext exec, final DLCancelable cancelable, final DLPythonContext pythonContext)
         throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException, CanceledExecutionException,
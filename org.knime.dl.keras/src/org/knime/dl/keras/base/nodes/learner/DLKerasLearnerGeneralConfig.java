@@ -49,6 +49,7 @@
 package org.knime.dl.keras.base.nodes.learner;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.knime.core.node.InvalidSettingsException;
@@ -60,10 +61,13 @@
 import org.knime.dl.base.settings.DLGeneralConfig;
 import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.core.DLNetwork;
+import org.knime.dl.core.DLThreadingOptions;
 import org.knime.dl.core.training.DLTrainingContextRegistry;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTrainingBudget;
+import org.knime.dl.keras.core.training.DLKerasMixedPrecision;
 import org.knime.dl.keras.core.training.DLKerasOptimizer;
 import org.knime.dl.keras.core.training.DLKerasTrainingContext;
 
@@ -87,6 +91,10 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 	 */
 	static final String CFG_KEY_VALIDATION_BATCH_SIZE = "validation_batch_size";
 
+	static final String CFG_KEY_VALIDATION_FREQUENCY = "validation_frequency";
+
+	static final String CFG_KEY_VALIDATION_SUBSET_FRACTION = "validation_subset_fraction";
+
 	static final String CFG_KEY_OPTIMIZER = "optimizer";
 
 	static final String CFG_KEY_CLIP_NORM = "clip_norm";
@@ -99,10 +107,34 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 
 	static final String CFG_KEY_REDUCE_LR_ON_PLATEAU = "reduce_lr_on_plateau";
 
+	static final String CFG_KEY_TRAINING_BUDGET = "training_budget";
+
 	static final String CFG_KEY_SHUFFLE_TRAINING_DATA = "shuffle_training_data";
 
 	static final String CFG_KEY_RANDOM_SEED = "random_seed";
 
+	static final String CFG_KEY_THREADING_FROM_PREFS = "threading_from_preferences";
+
+	static final String CFG_KEY_INTRA_OP_THREADS = "intra_op_threads";
+
+	static final String CFG_KEY_INTER_OP_THREADS = "inter_op_threads";
+
+	static final String CFG_KEY_AUTO_THREADS = "auto_threads";
+
+	static final String CFG_KEY_GPU_MEMORY_GROWTH = "gpu_memory_growth";
+
+	static final String CFG_KEY_MIXED_PRECISION = "mixed_precision";
+
+	static final String CFG_KEY_ACCUMULATION_STEPS = "accumulation_steps";
+
+	static final String CFG_KEY_TRACE_TIMELINE = "trace_timeline";
+
+	static final String CFG_KEY_TRACE_DIRECTORY = "trace_directory";
+
+	static final String CFG_KEY_STAGE_TRAINING_DATA = "stage_training_data";
+
+	static final String CFG_KEY_SHARD_SIZE = "shard_size";
+
 	static Collection<DLKerasTrainingContext<?>> getAvailableTrainingContexts(
 			final Class<? extends DLNetwork> networkType) {
 		return DLTrainingContextRegistry.getInstance().getTrainingContextsForNetworkType((networkType)) //
@@ -150,6 +182,24 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 				return true;
 			}
 		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_VALIDATION_FREQUENCY, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): validate after each epoch as before
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Double>(CFG_KEY_VALIDATION_SUBSET_FRACTION, Double.class, 1.0) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): use all validation data as before
+				m_value = 1.0;
+				return true;
+			}
+		});
 
 		put(new AbstractStandardConfigEntry<DLKerasOptimizer>(CFG_KEY_OPTIMIZER, DLKerasOptimizer.class) {
 		    
@@ -192,6 +242,16 @@ protected void loadEntry(final NodeSettingsRO settings)
 				false));
 		put(new DefaultConfigEntry<>(CFG_KEY_REDUCE_LR_ON_PLATEAU, DLKerasReduceLROnPlateau.class,
 				new DLKerasReduceLROnPlateau(), false));
+		put(new DefaultConfigEntry<DLKerasTrainingBudget>(CFG_KEY_TRAINING_BUDGET, DLKerasTrainingBudget.class,
+				new DLKerasTrainingBudget(), false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): training was only bounded by the number of epochs before
+				m_enabled = false;
+				return true;
+			}
+		});
 
 		// shuffle options
 		final DefaultConfigEntry<Boolean> shuffleTrainingData = new DefaultConfigEntry<Boolean>(
@@ -216,6 +276,107 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 			}
 		};
 		put(randomSeed);
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_THREADING_FROM_PREFS, Boolean.class, true) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): threading was not configurable before, preferences default to the
+				// back end's own settings
+				m_value = true;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_INTRA_OP_THREADS, Integer.class, 0) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): back end default if entry is not present in the settings
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_INTER_OP_THREADS, Integer.class, 0) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): back end default if entry is not present in the settings
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_AUTO_THREADS, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): cores were not divided among nodes before
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_GPU_MEMORY_GROWTH, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): GPU memory was reserved up front before
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<String>(CFG_KEY_MIXED_PRECISION, String.class,
+				DLKerasMixedPrecision.NONE.getName()) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): networks were always trained in float32 before
+				m_value = DLKerasMixedPrecision.NONE.getName();
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_ACCUMULATION_STEPS, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): the network was updated after each batch before
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_TRACE_TIMELINE, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): training was not traced before
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<String>(CFG_KEY_TRACE_DIRECTORY, String.class, "") {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9)
+				m_value = "";
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_STAGE_TRAINING_DATA, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9): training data was transferred to Python in each epoch before
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_SHARD_SIZE, Integer.class, 256) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (5.9)
+				m_value = 256;
+				return true;
+			}
+		});
 	}
 
 	@Override
@@ -239,6 +400,14 @@ ConfigEntry<Integer> getValidationBatchSizeEntry() {
 		return get(CFG_KEY_VALIDATION_BATCH_SIZE, Integer.class);
 	}
 
+	ConfigEntry<Integer> getValidationFrequencyEntry() {
+		return get(CFG_KEY_VALIDATION_FREQUENCY, Integer.class);
+	}
+
+	ConfigEntry<Double> getValidationSubsetFractionEntry() {
+		return get(CFG_KEY_VALIDATION_SUBSET_FRACTION, Double.class);
+	}
+
 	ConfigEntry<DLKerasOptimizer> getOptimizerEntry() {
 		return get(CFG_KEY_OPTIMIZER, DLKerasOptimizer.class);
 	}
@@ -263,6 +432,10 @@ ConfigEntry<DLKerasReduceLROnPlateau> getReduceLROnPlateauEntry() {
 		return get(CFG_KEY_REDUCE_LR_ON_PLATEAU, DLKerasReduceLROnPlateau.class);
 	}
 
+	ConfigEntry<DLKerasTrainingBudget> getTrainingBudgetEntry() {
+		return get(CFG_KEY_TRAINING_BUDGET, DLKerasTrainingBudget.class);
+	}
+
 	@SuppressWarnings("rawtypes")
 	ConfigEntry<DLKerasTrainingContext> getTrainingContext() {
 		return get(CFG_KEY_TRAINING_CONTEXT, DLKerasTrainingContext.class);
@@ -276,6 +449,65 @@ ConfigEntry<Long> getRandomSeed() {
 		return get(CFG_KEY_RANDOM_SEED, Long.class);
 	}
 
+	ConfigEntry<Boolean> getThreadingFromPreferencesEntry() {
+		return get(CFG_KEY_THREADING_FROM_PREFS, Boolean.class);
+	}
+
+	ConfigEntry<Integer> getIntraOpThreadsEntry() {
+		return get(CFG_KEY_INTRA_OP_THREADS, Integer.class);
+	}
+
+	ConfigEntry<Integer> getInterOpThreadsEntry() {
+		return get(CFG_KEY_INTER_OP_THREADS, Integer.class);
+	}
+
+	ConfigEntry<Boolean> getAutoThreadsEntry() {
+		return get(CFG_KEY_AUTO_THREADS, Boolean.class);
+	}
+
+	ConfigEntry<Boolean> getGpuMemoryGrowthEntry() {
+		return get(CFG_KEY_GPU_MEMORY_GROWTH, Boolean.class);
+	}
+
+	ConfigEntry<String> getMixedPrecisionEntry() {
+		return get(CFG_KEY_MIXED_PRECISION, String.class);
+	}
+
+	ConfigEntry<Integer> getAccumulationStepsEntry() {
+		return get(CFG_KEY_ACCUMULATION_STEPS, Integer.class);
+	}
+
+	ConfigEntry<Boolean> getTraceTimelineEntry() {
+		return get(CFG_KEY_TRACE_TIMELINE, Boolean.class);
+	}
+
+	ConfigEntry<String> getTraceDirectoryEntry() {
+		return get(CFG_KEY_TRACE_DIRECTORY, String.class);
+	}
+
+	ConfigEntry<Boolean> getStageTrainingDataEntry() {
+		return get(CFG_KEY_STAGE_TRAINING_DATA, Boolean.class);
+	}
+
+	/**
+	 * @return the maximum size of a shard of the staged training data (in megabytes)
+	 */
+	ConfigEntry<Integer> getShardSizeEntry() {
+		return get(CFG_KEY_SHARD_SIZE, Integer.class);
+	}
+
+	/**
+	 * @return the configured threading options, empty if they are taken from the preferences
+	 */
+	Optional<DLThreadingOptions> getThreadingOptions() {
+		if (getThreadingFromPreferencesEntry().getValue()) {
+			return Optional.empty();
+		}
+		return Optional.of(new DLThreadingOptions(getIntraOpThreadsEntry().getValue(),
+				getInterOpThreadsEntry().getValue(), getAutoThreadsEntry().getValue(),
+				getGpuMemoryGrowthEntry().getValue()));
+	}
+
 	void copyClipSettingsToOptimizer() {
 		final DLKerasOptimizer optimizer = getOptimizerEntry().getValue();
 		if (optimizer != null) {
@@ -72,6 +72,7 @@
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.training.DLTrainingContext;
+import org.knime.dl.keras.core.training.DLKerasMixedPrecision;
 import org.knime.dl.keras.core.training.DLKerasTrainingContext;
 
 /**
@@ -80,6 +81,8 @@
  */
 class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 
+	private static final int MAX_THREADS = 1024;
+
 	private final DLKerasLearnerGeneralConfig m_cfg;
 
 	private final DialogComponentObjectSelection<DLKerasTrainingContext<?>> m_dcBackend;
@@ -99,13 +102,38 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getBatchSizeEntry(), 1, Integer.MAX_VALUE),
 				"Training batch size", 1);
 
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getAccumulationStepsEntry(), 1, Integer.MAX_VALUE),
+				"Gradient accumulation steps", 1);
+
 		addNumberSpinnerRowComponent(
 				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getValidationBatchSizeEntry(), 1, Integer.MAX_VALUE),
 				"Validation batch size", 1);
+
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getValidationFrequencyEntry(), 1, Integer.MAX_VALUE),
+				"Validate every n epochs", 1);
+
+		addNumberEditRowComponent(
+				ConfigUtil.toSettingsModelDoubleBounded(m_cfg.getValidationSubsetFractionEntry(), 0.01, 1.0),
+				"Fraction of validation data");
+
+		addComboBoxRow(ConfigUtil.toSettingsModelString(m_cfg.getMixedPrecisionEntry()), "Mixed precision",
+				Arrays.stream(DLKerasMixedPrecision.values()).map(DLKerasMixedPrecision::getName)
+						.collect(Collectors.toList()));
 		
 		ConfigEntry<Boolean> shuffleEntry = m_cfg.getShuffleTrainingData();
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(shuffleEntry),
 				"Shuffle training data before each epoch", true);
+
+		final ConfigEntry<Boolean> stageTrainingDataEntry = m_cfg.getStageTrainingDataEntry();
+		final ConfigEntry<Integer> shardSizeEntry = m_cfg.getShardSizeEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(stageTrainingDataEntry), "Stage training data on disk", true);
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(shardSizeEntry, 1, Integer.MAX_VALUE), "Shard size (MB)", 64);
+		shardSizeEntry.setEnabled(stageTrainingDataEntry.getValue());
+		stageTrainingDataEntry.addValueChangeListener((e, oldValue) -> shardSizeEntry.setEnabled(e.getValue()));
+		stageTrainingDataEntry.addLoadListener(e -> shardSizeEntry.setEnabled(e.getValue()));
 		
 		ConfigEntry<Long> randomSeedConfig = m_cfg.getRandomSeed();
 		DialogComponentRandomSeed randomSeed = 
@@ -119,6 +147,44 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 			randomSeedConfig.setEnabled(!v);
 			toggleCheckBox.setEnabled(!v);
 		});
+
+		final ConfigEntry<Boolean> threadingFromPrefsEntry = m_cfg.getThreadingFromPreferencesEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(threadingFromPrefsEntry),
+				"Use threading and memory settings from preferences", true);
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getIntraOpThreadsEntry(), 0, MAX_THREADS),
+				"Threads per operation (0 = back end default)", 1);
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getInterOpThreadsEntry(), 0, MAX_THREADS),
+				"Threads for independent operations (0 = back end default)", 1);
+		final ConfigEntry<Boolean> autoThreadsEntry = m_cfg.getAutoThreadsEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(autoThreadsEntry),
+				"Divide cores among concurrently running nodes", true);
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getGpuMemoryGrowthEntry()),
+				"Allocate GPU memory on demand", true);
+		updateThreadingEnabled();
+		threadingFromPrefsEntry.addValueChangeListener((e, oldValue) -> updateThreadingEnabled());
+		threadingFromPrefsEntry.addLoadListener(e -> updateThreadingEnabled());
+		autoThreadsEntry.addValueChangeListener((e, oldValue) -> updateThreadingEnabled());
+		autoThreadsEntry.addLoadListener(e -> updateThreadingEnabled());
+
+		final ConfigEntry<Boolean> traceTimelineEntry = m_cfg.getTraceTimelineEntry();
+		final ConfigEntry<String> traceDirectoryEntry = m_cfg.getTraceDirectoryEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(traceTimelineEntry), "Record timeline trace", true);
+		addStringEditRowComponent(ConfigUtil.toSettingsModelString(traceDirectoryEntry),
+				"Trace directory (empty = node file store)");
+		traceDirectoryEntry.setEnabled(traceTimelineEntry.getValue());
+		traceTimelineEntry.addValueChangeListener((e, oldValue) -> traceDirectoryEntry.setEnabled(e.getValue()));
+		traceTimelineEntry.addLoadListener(e -> traceDirectoryEntry.setEnabled(e.getValue()));
+	}
+
+	private void updateThreadingEnabled() {
+		final boolean custom = !m_cfg.getThreadingFromPreferencesEntry().getValue();
+		final boolean manualThreads = custom && !m_cfg.getAutoThreadsEntry().getValue();
+		m_cfg.getIntraOpThreadsEntry().setEnabled(manualThreads);
+		m_cfg.getInterOpThreadsEntry().setEnabled(manualThreads);
+		m_cfg.getAutoThreadsEntry().setEnabled(custom);
+		m_cfg.getGpuMemoryGrowthEntry().setEnabled(custom);
 	}
 	
 	private JCheckBox getLastCheckBox() {
@@ -170,6 +236,9 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 			m_cfg.getValidationBatchSizeEntry()
 					.setEnabled(specs[DLKerasLearnerNodeModel.IN_VALIDATION_DATA_PORT_IDX] != null);
 		}
+		final boolean hasValidationData = specs[DLKerasLearnerNodeModel.IN_VALIDATION_DATA_PORT_IDX] != null;
+		m_cfg.getValidationFrequencyEntry().setEnabled(hasValidationData);
+		m_cfg.getValidationSubsetFractionEntry().setEnabled(hasValidationData);
 	}
 
 	private void refreshAvailableBackends(final Class<? extends DLNetwork> networkType)
@@ -54,6 +54,7 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -63,10 +64,13 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.OptionalLong;
 import java.util.Random;
 import java.util.stream.Collectors;
 
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -80,6 +84,7 @@
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.util.FileUtil;
 import org.knime.core.util.asynclose.AsynchronousCloseableTracker;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
 import org.knime.dl.base.nodes.DLTensorRole;
@@ -88,10 +93,12 @@
 import org.knime.dl.base.settings.DLAbstractInputConfig;
 import org.knime.dl.base.settings.DLDataTypeColumnFilter;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLCounter;
 import org.knime.dl.core.DLDataTableRowIterator;
 import org.knime.dl.core.DLDefaultTensorId;
 import org.knime.dl.core.DLExecutionSpecCreator;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
+import org.knime.dl.core.DLMetricsRegistry;
 import org.knime.dl.core.DLMissingDependencyException;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkSpec;
@@ -100,6 +107,9 @@
 import org.knime.dl.core.DLShuffleDataTableRowIterator;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLThreadingOptions;
+import org.knime.dl.core.DLTimer;
+import org.knime.dl.core.DLTraceRecorder;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.training.DLKnimeNetworkTrainingInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkValidationInputPreparer;
@@ -111,6 +121,7 @@
 import org.knime.dl.keras.base.nodes.learner.view.DLDenseLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.DLInteractiveLearnerNodeModel;
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewDataCollection;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewSpec;
 import org.knime.dl.keras.base.nodes.learner.view.DLProgressMonitor;
 import org.knime.dl.keras.base.nodes.learner.view.DLSparseLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.jfreechart.DLDefaultJFreeChartLinePlotViewSpec;
@@ -124,6 +135,7 @@
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingConfig;
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingStatus;
 import org.knime.dl.keras.core.training.DLKerasLossFunction;
+import org.knime.dl.keras.core.training.DLKerasMixedPrecision;
 import org.knime.dl.keras.core.training.DLKerasNetworkTrainingSession;
 import org.knime.dl.keras.core.training.DLKerasOptimizer;
 import org.knime.dl.keras.core.training.DLKerasTrainingConfig;
@@ -174,7 +186,7 @@ static DLKerasLearnerGeneralConfig createGeneralModelConfig() {
 	}
 
     static DLKerasGpuSelectionConfig createGpuSelectionConfig() {
-        return new DLKerasGpuSelectionConfig();
+        return new DLKerasGpuSelectionConfig(true);
     }
 
     static DLKerasLearnerInputConfig createInputTensorModelConfig(final DLTensorId inputTensorId,
@@ -232,6 +244,12 @@ static DLKerasLearnerTargetConfig createOutputTensorModelConfig(final DLTensorId
      */
     private DLKerasNetworkTrainingSession m_session;
 
+    /**
+     * The directory the training data of the last execution was staged in, <code>null</code> if it was not staged.
+     * Deleted on reset.
+     */
+    private Path m_stagingDirectory;
+
 	DLKerasLearnerNodeModel() {
 		super(new PortType[] { DLKerasNetworkPortObjectBase.TYPE, BufferedDataTable.TYPE, BufferedDataTable.TYPE_OPTIONAL },
 				new PortType[] { DLKerasNetworkPortObjectBase.TYPE });
@@ -340,6 +358,11 @@ protected void loadInternals(final File nodeInternDir, final ExecutionMonitor ex
 			}
 			m_status.setViewSpecs(m_viewSpecs);
 			m_status.setViewData(m_viewData);
+			try {
+				m_status.setTimingSummary((String) objIn.readObject());
+			} catch (final IOException e) {
+				// Backwards compatibility, timings were not persisted in earlier versions.
+			}
         } catch (final Exception e) {
             throw new IOException("The trained output network remains unaffected by this error. "
                 + "The content of the node's learning monitor view could not be restored.", e);
@@ -362,6 +385,7 @@ protected void saveInternals(final File nodeInternDir, final ExecutionMonitor ex
 				m_viewSpecs[i].writeExternal(objOut);
 				m_viewData[i].writeExternal(objOut);
 			}
+			objOut.writeObject(m_status.getTimingSummary());
 		}
 	}
 
@@ -445,6 +469,7 @@ protected void reset() {
 		// reset views
 		notifyViews(null);
 		m_sessionShutdownTracker.waitForAllToClose();
+		deleteStagingDirectory();
 	}
 
     private boolean areNetworkSpecsCompatible(final DLNetworkSpec newSpec, final DLNetworkSpec oldSpec) {
@@ -468,8 +493,28 @@ private boolean areNetworkSpecsCompatible(final DLNetworkSpec newSpec, final DLN
 	private void configureGeneral(final Class<? extends DLNetwork> inNetworkType) throws Exception {
 		final DLKerasTrainingContext<?> backend = configureBackend(inNetworkType);
 		configureOptimizer(backend);
+		configureDataParallelism();
 	}
 
+    private void configureDataParallelism() throws InvalidSettingsException {
+        final int numReplicas = m_gpuSelection.getNumReplicas();
+        if (numReplicas > m_generalCfg.getBatchSizeEntry().getValue()) {
+            throw new InvalidSettingsException("The training batch size (" + m_generalCfg.getBatchSizeEntry().getValue()
+                + ") must not be smaller than the number of devices used for data-parallel training (" + numReplicas
+                + ") as each batch is split between the devices.");
+        }
+        final int numKernels = m_gpuSelection.getNumKernels();
+        if (numKernels > 1 && numReplicas > 1) {
+            throw new InvalidSettingsException(
+                "Data-parallel training on multiple devices cannot be combined with training in multiple processes.");
+        }
+        if (numKernels > m_generalCfg.getBatchSizeEntry().getValue()) {
+            throw new InvalidSettingsException("The training batch size (" + m_generalCfg.getBatchSizeEntry().getValue()
+                + ") must not be smaller than the number of processes used for training (" + numKernels
+                + ") as each batch is split between the processes.");
+        }
+    }
+
     private void configureOptimizer(final DLKerasTrainingContext<?> backend) throws DLMissingDependencyException {
         DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
 		if (optimizer == null) {
@@ -653,7 +698,11 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 
 		final DLKerasTrainingContext<N> ctx = (DLKerasTrainingContext<N>) m_generalCfg.getContextEntry()
 				.getValue();
-        try (final DLPythonContext context = new DLKerasPythonContext(pythonCommand)) {
+        @SuppressWarnings("resource") // Closed below or along with the session, see below.
+        final DLPythonContext context = new DLKerasPythonContext(pythonCommand);
+        // Once the trained network is retrieved, the session owns the context and closes it after saving the network.
+        boolean closeContext = true;
+        try {
             try {
                 DLPythonNetworkLoaderRegistry.getInstance();
                 ctx.checkAvailability(context, false, DLPythonNetworkLoaderRegistry.getInstallationTestTimeout(),
@@ -679,21 +728,31 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
             final int numTrainingBatchesPerEpoch =
                 (int)Math.ceil(inTable.size() / (double)trainingConfig.getBatchSize());
             final int totalNumTrainingBatches = trainingConfig.getEpochs() * numTrainingBatchesPerEpoch;
+            final double validationSubsetFraction = trainingConfig.getValidationSubsetFraction();
+            final BufferedDataTable validationTable = doValidation && validationSubsetFraction < 1
+                ? sampleValidationTable(inValidationTable, validationSubsetFraction,
+                    trainingConfig.getValidationBatchSize(), exec)
+                : inValidationTable;
             final int numBatchesPerValidation = doValidation
-                ? (int)Math.ceil(inValidationTable.size() / (double)trainingConfig.getValidationBatchSize()) : 0;
-            final int totalNumValidationBatches = trainingConfig.getEpochs() * numBatchesPerValidation;
+                ? (int)Math.ceil(validationTable.size() / (double)trainingConfig.getValidationBatchSize()) : 0;
+            // validation is performed every n-th epoch and after the last epoch
+            final int numValidations =
+                (int)Math.ceil(trainingConfig.getEpochs() / (double)trainingConfig.getValidationFrequency());
+            final int totalNumValidationBatches = numValidations * numBatchesPerValidation;
 
-            prepareView(doValidation, totalNumTrainingBatches, totalNumValidationBatches);
+            prepareView(doValidation, validationSubsetFraction < 1, totalNumTrainingBatches,
+                totalNumValidationBatches);
 
             final Random random = createRandom();
 
             m_status = new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch);
+            DLThreadingOptions.nodeExecutionStarted();
             try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, random, exec);
                     final DLKnimeNetworkTrainingInputPreparer inputPreparer = new DLKnimeNetworkTrainingInputPreparer(
                         rowIterator, (int)trainingConfig.getBatchSize(), converterForTensorId);
                     final DLKnimeNetworkValidationInputPreparer validationPreparer =
                         doValidation ? new DLKnimeNetworkValidationInputPreparer(
-                            new DLDataTableRowIterator(inValidationTable, columnsForTensorId),
+                            new DLDataTableRowIterator(validationTable, columnsForTensorId),
                             (int)trainingConfig.getValidationBatchSize(), converterForTensorId) : null;
                     DLKerasNetworkTrainingSession session =
                         ctx.createTrainingSession(context, inNetwork, trainingConfig,
@@ -709,9 +768,51 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
                 if (!cudaVisibleDevices.isEmpty()) {
                     session.setKernelEnvironmentVariable("CUDA_VISIBLE_DEVICES", cudaVisibleDevices);
                 }
+                final int numKernels = m_gpuSelection.getNumKernels();
+                final DLThreadingOptions threading = m_generalCfg.getThreadingOptions()
+                    .orElseGet(DLPythonPreferences::getThreadingPreference).resolve(numKernels);
+                LOGGER.debug("Using threading options of the back end: " + threading + ".");
+                session.setThreadingOptions(threading);
+                if (numKernels > 1) {
+                    session.setParameterAveraging(numKernels, m_gpuSelection.getSyncIntervalEntry().getValue(),
+                        () -> new DLKerasPythonContext(pythonCommand));
+                }
+                if (m_generalCfg.getStageTrainingDataEntry().getValue()) {
+                    if (numKernels > 1) {
+                        LOGGER.warn("Training data is not staged on disk when training with multiple kernels.");
+                    } else {
+                        // A later reset deletes the shards, the session that reads them is closed by then.
+                        m_stagingDirectory = FileUtil.createTempDir("knime-dl-shards").toPath();
+                        session.setInputStaging(m_stagingDirectory,
+                            m_generalCfg.getShardSizeEntry().getValue() * 1024L * 1024L,
+                            m_generalCfg.getShuffleTrainingData().getValue() ? OptionalLong.of(random.nextLong())
+                                : OptionalLong.empty());
+                    }
+                }
+                final DLTraceRecorder trace =
+                    m_generalCfg.getTraceTimelineEntry().getValue() ? new DLTraceRecorder() : null;
+                if (trace != null) {
+                    monitor.getMetrics().setTraceRecorder(trace);
+                }
                 session.run(monitor);
+                publishMetrics(monitor.getMetrics());
+                if (trace != null) {
+                    final Path traceFile =
+                        trace.writeChromeTrace(m_generalCfg.getTraceDirectoryEntry().getValue(), exec);
+                    pushFlowVariableString(DLTraceRecorder.TRACE_FLOW_VARIABLE, traceFile.toString());
+                }
                 exec.setMessage("Saving trained Keras deep learning network...");
                 var network = session.getTrainedNetwork(exec);
+                closeContext = false;
+                // The network is written to file store after the node has finished executing. A failed write must
+                // not go unnoticed until a downstream node accesses the network or the workflow is saved.
+                session.getTrainedNetworkSave().whenComplete((v, t) -> {
+                    if (t != null) {
+                        final Throwable cause = t.getCause() != null ? t.getCause() : t;
+                        setWarningMessage("Failed to save the trained network. Please re-execute the node."
+                            + (cause.getMessage() != null ? "\nCause: " + cause.getMessage() : ""));
+                    }
+                });
                 m_sessionShutdownTracker.closeAsynchronously(session);
                 return network;
             } catch (final CanceledExecutionException | DLCanceledExecutionException e) {
@@ -721,6 +822,11 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
                 throw handleGeneralException(e);
             } finally {
                 m_session = null;
+                DLThreadingOptions.nodeExecutionFinished();
+            }
+        } finally {
+            if (closeContext) {
+                context.close();
             }
         }
     }
@@ -728,8 +834,41 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 	@Override
 	protected void onDispose() {
 	    m_sessionShutdownTracker.waitForAllToClose();
+	    deleteStagingDirectory();
 	}
 
+    /**
+     * Deletes the staged training data. Must only be called after the sessions that read it have been closed.
+     */
+    private void deleteStagingDirectory() {
+        if (m_stagingDirectory != null) {
+            if (!FileUtil.deleteRecursively(m_stagingDirectory.toFile())) {
+                LOGGER.debug("Staged training data in '" + m_stagingDirectory + "' could not be deleted.");
+            }
+            m_stagingDirectory = null;
+        }
+    }
+
+    /**
+     * Logs the timing summary of the training, makes it available to the view and exposes the total time of each
+     * stage (in milliseconds) as well as all counters as flow variables.
+     */
+    private void publishMetrics(final DLMetricsRegistry metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+        final String summary = metrics.getSummary();
+        LOGGER.debug("Training metrics:\n" + summary);
+        m_status.setTimingSummary(summary);
+        for (final DLTimer timer : metrics.getTimers()) {
+            pushFlowVariableDouble(DLMetricsRegistry.getFlowVariableName(timer), timer.getTotalMillis());
+        }
+        for (final DLCounter counter : metrics.getCounters()) {
+            pushFlowVariableInt(DLMetricsRegistry.getFlowVariableName(counter),
+                (int)Math.min(counter.getValue(), Integer.MAX_VALUE));
+        }
+    }
+
     private RuntimeException handleGeneralException(final Exception e) throws CanceledExecutionException {
         final Throwable cause = e.getCause();
         if (cause != null) {
@@ -774,16 +913,15 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         	}
         });
         m_status.epochEnded().addListener((src, metrics) -> {
-        	if (doValidation) {
+        	// validation may not be performed in each epoch
+        	if (doValidation && !Float.isNaN(metrics.get("val_loss").getValue())) {
         		final int currentBatch = m_status.getCurrentEpoch() * numTrainingBatchesPerEpoch
         				+ m_status.getCurrentBatchInEpoch();
         		// update view
-        		final DLSparseLinePlotViewData accuracyPlot = (DLSparseLinePlotViewData) m_viewData[0].get(1);
-        		accuracyPlot.getDataX().add(currentBatch);
-        		accuracyPlot.getDataY().add(metrics.get("val_accuracy").getValue());
-        		final DLSparseLinePlotViewData lossPlot = (DLSparseLinePlotViewData) m_viewData[1].get(1);
-        		lossPlot.getDataX().add(currentBatch);
-        		lossPlot.getDataY().add(metrics.get("val_loss").getValue());
+        		addValidationPoint(m_viewData[0], currentBatch, metrics.get("val_accuracy").getValue(),
+        				metrics.get("val_accuracy_ci").getValue());
+        		addValidationPoint(m_viewData[1], currentBatch, metrics.get("val_loss").getValue(),
+        				metrics.get("val_loss_ci").getValue());
                 try {
                     notifyViewsWithNodeContext(nodeContext, m_status);
                 } catch (final Exception e) {
@@ -826,6 +964,29 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         			(src, batch) -> setWarningMessage("Training terminated in batch " + (batch + 1) + " of epoch "
         					+ (m_status.getCurrentEpoch() + 1) + " due to a NaN (not a number) loss."));
         }
+        if (m_generalCfg.getTrainingBudgetEntry().getEnabled()) {
+            m_status.stoppedOnBudget().addListener((src, reason) -> setWarningMessage("Training stopped in epoch "
+                + (m_status.getCurrentEpoch() + 1) + " as " + reason.getDescription() + " (training budget)."));
+        }
+    }
+
+    /**
+     * Adds a validation result to the given plot. If the plot shows confidence intervals and the half-width of the
+     * interval is known, its bounds are added to the respective line series.
+     */
+    private static void addValidationPoint(final DLLinePlotViewDataCollection plot, final int currentBatch,
+        final float value, final float halfWidth) {
+        final DLSparseLinePlotViewData validation = (DLSparseLinePlotViewData)plot.get(1);
+        validation.getDataX().add(currentBatch);
+        validation.getDataY().add(value);
+        if (((DLLinePlotViewSpec)plot.getSpec()).numPlots() > 2 && !Float.isNaN(halfWidth)) {
+            final DLSparseLinePlotViewData lower = (DLSparseLinePlotViewData)plot.get(2);
+            lower.getDataX().add(currentBatch);
+            lower.getDataY().add(value - halfWidth);
+            final DLSparseLinePlotViewData upper = (DLSparseLinePlotViewData)plot.get(3);
+            upper.getDataX().add(currentBatch);
+            upper.getDataY().add(value + halfWidth);
+        }
     }
 
     private void notifyViewsWithNodeContext(final NodeContext nodeContext, final Object arg) {
@@ -841,11 +1002,27 @@ private void notifyViewsWithNodeContext(final NodeContext nodeContext, final Obj
         }
     }
 
-    private void prepareView(final boolean doValidation, final int totalNumTrainingBatches,
-        final int totalNumValidationBatches) {
+    private void prepareView(final boolean doValidation, final boolean showConfidenceIntervals,
+        final int totalNumTrainingBatches, final int totalNumValidationBatches) {
         m_viewSpecs = new DLDefaultJFreeChartLinePlotViewSpec[2];
 		m_viewData = new DLLinePlotViewDataCollection[2];
-		if (doValidation) {
+		if (doValidation && showConfidenceIntervals) {
+			final String[] lineLabels = new String[] { "Training data", "Validation data",
+					"Validation data (lower 95% bound)", "Validation data (upper 95% bound)" };
+			m_viewSpecs[0] = new DLDefaultJFreeChartLinePlotViewSpec("accuracy", "Accuracy", "Accuracy", "Batches",
+					lineLabels);
+			m_viewSpecs[1] = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches", lineLabels);
+			m_viewData[0] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[0],
+					new DLDenseLinePlotViewData(totalNumTrainingBatches),
+					new DLSparseLinePlotViewData(totalNumValidationBatches),
+					new DLSparseLinePlotViewData(totalNumValidationBatches),
+					new DLSparseLinePlotViewData(totalNumValidationBatches));
+			m_viewData[1] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[1],
+					new DLDenseLinePlotViewData(totalNumTrainingBatches),
+					new DLSparseLinePlotViewData(totalNumValidationBatches),
+					new DLSparseLinePlotViewData(totalNumValidationBatches),
+					new DLSparseLinePlotViewData(totalNumValidationBatches));
+		} else if (doValidation) {
 			m_viewSpecs[0] = new DLDefaultJFreeChartLinePlotViewSpec("accuracy", "Accuracy", "Accuracy", "Batches",
 					new String[] { "Training data", "Validation data" });
 			m_viewSpecs[1] = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
@@ -901,12 +1078,18 @@ private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNe
 		final DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
         final Map<DLTensorId, DLKerasLossFunction> lossFunctions = createLossFunctionMap(inNetworkSpec);
 		final ArrayList<DLKerasCallback> callbacks = createCallbackList();
-		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize,
-				validationBatchSize, optimizer, lossFunctions, callbacks);
+		final String mixedPrecisionName = m_generalCfg.getMixedPrecisionEntry().getValue();
+		final DLKerasMixedPrecision mixedPrecision = DLKerasMixedPrecision.fromName(mixedPrecisionName)
+				.orElseThrow(() -> new IllegalStateException("Unknown mixed precision '" + mixedPrecisionName + "'."));
+		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize, validationBatchSize, optimizer,
+				lossFunctions, callbacks, m_gpuSelection.getNumReplicas(),
+				m_gpuSelection.getReplicateOnCpuEntry().getValue(), m_generalCfg.getValidationFrequencyEntry().getValue(),
+				m_generalCfg.getValidationSubsetFractionEntry().getValue(), mixedPrecision,
+				m_generalCfg.getAccumulationStepsEntry().getValue());
     }
 
     private ArrayList<DLKerasCallback> createCallbackList() {
-        final ArrayList<DLKerasCallback> callbacks = new ArrayList<>(3);
+        final ArrayList<DLKerasCallback> callbacks = new ArrayList<>(4);
 		if (m_generalCfg.getTerminateOnNaNEntry().getEnabled()) {
 			callbacks.add(m_generalCfg.getTerminateOnNaNEntry().getValue());
 		}
@@ -916,6 +1099,9 @@ private ArrayList<DLKerasCallback> createCallbackList() {
 		if (m_generalCfg.getReduceLROnPlateauEntry().getEnabled()) {
 			callbacks.add(m_generalCfg.getReduceLROnPlateauEntry().getValue());
 		}
+		if (m_generalCfg.getTrainingBudgetEntry().getEnabled()) {
+			callbacks.add(m_generalCfg.getTrainingBudgetEntry().getValue());
+		}
         return callbacks;
     }
 
@@ -950,6 +1136,37 @@ private boolean doValidation(final BufferedDataTable inValidationTable) {
         return doValidation;
     }
 
+	/**
+	 * Draws a fixed random subset of the validation data that is used for all validations (selection sampling). The
+	 * subset contains at least one validation batch.
+	 */
+	private BufferedDataTable sampleValidationTable(final BufferedDataTable inValidationTable, final double fraction,
+			final long validationBatchSize, final ExecutionContext exec) throws CanceledExecutionException {
+		final long numRows = inValidationTable.size();
+		final long numSampled = Math.min(numRows, Math.max(validationBatchSize, Math.round(fraction * numRows)));
+		if (numSampled == numRows) {
+			return inValidationTable;
+		}
+		exec.setMessage("Sampling validation data...");
+		final Random random = createRandom();
+		final BufferedDataContainer container = exec.createDataContainer(inValidationTable.getDataTableSpec());
+		long numSeen = 0;
+		long numSelected = 0;
+		for (final DataRow row : inValidationTable) {
+			exec.checkCanceled();
+			if ((numRows - numSeen) * random.nextDouble() < numSampled - numSelected) {
+				container.addRowToTable(row);
+				numSelected++;
+				if (numSelected == numSampled) {
+					break;
+				}
+			}
+			numSeen++;
+		}
+		container.close();
+		return container.getTable();
+	}
+
 	private Random createRandom() {
 		final ConfigEntry<Long> seedCfg = m_generalCfg.getRandomSeed();
 		return seedCfg.getEnabled() ? new Random(seedCfg.getValue()) : new Random();
@@ -56,6 +56,7 @@
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTrainingBudget;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -89,6 +90,14 @@ public class DLKerasLearningBehaviorPanel extends AbstractGridBagDialogComponent
 		reduceLROnPlateau.addEnableChangeListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
 		addToggleComponentGroup(reduceLROnPlateau, reduceLROnPlateau.getValue().getName(),
 				reduceLROnPlateau.getValue().getParameterDialogGroup());
+
+		addHorizontalSeparator();
+
+		final ConfigEntry<DLKerasTrainingBudget> trainingBudget = m_cfg.getTrainingBudgetEntry();
+		trainingBudget.addLoadListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
+		trainingBudget.addEnableChangeListener(e -> e.getValue().setAllEnabled(e.getEnabled()));
+		addToggleComponentGroup(trainingBudget, trainingBudget.getValue().getName(),
+				trainingBudget.getValue().getParameterDialogGroup());
 	}
 
 	@Override
@@ -104,5 +113,7 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 		earlyStopping.getValue().getParameterDialogGroup().loadSettingsFrom(settings, specs);
 		final ConfigEntry<DLKerasReduceLROnPlateau> reduceLROnPlateu = m_cfg.getReduceLROnPlateauEntry();
 		reduceLROnPlateu.getValue().getParameterDialogGroup().loadSettingsFrom(settings, specs);
+		final ConfigEntry<DLKerasTrainingBudget> trainingBudget = m_cfg.getTrainingBudgetEntry();
+		trainingBudget.getValue().getParameterDialogGroup().loadSettingsFrom(settings, specs);
 	}
 }
@@ -216,6 +216,8 @@ private static String formatElapsedTime(final Duration elapsedTime) {
 
         private final JTextArea m_pythonStdErrOutputArea;
 
+        private final JTextArea m_timingSummaryArea;
+
         /**
          * Data iterators for this view. Its important that each view has its own iterator state if we open several
          * views at once.
@@ -282,6 +284,11 @@ public DLKerasLearnerNodeViewContentPanel(final DLViewSpec[] viewSpecs) {
             logPanel.add(stdErrScrollPane, logGbc);
             tabs.addTab("Keras Log Output", logPanel);
 
+            m_timingSummaryArea = new JTextArea();
+            m_timingSummaryArea.setEditable(false);
+            m_timingSummaryArea.setFont(new Font("monospaced", Font.PLAIN, 12));
+            tabs.addTab("Timings", new JScrollPane(m_timingSummaryArea));
+
             final GridBagConstraints gbc = new GridBagConstraints();
             gbc.gridx = 0;
             gbc.gridy = 0;
@@ -425,6 +432,11 @@ public void update(final DLProgressMonitor monitor) {
             // Update log output
             m_pythonStdOutOutputArea.setText(monitor.getStdOutOutput());
             m_pythonStdErrOutputArea.setText(monitor.getStdErrOutput());
+
+            // Update timings
+            final String timingSummary = monitor.getTimingSummary();
+            m_timingSummaryArea.setText(timingSummary.isEmpty() //
+                ? "Timings are available once the learning has finished." : timingSummary);
         }
 
         public void reset() {
@@ -86,4 +86,10 @@ public interface DLProgressMonitor extends Externalizable {
 	String getStdOutOutput();
 
 	String getStdErrOutput();
+
+	/**
+	 * @return a human readable summary of the time spent in the individual stages of the training, empty if not
+	 *         available
+	 */
+	String getTimingSummary();
 }
@@ -56,6 +56,7 @@
 import java.net.URL;
 import java.nio.file.InvalidPathException;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
@@ -169,6 +170,14 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                 "File path '" + filePath + "' cannot be resolved to a valid URI. Message: " + e.getMessage(), e);
         }
         final DLKerasNetworkLoader<?> loader = getBackend(backendId);
+        // Common networks can be read without starting Python, which saves the installation test and the network
+        // loading on Python side. Back end availability is checked by the downstream nodes that execute the network.
+        final Optional<? extends DLKerasNetwork> network =
+            loader.readWithoutPython(new DLNetworkReferenceLocation(uri));
+        if (network.isPresent()) {
+            m_network = network.get();
+            return new PortObjectSpec[]{new DLKerasNetworkPortObjectSpec(m_network.getSpec(), m_network.getClass())};
+        }
         try (final DLPythonContext context = new DLKerasPythonContext(m_pythonCommandConfig.getCommand())) {
             try {
                 DLPythonNetworkLoaderRegistry.getInstance();
@@ -55,6 +55,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 
@@ -143,6 +144,20 @@ public DLKerasNetworkPortObject(final DLKerasNetwork network) throws IOException
         this(network, getNetworkFileStore(network));
     }
 
+    /**
+     * Creates a new Keras deep learning network port object whose network is still being written to its
+     * {@link DLNetworkFileStoreLocation file store source} in the background. The port object can be handed downstream
+     * immediately. Retrieving the network or persisting the file store blocks until the given future completes.
+     *
+     * @param network the Keras deep learning network, its source must be a {@link DLNetworkFileStoreLocation}
+     * @param pendingFlush completes once the network has been completely written to its source
+     * @throws IOException if failed to create the port object
+     */
+    public DLKerasNetworkPortObject(final DLKerasNetwork network, final Future<?> pendingFlush) throws IOException {
+        this(network, getNetworkFileStore(network));
+        setPendingFlush(checkNotNull(pendingFlush));
+    }
+
     /**
      * Copies the given network to the first file store of the given file store list if that file store exists and the
      * network is not already stored there. If the network was copied, a new network instance is created that points to
@@ -277,6 +292,7 @@ public static final class Serializer extends PortObjectSerializer<DLKerasNetwork
         @Override
         public void savePortObject(final DLKerasNetworkPortObject portObject, final PortObjectZipOutputStream out,
             final ExecutionMonitor exec) throws IOException, CanceledExecutionException {
+            portObject.awaitPendingFlush();
             out.putNextEntry(new ZipEntry(ZIP_ENTRY_NAME));
             final ObjectOutputStream objOut = new ObjectOutputStream(out);
             new DLKerasMaterializedPortObjectContent.Serializer().savePortObjectContent(portObject.m_content, objOut,
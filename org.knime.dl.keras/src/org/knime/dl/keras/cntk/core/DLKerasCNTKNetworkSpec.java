@@ -75,6 +75,11 @@ public DLKerasCNTKNetworkSpec(final Version pythonVersion, final Version kerasVe
         super(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs, trainingConfig);
     }
 
+    public DLKerasCNTKNetworkSpec(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+        final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs) {
+        super(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs);
+    }
+
     public DLKerasCNTKNetworkSpec(final DLTensorSpec[] inputSpecs, final DLTensorSpec[] hiddenOutputSpecs,
         final DLTensorSpec[] outputSpecs) {
         super(inputSpecs, hiddenOutputSpecs, outputSpecs);
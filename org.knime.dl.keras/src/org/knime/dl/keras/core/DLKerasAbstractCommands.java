@@ -53,7 +53,6 @@
 import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
-import org.knime.core.node.NodeLogger;
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -64,6 +63,8 @@
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.training.DLTrainingMonitor;
+import org.knime.dl.keras.core.execution.DLKerasInferenceCompilation;
+import org.knime.dl.keras.core.training.DLKerasBudgetStopReason;
 import org.knime.dl.keras.core.training.DLKerasLossFunction;
 import org.knime.dl.keras.core.training.DLKerasLossFunction.DLKerasCustomLoss;
 import org.knime.dl.keras.core.training.DLKerasTrainingConfig;
@@ -88,10 +89,14 @@
  */
 public abstract class DLKerasAbstractCommands extends DLPythonAbstractCommands {
 
-    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasAbstractCommands.class);
-
     private static final String KERAS_VERSION_NAME = "keras_version";
 
+    private static final String PARAMETER_AVERAGING_SERVER_NAME = "parameter_averaging_server";
+
+    private static final String PARAMETER_AVERAGING_PORT_NAME = "parameter_averaging_port";
+
+    private static final String PARAMETER_AVERAGING_AUTHKEY_NAME = "parameter_averaging_authkey";
+
 	protected DLKerasAbstractCommands(final DLPythonContext context) {
 		super(context);
 	}
@@ -121,19 +126,9 @@ public DLPythonNetworkHandle loadNetwork(final String path, final boolean loadTr
         final boolean compatibilityMode, final DLCancelable cancelable)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLKerasAbstractNetworkReaderCommands reader = getNetworkReaderCommands();
-        try {
-            return loadNetworkInternal(reader, reader.read(path, loadTrainingConfig, compatibilityMode), cancelable);
-        } catch (final IOException e) {
-            if (loadTrainingConfig) {
-                // If we tried to load it compiled this could have been the problem
-                // -> Warn the user and try it uncompiled
-                LOGGER.warn("Couldn't load the model with the training configuration. See log for details. "
-                    + "Trying to load it uncompiled.", e);
-                return loadNetworkInternal(reader, reader.read(path, false, compatibilityMode), cancelable);
-            } else {
-                throw e;
-            }
-        }
+        // The training configuration is loaded lazily on Python side. Failing to load it does not fail loading the
+        // network but only results in a warning once the configuration is accessed.
+        return loadNetworkInternal(reader, reader.read(path, loadTrainingConfig, compatibilityMode), cancelable);
     }
 
     public DLPythonNetworkHandle loadNetworkFromJson(final String path, final boolean compatibilityMode,
@@ -179,6 +174,13 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		.n("config.epochs = ").a(config.getEpochs()) //
 		.n("config.batch_size = ").a(config.getBatchSize()) //
 		.n("config.validation_batch_size = ").a(config.getValidationBatchSize()) //
+		.n("config.num_replicas = ").a(config.getNumReplicas()) //
+		.n("config.replica_device_type = ").as(config.isReplicatedOnCpu() ? "cpu" : "gpu") //
+		.n("config.validation_frequency = ").a(config.getValidationFrequency()) //
+		.n("config.validation_subset_fraction = ").a(config.getValidationSubsetFraction()) //
+		.n("config.mixed_precision = ")
+		.a(DLPythonUtils.toPython(config.getMixedPrecision().getPolicyName(), DLPythonUtils::toPython)) //
+		.n("config.accumulation_steps = ").a(config.getAccumulationSteps()) //
 		// TODO: How to import dependencies (here: of optimizer and losses) in a generic way?
 		.n("import keras") //
 		.n("config.optimizer = ").a(config.getOptimizer().getBackendRepresentation()) //
@@ -193,6 +195,28 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		getContext(cancelable).executeInKernel(b.toString(), cancelable);
 	}
 
+    /**
+     * Sets the way the given network is compiled for inference. Compilation itself happens lazily during the first
+     * execution of each set of requested outputs.
+     *
+     * @param handle the handle of the network
+     * @param compilation the compilation mode
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if setting the compilation mode failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void setInferenceCompilation(final DLPythonNetworkHandle handle,
+        final DLKerasInferenceCompilation compilation, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("network = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(")") //
+            .n("network.inference_compilation = ")
+            .a(DLPythonUtils.toPython(compilation.getMode(), DLPythonUtils::toPython));
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
     public void stopTrainNetworkEarly(final DLPythonNetworkHandle network)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
@@ -202,6 +226,72 @@ public void stopTrainNetworkEarly(final DLPythonNetworkHandle network)
         getContext(DLNotCancelable.INSTANCE).executeAsyncInKernel(b.toString(), DLNotCancelable.INSTANCE);
     }
 
+    /**
+     * Makes the given network the primary replica of a parameter averaging training run. Its weights are averaged with
+     * the ones of the given number of workers every <code>syncInterval</code> batches. Must be called after the
+     * training config was set. Training blocks until all workers have
+     * {@link #connectParameterAveragingWorker(DLPythonNetworkHandle, DLKerasParameterAveragingEndpoint, int, DLCancelable)
+     * connected}.
+     *
+     * @param handle the handle of the primary network
+     * @param numWorkers the number of workers
+     * @param syncInterval the number of batches between two synchronizations
+     * @param cancelable to check if the execution has been canceled
+     * @return the endpoint the workers connect to
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if getting the data from python failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public DLKerasParameterAveragingEndpoint startParameterAveragingServer(final DLPythonNetworkHandle handle,
+        final int numWorkers, final int syncInterval, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("import pandas as pd") //
+            .n("from DLKerasParameterAveraging import DLKerasParameterAveragingServer") //
+            .n("global ").a(PARAMETER_AVERAGING_SERVER_NAME) //
+            .n("global ").a(PARAMETER_AVERAGING_PORT_NAME) //
+            .n("global ").a(PARAMETER_AVERAGING_AUTHKEY_NAME) //
+            .n(PARAMETER_AVERAGING_SERVER_NAME).a(" = DLKerasParameterAveragingServer(").a(numWorkers).a(", ")
+            .a(syncInterval).a(")") //
+            .n("network = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(")") //
+            .n("network.spec.training_config.callbacks.append(").a(PARAMETER_AVERAGING_SERVER_NAME).a(")") //
+            .n(PARAMETER_AVERAGING_PORT_NAME).a(" = pd.DataFrame([").a(PARAMETER_AVERAGING_SERVER_NAME)
+            .a(".port])") //
+            .n(PARAMETER_AVERAGING_AUTHKEY_NAME).a(" = pd.DataFrame([").a(PARAMETER_AVERAGING_SERVER_NAME)
+            .a(".authkey])");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        final long port = (Long)getContext(cancelable).getDataFromKernel(PARAMETER_AVERAGING_PORT_NAME,
+            (s, ts) -> new SingleValueTableCreator<>(s, Cell::getLongValue), cancelable).getTable();
+        final String authKey = (String)getContext(cancelable).getDataFromKernel(PARAMETER_AVERAGING_AUTHKEY_NAME,
+            (s, ts) -> new SingleValueTableCreator<>(s, Cell::getStringValue), cancelable).getTable();
+        return new DLKerasParameterAveragingEndpoint((int)port, authKey);
+    }
+
+    /**
+     * Makes the given network a worker replica of a parameter averaging training run. Must be called after the
+     * training config was set.
+     *
+     * @param handle the handle of the worker network
+     * @param endpoint the endpoint of the primary replica
+     * @param syncInterval the number of batches between two synchronizations, must match the one of the primary
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if sending the code to python failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public void connectParameterAveragingWorker(final DLPythonNetworkHandle handle,
+        final DLKerasParameterAveragingEndpoint endpoint, final int syncInterval, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("from DLKerasParameterAveraging import DLKerasParameterAveragingWorker") //
+            .n("network = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(")") //
+            .n("network.spec.training_config.callbacks.append(DLKerasParameterAveragingWorker(")
+            .a(endpoint.getPort()).a(", ").as(endpoint.getAuthKey()).a(", ").a(syncInterval).a("))");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
     /**
      * @param cancelable to check if the execution has been canceled
      * @return the keras version
@@ -229,6 +319,35 @@ private Collection<DLKerasCustomLoss> getCustomLosses(final Collection<DLKerasLo
 	            .collect(Collectors.toList());
 	}
 
+    /**
+     * The local endpoint of the primary replica of a parameter averaging training run.
+     */
+    public static final class DLKerasParameterAveragingEndpoint {
+
+        private final int m_port;
+
+        private final String m_authKey;
+
+        private DLKerasParameterAveragingEndpoint(final int port, final String authKey) {
+            m_port = port;
+            m_authKey = authKey;
+        }
+
+        /**
+         * @return the port on localhost
+         */
+        public int getPort() {
+            return m_port;
+        }
+
+        /**
+         * @return the hex encoded key that authenticates workers
+         */
+        public String getAuthKey() {
+            return m_authKey;
+        }
+    }
+
     protected abstract static class DLKerasAbstractNetworkReaderCommands extends DLPythonAbstractNetworkReaderCommands {
 
         protected DLKerasAbstractNetworkReaderCommands(final String importStatement,
@@ -239,14 +358,23 @@ protected DLKerasAbstractNetworkReaderCommands(final String importStatement,
         @Override
         public String read(final String path, final boolean loadTrainingConfig) {
             final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
-                .a("read(").asr(path).a(", compile=").a(loadTrainingConfig).a(")");
+                .a("read(").asr(path).a(", compile=").a(loadTrainingConfig).a(", lazy=True)");
             return b.toString();
         }
 
+        /**
+         * The training configuration is not loaded right away but on demand, i.e. only if the model is accessed by a
+         * script. Execution and training via KNIME only need the architecture and the weights of the network.
+         *
+         * @param path the path of the network file
+         * @param loadTrainingConfig whether the training configuration should be made available
+         * @param compatibilityMode whether to load the network in compatibility mode
+         * @return the reader command
+         */
         public String read(final String path, final boolean loadTrainingConfig, final boolean compatibilityMode) {
             final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
                 .a("read(").asr(path).a(", compile=").a(loadTrainingConfig).a(", compatibility_mode=")
-                .a(compatibilityMode).a(")");
+                .a(compatibilityMode).a(", lazy=True)");
             return b.toString();
         }
 
@@ -280,6 +408,8 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                 handleTerminateOnNan(message);
             } else if (messageType.equals("early_stopping")) {
                 handleEarlyStopping(message);
+            } else if (messageType.equals("training_budget")) {
+                handleTrainingBudget(message);
             } else {
                 return super.handleCustomMessage(message, responseMessageIdSupplier, responseConsumer, resultConsumer);
             }
@@ -299,5 +429,15 @@ private void handleEarlyStopping(final Message message) {
                 ((DLKerasTrainingStatus)m_status).stoppedEarly().raise(batch);
             }
         }
+
+        private void handleTrainingBudget(final Message message) throws ExecutionException {
+            final String identifier = new PayloadDecoder(message.getPayload()).getNextString();
+            final DLKerasBudgetStopReason reason = DLKerasBudgetStopReason.fromIdentifier(identifier)
+                .orElseThrow(() -> new ExecutionException(
+                    new IllegalStateException("Unknown training budget stop reason '" + identifier + "'.")));
+            if (m_status instanceof DLKerasTrainingStatus) {
+                ((DLKerasTrainingStatus)m_status).stoppedOnBudget().raise(reason);
+            }
+        }
     }
 }
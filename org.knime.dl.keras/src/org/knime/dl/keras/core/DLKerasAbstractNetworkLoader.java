@@ -53,12 +53,14 @@
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.apache.commons.io.FilenameUtils;
 import org.knime.base.filehandling.remote.files.RemoteFile;
 import org.knime.base.filehandling.remote.files.RemoteFileHandlerRegistry;
 import org.knime.core.data.filestore.FileStore;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.util.FileUtil;
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
@@ -66,6 +68,8 @@
 import org.knime.dl.core.DLInvalidDestinationException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
 import org.knime.dl.python.core.DLPythonAbstractNetworkLoader;
 import org.knime.dl.python.core.DLPythonContext;
@@ -80,6 +84,8 @@
 public abstract class DLKerasAbstractNetworkLoader<N extends DLKerasNetwork> extends DLPythonAbstractNetworkLoader<N>
 		implements DLKerasNetworkLoader<N> {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasAbstractNetworkLoader.class);
+
     private static final Version COMPATIBILITY_VERSION_LIMIT = new Version("2.1.6");
 
     public static URL validateKerasNetworkSource(final URI source) throws DLInvalidSourceException {
@@ -121,6 +127,45 @@ public URL validateDestination(final URI destination) throws DLInvalidDestinatio
         return validateKerasNetworkDestination(destination);
     }
 
+    @Override
+    public Optional<N> readWithoutPython(final DLNetworkLocation source) {
+        try {
+            final URL sourceURL = validateSource(source.getURI());
+            final File file;
+            try {
+                file = FileUtil.getFileFromURL(sourceURL);
+            } catch (final IllegalArgumentException ex) {
+                // Remote file, leave downloading to the regular (Python) code path.
+                return Optional.empty();
+            }
+            if (file == null || !file.isFile()) {
+                return Optional.empty();
+            }
+            final DLKerasNetworkSpecReader reader = DLKerasNetworkSpecReader.read(file);
+            return Optional.of(createNetwork(reader.getKerasVersion(), reader.getInputSpecs(),
+                reader.getHiddenOutputSpecs(), reader.getOutputSpecs(), source));
+        } catch (final Exception e) {
+            LOGGER.debug("Keras network at '" + source.getURI()
+                + "' cannot be read without Python, falling back to reading it via Python. Cause: " + e.getMessage(),
+                e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates a network of this loader's type from the given specs. Used when reading networks without starting
+     * Python.
+     *
+     * @param kerasVersion the Keras version of the network
+     * @param inputSpecs the input tensor specs
+     * @param hiddenOutputSpecs the hidden output tensor specs
+     * @param outputSpecs the output tensor specs
+     * @param source the location of the network
+     * @return the network
+     */
+    protected abstract N createNetwork(Version kerasVersion, DLTensorSpec[] inputSpecs,
+        DLTensorSpec[] hiddenOutputSpecs, DLTensorSpec[] outputSpecs, DLNetworkLocation source);
+
     @Override
     public DLPythonNetworkHandle load(final N network, final DLPythonContext kernel, final boolean loadTrainingConfig,
         final DLCancelable cancelable) throws DLInvalidSourceException, DLInvalidEnvironmentException, IOException {
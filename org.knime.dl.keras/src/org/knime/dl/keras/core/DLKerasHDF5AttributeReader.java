@@ -0,0 +1,403 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal reader for the string attributes of the root group of an HDF5 file. Keras stores the model and training
+ * configurations of a saved network as such attributes, which allows extracting the network specification without
+ * starting Python.
+ * <P>
+ * Only the subset of the HDF5 file format that is required for this purpose is supported: superblock versions 0 to 3,
+ * object header versions 1 and 2 (including continuation blocks) and compact attribute storage of fixed-length and
+ * variable-length strings. Attributes in dense storage and all other data types are ignored.
+ */
+final class DLKerasHDF5AttributeReader {
+
+    private static final byte[] SIGNATURE = {(byte)0x89, 'H', 'D', 'F', '\r', '\n', 0x1a, '\n'};
+
+    /**
+     * Large enough to cover all supported superblock versions including the root group symbol table entry.
+     */
+    private static final int SUPERBLOCK_READ_SIZE = 128;
+
+    private static final int MSG_TYPE_ATTRIBUTE = 0x000C;
+
+    private static final int MSG_TYPE_CONTINUATION = 0x0010;
+
+    private static final int DATATYPE_CLASS_STRING = 3;
+
+    private static final int DATATYPE_CLASS_VARIABLE_LENGTH = 9;
+
+    /**
+     * Object headers of the root group are small; this bounds the amount of memory used if a file is corrupt.
+     */
+    private static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Reads all string attributes of the root group of the given HDF5 file.
+     *
+     * @param file the HDF5 file
+     * @return the attributes, mapped by their names
+     * @throws IOException if the file is not a valid HDF5 file, uses unsupported format features, or if reading it
+     *             failed
+     */
+    static Map<String, String> readRootStringAttributes(final File file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new DLKerasHDF5AttributeReader(channel).readRootStringAttributes();
+        }
+    }
+
+    private final FileChannel m_channel;
+
+    private int m_offsetSize;
+
+    private int m_lengthSize;
+
+    private long m_baseAddress;
+
+    private DLKerasHDF5AttributeReader(final FileChannel channel) {
+        m_channel = channel;
+    }
+
+    private Map<String, String> readRootStringAttributes() throws IOException {
+        final long rootObjectHeaderAddress = readSuperblock();
+        final Map<String, String> attributes = new HashMap<>();
+        final Deque<long[]> blocks = new ArrayDeque<>();
+        final ByteBuffer prefix = read(rootObjectHeaderAddress, 4);
+        if (prefix.get(0) == 'O' && prefix.get(1) == 'H' && prefix.get(2) == 'D' && prefix.get(3) == 'R') {
+            readObjectHeaderV2(rootObjectHeaderAddress, attributes, blocks);
+        } else if (prefix.get(0) == 1) {
+            readObjectHeaderV1(rootObjectHeaderAddress, attributes, blocks);
+        } else {
+            throw new IOException("Unsupported HDF5 object header version " + prefix.get(0) + ".");
+        }
+        return attributes;
+    }
+
+    private long readSuperblock() throws IOException {
+        final long fileSize = m_channel.size();
+        for (long offset = 0; offset + SIGNATURE.length < fileSize; offset = offset == 0 ? 512 : offset * 2) {
+            final ByteBuffer b = read(offset, (int)Math.min(SUPERBLOCK_READ_SIZE, fileSize - offset));
+            final byte[] signature = new byte[SIGNATURE.length];
+            b.get(signature);
+            if (!Arrays.equals(signature, SIGNATURE)) {
+                continue;
+            }
+            final int version = b.get(8);
+            final int pos;
+            if (version == 0 || version == 1) {
+                m_offsetSize = b.get(13);
+                m_lengthSize = b.get(14);
+                checkSizes();
+                pos = version == 0 ? 24 : 28;
+                m_baseAddress = readUnsigned(b, pos, m_offsetSize);
+                // skip base, free-space info, end of file and driver info addresses, and the link name offset of
+                // the root group symbol table entry
+                return m_baseAddress + readUnsigned(b, pos + 5 * m_offsetSize, m_offsetSize);
+            } else if (version == 2 || version == 3) {
+                m_offsetSize = b.get(9);
+                m_lengthSize = b.get(10);
+                checkSizes();
+                m_baseAddress = readUnsigned(b, 12, m_offsetSize);
+                // skip base, superblock extension and end of file addresses
+                return m_baseAddress + readUnsigned(b, 12 + 3 * m_offsetSize, m_offsetSize);
+            } else {
+                throw new IOException("Unsupported HDF5 superblock version " + version + ".");
+            }
+        }
+        throw new IOException("File is not an HDF5 file.");
+    }
+
+    private void checkSizes() throws IOException {
+        if (!isValidSize(m_offsetSize) || !isValidSize(m_lengthSize)) {
+            throw new IOException("Unsupported HDF5 address or length size.");
+        }
+    }
+
+    private static boolean isValidSize(final int size) {
+        return size == 2 || size == 4 || size == 8;
+    }
+
+    private void readObjectHeaderV1(final long address, final Map<String, String> attributes,
+        final Deque<long[]> blocks) throws IOException {
+        final ByteBuffer header = read(address, 16);
+        final int numMessages = header.getShort(2) & 0xFFFF;
+        final long headerSize = header.getInt(8) & 0xFFFFFFFFL;
+        blocks.add(new long[]{address + 16, headerSize});
+        int messagesRead = 0;
+        while (!blocks.isEmpty() && messagesRead < numMessages) {
+            final long[] block = blocks.poll();
+            final ByteBuffer b = read(block[0], checkBlockSize(block[1]));
+            int pos = 0;
+            while (pos + 8 <= b.limit() && messagesRead < numMessages) {
+                final int type = b.getShort(pos) & 0xFFFF;
+                final int size = b.getShort(pos + 2) & 0xFFFF;
+                handleMessage(type, slice(b, pos + 8, size), attributes, blocks);
+                messagesRead++;
+                pos += 8 + size;
+            }
+        }
+    }
+
+    private void readObjectHeaderV2(final long address, final Map<String, String> attributes,
+        final Deque<long[]> blocks) throws IOException {
+        final ByteBuffer header = read(address, 40);
+        final int flags = header.get(5) & 0xFF;
+        int pos = 6;
+        if ((flags & 0x20) != 0) {
+            pos += 16; // access, modification, change and birth times
+        }
+        if ((flags & 0x10) != 0) {
+            pos += 4; // attribute phase change values
+        }
+        final int chunkSizeSize = 1 << (flags & 0x03);
+        final long chunkSize = readUnsigned(header, pos, chunkSizeSize);
+        pos += chunkSizeSize;
+        final boolean creationOrderTracked = (flags & 0x04) != 0;
+        readMessagesV2(read(address + pos, checkBlockSize(chunkSize)), creationOrderTracked, attributes, blocks);
+        while (!blocks.isEmpty()) {
+            final long[] block = blocks.poll();
+            final ByteBuffer b = read(block[0], checkBlockSize(block[1]));
+            if (b.get(0) != 'O' || b.get(1) != 'C' || b.get(2) != 'H' || b.get(3) != 'K') {
+                throw new IOException("Invalid HDF5 object header continuation block.");
+            }
+            // skip signature and checksum
+            readMessagesV2(slice(b, 4, b.limit() - 8), creationOrderTracked, attributes, blocks);
+        }
+    }
+
+    private void readMessagesV2(final ByteBuffer b, final boolean creationOrderTracked,
+        final Map<String, String> attributes, final Deque<long[]> blocks) throws IOException {
+        final int messageHeaderSize = creationOrderTracked ? 6 : 4;
+        int pos = 0;
+        while (pos + messageHeaderSize <= b.limit()) {
+            final int type = b.get(pos) & 0xFF;
+            final int size = b.getShort(pos + 1) & 0xFFFF;
+            if (pos + messageHeaderSize + size > b.limit()) {
+                break; // gap at the end of the chunk
+            }
+            handleMessage(type, slice(b, pos + messageHeaderSize, size), attributes, blocks);
+            pos += messageHeaderSize + size;
+        }
+    }
+
+    private void handleMessage(final int type, final ByteBuffer data, final Map<String, String> attributes,
+        final Deque<long[]> blocks) throws IOException {
+        if (type == MSG_TYPE_CONTINUATION) {
+            final long offset = readUnsigned(data, 0, m_offsetSize);
+            final long length = readUnsigned(data, m_offsetSize, m_lengthSize);
+            blocks.add(new long[]{m_baseAddress + offset, length});
+        } else if (type == MSG_TYPE_ATTRIBUTE) {
+            readStringAttribute(data, attributes);
+        }
+    }
+
+    private void readStringAttribute(final ByteBuffer b, final Map<String, String> attributes) throws IOException {
+        final int version = b.get(0);
+        final int flags = b.get(1) & 0xFF;
+        final int nameSize = b.getShort(2) & 0xFFFF;
+        final int datatypeSize = b.getShort(4) & 0xFFFF;
+        final int dataspaceSize = b.getShort(6) & 0xFFFF;
+        int pos;
+        final boolean padded;
+        if (version == 1) {
+            pos = 8;
+            padded = true;
+        } else if (version == 2 || version == 3) {
+            if ((flags & 0x03) != 0) {
+                return; // shared datatype or dataspace
+            }
+            pos = version == 2 ? 8 : 9;
+            padded = false;
+        } else {
+            return;
+        }
+        final String name = decodeNullTerminated(slice(b, pos, nameSize), true);
+        pos += padded ? pad8(nameSize) : nameSize;
+        final ByteBuffer datatype = slice(b, pos, datatypeSize);
+        pos += padded ? pad8(datatypeSize) : datatypeSize;
+        final ByteBuffer dataspace = slice(b, pos, dataspaceSize);
+        pos += padded ? pad8(dataspaceSize) : dataspaceSize;
+        if (getNumElements(dataspace) < 1) {
+            return;
+        }
+        final ByteBuffer data = slice(b, pos, b.limit() - pos);
+        final int datatypeClass = datatype.get(0) & 0x0F;
+        final int bitField = datatype.get(1) & 0xFF;
+        if (datatypeClass == DATATYPE_CLASS_STRING) {
+            final int size = datatype.getInt(4);
+            final boolean spacePadded = (bitField & 0x0F) == 2;
+            final String value = decodeNullTerminated(slice(data, 0, size), !spacePadded);
+            attributes.put(name, spacePadded ? value.replaceAll(" +$", "") : value);
+        } else if (datatypeClass == DATATYPE_CLASS_VARIABLE_LENGTH && (bitField & 0x0F) == 1) {
+            final long length = data.getInt(0) & 0xFFFFFFFFL;
+            final long collectionAddress = readUnsigned(data, 4, m_offsetSize);
+            final long objectIndex = data.getInt(4 + m_offsetSize) & 0xFFFFFFFFL;
+            final ByteBuffer object = readGlobalHeapObject(m_baseAddress + collectionAddress, objectIndex);
+            attributes.put(name, decodeNullTerminated(slice(object, 0, (int)Math.min(length, object.limit())), true));
+        }
+    }
+
+    private long getNumElements(final ByteBuffer dataspace) {
+        final int version = dataspace.get(0);
+        final int rank = dataspace.get(1) & 0xFF;
+        final int dimsStart;
+        if (version == 1) {
+            dimsStart = 8;
+        } else {
+            if (dataspace.get(3) == 2) {
+                return 0; // null dataspace
+            }
+            dimsStart = 4;
+        }
+        long numElements = 1;
+        for (int i = 0; i < rank; i++) {
+            numElements *= readUnsigned(dataspace, dimsStart + i * m_lengthSize, m_lengthSize);
+        }
+        return numElements;
+    }
+
+    private ByteBuffer readGlobalHeapObject(final long collectionAddress, final long objectIndex) throws IOException {
+        final ByteBuffer header = read(collectionAddress, 8 + m_lengthSize);
+        if (header.get(0) != 'G' || header.get(1) != 'C' || header.get(2) != 'O' || header.get(3) != 'L') {
+            throw new IOException("Invalid HDF5 global heap collection.");
+        }
+        final long collectionSize = readUnsigned(header, 8, m_lengthSize);
+        final ByteBuffer b = read(collectionAddress, checkBlockSize(collectionSize));
+        int pos = 8 + m_lengthSize;
+        final int objectHeaderSize = 8 + m_lengthSize;
+        while (pos + objectHeaderSize <= b.limit()) {
+            final int index = b.getShort(pos) & 0xFFFF;
+            if (index == 0) {
+                break; // free space
+            }
+            final long size = readUnsigned(b, pos + 8, m_lengthSize);
+            if (index == objectIndex) {
+                return slice(b, pos + objectHeaderSize, (int)size);
+            }
+            pos += objectHeaderSize + pad8(size);
+        }
+        throw new IOException("HDF5 global heap object " + objectIndex + " not found.");
+    }
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        final ByteBuffer b = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        long pos = position;
+        while (b.hasRemaining()) {
+            final int read = m_channel.read(b, pos);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of HDF5 file.");
+            }
+            pos += read;
+        }
+        b.flip();
+        return b;
+    }
+
+    private static int checkBlockSize(final long size) throws IOException {
+        if (size < 0 || size > MAX_BLOCK_SIZE) {
+            throw new IOException("Invalid HDF5 block size " + size + ".");
+        }
+        return (int)size;
+    }
+
+    private static ByteBuffer slice(final ByteBuffer b, final int offset, final int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > b.limit()) {
+            throw new IOException("Corrupt HDF5 object header.");
+        }
+        final ByteBuffer duplicate = b.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long readUnsigned(final ByteBuffer b, final int pos, final int size) {
+        switch (size) {
+            case 1:
+                return b.get(pos) & 0xFFL;
+            case 2:
+                return b.getShort(pos) & 0xFFFFL;
+            case 4:
+                return b.getInt(pos) & 0xFFFFFFFFL;
+            default:
+                return b.getLong(pos);
+        }
+    }
+
+    private static int pad8(final long size) {
+        return (int)((size + 7) & ~7L);
+    }
+
+    private static String decodeNullTerminated(final ByteBuffer b, final boolean stopAtNull) {
+        final byte[] bytes = new byte[b.remaining()];
+        b.duplicate().get(bytes);
+        int length = bytes.length;
+        if (stopAtNull) {
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == 0) {
+                    length = i;
+                    break;
+                }
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -50,6 +50,7 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -85,6 +86,19 @@ default String getSaveModelURLExtension() {
 		return SAVE_MODEL_URL_EXTENSION;
 	}
 
+	/**
+	 * Tries to read the network at the given location without starting Python, i.e. by directly parsing the model
+	 * configuration that is stored in the network file. This is considerably faster than reading the network via
+	 * Python but only supports a subset of all networks.
+	 *
+	 * @param source the location of the network file
+	 * @return the network, or an empty optional if the network cannot be read without Python, in which case the
+	 *         caller should fall back to reading it via Python
+	 */
+	default Optional<N> readWithoutPython(final DLNetworkLocation source) {
+		return Optional.empty();
+	}
+
 	@Override
 	N fetch(DLPythonNetworkHandle handle, DLNetworkLocation source, DLPythonContext context, DLCancelable cancelable)
 			throws IllegalArgumentException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
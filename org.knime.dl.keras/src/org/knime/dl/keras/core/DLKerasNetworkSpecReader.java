@@ -0,0 +1,970 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FilenameUtils;
+import org.knime.core.util.Version;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultPartialTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorShape;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.keras.util.DLKerasUtils;
+import org.knime.dl.python.core.data.DLPythonNumPyTypeMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Extracts the input, hidden output and output tensor specs of a Keras network directly from its model configuration,
+ * i.e. without starting Python. The model configuration is read from the root attributes of an HDF5 file (
+ * <code>.h5</code>) or from a JSON file (<code>.json</code>).
+ * <P>
+ * The tensor specs mirror the ones that are extracted on Python side (see <code>DLKerasNetworkSpecExtractor.py</code>)
+ * with the exception of the back end dependent tensor names, which are set to the tensor identifiers. Output shapes are
+ * inferred for a fixed set of common layer types. Networks that contain other layers (e.g. lambda or custom layers,
+ * nested models), sequential networks that were saved by Keras versions that would require loading in compatibility
+ * mode, and all other configurations that cannot be reliably interpreted are rejected by a
+ * {@link DLInvalidSourceException}. The caller is expected to fall back to reading the network via Python in this case.
+ */
+public final class DLKerasNetworkSpecReader {
+
+    /**
+     * Python's JSON encoder, which Keras uses to write the model configuration, emits non-finite numbers as
+     * <code>NaN</code>, <code>Infinity</code> and <code>-Infinity</code>.
+     */
+    private static final ObjectReader JSON_READER =
+        JsonMapper.builder().enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS).build().readerFor(Object.class);
+
+    private static final Version COMPATIBILITY_VERSION_LIMIT = new Version(2, 1, 6);
+
+    private static final Pattern KERAS_VERSION_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)(?:\\.(\\d+))?");
+
+    private static final String DEFAULT_DTYPE = "float32";
+
+    private static final Set<String> SHAPE_PRESERVING_LAYERS = new HashSet<>(Arrays.asList("Activation",
+        "ActivityRegularization", "AlphaDropout", "BatchNormalization", "Dropout", "ELU", "GaussianDropout",
+        "GaussianNoise", "LayerNormalization", "LeakyReLU", "Masking", "PReLU", "ReLU", "Softmax",
+        "SpatialDropout1D", "SpatialDropout2D", "SpatialDropout3D", "ThresholdedReLU"));
+
+    /**
+     * Layers that merely rearrange or select their input values and therefore keep the element type of their input.
+     */
+    private static final Set<String> TYPE_PRESERVING_LAYERS = new HashSet<>(Arrays.asList("ActivityRegularization",
+        "Cropping1D", "Cropping2D", "Cropping3D", "Dropout", "Flatten", "Masking", "Permute", "RepeatVector",
+        "Reshape", "SpatialDropout1D", "SpatialDropout2D", "SpatialDropout3D", "UpSampling1D", "UpSampling2D",
+        "UpSampling3D", "ZeroPadding1D", "ZeroPadding2D", "ZeroPadding3D"));
+
+    private static final Set<String> ELEMENTWISE_MERGE_LAYERS =
+        new HashSet<>(Arrays.asList("Add", "Average", "Maximum", "Minimum", "Multiply", "Subtract"));
+
+    private static final Set<String> RECURRENT_LAYERS =
+        new HashSet<>(Arrays.asList("CuDNNGRU", "CuDNNLSTM", "GRU", "LSTM", "SimpleRNN"));
+
+    /**
+     * Reads the network specs from the given Keras network file.
+     *
+     * @param file the network file, either an HDF5 (<code>.h5</code>) or a JSON (<code>.json</code>) file
+     * @return the reader holding the extracted specs
+     * @throws DLInvalidSourceException if the file type or the network configuration is not supported
+     * @throws IOException if reading the file failed
+     */
+    public static DLKerasNetworkSpecReader read(final File file) throws DLInvalidSourceException, IOException {
+        final String extension = FilenameUtils.getExtension(file.getName());
+        final String modelConfig;
+        String kerasVersion = null;
+        if (extension.equals("h5")) {
+            final Map<String, String> attributes = DLKerasHDF5AttributeReader.readRootStringAttributes(file);
+            modelConfig = attributes.get("model_config");
+            kerasVersion = attributes.get("keras_version");
+        } else if (extension.equals("json")) {
+            modelConfig = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } else {
+            throw new DLInvalidSourceException("Files of type '" + extension + "' are not supported.");
+        }
+        if (modelConfig == null) {
+            throw new DLInvalidSourceException("The network file does not contain a model configuration.");
+        }
+        try {
+            return new DLKerasNetworkSpecReader(JSON_READER.readValue(modelConfig), kerasVersion);
+        } catch (final JsonProcessingException e) {
+            throw new DLInvalidSourceException(
+                "The model configuration of the network is not valid JSON: " + e.getOriginalMessage());
+        } catch (final ClassCastException | IllegalArgumentException | IndexOutOfBoundsException
+                | NullPointerException e) {
+            throw new DLInvalidSourceException("The model configuration of the network is malformed or not supported: "
+                + e.getMessage());
+        }
+    }
+
+    private final Version m_kerasVersion;
+
+    private final DLDimensionOrder m_dimensionOrder;
+
+    private final DLTensorSpec[] m_inputSpecs;
+
+    private final List<DLTensorSpec> m_hiddenOutputSpecs = new ArrayList<>();
+
+    private final DLTensorSpec[] m_outputSpecs;
+
+    private DLKerasNetworkSpecReader(final Object modelConfig, final String kerasVersion)
+        throws DLInvalidSourceException {
+        final Map<String, Object> model = asMap(modelConfig);
+        m_kerasVersion = parseKerasVersion(kerasVersion != null ? kerasVersion : (String)model.get("keras_version"));
+        final String className = (String)model.get("class_name");
+        final Object config = model.get("config");
+        if ("Sequential".equals(className)) {
+            // Sequential networks of older versions are wrapped into a functional model on Python side (see
+            // DLKerasNetwork._convert_sequential_to_model) which changes their tensor identifiers.
+            if (m_kerasVersion.compareTo(COMPATIBILITY_VERSION_LIMIT) <= 0) {
+                throw new DLInvalidSourceException(
+                    "Sequential networks of Keras version " + m_kerasVersion + " are not supported.");
+            }
+            final List<Object> layers = config instanceof List ? asList(config) : asList(asMap(config).get("layers"));
+            m_dimensionOrder = determineDimensionOrder(layers, true);
+            m_inputSpecs = new DLTensorSpec[1];
+            m_outputSpecs = new DLTensorSpec[1];
+            extractSequential(layers);
+        } else if ("Model".equals(className) || "Functional".equals(className)) {
+            final Map<String, Object> functional = asMap(config);
+            final List<Object> layers = asList(functional.get("layers"));
+            m_dimensionOrder = determineDimensionOrder(layers, false);
+            final List<String> modelInputs = toTensorKeys(asList(functional.get("input_layers")));
+            final List<String> modelOutputs = toTensorKeys(asList(functional.get("output_layers")));
+            m_inputSpecs = new DLTensorSpec[modelInputs.size()];
+            m_outputSpecs = new DLTensorSpec[modelOutputs.size()];
+            extractFunctional(layers, modelInputs, modelOutputs);
+        } else {
+            throw new DLInvalidSourceException("Networks of type '" + className + "' are not supported.");
+        }
+    }
+
+    /**
+     * @return the Keras version that was used to save the network
+     */
+    public Version getKerasVersion() {
+        return m_kerasVersion;
+    }
+
+    /**
+     * @return the input tensor specs
+     */
+    public DLTensorSpec[] getInputSpecs() {
+        return m_inputSpecs.clone();
+    }
+
+    /**
+     * @return the hidden output tensor specs
+     */
+    public DLTensorSpec[] getHiddenOutputSpecs() {
+        return m_hiddenOutputSpecs.toArray(new DLTensorSpec[m_hiddenOutputSpecs.size()]);
+    }
+
+    /**
+     * @return the output tensor specs
+     */
+    public DLTensorSpec[] getOutputSpecs() {
+        return m_outputSpecs.clone();
+    }
+
+    private static Version parseKerasVersion(final String kerasVersion) throws DLInvalidSourceException {
+        if (kerasVersion == null) {
+            throw new DLInvalidSourceException("The network file does not specify a Keras version.");
+        }
+        final Matcher matcher = KERAS_VERSION_PATTERN.matcher(kerasVersion.trim());
+        if (!matcher.find()) {
+            throw new DLInvalidSourceException("Unknown Keras version '" + kerasVersion + "'.");
+        }
+        final Version version = new Version(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+            matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 0);
+        // newer major versions use an incompatible configuration format
+        if (version.getMajor() != 2) {
+            throw new DLInvalidSourceException("Keras version '" + kerasVersion + "' is not supported.");
+        }
+        return version;
+    }
+
+    private static DLDimensionOrder determineDimensionOrder(final List<Object> layers, final boolean isSequential)
+        throws DLInvalidSourceException {
+        // equals DLKerasNetworkSpecExtractor._determine_dimension_order on Python side
+        final Set<Object> dataFormats = new HashSet<>();
+        for (final Object layer : layers) {
+            final Map<String, Object> layerMap = asMap(layer);
+            if (isSequential && "InputLayer".equals(layerMap.get("class_name"))) {
+                continue;
+            }
+            final Map<String, Object> config = asMap(layerMap.get("config"));
+            if (config.containsKey("data_format")) {
+                dataFormats.add(config.get("data_format"));
+            }
+        }
+        if (dataFormats.size() > 1) {
+            throw new DLInvalidSourceException("The network contains conflicting data_formats.");
+        }
+        return dataFormats.contains("channels_first") ? DLDimensionOrder.TCDHW : DLDimensionOrder.TDHWC;
+    }
+
+    private void extractSequential(final List<Object> layers) throws DLInvalidSourceException {
+        int firstLayerIdx = 0;
+        Map<String, Object> firstLayer = asMap(layers.get(0));
+        final Map<String, Object> inputConfig;
+        if ("InputLayer".equals(firstLayer.get("class_name"))) {
+            // the input layer is not part of Sequential#layers on Python side
+            inputConfig = asMap(firstLayer.get("config"));
+            firstLayerIdx = 1;
+            firstLayer = asMap(layers.get(1));
+        } else {
+            inputConfig = asMap(firstLayer.get("config"));
+        }
+        final TensorInfo input = createInputTensor(inputConfig);
+        m_inputSpecs[0] = createTensorSpec(getLayerName(firstLayer), 0, 0, input);
+        TensorInfo current = input;
+        for (int i = firstLayerIdx; i < layers.size(); i++) {
+            final Map<String, Object> layer = asMap(layers.get(i));
+            final List<TensorInfo> outputs = inferOutputs((String)layer.get("class_name"),
+                asMap(layer.get("config")), Collections.singletonList(current));
+            if (outputs.size() != 1) {
+                throw new DLInvalidSourceException("Sequential layers must have exactly one output.");
+            }
+            current = outputs.get(0);
+            final DLTensorSpec spec = createTensorSpec(getLayerName(layer), 0, 0, current);
+            if (i == layers.size() - 1) {
+                m_outputSpecs[0] = spec;
+            } else {
+                m_hiddenOutputSpecs.add(spec);
+            }
+        }
+    }
+
+    private void extractFunctional(final List<Object> layers, final List<String> modelInputs,
+        final List<String> modelOutputs) throws DLInvalidSourceException {
+        // mirrors the traversal in DLKerasNetworkSpecExtractor.extract_spec on Python side
+        final Map<String, TensorInfo> tensors = new HashMap<>();
+        final Set<String> visitedInputs = new HashSet<>();
+        final Set<String> visitedOutputs = new HashSet<>();
+        for (final Object layerObj : layers) {
+            final Map<String, Object> layer = asMap(layerObj);
+            final String layerName = getLayerName(layer);
+            final String className = (String)layer.get("class_name");
+            final Map<String, Object> config = asMap(layer.get("config"));
+            if ("InputLayer".equals(className)) {
+                final String key = toTensorKey(layerName, 0, 0);
+                final TensorInfo input = createInputTensor(config);
+                tensors.put(key, input);
+                extractNodeSpecs(layerName, 0, Collections.singletonList(key), Collections.singletonList(key),
+                    tensors, modelInputs, modelOutputs, visitedInputs, visitedOutputs);
+                continue;
+            }
+            final List<Object> inboundNodes = asList(layer.get("inbound_nodes"));
+            for (int nodeIdx = 0; nodeIdx < inboundNodes.size(); nodeIdx++) {
+                final List<String> inputKeys = new ArrayList<>();
+                final List<TensorInfo> inputs = new ArrayList<>();
+                for (final Object inboundObj : asList(inboundNodes.get(nodeIdx))) {
+                    final List<Object> inbound = asList(inboundObj);
+                    if (inbound.size() > 3 && !isIgnorableNodeArguments(inbound.get(3))) {
+                        throw new DLInvalidSourceException(
+                            "Layer '" + layerName + "' is called with unsupported arguments.");
+                    }
+                    final String key = toTensorKey((String)inbound.get(0), toInt(inbound.get(1)),
+                        toInt(inbound.get(2)));
+                    final TensorInfo input = tensors.get(key);
+                    if (input == null) {
+                        throw new DLInvalidSourceException(
+                            "Input of layer '" + layerName + "' could not be resolved.");
+                    }
+                    inputKeys.add(key);
+                    inputs.add(input);
+                }
+                final List<TensorInfo> outputs = inferOutputs(className, config, inputs);
+                final List<String> outputKeys = new ArrayList<>(outputs.size());
+                for (int tensorIdx = 0; tensorIdx < outputs.size(); tensorIdx++) {
+                    final String key = toTensorKey(layerName, nodeIdx, tensorIdx);
+                    tensors.put(key, outputs.get(tensorIdx));
+                    outputKeys.add(key);
+                }
+                extractNodeSpecs(layerName, nodeIdx, inputKeys, outputKeys, tensors, modelInputs, modelOutputs,
+                    visitedInputs, visitedOutputs);
+            }
+        }
+        for (final DLTensorSpec spec : m_inputSpecs) {
+            if (spec == null) {
+                throw new DLInvalidSourceException("Not all network inputs could be resolved.");
+            }
+        }
+        for (final DLTensorSpec spec : m_outputSpecs) {
+            if (spec == null) {
+                throw new DLInvalidSourceException("Not all network outputs could be resolved.");
+            }
+        }
+    }
+
+    private void extractNodeSpecs(final String layerName, final int nodeIdx, final List<String> inputKeys,
+        final List<String> outputKeys, final Map<String, TensorInfo> tensors, final List<String> modelInputs,
+        final List<String> modelOutputs, final Set<String> visitedInputs, final Set<String> visitedOutputs)
+        throws DLInvalidSourceException {
+        for (int tensorIdx = 0; tensorIdx < inputKeys.size(); tensorIdx++) {
+            final String key = inputKeys.get(tensorIdx);
+            final int modelInputIdx = modelInputs.indexOf(key);
+            if (modelInputIdx != -1 && visitedInputs.add(key)) {
+                m_inputSpecs[modelInputIdx] = createTensorSpec(layerName, nodeIdx, tensorIdx, tensors.get(key));
+            }
+        }
+        for (int tensorIdx = 0; tensorIdx < outputKeys.size(); tensorIdx++) {
+            final String key = outputKeys.get(tensorIdx);
+            if (visitedOutputs.add(key)) {
+                final DLTensorSpec spec = createTensorSpec(layerName, nodeIdx, tensorIdx, tensors.get(key));
+                final int modelOutputIdx = modelOutputs.indexOf(key);
+                if (modelOutputIdx != -1) {
+                    m_outputSpecs[modelOutputIdx] = spec;
+                } else {
+                    m_hiddenOutputSpecs.add(spec);
+                }
+            }
+        }
+    }
+
+    private static boolean isIgnorableNodeArguments(final Object arguments) {
+        if (arguments == null) {
+            return true;
+        }
+        final Set<String> keys = new HashSet<>(asMap(arguments).keySet());
+        keys.remove("training");
+        keys.remove("mask");
+        return keys.isEmpty();
+    }
+
+    private DLTensorSpec createTensorSpec(final String layerName, final int nodeIdx, final int tensorIdx,
+        final TensorInfo tensor) throws DLInvalidSourceException {
+        // equals DLKerasNetworkSpecExtractor._create_tensor_spec and DLPythonTensorSpecTableCreatorFactory
+        final String id = DLKerasUtils.Tensors.createTensorName(layerName, nodeIdx, tensorIdx);
+        final Class<?> elementType;
+        try {
+            elementType = DLPythonNumPyTypeMap.INSTANCE.getPreferredInternalType(tensor.m_dtype);
+        } catch (final IllegalArgumentException e) {
+            throw new DLInvalidSourceException("Element type '" + tensor.m_dtype + "' is not supported.");
+        }
+        final long[] dims = Arrays.copyOfRange(tensor.m_shape, 1, tensor.m_shape.length);
+        if (dims.length == 0 || Arrays.stream(dims).anyMatch(d -> d == 0 || d < -1)) {
+            throw new DLInvalidSourceException("Tensor '" + id + "' has an unsupported shape.");
+        }
+        final DLTensorShape shape;
+        if (Arrays.stream(dims).allMatch(d -> d != -1)) {
+            shape = new DLDefaultFixedTensorShape(dims);
+        } else {
+            shape = new DLDefaultPartialTensorShape(Arrays.stream(dims)
+                .mapToObj(d -> d == -1 ? OptionalLong.empty() : OptionalLong.of(d)).toArray(OptionalLong[]::new));
+        }
+        final long batchSize = tensor.m_shape[0];
+        return batchSize > 0
+            ? new DLDefaultTensorSpec(new DLDefaultTensorId(id), id, batchSize, shape, elementType, m_dimensionOrder)
+            : new DLDefaultTensorSpec(new DLDefaultTensorId(id), id, shape, elementType, m_dimensionOrder);
+    }
+
+    private static TensorInfo createInputTensor(final Map<String, Object> config) throws DLInvalidSourceException {
+        final Object batchInputShape = config.get("batch_input_shape");
+        if (batchInputShape == null) {
+            throw new DLInvalidSourceException("The network does not specify its input shape.");
+        }
+        final List<Object> shapeList = asList(batchInputShape);
+        final long[] shape = new long[shapeList.size()];
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = shapeList.get(i) == null ? -1 : toLong(shapeList.get(i));
+        }
+        return new TensorInfo(shape, getDtype(config, DEFAULT_DTYPE));
+    }
+
+    // -- shape inference --
+
+    private static List<TensorInfo> inferOutputs(final String className, final Map<String, Object> config,
+        final List<TensorInfo> inputs) throws DLInvalidSourceException {
+        if (inputs.isEmpty()) {
+            throw new DLInvalidSourceException("Layer '" + className + "' has no inputs.");
+        }
+        final TensorInfo input = inputs.get(0);
+        // All other layers compute in floatx unless configured otherwise, e.g. an embedding of integer indices.
+        final String dtype =
+            TYPE_PRESERVING_LAYERS.contains(className) ? input.m_dtype : getDtype(config, DEFAULT_DTYPE);
+        if (ELEMENTWISE_MERGE_LAYERS.contains(className)) {
+            return single(inferElementwiseMergeShape(inputs), dtype);
+        } else if ("Concatenate".equals(className)) {
+            return single(inferConcatenateShape(inputs, config.containsKey("axis") ? toInt(config.get("axis")) : -1),
+                dtype);
+        } else if (inputs.size() != 1) {
+            throw new DLInvalidSourceException("Layer '" + className + "' with multiple inputs is not supported.");
+        } else if (RECURRENT_LAYERS.contains(className)) {
+            return inferRecurrentOutputs(className, config, input.m_shape, dtype);
+        } else {
+            return single(inferSingleInputShape(className, config, input.m_shape), dtype);
+        }
+    }
+
+    private static long[] inferSingleInputShape(final String className, final Map<String, Object> config,
+        final long[] in) throws DLInvalidSourceException {
+        if (SHAPE_PRESERVING_LAYERS.contains(className)) {
+            return in.clone();
+        }
+        switch (className) {
+            case "Dense":
+                return withLast(in, toLong(config.get("units")));
+            case "Embedding":
+                return append(in, toLong(config.get("output_dim")));
+            case "Flatten":
+                return new long[]{in[0], product(in, 1, in.length)};
+            case "Reshape":
+                return inferReshapeShape(in, toLongArray(config.get("target_shape")));
+            case "Permute": {
+                final long[] dims = toLongArray(config.get("dims"));
+                final long[] out = new long[dims.length + 1];
+                out[0] = in[0];
+                for (int i = 0; i < dims.length; i++) {
+                    out[i + 1] = in[(int)dims[i]];
+                }
+                return out;
+            }
+            case "RepeatVector":
+                checkRank(className, in, 2);
+                return new long[]{in[0], toLong(config.get("n")), in[1]};
+            case "Conv1D":
+            case "Conv2D":
+            case "Conv3D":
+            case "SeparableConv1D":
+            case "SeparableConv2D":
+                return inferConvShape(className, config, in, toLong(config.get("filters")), false);
+            case "DepthwiseConv2D":
+                return inferConvShape(className, config, in,
+                    multiply(in[channelAxis(config, in)], toLong(config.get("depth_multiplier"))), false);
+            case "Conv1DTranspose":
+            case "Conv2DTranspose":
+            case "Conv3DTranspose":
+                return inferConvShape(className, config, in, toLong(config.get("filters")), true);
+            case "MaxPooling1D":
+            case "MaxPooling2D":
+            case "MaxPooling3D":
+            case "AveragePooling1D":
+            case "AveragePooling2D":
+            case "AveragePooling3D":
+                return inferPoolingShape(className, config, in);
+            case "GlobalMaxPooling1D":
+            case "GlobalMaxPooling2D":
+            case "GlobalMaxPooling3D":
+            case "GlobalAveragePooling1D":
+            case "GlobalAveragePooling2D":
+            case "GlobalAveragePooling3D":
+                return inferGlobalPoolingShape(className, config, in);
+            case "ZeroPadding1D":
+            case "ZeroPadding2D":
+            case "ZeroPadding3D":
+                return inferPaddingShape(className, config, in, toPairs(config.get("padding")), 1);
+            case "Cropping1D":
+            case "Cropping2D":
+            case "Cropping3D":
+                return inferPaddingShape(className, config, in, toPairs(config.get("cropping")), -1);
+            case "UpSampling1D":
+            case "UpSampling2D":
+            case "UpSampling3D":
+                return inferUpSamplingShape(className, config, in);
+            case "Bidirectional":
+                return inferBidirectionalShape(config, in);
+            case "TimeDistributed":
+                return inferTimeDistributedShape(config, in);
+            default:
+                throw new DLInvalidSourceException("Layers of type '" + className + "' are not supported.");
+        }
+    }
+
+    private static List<TensorInfo> inferRecurrentOutputs(final String className, final Map<String, Object> config,
+        final long[] in, final String dtype) throws DLInvalidSourceException {
+        checkRank(className, in, 3);
+        final long units = toLong(config.get("units"));
+        final boolean returnSequences = Boolean.TRUE.equals(config.get("return_sequences"));
+        final List<TensorInfo> outputs = new ArrayList<>();
+        outputs.add(new TensorInfo(returnSequences ? new long[]{in[0], in[1], units} : new long[]{in[0], units},
+            dtype));
+        if (Boolean.TRUE.equals(config.get("return_state"))) {
+            final int numStates = className.endsWith("LSTM") ? 2 : 1;
+            for (int i = 0; i < numStates; i++) {
+                outputs.add(new TensorInfo(new long[]{in[0], units}, dtype));
+            }
+        }
+        return outputs;
+    }
+
+    private static long[] inferBidirectionalShape(final Map<String, Object> config, final long[] in)
+        throws DLInvalidSourceException {
+        final Map<String, Object> inner = asMap(config.get("layer"));
+        final String innerClassName = (String)inner.get("class_name");
+        final Map<String, Object> innerConfig = asMap(inner.get("config"));
+        if (!RECURRENT_LAYERS.contains(innerClassName) || Boolean.TRUE.equals(innerConfig.get("return_state"))) {
+            throw new DLInvalidSourceException("Bidirectional layers of this type are not supported.");
+        }
+        final long[] out = inferRecurrentOutputs(innerClassName, innerConfig, in, DEFAULT_DTYPE).get(0).m_shape;
+        final Object mergeMode = config.get("merge_mode");
+        if ("concat".equals(mergeMode)) {
+            out[out.length - 1] = multiply(out[out.length - 1], 2);
+        } else if (!"sum".equals(mergeMode) && !"mul".equals(mergeMode) && !"ave".equals(mergeMode)) {
+            throw new DLInvalidSourceException("Bidirectional merge mode '" + mergeMode + "' is not supported.");
+        }
+        return out;
+    }
+
+    private static long[] inferTimeDistributedShape(final Map<String, Object> config, final long[] in)
+        throws DLInvalidSourceException {
+        if (in.length < 3) {
+            throw new DLInvalidSourceException("TimeDistributed layers require inputs of at least rank 3.");
+        }
+        final Map<String, Object> inner = asMap(config.get("layer"));
+        final long[] childIn = new long[in.length - 1];
+        childIn[0] = in[0];
+        System.arraycopy(in, 2, childIn, 1, in.length - 2);
+        final String innerClassName = (String)inner.get("class_name");
+        final Map<String, Object> innerConfig = asMap(inner.get("config"));
+        final List<TensorInfo> childOuts = RECURRENT_LAYERS.contains(innerClassName)
+            ? inferRecurrentOutputs(innerClassName, innerConfig, childIn, DEFAULT_DTYPE)
+            : single(inferSingleInputShape(innerClassName, innerConfig, childIn), DEFAULT_DTYPE);
+        if (childOuts.size() != 1) {
+            throw new DLInvalidSourceException("TimeDistributed layers with multiple outputs are not supported.");
+        }
+        final long[] childOut = childOuts.get(0).m_shape;
+        final long[] out = new long[childOut.length + 1];
+        out[0] = childOut[0];
+        out[1] = in[1];
+        System.arraycopy(childOut, 1, out, 2, childOut.length - 1);
+        return out;
+    }
+
+    private static long[] inferConvShape(final String className, final Map<String, Object> config, final long[] in,
+        final long filters, final boolean isTranspose) throws DLInvalidSourceException {
+        final int rank = getSpatialRank(className);
+        checkRank(className, in, rank + 2);
+        final boolean channelsFirst = isChannelsFirst(config);
+        final long[] kernelSize = toLongArray(config.get("kernel_size"), rank);
+        final long[] strides = toLongArray(config.getOrDefault("strides", 1L), rank);
+        final long[] dilationRate = toLongArray(config.getOrDefault("dilation_rate", 1L), rank);
+        final Object outputPaddingObj = config.get("output_padding");
+        final long[] outputPadding = outputPaddingObj != null ? toLongArray(outputPaddingObj, rank) : null;
+        final String padding = (String)config.get("padding");
+        final long[] out = in.clone();
+        final int firstSpatial = channelsFirst ? 2 : 1;
+        for (int i = 0; i < rank; i++) {
+            final long length = in[firstSpatial + i];
+            out[firstSpatial + i] = isTranspose
+                ? deconvOutputLength(length, kernelSize[i], padding, strides[i], dilationRate[i],
+                    outputPadding != null ? outputPadding[i] : -1)
+                : convOutputLength(length, kernelSize[i], padding, strides[i], dilationRate[i]);
+        }
+        out[channelsFirst ? 1 : in.length - 1] = filters;
+        return out;
+    }
+
+    private static long[] inferPoolingShape(final String className, final Map<String, Object> config,
+        final long[] in) throws DLInvalidSourceException {
+        final int rank = getSpatialRank(className);
+        checkRank(className, in, rank + 2);
+        final boolean channelsFirst = isChannelsFirst(config);
+        final long[] poolSize = toLongArray(config.get("pool_size"), rank);
+        final Object stridesObj = config.get("strides");
+        final long[] strides = stridesObj != null ? toLongArray(stridesObj, rank) : poolSize;
+        final String padding = (String)config.get("padding");
+        final long[] out = in.clone();
+        final int firstSpatial = channelsFirst ? 2 : 1;
+        for (int i = 0; i < rank; i++) {
+            out[firstSpatial + i] =
+                convOutputLength(in[firstSpatial + i], poolSize[i], padding, strides[i], 1);
+        }
+        return out;
+    }
+
+    private static long[] inferGlobalPoolingShape(final String className, final Map<String, Object> config,
+        final long[] in) throws DLInvalidSourceException {
+        final int rank = getSpatialRank(className);
+        checkRank(className, in, rank + 2);
+        final boolean channelsFirst = isChannelsFirst(config);
+        final long channels = in[channelsFirst ? 1 : in.length - 1];
+        if (Boolean.TRUE.equals(config.get("keepdims"))) {
+            final long[] out = new long[in.length];
+            Arrays.fill(out, 1);
+            out[0] = in[0];
+            out[channelsFirst ? 1 : in.length - 1] = channels;
+            return out;
+        }
+        return new long[]{in[0], channels};
+    }
+
+    private static long[] inferPaddingShape(final String className, final Map<String, Object> config,
+        final long[] in, final long[][] amounts, final int sign) throws DLInvalidSourceException {
+        final int rank = getSpatialRank(className);
+        checkRank(className, in, rank + 2);
+        if (amounts.length != rank) {
+            throw new DLInvalidSourceException("Invalid configuration of layer of type '" + className + "'.");
+        }
+        final int firstSpatial = isChannelsFirst(config) ? 2 : 1;
+        final long[] out = in.clone();
+        for (int i = 0; i < rank; i++) {
+            final long length = in[firstSpatial + i];
+            out[firstSpatial + i] = length == -1 ? -1 : length + sign * (amounts[i][0] + amounts[i][1]);
+        }
+        return out;
+    }
+
+    private static long[] inferUpSamplingShape(final String className, final Map<String, Object> config,
+        final long[] in) throws DLInvalidSourceException {
+        final int rank = getSpatialRank(className);
+        checkRank(className, in, rank + 2);
+        final long[] size = toLongArray(config.get("size"), rank);
+        final int firstSpatial = isChannelsFirst(config) ? 2 : 1;
+        final long[] out = in.clone();
+        for (int i = 0; i < rank; i++) {
+            out[firstSpatial + i] = multiply(in[firstSpatial + i], size[i]);
+        }
+        return out;
+    }
+
+    private static long[] inferReshapeShape(final long[] in, final long[] targetShape)
+        throws DLInvalidSourceException {
+        final long[] out = new long[targetShape.length + 1];
+        out[0] = in[0];
+        int unknownIdx = -1;
+        long knownProduct = 1;
+        for (int i = 0; i < targetShape.length; i++) {
+            out[i + 1] = targetShape[i];
+            if (targetShape[i] == -1) {
+                if (unknownIdx != -1) {
+                    throw new DLInvalidSourceException("Reshape target shape contains multiple unknown dimensions.");
+                }
+                unknownIdx = i + 1;
+            } else {
+                knownProduct *= targetShape[i];
+            }
+        }
+        if (unknownIdx != -1) {
+            final long inputProduct = product(in, 1, in.length);
+            out[unknownIdx] = inputProduct == -1 || knownProduct == 0 ? -1 : inputProduct / knownProduct;
+        }
+        return out;
+    }
+
+    private static long[] inferElementwiseMergeShape(final List<TensorInfo> inputs) throws DLInvalidSourceException {
+        final long[] out = inputs.get(0).m_shape.clone();
+        long batchSize = out[0];
+        for (int i = 1; i < inputs.size(); i++) {
+            final long[] other = inputs.get(i).m_shape;
+            if (other.length != out.length) {
+                throw new DLInvalidSourceException("Merging tensors of different ranks is not supported.");
+            }
+            if (batchSize != other[0]) {
+                batchSize = -1;
+            }
+            for (int d = 1; d < out.length; d++) {
+                if (out[d] == -1 || other[d] == -1) {
+                    out[d] = -1;
+                } else if (out[d] == 1) {
+                    out[d] = other[d];
+                } else if (other[d] != 1 && other[d] != out[d]) {
+                    throw new DLInvalidSourceException("Merged tensors have incompatible shapes.");
+                }
+            }
+        }
+        out[0] = batchSize;
+        return out;
+    }
+
+    private static long[] inferConcatenateShape(final List<TensorInfo> inputs, final int axis)
+        throws DLInvalidSourceException {
+        final long[] out = inputs.get(0).m_shape.clone();
+        final int normalizedAxis = axis < 0 ? out.length + axis : axis;
+        if (normalizedAxis <= 0 || normalizedAxis >= out.length) {
+            throw new DLInvalidSourceException("Concatenation axis " + axis + " is not supported.");
+        }
+        for (int i = 1; i < inputs.size(); i++) {
+            final long[] other = inputs.get(i).m_shape;
+            if (other.length != out.length) {
+                throw new DLInvalidSourceException("Concatenating tensors of different ranks is not supported.");
+            }
+            out[normalizedAxis] = out[normalizedAxis] == -1 || other[normalizedAxis] == -1 ? -1
+                : out[normalizedAxis] + other[normalizedAxis];
+        }
+        return out;
+    }
+
+    private static long convOutputLength(final long length, final long kernelSize, final String padding,
+        final long stride, final long dilation) throws DLInvalidSourceException {
+        // equals keras.utils.conv_utils.conv_output_length
+        if (length == -1) {
+            return -1;
+        }
+        final long dilatedKernelSize = (kernelSize - 1) * dilation + 1;
+        final long outputLength;
+        switch (padding) {
+            case "same":
+            case "causal":
+                outputLength = length;
+                break;
+            case "valid":
+                outputLength = length - dilatedKernelSize + 1;
+                break;
+            case "full":
+                outputLength = length + dilatedKernelSize - 1;
+                break;
+            default:
+                throw new DLInvalidSourceException("Padding '" + padding + "' is not supported.");
+        }
+        return (outputLength + stride - 1) / stride;
+    }
+
+    private static long deconvOutputLength(final long length, final long kernelSize, final String padding,
+        final long stride, final long dilation, final long outputPadding) throws DLInvalidSourceException {
+        // equals keras.utils.conv_utils.deconv_length
+        if (length == -1) {
+            return -1;
+        }
+        final long dilatedKernelSize = (kernelSize - 1) * dilation + 1;
+        if (outputPadding == -1) {
+            switch (padding) {
+                case "valid":
+                    return length * stride + Math.max(dilatedKernelSize - stride, 0);
+                case "full":
+                    return length * stride - (stride + dilatedKernelSize - 2);
+                case "same":
+                    return length * stride;
+                default:
+                    throw new DLInvalidSourceException("Padding '" + padding + "' is not supported.");
+            }
+        }
+        final long pad;
+        switch (padding) {
+            case "valid":
+                pad = 0;
+                break;
+            case "full":
+                pad = dilatedKernelSize - 1;
+                break;
+            case "same":
+                pad = dilatedKernelSize / 2;
+                break;
+            default:
+                throw new DLInvalidSourceException("Padding '" + padding + "' is not supported.");
+        }
+        return (length - 1) * stride + dilatedKernelSize - 2 * pad + outputPadding;
+    }
+
+    // -- utilities --
+
+    private static int getSpatialRank(final String className) throws DLInvalidSourceException {
+        if (className.contains("1D")) {
+            return 1;
+        } else if (className.contains("2D")) {
+            return 2;
+        } else if (className.contains("3D")) {
+            return 3;
+        }
+        throw new DLInvalidSourceException("Layers of type '" + className + "' are not supported.");
+    }
+
+    private static boolean isChannelsFirst(final Map<String, Object> config) {
+        return "channels_first".equals(config.get("data_format"));
+    }
+
+    private static int channelAxis(final Map<String, Object> config, final long[] in) {
+        return isChannelsFirst(config) ? 1 : in.length - 1;
+    }
+
+    private static void checkRank(final String className, final long[] in, final int rank)
+        throws DLInvalidSourceException {
+        if (in.length != rank) {
+            throw new DLInvalidSourceException(
+                "Layer of type '" + className + "' expects inputs of rank " + rank + ", got " + in.length + ".");
+        }
+    }
+
+    private static String getDtype(final Map<String, Object> config, final String defaultDtype)
+        throws DLInvalidSourceException {
+        final Object dtype = config.get("dtype");
+        if (dtype == null) {
+            return defaultDtype;
+        } else if (dtype instanceof String) {
+            return (String)dtype;
+        }
+        // e.g. mixed precision policies
+        throw new DLInvalidSourceException("Layer data type '" + dtype + "' is not supported.");
+    }
+
+    private static String getLayerName(final Map<String, Object> layer) {
+        final Object name = layer.get("name");
+        return (String)(name != null ? name : asMap(layer.get("config")).get("name"));
+    }
+
+    private static String toTensorKey(final String layerName, final int nodeIdx, final int tensorIdx) {
+        return layerName + "#" + nodeIdx + "#" + tensorIdx;
+    }
+
+    private static List<String> toTensorKeys(final List<Object> layerRefs) {
+        final List<String> keys = new ArrayList<>(layerRefs.size());
+        for (final Object refObj : layerRefs) {
+            final List<Object> ref = asList(refObj);
+            keys.add(toTensorKey((String)ref.get(0), toInt(ref.get(1)), toInt(ref.get(2))));
+        }
+        return keys;
+    }
+
+    private static List<TensorInfo> single(final long[] shape, final String dtype) {
+        return Collections.singletonList(new TensorInfo(shape, dtype));
+    }
+
+    private static long[] withLast(final long[] in, final long last) {
+        final long[] out = in.clone();
+        out[out.length - 1] = last;
+        return out;
+    }
+
+    private static long[] append(final long[] in, final long last) {
+        final long[] out = Arrays.copyOf(in, in.length + 1);
+        out[in.length] = last;
+        return out;
+    }
+
+    private static long product(final long[] shape, final int from, final int to) {
+        long product = 1;
+        for (int i = from; i < to; i++) {
+            if (shape[i] == -1) {
+                return -1;
+            }
+            product *= shape[i];
+        }
+        return product;
+    }
+
+    private static long multiply(final long dim, final long factor) {
+        return dim == -1 ? -1 : dim * factor;
+    }
+
+    private static long[][] toPairs(final Object value) {
+        final List<Object> list = value instanceof List ? asList(value) : Collections.singletonList(value);
+        if (!list.isEmpty() && !(list.get(0) instanceof List)) {
+            // one-dimensional layers store a single pair
+            final long[] pair = toLongArray(list, 2);
+            return new long[][]{pair};
+        }
+        final long[][] pairs = new long[list.size()][];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = toLongArray(list.get(i), 2);
+        }
+        return pairs;
+    }
+
+    private static long[] toLongArray(final Object value) {
+        final List<Object> list = asList(value);
+        final long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = toLong(list.get(i));
+        }
+        return array;
+    }
+
+    private static long[] toLongArray(final Object value, final int length) {
+        if (value instanceof Number) {
+            final long[] array = new long[length];
+            Arrays.fill(array, toLong(value));
+            return array;
+        }
+        final long[] array = toLongArray(value);
+        if (array.length != length) {
+            throw new IllegalArgumentException("Expected " + length + " values, got " + array.length + ".");
+        }
+        return array;
+    }
+
+    private static long toLong(final Object value) {
+        return ((Number)value).longValue();
+    }
+
+    private static int toInt(final Object value) {
+        return ((Number)value).intValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(final Object value) {
+        return (Map<String, Object>)value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(final Object value) {
+        return (List<Object>)value;
+    }
+
+    private static final class TensorInfo {
+
+        private final long[] m_shape;
+
+        private final String m_dtype;
+
+        private TensorInfo(final long[] shape, final String dtype) {
+            m_shape = shape;
+            m_dtype = dtype;
+        }
+    }
+}
@@ -46,6 +46,9 @@
  */
 package org.knime.dl.keras.core;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.knime.dl.python.core.DLPythonAbstractContext;
 import org.knime.python2.PythonCommand;
 import org.knime.python2.kernel.PythonKernel;
@@ -57,6 +60,8 @@
  */
 public final class DLKerasPythonContext extends DLPythonAbstractContext {
 
+    private static final Set<String> PRELOADED_MODULES = Collections.singleton("tensorflow");
+
     private final PythonCommand m_command;
 
     /**
@@ -81,4 +86,16 @@ public DLKerasPythonContext(final PythonCommand command, final PythonKernel kern
     protected PythonCommand getPythonCommand() {
         return m_command;
     }
+
+    /**
+     * {@inheritDoc}
+     * <P>
+     * Preloads TensorFlow, whose import often takes several seconds. Keras itself is not preloaded because it selects
+     * its back end via the <code>KERAS_BACKEND</code> environment variable at import time, which the commands only set
+     * afterwards. TensorFlow reads its threading settings lazily, i.e. these can still be configured.
+     */
+    @Override
+    protected Set<String> getPreloadedModules() {
+        return PRELOADED_MODULES;
+    }
 }
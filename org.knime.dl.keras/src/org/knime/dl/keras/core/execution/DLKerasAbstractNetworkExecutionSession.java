@@ -48,9 +48,15 @@
  */
 package org.knime.dl.keras.core.execution;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
 import java.util.Set;
 
 import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
@@ -59,6 +65,7 @@
 import org.knime.dl.keras.core.DLKerasAbstractCommands;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.execution.DLPythonAbstractNetworkExecutionSession;
 
 /**
@@ -69,6 +76,8 @@
 		C extends DLKerasAbstractCommands>
 	extends DLPythonAbstractNetworkExecutionSession<N, C> implements DLKerasNetworkExecutionSession {
 
+	private DLKerasInferenceCompilation m_inferenceCompilation = DLKerasInferenceCompilation.NONE;
+
     protected DLKerasAbstractNetworkExecutionSession(final DLPythonContext context, final N network,
         final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
         final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
@@ -89,4 +98,17 @@ protected DLKerasAbstractNetworkExecutionSession(final DLPythonContext context,
 							+ "This may not be supported by Keras and could lead to a runtime error.");
 		}
 	}
+
+	@Override
+	public void setInferenceCompilation(final DLKerasInferenceCompilation compilation) {
+		m_inferenceCompilation = checkNotNull(compilation);
+	}
+
+	@Override
+	protected void networkLoaded(final C commands, final DLPythonNetworkHandle handle, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		if (m_inferenceCompilation != DLKerasInferenceCompilation.NONE) {
+			commands.setInferenceCompilation(handle, m_inferenceCompilation, cancelable);
+		}
+	}
 }
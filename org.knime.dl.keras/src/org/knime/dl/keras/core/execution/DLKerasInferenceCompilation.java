@@ -0,0 +1,115 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.execution;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The ways a Keras network can be compiled for inference. A compiled network is traced into a graph function once per
+ * set of requested outputs and called directly for each batch instead of going through Keras' prediction loop, which
+ * mostly pays off for small networks and batches. Execution falls back to the prediction loop if the installed back end
+ * does not support compilation.
+ */
+public enum DLKerasInferenceCompilation {
+
+	/**
+	 * The network is executed via Keras' prediction loop.
+	 */
+	NONE("none", "None", null),
+
+	/**
+	 * The network is traced into a TensorFlow graph function.
+	 */
+	FUNCTION("function", "Graph function", "function"),
+
+	/**
+	 * The network is traced into a TensorFlow graph function that is just-in-time compiled by XLA.
+	 */
+	XLA("xla", "Graph function with XLA", "xla");
+
+	/**
+	 * @param identifier the identifier of the compilation mode as returned by {@link #getIdentifier()}
+	 * @return the compilation mode with the given identifier, if any
+	 */
+	public static Optional<DLKerasInferenceCompilation> fromIdentifier(final String identifier) {
+		return Arrays.stream(values()).filter(c -> c.m_identifier.equals(identifier)).findFirst();
+	}
+
+	private final String m_identifier;
+
+	private final String m_name;
+
+	private final String m_mode;
+
+	private DLKerasInferenceCompilation(final String identifier, final String name, final String mode) {
+		m_identifier = identifier;
+		m_name = name;
+		m_mode = mode;
+	}
+
+	/**
+	 * @return the stable identifier of this compilation mode that is persisted in the node settings
+	 */
+	public String getIdentifier() {
+		return m_identifier;
+	}
+
+	/**
+	 * @return the user-facing name of this compilation mode
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * @return the identifier of this compilation mode on Python side, empty for {@link #NONE}
+	 */
+	public Optional<String> getMode() {
+		return Optional.ofNullable(m_mode);
+	}
+}
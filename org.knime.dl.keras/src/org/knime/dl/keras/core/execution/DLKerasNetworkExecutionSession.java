@@ -54,5 +54,12 @@
  */
 public interface DLKerasNetworkExecutionSession extends DLPythonNetworkExecutionSession {
 
-	// NB: marker interface
+	/**
+	 * Sets the way the network is compiled for inference. Must be called before the session is executed for the first
+	 * time.
+	 *
+	 * @param compilation the compilation mode, {@link DLKerasInferenceCompilation#NONE} to execute the network via
+	 *            Keras' prediction loop
+	 */
+	void setInferenceCompilation(DLKerasInferenceCompilation compilation);
 }
@@ -46,9 +46,26 @@
  */
 package org.knime.dl.keras.core.training;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.ExecutionContext;
@@ -61,11 +78,17 @@
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLNetworkFileStoreLocation;
 import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.core.DLSessionMonitor;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.training.DLNetworkInputSharder;
+import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObject;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
 import org.knime.dl.keras.core.DLKerasAbstractCommands;
+import org.knime.dl.keras.core.DLKerasAbstractCommands.DLKerasParameterAveragingEndpoint;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.execution.DLKerasAbstractNetworkExecutionSession;
 import org.knime.dl.python.core.DLPythonContext;
@@ -87,6 +110,49 @@
 	extends DLPythonAbstractNetworkTrainingSession<DLKerasTrainingStatus, N, DLKerasTrainingConfig, C>
 		implements DLKerasNetworkTrainingSession {
 
+	/**
+	 * Writes trained networks to file store in the background, see {@link #getTrainedNetwork(ExecutionContext)}.
+	 */
+	private static final ExecutorService SAVE_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		final Thread thread = new Thread(r, "KNIME-DL-Keras-Network-Saver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Runs the replicas of a parameter averaging training run, see
+	 * {@link #setParameterAveraging(int, int, Supplier)}.
+	 */
+	private static final ExecutorService PARAMETER_AVERAGING_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		final Thread thread = new Thread(r, "KNIME-DL-Keras-Parameter-Averaging");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private int m_numKernels = 1;
+
+	private int m_syncInterval = 1;
+
+	private Supplier<? extends DLPythonContext> m_workerContextFactory;
+
+	/**
+	 * The commands of the additional kernels of a parameter averaging training run. The first kernel is controlled by
+	 * {@link #m_commands}.
+	 */
+	private final List<C> m_workerCommands = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 * Completes once the trained network has been written to file store. Is <code>null</code> if
+	 * {@link #getTrainedNetwork(ExecutionContext)} was not called yet.
+	 */
+	private CompletableFuture<Void> m_pendingSave;
+
+	/**
+	 * Completes once this session has been closed after a pending save. Is <code>null</code> if closing was not
+	 * deferred.
+	 */
+	private CompletableFuture<Void> m_deferredClose;
+
 	/**
 	 * @param network the network to train
 	 * @param trainingConfig the training configuration that specifies how the network will be trained
@@ -121,29 +187,302 @@ protected DLKerasAbstractNetworkTrainingSession(final DLPythonContext context, f
 		}
 	}
 
+	@Override
+	public void setParameterAveraging(final int numKernels, final int syncInterval,
+			final Supplier<? extends DLPythonContext> workerContextFactory) {
+		checkArgument(numKernels > 0, "Number of kernels must be positive.");
+		checkArgument(syncInterval > 0, "Synchronization interval must be positive.");
+		checkArgument(numKernels <= m_trainingConfig.getBatchSize(),
+				"Number of kernels (%s) must not exceed the batch size (%s).", numKernels,
+				m_trainingConfig.getBatchSize());
+		m_numKernels = numKernels;
+		m_syncInterval = syncInterval;
+		m_workerContextFactory = checkNotNull(workerContextFactory);
+	}
+
+	@Override
+	protected void trainInternal(final DLTrainingMonitor<? extends DLKerasTrainingStatus> monitor)
+			throws DLCanceledExecutionException, Exception {
+		if (m_numKernels == 1) {
+			super.trainInternal(monitor);
+			return;
+		}
+		if (m_commands != null) {
+			throw new IllegalStateException("Parameter averaging does not support resuming training.");
+		}
+		final long[] shardBatchSizes =
+				DLNetworkInputSharder.getShardBatchSizes(m_trainingConfig.getBatchSize(), m_numKernels);
+		try (final DLNetworkInputSharder sharder = new DLNetworkInputSharder(m_trainingInputProvider,
+				m_executionInputSpecs, m_numKernels, m_tensorFactory)) {
+			m_commands = createCommands(m_context);
+			m_handle = loadNetwork(m_commands, monitor);
+			m_commands.setNetworkTrainingConfig(m_handle,
+					createReplicaTrainingConfig(shardBatchSizes[0], m_trainingConfig.getCallbacks()), monitor);
+			if (monitor.getMetrics().getTraceRecorder().isPresent()) {
+				// only the primary kernel is traced, the workers run the same stages concurrently
+				m_commands.setNetworkTracing(m_handle, true, monitor);
+			}
+			final DLKerasParameterAveragingEndpoint endpoint =
+					m_commands.startParameterAveragingServer(m_handle, m_numKernels - 1, m_syncInterval, monitor);
+			final List<Future<?>> replicas = new ArrayList<>(m_numKernels);
+			replicas.add(PARAMETER_AVERAGING_EXECUTOR.submit(() -> {
+				m_commands.trainNetwork(m_handle, sharder.getShard(0), m_validationInputProvider, monitor);
+				return null;
+			}));
+			for (int i = 1; i < m_numKernels; i++) {
+				final int shard = i;
+				replicas.add(PARAMETER_AVERAGING_EXECUTOR.submit(() -> {
+					trainWorker(sharder.getShard(shard), shardBatchSizes[shard], endpoint, monitor);
+					return null;
+				}));
+			}
+			awaitReplicas(replicas, monitor);
+		} finally {
+			closeWorkers();
+		}
+		if (monitor.getMetrics().isEnabled()) {
+			m_commands.collectNetworkMetrics(m_handle, monitor.getMetrics(), monitor);
+		}
+	}
+
+	private void trainWorker(final DLNetworkInputProvider shard, final long batchSize,
+			final DLKerasParameterAveragingEndpoint endpoint, final DLTrainingMonitor<?> primaryMonitor)
+			throws Exception {
+		final C commands = createCommands(m_workerContextFactory.get());
+		m_workerCommands.add(commands);
+		final DLPythonNetworkHandle handle = loadNetwork(commands, primaryMonitor);
+		// Workers neither validate nor run the configured callbacks, the first kernel decides when to stop.
+		commands.setNetworkTrainingConfig(handle, createReplicaTrainingConfig(batchSize, Collections.emptyList()),
+				primaryMonitor);
+		commands.connectParameterAveragingWorker(handle, endpoint, m_syncInterval, primaryMonitor);
+		commands.trainNetwork(handle, shard, null, new DLKerasWorkerTrainingMonitor(primaryMonitor,
+				new DLKerasDefaultTrainingStatus(m_trainingConfig.getEpochs(), (int) shard.getNumBatches())));
+	}
+
+	/**
+	 * Waits until all replicas have finished training. If any of them fails or training is canceled, all kernels are
+	 * shut down since the remaining replicas would wait for the failed one forever.
+	 */
+	private void awaitReplicas(final List<Future<?>> replicas, final DLCancelable cancelable) throws Exception {
+		try {
+			boolean done = false;
+			while (!done) {
+				done = true;
+				for (final Future<?> replica : replicas) {
+					if (replica.isDone()) {
+						replica.get();
+					} else {
+						done = false;
+					}
+				}
+				if (!done) {
+					cancelable.checkCanceled();
+					Thread.sleep(100);
+				}
+			}
+		} catch (final Exception e) {
+			closeWorkers();
+			m_commands.close();
+			replicas.forEach(r -> r.cancel(true));
+			if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void closeWorkers() {
+		synchronized (m_workerCommands) {
+			for (final C commands : m_workerCommands) {
+				try {
+					commands.close();
+				} catch (final Exception e) {
+					NodeLogger.getLogger(DLKerasAbstractNetworkTrainingSession.class)
+							.debug("Failed to close parameter averaging worker.", e);
+				}
+			}
+			m_workerCommands.clear();
+		}
+	}
+
+	private DLKerasTrainingConfig createReplicaTrainingConfig(final long batchSize,
+			final Collection<DLKerasCallback> callbacks) {
+		return new DLKerasDefaultTrainingConfig(m_trainingConfig.getEpochs(), (int) batchSize,
+				(int) m_trainingConfig.getValidationBatchSize(), m_trainingConfig.getOptimizer(),
+				m_trainingConfig.getLosses(), callbacks, 1, false, m_trainingConfig.getValidationFrequency(),
+				m_trainingConfig.getValidationSubsetFraction(), m_trainingConfig.getMixedPrecision(),
+				m_trainingConfig.getAccumulationSteps());
+	}
+
 	@Override
 	protected void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final DLKerasTrainingConfig config, final DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
 		m_commands.setNetworkTrainingConfig(handle, config, cancelable);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Only the network spec is fetched synchronously. The network itself is written to file store in the background,
+	 * which can take minutes for large networks. The returned port object is available immediately and only blocks
+	 * clients that actually access the network (or persist its file store) before the write has finished. Closing this
+	 * session is deferred until then.
+	 * <P>
+	 * The session takes ownership of the Python context it was created with: the context is closed along with the
+	 * session once the write has finished and must not be closed (or used) by the caller anymore.
+	 */
 	@Override
 	public DLKerasNetworkPortObjectBase getTrainedNetwork(final ExecutionContext exec) throws Exception {
 		if (m_commands == null) {
 			throw new IllegalStateException("Network was not trained, yet.");
 		}
+		if (m_pendingSave != null) {
+			throw new IllegalStateException("Trained network was already retrieved.");
+		}
 		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
 		final DLPythonNetworkLoader<? extends DLKerasNetwork> loader = DLPythonNetworkLoaderRegistry.getInstance()
 				.getNetworkLoader(m_network.getClass()).get();
 		final FileStore fileStore = DLNetworkPortObject.createFileStoreForSaving(loader.getSaveModelURLExtension(),
 				exec);
-        final URI fileStoreURI = fileStore.getFile().toURI();
-        loader.save(m_handle, fileStoreURI, m_commands.getContext(cancelable), cancelable);
-		if (!fileStore.getFile().exists()) {
-			throw new IllegalStateException("Failed to save trained Keras deep learning network.");
+		final File file = fileStore.getFile();
+		final URI fileStoreURI = file.toURI();
+		@SuppressWarnings("resource") // Closed along with the commands.
+		final DLPythonContext context = m_commands.getContext(cancelable);
+		// Loaders validate that the network source exists. The placeholder is overwritten by the save below.
+		if (!file.exists() && !file.createNewFile()) {
+			throw new IOException("Failed to create file store for trained Keras deep learning network.");
+		}
+		final DLKerasNetwork network = loader.fetch(m_handle, new DLNetworkFileStoreLocation(fileStore), context,
+				cancelable);
+		final C commands = m_commands;
+		m_pendingSave = CompletableFuture.runAsync(() -> {
+			try {
+				// Closing the commands (and thereby the context) is synchronized on them, too, and waits for the save.
+				synchronized (commands) {
+					loader.save(m_handle, fileStoreURI, context, DLNotCancelable.INSTANCE);
+				}
+			} catch (final Exception e) {
+				throw new CompletionException(e);
+			}
+			if (file.length() == 0) {
+				throw new IllegalStateException("Failed to save trained Keras deep learning network.");
+			}
+		}, SAVE_EXECUTOR);
+		m_pendingSave.whenComplete((v, t) -> {
+			if (t != null) {
+				NodeLogger.getLogger(DLKerasAbstractNetworkTrainingSession.class)
+						.error("Failed to save trained Keras deep learning network.", t);
+			}
+		});
+		return new DLKerasNetworkPortObject(network, m_pendingSave);
+	}
+
+	@Override
+	public CompletionStage<Void> getTrainedNetworkSave() {
+		if (m_pendingSave == null) {
+			throw new IllegalStateException("Trained network was not retrieved, yet.");
+		}
+		return m_pendingSave.minimalCompletionStage();
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (isSavePending()) {
+			asynchronousClose();
+		} else {
+			super.close();
+		}
+	}
+
+	@Override
+	public synchronized Future<Void> asynchronousClose() throws Exception {
+		if (m_deferredClose != null) {
+			return m_deferredClose;
+		}
+		if (!isSavePending()) {
+			return super.asynchronousClose();
+		}
+		// The Python process must stay alive until the network has been written to file store.
+		m_deferredClose = new CompletableFuture<>();
+		m_pendingSave.whenComplete((v, t) -> {
+			try {
+				super.asynchronousClose().get();
+				m_deferredClose.complete(null);
+			} catch (final Exception e) {
+				m_deferredClose.completeExceptionally(e);
+			}
+		});
+		return m_deferredClose;
+	}
+
+	private boolean isSavePending() {
+		return m_pendingSave != null && !m_pendingSave.isDone();
+	}
+
+	/**
+	 * Monitor of a parameter averaging worker. Only forwards cancellation checks to the monitor of the first kernel.
+	 */
+	private static final class DLKerasWorkerTrainingMonitor implements DLTrainingMonitor<DLKerasTrainingStatus> {
+
+		private final DLCancelable m_primaryMonitor;
+
+		private final DLKerasTrainingStatus m_trainingStatus;
+
+		private DLKerasWorkerTrainingMonitor(final DLCancelable primaryMonitor,
+				final DLKerasTrainingStatus trainingStatus) {
+			m_primaryMonitor = primaryMonitor;
+			m_trainingStatus = trainingStatus;
+		}
+
+		@Override
+		public DLKerasTrainingStatus getTrainingStatus() {
+			return m_trainingStatus;
+		}
+
+		@Override
+		public void checkCanceled() throws DLCanceledExecutionException {
+			m_primaryMonitor.checkCanceled();
+		}
+
+		@Override
+		public OptionalDouble getProgress() {
+			return OptionalDouble.empty();
+		}
+
+		@Override
+		public void setProgress(final double progress) {
+			// progress is reported by the first kernel
+		}
+
+		@Override
+		public void setProgress(final double progress, final String message) {
+			// progress is reported by the first kernel
+		}
+
+		@Override
+		public String getMessage() {
+			return null;
+		}
+
+		@Override
+		public void setMessage(final String message) {
+			// progress is reported by the first kernel
+		}
+
+		@Override
+		public void cancel() {
+			// cancellation is controlled by the first kernel
+		}
+
+		@Override
+		public void reset() {
+			// nothing to reset
+		}
+
+		@Override
+		public DLSessionMonitor createSubMonitor(final double fraction) {
+			return this;
 		}
-        return new DLKerasNetworkPortObject(
-            loader.fetch(m_handle, new DLNetworkFileStoreLocation(fileStore), m_commands.getContext(cancelable), cancelable));
 	}
 
     @Override
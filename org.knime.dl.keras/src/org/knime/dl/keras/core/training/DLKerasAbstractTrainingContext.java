@@ -57,6 +57,7 @@
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTrainingBudget;
 import org.knime.dl.keras.core.training.DLKerasLossFunction.DLKerasBinaryCrossEntropy;
 import org.knime.dl.keras.core.training.DLKerasLossFunction.DLKerasCategoricalCrossEntropy;
 import org.knime.dl.keras.core.training.DLKerasLossFunction.DLKerasCategoricalHinge;
@@ -175,7 +176,8 @@ public Collection<DLKerasCallback> createCallbacks() {
 		return Arrays.asList( //
 				new DLKerasTerminateOnNaN(), //
 				new DLKerasEarlyStopping(), //
-				new DLKerasReduceLROnPlateau());
+				new DLKerasReduceLROnPlateau(), //
+				new DLKerasTrainingBudget());
 	}
 
 	@Override
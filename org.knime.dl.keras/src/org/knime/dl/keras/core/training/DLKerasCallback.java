@@ -314,4 +314,109 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 			}
 		}
 	}
+
+	public static class DLKerasTrainingBudget extends DLKerasAbstractCallback {
+
+		static final String CFG_KEY = "training_budget";
+
+		static final String CFG_KEY_MAX_TIME = "max_time";
+
+		static final String CFG_KEY_MAX_BATCHES = "max_batches";
+
+		static final String CFG_KEY_MONITOR = "monitor";
+
+		static final String CFG_KEY_USE_TARGET = "use_target";
+
+		static final String CFG_KEY_TARGET = "target";
+
+		static final String CFG_KEY_RESTORE_BEST_WEIGHTS = "restore_best_weights";
+
+		public DLKerasTrainingBudget() {
+			super(CFG_KEY, "Terminate when the training budget is exhausted",
+					"DLKerasTrainingCallbacks.DLKerasTrainingBudget");
+			setEntryValue(CFG_KEY_MAX_TIME, Integer.class, 0);
+			setEntryValue(CFG_KEY_MAX_BATCHES, Integer.class, 0);
+			put(new DLKerasMonitoredQuantityConfigEntry(CFG_KEY_MONITOR, DLKerasMonitoredQuantity.class,
+					new DLKerasMonitoredTotalLoss(false)));
+			setEntryValue(CFG_KEY_USE_TARGET, Boolean.class, false);
+			setEntryValue(CFG_KEY_TARGET, Double.class, 0.0);
+			setEntryValue(CFG_KEY_RESTORE_BEST_WEIGHTS, Boolean.class, true);
+		}
+
+		/**
+		 * @return whether the weights of the best epoch are restored if the budget stops the training
+		 */
+		public boolean isRestoreBestWeights() {
+			return getEntryValue(CFG_KEY_RESTORE_BEST_WEIGHTS, Boolean.class);
+		}
+
+		@Override
+		public void setAllEnabled(final boolean enabled) {
+			super.setAllEnabled(enabled);
+			updateTargetEnabled();
+		}
+
+		private void updateTargetEnabled() {
+			final ConfigEntry<Boolean> useTarget = get(CFG_KEY_USE_TARGET, Boolean.class);
+			get(CFG_KEY_TARGET, Double.class).setEnabled(useTarget.getEnabled() && useTarget.getValue());
+		}
+
+		@Override
+		protected void populateNamedParameters(final Map<String, String> namedParams) {
+			namedParams.put("max_time", DLPythonUtils.toPython(getEntryValue(CFG_KEY_MAX_TIME, Integer.class)));
+			namedParams.put("max_batches", DLPythonUtils.toPython(getEntryValue(CFG_KEY_MAX_BATCHES, Integer.class)));
+			namedParams.put("monitor", DLPythonUtils
+					.toPython(getEntryValue(CFG_KEY_MONITOR, DLKerasMonitoredQuantity.class).getKerasIdentifier()));
+			namedParams.put("target", getEntryValue(CFG_KEY_USE_TARGET, Boolean.class)
+					? DLPythonUtils.toPython(getEntryValue(CFG_KEY_TARGET, Double.class))
+					: DLPythonUtils.NONE);
+			namedParams.put("restore_best_weights", DLPythonUtils.toPython(isRestoreBestWeights()));
+		}
+
+		@Override
+		protected IDialogComponentGroup getParameterDialogGroupInternal() {
+			return new DLKerasTrainingBudgetDialog(this);
+		}
+
+		private static class DLKerasTrainingBudgetDialog extends AbstractGridBagDialogComponentGroup {
+
+			private final DialogComponentObjectSelection<DLKerasMonitoredQuantity> m_objectSelection;
+
+			private DLKerasTrainingBudgetDialog(final DLKerasTrainingBudget model) {
+				addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+						model.get(CFG_KEY_MAX_TIME, Integer.class), 0, Integer.MAX_VALUE),
+						"Max. training time in seconds (0 = unlimited)", 60);
+				addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+						model.get(CFG_KEY_MAX_BATCHES, Integer.class), 0, Integer.MAX_VALUE),
+						"Max. training batches (0 = unlimited)", 1);
+				final ConfigEntry<DLKerasMonitoredQuantity> entry = model.get(CFG_KEY_MONITOR,
+						DLKerasMonitoredQuantity.class);
+				final Function<DLKerasMonitoredQuantity, String> printer = (final DLKerasMonitoredQuantity q) -> {
+					return (q.isValidationQuantity() ? "Validation " : "Training ")
+							+ (q.getQuantity() != null ? q.getQuantity().getName().toLowerCase() : "loss") + " ("
+							+ (q.getOutput() != null ? q.getOutput().getIdentifierString() : "total") + ")";
+				};
+				m_objectSelection = addObjectSelectionRow(entry, printer, "Monitored quantity", null);
+				final ConfigEntry<Boolean> useTarget = model.get(CFG_KEY_USE_TARGET, Boolean.class);
+				addCheckboxRow(ConfigUtil.toSettingsModelBoolean(useTarget),
+						"Terminate when the monitored quantity reaches the target", true);
+				addNumberEditRowComponent(
+						ConfigUtil.toSettingsModelDouble(model.get(CFG_KEY_TARGET, Double.class)), "Target");
+				useTarget.addValueChangeListener((e, oldValue) -> model.updateTargetEnabled());
+				useTarget.addLoadListener(e -> model.updateTargetEnabled());
+				addCheckboxRow(
+						ConfigUtil.toSettingsModelBoolean(model.get(CFG_KEY_RESTORE_BEST_WEIGHTS, Boolean.class)),
+						"Restore weights of the best epoch", true);
+			}
+
+			@Override
+			public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec[] specs)
+					throws NotConfigurableException {
+				final List<DLKerasMonitoredQuantity> quantities = specs[2] != null
+						? Arrays.asList(new DLKerasMonitoredTotalLoss(true), new DLKerasMonitoredTotalLoss(false))
+						: Arrays.asList(new DLKerasMonitoredTotalLoss(false));
+				m_objectSelection.replaceListItems(quantities, null);
+			}
+		}
+	}
 }
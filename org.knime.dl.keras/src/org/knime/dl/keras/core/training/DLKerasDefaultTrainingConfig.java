@@ -46,6 +46,9 @@
  */
 package org.knime.dl.keras.core.training;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -66,6 +69,12 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	private final DLKerasOptimizer m_optimizer;
 	private final Map<DLTensorId, DLKerasLossFunction> m_losses;
 	private final Collection<DLKerasCallback> m_callbacks;
+	private final int m_numReplicas;
+	private final boolean m_replicatedOnCpu;
+	private final int m_validationFrequency;
+	private final double m_validationSubsetFraction;
+	private final DLKerasMixedPrecision m_mixedPrecision;
+	private final int m_accumulationSteps;
 
 	/**
 	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
@@ -81,6 +90,117 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
 			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
 			final Collection<DLKerasCallback> callbacks) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, 1, false);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step. In case of data-parallel
+	 *            training, this is the global batch size that is split between the replicas.
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param numReplicas the number of model replicas between which each batch is split, 1 to disable data-parallel
+	 *            training. Must not be greater than the batch size.
+	 * @param replicatedOnCpu whether the replicas are placed on logical CPU devices instead of GPUs
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int numReplicas, final boolean replicatedOnCpu) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, numReplicas, replicatedOnCpu, 1, 1d);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step. In case of data-parallel
+	 *            training, this is the global batch size that is split between the replicas.
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param numReplicas the number of model replicas between which each batch is split, 1 to disable data-parallel
+	 *            training. Must not be greater than the batch size.
+	 * @param replicatedOnCpu whether the replicas are placed on logical CPU devices instead of GPUs
+	 * @param validationFrequency the number of epochs between two validations, 1 to validate after each epoch
+	 * @param validationSubsetFraction the fraction of the validation data that is used for each validation,
+	 *            must be in (0, 1]
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int numReplicas, final boolean replicatedOnCpu,
+			final int validationFrequency, final double validationSubsetFraction) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, numReplicas, replicatedOnCpu,
+				validationFrequency, validationSubsetFraction, DLKerasMixedPrecision.NONE);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step. In case of data-parallel
+	 *            training, this is the global batch size that is split between the replicas.
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param numReplicas the number of model replicas between which each batch is split, 1 to disable data-parallel
+	 *            training. Must not be greater than the batch size.
+	 * @param replicatedOnCpu whether the replicas are placed on logical CPU devices instead of GPUs
+	 * @param validationFrequency the number of epochs between two validations, 1 to validate after each epoch
+	 * @param validationSubsetFraction the fraction of the validation data that is used for each validation,
+	 *            must be in (0, 1]
+	 * @param mixedPrecision the mixed-precision policy, {@link DLKerasMixedPrecision#NONE} to train in float32
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int numReplicas, final boolean replicatedOnCpu,
+			final int validationFrequency, final double validationSubsetFraction,
+			final DLKerasMixedPrecision mixedPrecision) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, numReplicas, replicatedOnCpu,
+				validationFrequency, validationSubsetFraction, mixedPrecision, 1);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step. In case of data-parallel
+	 *            training, this is the global batch size that is split between the replicas.
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param numReplicas the number of model replicas between which each batch is split, 1 to disable data-parallel
+	 *            training. Must not be greater than the batch size.
+	 * @param replicatedOnCpu whether the replicas are placed on logical CPU devices instead of GPUs
+	 * @param validationFrequency the number of epochs between two validations, 1 to validate after each epoch
+	 * @param validationSubsetFraction the fraction of the validation data that is used for each validation,
+	 *            must be in (0, 1]
+	 * @param mixedPrecision the mixed-precision policy, {@link DLKerasMixedPrecision#NONE} to train in float32
+	 * @param accumulationSteps the number of batches whose gradients are accumulated before the network is updated, 1
+	 *            to update after each batch. The effective batch size is the batch size times this number.
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int numReplicas, final boolean replicatedOnCpu,
+			final int validationFrequency, final double validationSubsetFraction,
+			final DLKerasMixedPrecision mixedPrecision, final int accumulationSteps) {
+		checkArgument(accumulationSteps > 0, "Number of gradient accumulation steps must be positive.");
+		checkArgument(validationFrequency > 0, "Validation frequency must be positive.");
+		checkArgument(validationSubsetFraction > 0 && validationSubsetFraction <= 1,
+				"Validation subset fraction must be in (0, 1].");
+		checkArgument(numReplicas > 0, "Number of replicas must be positive.");
+		checkArgument(numReplicas <= batchSize, "Number of replicas (%s) must not exceed the batch size (%s).",
+				numReplicas, batchSize);
 		m_epochs = epochs;
 		m_batchSize = batchSize;
 		m_validationBatchSize = validationBatchSize != null ? validationBatchSize : batchSize;
@@ -88,6 +208,12 @@ public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final
 		m_losses = Collections.unmodifiableMap(new HashMap<>(losses));
 		m_callbacks = callbacks != null ? Collections.unmodifiableCollection(new ArrayList<>(callbacks))
 				: Collections.emptyList();
+		m_numReplicas = numReplicas;
+		m_replicatedOnCpu = replicatedOnCpu;
+		m_validationFrequency = validationFrequency;
+		m_validationSubsetFraction = validationSubsetFraction;
+		m_mixedPrecision = checkNotNull(mixedPrecision);
+		m_accumulationSteps = accumulationSteps;
 	}
 
 	@Override
@@ -119,4 +245,34 @@ public Map<DLTensorId, DLKerasLossFunction> getLosses() {
 	public Collection<DLKerasCallback> getCallbacks() {
 		return m_callbacks;
 	}
+
+	@Override
+	public int getNumReplicas() {
+		return m_numReplicas;
+	}
+
+	@Override
+	public boolean isReplicatedOnCpu() {
+		return m_replicatedOnCpu;
+	}
+
+	@Override
+	public int getValidationFrequency() {
+		return m_validationFrequency;
+	}
+
+	@Override
+	public double getValidationSubsetFraction() {
+		return m_validationSubsetFraction;
+	}
+
+	@Override
+	public DLKerasMixedPrecision getMixedPrecision() {
+		return m_mixedPrecision;
+	}
+
+	@Override
+	public int getAccumulationSteps() {
+		return m_accumulationSteps;
+	}
 }
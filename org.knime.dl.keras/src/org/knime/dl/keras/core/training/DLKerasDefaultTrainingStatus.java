@@ -68,10 +68,15 @@ public final class DLKerasDefaultTrainingStatus extends DLPythonAbstractTraining
 
 	private final DLEvent<Long> m_terminatedOnNaNLoss = new DLDefaultEvent<>();
 
+	private final DLEvent<DLKerasBudgetStopReason> m_stoppedOnBudget = new DLDefaultEvent<>();
+
+	private String m_timingSummary = "";
+
 	public DLKerasDefaultTrainingStatus(final int numEpochs, final int numBatchesPerEpoch) {
 		super(numEpochs, numBatchesPerEpoch);
 		m_stoppedEarly.addListener((src, epoch) -> setStatus(Status.STOPPED_EARLY));
 		m_terminatedOnNaNLoss.addListener((src, batch) -> setStatus(Status.STOPPED_EARLY));
+		m_stoppedOnBudget.addListener((src, reason) -> setStatus(Status.STOPPED_EARLY));
 	}
 
 	/**
@@ -80,6 +85,7 @@ public DLKerasDefaultTrainingStatus(final int numEpochs, final int numBatchesPer
 	public DLKerasDefaultTrainingStatus() {
 		m_stoppedEarly.addListener((src, epoch) -> setStatus(Status.STOPPED_EARLY));
 		m_terminatedOnNaNLoss.addListener((src, batch) -> setStatus(Status.STOPPED_EARLY));
+		m_stoppedOnBudget.addListener((src, reason) -> setStatus(Status.STOPPED_EARLY));
 	}
 
 	@Override
@@ -122,6 +128,19 @@ public void setViewData(final DLViewDataCollection[] viewData) {
 		m_viewData = viewData;
 	}
 
+	@Override
+	public String getTimingSummary() {
+		return m_timingSummary;
+	}
+
+	/**
+	 * @param timingSummary the summary of the time spent in the individual stages of the training, not externalized
+	 *            by this status
+	 */
+	public void setTimingSummary(final String timingSummary) {
+		m_timingSummary = timingSummary != null ? timingSummary : "";
+	}
+
 	@Override
 	public DLEvent<Integer> stoppedEarly() {
 		return m_stoppedEarly;
@@ -131,4 +150,9 @@ public DLEvent<Integer> stoppedEarly() {
 	public DLEvent<Long> terminatedOnNaNLoss() {
 		return m_terminatedOnNaNLoss;
 	}
+
+	@Override
+	public DLEvent<DLKerasBudgetStopReason> stoppedOnBudget() {
+		return m_stoppedOnBudget;
+	}
 }
@@ -0,0 +1,104 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.training;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The mixed-precision policies a Keras network can be trained with. Layers compute in the reduced precision while
+ * their weights are kept in float32. Training falls back to float32 if the installed back end or the hardware does not
+ * support the policy.
+ */
+public enum DLKerasMixedPrecision {
+
+	/**
+	 * Training is performed in float32.
+	 */
+	NONE("None", null),
+
+	/**
+	 * Layers compute in float16, the loss is scaled dynamically to avoid underflowing gradients.
+	 */
+	FLOAT16("float16", "mixed_float16"),
+
+	/**
+	 * Layers compute in bfloat16. Loss scaling is not necessary due to the wider exponent range.
+	 */
+	BFLOAT16("bfloat16", "mixed_bfloat16");
+
+	/**
+	 * @param name the name of the policy as returned by {@link #getName()}
+	 * @return the policy with the given name, if any
+	 */
+	public static Optional<DLKerasMixedPrecision> fromName(final String name) {
+		return Arrays.stream(values()).filter(p -> p.m_name.equals(name)).findFirst();
+	}
+
+	private final String m_name;
+
+	private final String m_policyName;
+
+	private DLKerasMixedPrecision(final String name, final String policyName) {
+		m_name = name;
+		m_policyName = policyName;
+	}
+
+	/**
+	 * @return the user-facing name of this policy
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * @return the name of the Keras dtype policy, empty for {@link #NONE}
+	 */
+	public Optional<String> getPolicyName() {
+		return Optional.ofNullable(m_policyName);
+	}
+}
@@ -46,9 +46,13 @@
  */
 package org.knime.dl.keras.core.training;
 
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
 import org.knime.core.node.ExecutionContext;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectBase;
+import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.training.DLPythonNetworkTrainingSession;
 
 /**
@@ -60,5 +64,28 @@ public interface DLKerasNetworkTrainingSession extends DLPythonNetworkTrainingSe
 	// TODO: this should go somewhere else as it's "base" related rather than "core"
 	DLKerasNetworkPortObjectBase getTrainedNetwork(ExecutionContext exec) throws Exception;
 
+    /**
+     * Returns the write of the trained network to file store that may still be pending after
+     * {@link #getTrainedNetwork(ExecutionContext)} has returned.
+     *
+     * @return a stage that completes once the trained network has been written to file store, or completes
+     *         exceptionally if writing it failed
+     * @throws IllegalStateException if the trained network has not been retrieved, yet
+     */
+    CompletionStage<Void> getTrainedNetworkSave();
+
     void stopEarly() throws DLCanceledExecutionException, Exception;
+
+    /**
+     * Trains the network data-parallel in several Python kernels. Each kernel trains its own replica of the network on
+     * a disjoint shard of every training batch. The weights of the replicas are averaged every
+     * <code>syncInterval</code> batches and once training has ended. Validation is only performed by the first kernel.
+     * Must be called before the session is run.
+     *
+     * @param numKernels the number of kernels, one disables parameter averaging
+     * @param syncInterval the number of batches between two synchronizations of the weights
+     * @param workerContextFactory creates the contexts of the additional kernels
+     */
+    void setParameterAveraging(int numKernels, int syncInterval,
+        Supplier<? extends DLPythonContext> workerContextFactory);
 }
@@ -75,4 +75,53 @@ public interface DLKerasTrainingConfig extends DLTrainingConfig {
 	 *         training process
 	 */
 	Collection<DLKerasCallback> getCallbacks();
+
+	/**
+	 * @return the number of model replicas between which each training batch is split (data-parallel training), 1 if
+	 *         the model is not replicated
+	 */
+	default int getNumReplicas() {
+		return 1;
+	}
+
+	/**
+	 * @return <code>true</code> if the replicas are placed on logical CPU devices instead of GPUs. Only relevant if
+	 *         {@link #getNumReplicas()} is greater than 1.
+	 */
+	default boolean isReplicatedOnCpu() {
+		return false;
+	}
+
+	/**
+	 * @return the number of epochs between two validations. Validation is always performed after the last epoch.
+	 */
+	default int getValidationFrequency() {
+		return 1;
+	}
+
+	/**
+	 * @return the fraction of the actual validation data that makes up the validation data passed to training, 1 if
+	 *         the entire validation data is used. If smaller than 1, the validation metrics are estimates and are
+	 *         reported along with their confidence intervals.
+	 */
+	default double getValidationSubsetFraction() {
+		return 1d;
+	}
+
+	/**
+	 * @return the mixed-precision policy the network is trained with, {@link DLKerasMixedPrecision#NONE} to train in
+	 *         float32
+	 */
+	default DLKerasMixedPrecision getMixedPrecision() {
+		return DLKerasMixedPrecision.NONE;
+	}
+
+	/**
+	 * @return the number of batches whose gradients are accumulated before the network is updated, 1 to update after
+	 *         each batch. Only a batch of {@link #getBatchSize()} samples is transferred and processed at a time, the
+	 *         effective batch size of an update is the batch size times this number.
+	 */
+	default int getAccumulationSteps() {
+		return 1;
+	}
 }
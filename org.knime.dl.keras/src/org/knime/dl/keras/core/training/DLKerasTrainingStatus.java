@@ -60,4 +60,6 @@ public interface DLKerasTrainingStatus extends DLPythonTrainingStatus {
 	DLEvent<Integer> stoppedEarly();
 
 	DLEvent<Long> terminatedOnNaNLoss();
+
+	DLEvent<DLKerasBudgetStopReason> stoppedOnBudget();
 }
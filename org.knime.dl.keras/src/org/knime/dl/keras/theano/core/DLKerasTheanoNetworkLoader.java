@@ -50,11 +50,13 @@
 
 import java.io.IOException;
 
+import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasAbstractNetworkLoader;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
@@ -94,4 +96,11 @@ public DLKerasTheanoNetwork fetch(final DLPythonNetworkHandle handle, final DLNe
 		final DLKerasTheanoNetworkSpec spec = commands.extractNetworkSpec(checkNotNull(handle), cancelable);
 		return new DLKerasTheanoNetwork(spec, source);
 	}
+
+	@Override
+	protected DLKerasTheanoNetwork createNetwork(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+		final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs, final DLNetworkLocation source) {
+		return new DLKerasTheanoNetwork(
+			new DLKerasTheanoNetworkSpec(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs), source);
+	}
 }
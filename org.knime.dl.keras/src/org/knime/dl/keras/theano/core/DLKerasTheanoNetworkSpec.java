@@ -75,6 +75,11 @@ public DLKerasTheanoNetworkSpec(final Version pythonVersion, final Version keras
         super(pythonVersion, kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs, trainingConfig);
     }
 
+    public DLKerasTheanoNetworkSpec(final Version kerasVersion, final DLTensorSpec[] inputSpecs,
+        final DLTensorSpec[] hiddenOutputSpecs, final DLTensorSpec[] outputSpecs) {
+        super(kerasVersion, inputSpecs, hiddenOutputSpecs, outputSpecs);
+    }
+
     public DLKerasTheanoNetworkSpec(final DLTensorSpec[] inputSpecs, final DLTensorSpec[] hiddenOutputSpecs,
         final DLTensorSpec[] outputSpecs) {
         super(inputSpecs, hiddenOutputSpecs, outputSpecs);
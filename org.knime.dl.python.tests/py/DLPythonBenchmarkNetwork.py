@@ -0,0 +1,135 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+
+'''
+Numpy-only stand-in network for the end-to-end execution benchmark. The network is a two-layer perceptron (dense, relu,
+dense) whose weights are initialized from a fixed seed. Its configuration is read from a small JSON file that is
+written by the benchmark on Java side.
+'''
+
+import json
+
+import numpy as np
+import pandas as pd
+
+from DLPythonDataBuffers import DLPythonDoubleBuffer
+from DLPythonNetwork import DLPythonNetwork
+from DLPythonNetwork import DLPythonNetworkReader
+from DLPythonNetwork import DLPythonNetworkSpec
+from DLPythonNetwork import DLPythonTensorSpec
+
+import DLPythonBenchmarkNetworkType
+
+
+class DLPythonBenchmarkModel(object):
+
+    def __init__(self, config):
+        self.config = config
+        rng = np.random.RandomState(config['seed'])
+        input_size = config['input_size']
+        hidden_units = config['hidden_units']
+        output_size = config['output_size']
+        self.w1 = rng.standard_normal((input_size, hidden_units)) / np.sqrt(input_size)
+        self.b1 = np.zeros(hidden_units)
+        self.w2 = rng.standard_normal((hidden_units, output_size)) / np.sqrt(hidden_units)
+        self.b2 = np.zeros(output_size)
+
+    def predict(self, x):
+        h = np.maximum(x.dot(self.w1) + self.b1, 0)
+        return h.dot(self.w2) + self.b2
+
+
+class DLPythonBenchmarkNetworkReader(DLPythonNetworkReader):
+
+    def read(self, path, **kwargs):
+        with open(path, 'r') as f:
+            config = json.load(f)
+        return DLPythonBenchmarkNetwork(DLPythonBenchmarkModel(config))
+
+
+class DLPythonBenchmarkNetwork(DLPythonNetwork):
+
+    INPUT_ID = 'input_0:0'
+
+    OUTPUT_ID = 'output_0:0'
+
+    def __init__(self, model):
+        super().__init__(model)
+
+    @property
+    def spec(self):
+        if self._spec is None:
+            config = self._model.config
+            input_specs = [DLPythonTensorSpec(self.INPUT_ID, 'input_0', -1, [config['input_size']], 'float64',
+                                              'TDHWC')]
+            output_specs = [DLPythonTensorSpec(self.OUTPUT_ID, 'output_0', -1, [config['output_size']], 'float64',
+                                               'TDHWC')]
+            self._spec = DLPythonBenchmarkNetworkSpec(input_specs, [], output_specs)
+        return self._spec
+
+    def execute(self, in_data, batch_size, output_identifiers):
+        x = in_data[self.INPUT_ID].values[0][0].array
+        x = x.reshape([batch_size] + in_data[self.INPUT_ID].values[0][1])
+        y = self._model.predict(x)
+        output = {}
+        for identifier in output_identifiers:
+            output[identifier] = pd.DataFrame({identifier: [DLPythonDoubleBuffer(y)]})
+        return output
+
+    def save(self, path):
+        with open(path, 'w') as f:
+            json.dump(self._model.config, f)
+
+
+class DLPythonBenchmarkNetworkSpec(DLPythonNetworkSpec):
+
+    def __init__(self, input_specs, intermediate_output_specs, output_specs):
+        super().__init__(input_specs, intermediate_output_specs, output_specs)
+        self.training_config = None
+
+    @property
+    def network_type(self):
+        return DLPythonBenchmarkNetworkType.instance()
@@ -0,0 +1,209 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.core.util.Version;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.training.DLTrainingMonitor;
+import org.knime.dl.python.benchmark.DLPythonBenchmarkStageTimes.Stage;
+import org.knime.dl.python.core.DLPythonAbstractCommands;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.training.DLPythonTrainingStatus;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.dl.util.DLThrowingLambdas.DLThrowingBiFunction;
+import org.knime.dl.util.DLUtils;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+
+/**
+ * Commands of the numpy-only {@link DLPythonBenchmarkNetwork stand-in network}. If a {@link DLPythonBenchmarkStageTimes
+ * stage timer} is given, the time spent transferring data to and from Python and executing the network in the kernel is
+ * recorded.
+ */
+public final class DLPythonBenchmarkCommands extends DLPythonAbstractCommands {
+
+    private static final String BUNDLE_ID = "org.knime.dl.python.tests";
+
+    private final DLPythonBenchmarkStageTimes m_times;
+
+    public DLPythonBenchmarkCommands(final DLPythonContext context) {
+        this(context, null);
+    }
+
+    /**
+     * @param times may be <code>null</code> in which case nothing is recorded
+     */
+    public DLPythonBenchmarkCommands(final DLPythonContext context, final DLPythonBenchmarkStageTimes times) {
+        super(context);
+        m_times = times;
+    }
+
+    @Override
+    public DLPythonBenchmarkNetworkSpec extractNetworkSpec(final DLPythonNetworkHandle handle,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        getContext(cancelable).executeInKernel(getExtractNetworkSpecsCode(handle), cancelable);
+        final DLTensorSpec[] inputSpecs = extractTensorSpec(INPUT_SPECS_NAME, cancelable);
+        final DLTensorSpec[] hiddenOutputSpecs = extractTensorSpec(HIDDEN_OUTPUT_SPECS_NAME, cancelable);
+        final DLTensorSpec[] outputSpecs = extractTensorSpec(OUTPUT_SPECS_NAME, cancelable);
+        final Version pythonVersion = getPythonVersion(cancelable);
+        return new DLPythonBenchmarkNetworkSpec(pythonVersion, inputSpecs, hiddenOutputSpecs, outputSpecs);
+    }
+
+    @Override
+    public void setNetworkInputs(final DLPythonNetworkHandle network,
+        final Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> inputs,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final long start = System.nanoTime();
+        super.setNetworkInputs(network, inputs, cancelable);
+        record(Stage.SERIALIZATION, start);
+    }
+
+    @Override
+    public void executeNetwork(final DLPythonNetworkHandle network, final Set<? extends DLTensorId> requestedOutputs,
+        final long batchSize, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final long start = System.nanoTime();
+        super.executeNetwork(network, requestedOutputs, batchSize, cancelable);
+        record(Stage.EXECUTION, start);
+    }
+
+    @Override
+    public <T extends DLTensorId> Map<T, long[]> getNetworkOutputShapes(final DLPythonNetworkHandle network,
+        final Set<T> outputs, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final long start = System.nanoTime();
+        final Map<T, long[]> shapes = super.getNetworkOutputShapes(network, outputs, cancelable);
+        record(Stage.DESERIALIZATION, start);
+        return shapes;
+    }
+
+    @Override
+    public void getNetworkOutputs(final DLPythonNetworkHandle network,
+        final Map<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> outputs,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final long start = System.nanoTime();
+        super.getNetworkOutputs(network, outputs, cancelable);
+        record(Stage.DESERIALIZATION, start);
+    }
+
+    /**
+     * The Python modules of the stand-in network are not registered at the Python module extension point, so their
+     * directory is added to the module search path here, before the back ends get registered.
+     */
+    @Override
+    protected String getSetupEnvironmentCode() {
+        final File moduleDirectory;
+        try {
+            moduleDirectory = DLUtils.Files.getFileFromBundle(BUNDLE_ID, "py");
+        } catch (final IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return DLPythonUtils.createSourceCodeBuilder() //
+            .a("import sys") //
+            .n("sys.path.append(").asr(moduleDirectory.getAbsolutePath()).a(")").n() //
+            .toString();
+    }
+
+    @Override
+    protected File getInstallationTestFile() throws IOException {
+        return DLUtils.Files.getFileFromBundle(BUNDLE_ID, "py/DLPythonBenchmarkNetworkTester.py");
+    }
+
+    @Override
+    protected String getSetupBackendCode() {
+        return "";
+    }
+
+    @Override
+    protected DLPythonBenchmarkNetworkReaderCommands getNetworkReaderCommands() {
+        return new DLPythonBenchmarkNetworkReaderCommands();
+    }
+
+    @Override
+    protected DLPythonNetworkTrainingTaskHandler createNetworkTrainingTaskHandler(final DLPythonContext context,
+        final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor,
+        final DLNetworkInputProvider trainingInputProvider, final DLNetworkInputProvider validationInputProvider,
+        final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, IOException> singleTensorTableChunkerCreator) {
+        return new DLPythonNetworkTrainingTaskHandler(context, monitor, trainingInputProvider, validationInputProvider,
+            singleTensorTableChunkerCreator);
+    }
+
+    private void record(final Stage stage, final long start) {
+        if (m_times != null) {
+            m_times.add(stage, System.nanoTime() - start);
+        }
+    }
+
+    private static final class DLPythonBenchmarkNetworkReaderCommands extends DLPythonAbstractNetworkReaderCommands {
+
+        private DLPythonBenchmarkNetworkReaderCommands() {
+            super("from DLPythonBenchmarkNetwork import DLPythonBenchmarkNetworkReader",
+                "DLPythonBenchmarkNetworkReader()");
+        }
+
+        @Override
+        public String read(final String path, final boolean loadTrainingConfig) {
+            final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+                .a("read(").asr(path).a(")");
+            return b.toString();
+        }
+    }
+}
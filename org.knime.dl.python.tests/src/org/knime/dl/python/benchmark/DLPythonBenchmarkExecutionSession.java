@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.benchmark;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLInvalidNetworkOutputException;
+import org.knime.dl.core.DLNetworkInputPreparer;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.execution.DLNetworkOutputConsumer;
+import org.knime.dl.python.benchmark.DLPythonBenchmarkStageTimes.Stage;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.execution.DLPythonAbstractNetworkExecutionSession;
+
+/**
+ * Execution session of the numpy-only {@link DLPythonBenchmarkNetwork stand-in network} that records the time spent in
+ * each stage of the execution pipeline.
+ */
+public final class DLPythonBenchmarkExecutionSession
+    extends DLPythonAbstractNetworkExecutionSession<DLPythonBenchmarkNetwork, DLPythonBenchmarkCommands> {
+
+    private final DLPythonBenchmarkStageTimes m_times;
+
+    public DLPythonBenchmarkExecutionSession(final DLPythonContext context, final DLPythonBenchmarkNetwork network,
+        final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+        final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+        final DLTensorFactory tensorFactory, final DLPythonBenchmarkStageTimes times) {
+        super(context, network, executionInputSpecs, requestedOutputs, new TimedInputPreparer(inputPreparer, times),
+            new TimedOutputConsumer(outputConsumer, times), tensorFactory);
+        m_times = times;
+    }
+
+    @Override
+    protected DLPythonBenchmarkCommands createCommands(final DLPythonContext context) {
+        return new DLPythonBenchmarkCommands(context, m_times);
+    }
+
+    private static final class TimedInputPreparer implements DLNetworkInputPreparer {
+
+        private final DLNetworkInputPreparer m_delegate;
+
+        private final DLPythonBenchmarkStageTimes m_times;
+
+        private TimedInputPreparer(final DLNetworkInputPreparer delegate, final DLPythonBenchmarkStageTimes times) {
+            m_delegate = delegate;
+            m_times = times;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_delegate.hasNext();
+        }
+
+        @Override
+        public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+            throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+            final long start = System.nanoTime();
+            m_delegate.prepareNext(input);
+            m_times.add(Stage.CONVERSION, System.nanoTime() - start);
+        }
+
+        @Override
+        public void close() throws Exception {
+            m_delegate.close();
+        }
+    }
+
+    private static final class TimedOutputConsumer implements DLNetworkOutputConsumer {
+
+        private final DLNetworkOutputConsumer m_delegate;
+
+        private final DLPythonBenchmarkStageTimes m_times;
+
+        private TimedOutputConsumer(final DLNetworkOutputConsumer delegate, final DLPythonBenchmarkStageTimes times) {
+            m_delegate = delegate;
+            m_times = times;
+        }
+
+        @Override
+        public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output)
+            throws DLCanceledExecutionException, DLInvalidNetworkOutputException {
+            final long start = System.nanoTime();
+            m_delegate.accept(output);
+            m_times.add(Stage.CELL_CREATION, System.nanoTime() - start);
+        }
+
+        @Override
+        public void close() throws Exception {
+            m_delegate.close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.benchmark;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.core.data.filestore.FileStore;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidDestinationException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.python.core.DLPythonAbstractNetworkLoader;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
+import org.knime.dl.python.core.DLPythonNetworkPortObject;
+
+/**
+ * Loader of the numpy-only {@link DLPythonBenchmarkNetwork stand-in network}. Not registered at the extension point;
+ * benchmarks have to call {@link #register()} before executing the network. Note that registration cannot be undone and
+ * that all Python contexts that are set up afterwards will import the stand-in network's Python module.
+ */
+public final class DLPythonBenchmarkNetworkLoader extends DLPythonAbstractNetworkLoader<DLPythonBenchmarkNetwork> {
+
+    private static final String FILE_EXTENSION = "json";
+
+    /**
+     * Registers an instance of this loader at the {@link DLPythonNetworkLoaderRegistry} unless already registered.
+     */
+    public static synchronized void register() {
+        final DLPythonNetworkLoaderRegistry registry = DLPythonNetworkLoaderRegistry.getInstance();
+        if (!registry.getNetworkLoader(DLPythonBenchmarkNetwork.class).isPresent()) {
+            registry.registerExecutionContext(new DLPythonBenchmarkNetworkLoader());
+        }
+    }
+
+    /**
+     * Writes the configuration of a stand-in network to the given file. The weights of the network are initialized on
+     * Python side using the given seed.
+     *
+     * @param file the destination file
+     * @param inputSize the number of input elements per example
+     * @param hiddenUnits the number of units of the hidden layer
+     * @param outputSize the number of output elements per example
+     * @param seed the seed of the weight initialization
+     * @throws IOException if writing the file failed
+     */
+    public static void writeConfiguration(final File file, final int inputSize, final int hiddenUnits,
+        final int outputSize, final long seed) throws IOException {
+        final String config = "{\"input_size\": " + inputSize + ", \"hidden_units\": " + hiddenUnits
+            + ", \"output_size\": " + outputSize + ", \"seed\": " + seed + "}";
+        Files.write(file.toPath(), config.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Class<DLPythonBenchmarkNetwork> getNetworkType() {
+        return DLPythonBenchmarkNetwork.class;
+    }
+
+    @Override
+    public String getPythonModuleName() {
+        return "DLPythonBenchmarkNetworkType";
+    }
+
+    @Override
+    public List<String> getLoadModelURLExtensions() {
+        return Collections.singletonList(FILE_EXTENSION);
+    }
+
+    @Override
+    public String getSaveModelURLExtension() {
+        return FILE_EXTENSION;
+    }
+
+    @Override
+    public URL validateSource(final URI source) throws DLInvalidSourceException {
+        try {
+            final URL url = source.toURL();
+            if (!FileUtil.getFileFromURL(url).exists()) {
+                throw new DLInvalidSourceException(
+                    "Cannot find benchmark network file at location '" + url.toString() + "'.");
+            }
+            return url;
+        } catch (final DLInvalidSourceException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new DLInvalidSourceException(
+                "An error occurred while resolving the benchmark network file location.\nCause: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public URL validateDestination(final URI destination) throws DLInvalidDestinationException {
+        try {
+            return destination.toURL();
+        } catch (final Exception e) {
+            throw new DLInvalidDestinationException(
+                "An error occurred while resolving the benchmark network file location.\nCause: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public DLPythonNetworkHandle load(final URI source, final DLPythonContext context,
+        final boolean loadTrainingConfig, final DLCancelable cancelable)
+        throws DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final File file = FileUtil.getFileFromURL(validateSource(source));
+        @SuppressWarnings("resource") // Context must be kept open and will be closed by the client.
+        final DLPythonBenchmarkCommands commands = createCommands(checkNotNull(context));
+        return commands.loadNetwork(file.getAbsolutePath(), loadTrainingConfig, cancelable);
+    }
+
+    @Override
+    public DLPythonBenchmarkNetwork fetch(final DLPythonNetworkHandle handle, final DLNetworkLocation source,
+        final DLPythonContext context, final DLCancelable cancelable) throws IllegalArgumentException,
+        DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        validateSource(source.getURI());
+        @SuppressWarnings("resource") // Context must be kept open and will be closed by the client.
+        final DLPythonBenchmarkCommands commands = createCommands(checkNotNull(context));
+        return new DLPythonBenchmarkNetwork(commands.extractNetworkSpec(checkNotNull(handle), cancelable), source);
+    }
+
+    @Override
+    public DLPythonNetworkPortObject<? extends DLPythonBenchmarkNetwork> createPortObject(
+        final DLPythonBenchmarkNetwork network, final FileStore fileStore) throws IOException {
+        return new DLPythonBenchmarkNetworkPortObject(network, fileStore);
+    }
+
+    @Override
+    protected DLPythonBenchmarkCommands createCommands(final DLPythonContext context) {
+        return new DLPythonBenchmarkCommands(context);
+    }
+}
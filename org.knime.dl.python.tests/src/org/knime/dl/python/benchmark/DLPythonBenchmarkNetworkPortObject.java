@@ -0,0 +1,142 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.benchmark;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.knime.core.data.filestore.FileStore;
+import org.knime.dl.base.portobjects.DLAbstractNetworkPortObject;
+import org.knime.dl.base.portobjects.DLAbstractNetworkPortObjectSpec;
+import org.knime.dl.base.portobjects.DLNetworkPortObject;
+import org.knime.dl.base.portobjects.DLNetworkPortObjectSpec;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.python.core.DLPythonNetworkPortObject;
+import org.knime.python2.PythonCommand;
+
+/**
+ * Port object of the numpy-only {@link DLPythonBenchmarkNetwork stand-in network}. Only meant to be passed between the
+ * steps of a benchmark, it is therefore not registered at the port type extension point and cannot be persisted.
+ */
+public final class DLPythonBenchmarkNetworkPortObject
+    extends DLAbstractNetworkPortObject<DLPythonBenchmarkNetwork, DLPythonBenchmarkNetworkPortObject.Spec>
+    implements DLPythonNetworkPortObject<DLPythonBenchmarkNetwork> {
+
+    /**
+     * Creates a new port object. The given network is copied to the given file store if the file store is
+     * non-<code>null</code>.
+     *
+     * @param network the network to store
+     * @param fileStore the file store in which to store the network, may be <code>null</code>
+     * @throws IOException if failed to store the network
+     */
+    public DLPythonBenchmarkNetworkPortObject(final DLPythonBenchmarkNetwork network, final FileStore fileStore)
+        throws IOException {
+        super(network, new Spec(network.getSpec()), fileStore);
+    }
+
+    /**
+     * The contained network is always materialized, so simply delegate to the base implementation.
+     * <P>
+     * {@inheritDoc}
+     */
+    @Override
+    public DLPythonBenchmarkNetwork getNetwork(final PythonCommand command)
+        throws DLInvalidSourceException, IOException {
+        return super.getNetwork();
+    }
+
+    @Override
+    protected DLPythonBenchmarkNetwork getNetworkInternal(final Spec spec) {
+        // Cannot happen as the network is set on construction and this port object is never deserialized.
+        throw new IllegalStateException("Benchmark network port object does not contain a network. This is an "
+            + "implementation error.");
+    }
+
+    @Override
+    protected void flushToFileStoreInternal(final DLPythonBenchmarkNetwork network, final FileStore fileStore)
+        throws IOException {
+        DLNetworkPortObject.copyFileToFileStore(network.getSource().getURI(), fileStore);
+    }
+
+    @Override
+    protected void hashCodeInternal(final HashCodeBuilder b) {
+        // no op
+    }
+
+    @Override
+    protected boolean equalsInternal(final DLNetworkPortObject other) {
+        // no op
+        return true;
+    }
+
+    /**
+     * Spec of {@link DLPythonBenchmarkNetworkPortObject}.
+     */
+    public static final class Spec extends DLAbstractNetworkPortObjectSpec<DLPythonBenchmarkNetworkSpec> {
+
+        /**
+         * Creates a new spec.
+         *
+         * @param spec the network spec
+         */
+        public Spec(final DLPythonBenchmarkNetworkSpec spec) {
+            super(spec, DLPythonBenchmarkNetwork.class);
+        }
+
+        @Override
+        protected void hashCodeInternal(final HashCodeBuilder b) {
+            // no op
+        }
+
+        @Override
+        protected boolean equalsInternal(final DLNetworkPortObjectSpec other) {
+            // no op
+            return true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.benchmark;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulates the wall-clock time that is spent in the individual stages of the deep learning execution pipeline.
+ */
+public final class DLPythonBenchmarkStageTimes {
+
+    /**
+     * The measured stages, in pipeline order.
+     */
+    public enum Stage {
+            /** Conversion of KNIME data cells into input tensors. */
+            CONVERSION("conversion"),
+            /** Transfer of the input tensors to Python. */
+            SERIALIZATION("serialization"),
+            /** Network execution in the Python kernel. */
+            EXECUTION("kernel execution"),
+            /** Transfer of the output tensors from Python. */
+            DESERIALIZATION("deserialization"),
+            /** Conversion of the output tensors into KNIME data cells. */
+            CELL_CREATION("cell creation");
+
+        private final String m_name;
+
+        Stage(final String name) {
+            m_name = name;
+        }
+
+        @Override
+        public String toString() {
+            return m_name;
+        }
+    }
+
+    private final long[] m_nanos = new long[Stage.values().length];
+
+    /**
+     * @param stage the stage
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public synchronized void add(final Stage stage, final long nanos) {
+        m_nanos[stage.ordinal()] += nanos;
+    }
+
+    /**
+     * @param stage the stage
+     * @return the accumulated time of the stage in nanoseconds
+     */
+    public synchronized long getNanos(final Stage stage) {
+        return m_nanos[stage.ordinal()];
+    }
+
+    /**
+     * @return the accumulated times of all stages in milliseconds, in pipeline order
+     */
+    public synchronized Map<Stage, Long> getMillis() {
+        final Map<Stage, Long> millis = new EnumMap<>(Stage.class);
+        for (final Stage stage : Stage.values()) {
+            millis.put(stage, TimeUnit.NANOSECONDS.toMillis(m_nanos[stage.ordinal()]));
+        }
+        return millis;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(m_nanos, 0);
+    }
+}
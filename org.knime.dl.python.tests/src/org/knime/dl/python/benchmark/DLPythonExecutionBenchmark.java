@@ -0,0 +1,301 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.benchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.Assume;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLDataTableRowIterator;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLExecutionSpecCreator;
+import org.knime.dl.core.DLNetworkReferenceLocation;
+import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterRegistry;
+import org.knime.dl.core.data.convert.DLDoubleTensorToDoubleCellConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.execution.DLKnimeNetworkExecutionInputPreparer;
+import org.knime.dl.core.execution.DLKnimeNetworkOutputConsumer;
+import org.knime.dl.python.benchmark.DLPythonBenchmarkStageTimes.Stage;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonDefaultTensorFactory;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.testing.DLTestExecutionMonitor;
+import org.knime.dl.util.DLUtils;
+import org.knime.python2.testing.PreferencesSetup;
+
+/**
+ * End-to-end throughput benchmark of the deep learning execution pipeline. Executes a numpy-only
+ * {@link DLPythonBenchmarkNetwork stand-in network} on a synthetic table and reports rows per second, the time spent in
+ * each stage of the pipeline (conversion, serialization, kernel execution, deserialization, cell creation) and the peak
+ * heap usage.
+ * <P>
+ * The executor node's execution logic is private and bound to its node settings. This benchmark therefore assembles
+ * the same pipeline (row iterator, input preparer, execution session, output consumer) from the same building blocks.
+ * <P>
+ * The benchmark only runs if the system property {@value #PROP_ENABLED} is set to <code>true</code> since it registers
+ * an additional Python network loader for the rest of the JVM's lifetime. The size of the workload can be controlled
+ * via the system properties {@value #PROP_ROWS}, {@value #PROP_FEATURES},
+ * {@value #PROP_HIDDEN_UNITS}, {@value #PROP_OUTPUTS}, {@value #PROP_BATCH_SIZE} and {@value #PROP_RUNS}.
+ */
+public class DLPythonExecutionBenchmark {
+
+    private static final String PROP_PREFIX = "knime.dl.benchmark.";
+
+    private static final String PROP_ENABLED = PROP_PREFIX + "enabled";
+
+    private static final String PROP_ROWS = PROP_PREFIX + "rows";
+
+    private static final String PROP_FEATURES = PROP_PREFIX + "features";
+
+    private static final String PROP_HIDDEN_UNITS = PROP_PREFIX + "hidden";
+
+    private static final String PROP_OUTPUTS = PROP_PREFIX + "outputs";
+
+    private static final String PROP_BATCH_SIZE = PROP_PREFIX + "batchsize";
+
+    private static final String PROP_RUNS = PROP_PREFIX + "runs";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonExecutionBenchmark.class);
+
+    private static final DLTensorId INPUT_ID = new DLDefaultTensorId("input_0:0");
+
+    private static final DLTensorId OUTPUT_ID = new DLDefaultTensorId("output_0:0");
+
+    @ClassRule
+    public static final TestRule preferencesSetup = new PreferencesSetup("org.knime.dl.python.tests");
+
+    @Test
+    public void benchmarkExecution() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean(PROP_ENABLED));
+        final int numRows = Integer.getInteger(PROP_ROWS, 10000);
+        final int numFeatures = Integer.getInteger(PROP_FEATURES, 100);
+        final int hiddenUnits = Integer.getInteger(PROP_HIDDEN_UNITS, 256);
+        final int numOutputs = Integer.getInteger(PROP_OUTPUTS, 10);
+        final int batchSize = Integer.getInteger(PROP_BATCH_SIZE, 100);
+        final int numRuns = Integer.getInteger(PROP_RUNS, 3);
+
+        DLPythonBenchmarkNetworkLoader.register();
+        final File networkFile = FileUtil.createTempFile("dl-benchmark-network", ".json", true);
+        DLPythonBenchmarkNetworkLoader.writeConfiguration(networkFile, numFeatures, hiddenUnits, numOutputs, 1234);
+        final DLPythonBenchmarkNetwork network = createNetwork(networkFile, numFeatures, numOutputs);
+
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable input = createInputTable(exec, numRows, numFeatures);
+
+        // the first run includes kernel startup and is treated as warm-up
+        for (int run = 0; run <= numRuns; run++) {
+            final DLPythonBenchmarkStageTimes times = new DLPythonBenchmarkStageTimes();
+            resetPeakHeapUsage();
+            final long start = System.nanoTime();
+            final BufferedDataTable output = execute(network, input, batchSize, exec, times);
+            final long elapsed = System.nanoTime() - start;
+            assertEquals(numRows, output.size());
+            if (run > 0) {
+                LOGGER.info(createReport(run, numRows, batchSize, elapsed, times, getPeakHeapUsage()));
+            }
+        }
+    }
+
+    private static BufferedDataTable execute(final DLPythonBenchmarkNetwork network, final BufferedDataTable input,
+        final int batchSize, final ExecutionContext exec, final DLPythonBenchmarkStageTimes times) throws Exception {
+        final DLTensorFactory tensorFactory = new DLPythonDefaultTensorFactory();
+        final DLTensorSpec inputSpec = network.getSpec().getInputSpecs()[0];
+        final DLTensorSpec outputSpec = network.getSpec().getOutputSpecs()[0];
+
+        final Map<DLTensorId, int[]> columnsForTensorId = Collections.singletonMap(INPUT_ID,
+            IntStream.range(0, input.getDataTableSpec().getNumColumns()).toArray());
+        final DLDataValueToTensorConverterFactory<?, ?> inputConverter = DLDataValueToTensorConverterRegistry
+            .getInstance().getPreferredConverterFactory(DoubleCell.TYPE, tensorFactory.getWritableBufferType(inputSpec))
+            .get();
+        final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverters = new HashMap<>();
+        inputConverters.put(INPUT_ID, inputConverter);
+        final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverters =
+            new LinkedHashMap<>();
+        outputConverters.put(OUTPUT_ID, new DLDoubleTensorToDoubleCellConverterFactory());
+
+        final BufferedDataContainer container = exec.createDataContainer(createOutputSpec(outputSpec));
+        final BufferedDataTableRowOutput rowOutput = new BufferedDataTableRowOutput(container);
+        try (final DLDataTableRowIterator rowIterator = new DLDataTableRowIterator(input, columnsForTensorId);
+                final DLKnimeNetworkExecutionInputPreparer inputPreparer =
+                    new DLKnimeNetworkExecutionInputPreparer(rowIterator, batchSize, false, inputConverters);
+                final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
+                    inputPreparer.getBaseRows()::remove, false, outputConverters, exec)) {
+            final Set<DLTensorSpec> executionInputSpecs = DLExecutionSpecCreator.createExecutionSpecs(
+                rowIterator.peek(), tensorFactory, batchSize, columnsForTensorId,
+                Collections.singletonMap(inputSpec, inputConverter));
+            try (final DLPythonBenchmarkExecutionSession session = new DLPythonBenchmarkExecutionSession(
+                new DLPythonDefaultContext(DLPythonPreferences.getPythonCommandPreference()), network,
+                executionInputSpecs, outputConverters.keySet(), inputPreparer, outputConsumer, tensorFactory,
+                times)) {
+                session.run(new DLTestExecutionMonitor());
+            }
+        }
+        return rowOutput.getDataTable();
+    }
+
+    private static DLPythonBenchmarkNetwork createNetwork(final File networkFile, final int numFeatures,
+        final int numOutputs) {
+        final DLTensorSpec[] inputSpecs = {new DLDefaultTensorSpec(INPUT_ID, "input_0",
+            new DLDefaultFixedTensorShape(new long[]{numFeatures}), double.class, DLDimensionOrder.TDHWC)};
+        final DLTensorSpec[] outputSpecs = {new DLDefaultTensorSpec(OUTPUT_ID, "output_0",
+            new DLDefaultFixedTensorShape(new long[]{numOutputs}), double.class, DLDimensionOrder.TDHWC)};
+        final DLPythonBenchmarkNetworkSpec spec =
+            new DLPythonBenchmarkNetworkSpec(null, inputSpecs, new DLTensorSpec[0], outputSpecs);
+        return new DLPythonBenchmarkNetwork(spec, new DLNetworkReferenceLocation(networkFile.toURI()));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static ExecutionContext createExecutionContext() {
+        final NodeFactory<NodeModel> factory =
+            (NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(factory),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+    }
+
+    private static BufferedDataTable createInputTable(final ExecutionContext exec, final int numRows,
+        final int numFeatures) {
+        final DataColumnSpec[] columns = new DataColumnSpec[numFeatures];
+        for (int i = 0; i < numFeatures; i++) {
+            columns[i] = new DataColumnSpecCreator("feature_" + i, DoubleCell.TYPE).createSpec();
+        }
+        final BufferedDataContainer container = exec.createDataContainer(new DataTableSpec(columns));
+        final Random rng = new Random(543653);
+        for (int r = 0; r < numRows; r++) {
+            final DataCell[] cells = new DataCell[numFeatures];
+            for (int i = 0; i < numFeatures; i++) {
+                cells[i] = new DoubleCell(rng.nextGaussian());
+            }
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey((long)r), cells));
+        }
+        container.close();
+        return container.getTable();
+    }
+
+    private static DataTableSpec createOutputSpec(final DLTensorSpec outputSpec) {
+        final int numOutputs = (int)DLUtils.Shapes.getFixedSize(outputSpec.getShape()).getAsLong();
+        final DataColumnSpec[] columns = new DataColumnSpec[numOutputs];
+        for (int i = 0; i < numOutputs; i++) {
+            columns[i] = new DataColumnSpecCreator(outputSpec.getName() + "_" + i, DoubleCell.TYPE).createSpec();
+        }
+        return new DataTableSpec(columns);
+    }
+
+    private static void resetPeakHeapUsage() {
+        System.gc(); // NOSONAR we want a clean baseline for the peak heap measurement
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakHeapUsage() {
+        long peak = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static String createReport(final int run, final int numRows, final int batchSize, final long elapsedNanos,
+        final DLPythonBenchmarkStageTimes times, final long peakHeap) {
+        final double seconds = elapsedNanos / 1e9;
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Execution benchmark run %d: %d rows, batch size %d, %.3f s, %.1f rows/s, "
+            + "peak heap %d MB%n", run, numRows, batchSize, seconds, numRows / seconds, peakHeap >> 20));
+        for (final Entry<Stage, Long> stage : times.getMillis().entrySet()) {
+            sb.append(String.format("  %-17s %8d ms (%5.1f %%)%n", stage.getKey(), stage.getValue(),
+                100.0 * times.getNanos(stage.getKey()) / elapsedNanos));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.junit.Test;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensor;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+
+/**
+ * Tests {@link DLPythonSharedOutputRegion}. Python's side of the region is simulated by a second mapping of the
+ * backing file.
+ */
+public class DLPythonSharedOutputRegionTest {
+
+    private static final long BATCH_SIZE = 2;
+
+    private static final long EXAMPLE_SIZE = 3;
+
+    @Test
+    public void testReadInto() throws Exception {
+        final DLTensor<DLPythonFloatBuffer> tensor = createTensor();
+        try (final DLPythonSharedOutputRegion region = new DLPythonSharedOutputRegion(tensor)) {
+            final float[] expected = {0.5f, 1.5f, 2.5f, 3.5f, 4.5f, 5.5f};
+            writeAsPython(region, expected);
+            region.readInto(tensor);
+            assertArrayEquals(expected, tensor.getBuffer().toFloatArray(), 0f);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadIntoFailsIfPythonDidNotWrite() throws Exception {
+        final DLTensor<DLPythonFloatBuffer> tensor = createTensor();
+        try (final DLPythonSharedOutputRegion region = new DLPythonSharedOutputRegion(tensor)) {
+            region.readInto(tensor);
+        }
+    }
+
+    @Test
+    public void testCloseUnmapsAndDeletesRegion() throws Exception {
+        final DLTensor<DLPythonFloatBuffer> tensor = createTensor();
+        final DLPythonSharedOutputRegion region = new DLPythonSharedOutputRegion(tensor);
+        final File file = new File(region.getPath());
+        assertTrue(file.exists());
+        region.close();
+        assertFalse(file.exists());
+        // closing twice must not unmap twice
+        region.close();
+        try {
+            region.readInto(tensor);
+        } catch (final IllegalStateException e) {
+            return;
+        }
+        throw new AssertionError("Reading from a closed region must fail instead of accessing unmapped memory.");
+    }
+
+    private static DLTensor<DLPythonFloatBuffer> createTensor() {
+        final DLDefaultTensorSpec spec = new DLDefaultTensorSpec(new DLDefaultTensorId("test_out_data"),
+            "test_out_data", BATCH_SIZE, new DLDefaultFixedTensorShape(new long[]{EXAMPLE_SIZE}), float.class,
+            DLDimensionOrder.TDHWC);
+        return new DLDefaultTensor<>(spec, new DLPythonFloatBuffer(BATCH_SIZE * EXAMPLE_SIZE), EXAMPLE_SIZE);
+    }
+
+    private static void writeAsPython(final DLPythonSharedOutputRegion region, final float[] values)
+        throws Exception {
+        try (final RandomAccessFile raf = new RandomAccessFile(region.getPath(), "rw")) {
+            final MappedByteBuffer mapping = raf.getChannel().map(MapMode.READ_WRITE, 0, raf.length());
+            mapping.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < values.length; i++) {
+                mapping.putFloat(Long.BYTES + i * Float.BYTES, values[i]);
+            }
+            mapping.putLong(0, values.length);
+        }
+    }
+}
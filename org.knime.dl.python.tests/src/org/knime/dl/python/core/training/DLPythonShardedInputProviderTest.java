@@ -0,0 +1,282 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.training;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.LongFunction;
+import java.util.function.ObjIntConsumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensor;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLMetricsRegistry;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonIntBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.testing.PreferencesSetup;
+
+/**
+ * Stages batches of each supported element type and reads them back on Python side, both directly via
+ * <code>np.load(..., mmap_mode='r')</code> and via DLPythonTrainingDataShards.py.
+ */
+public class DLPythonShardedInputProviderTest {
+
+    @ClassRule
+    public static final TestRule preferencesSetup = new PreferencesSetup("org.knime.dl.python.tests");
+
+    private static final DLTensorId TENSOR_ID = new DLDefaultTensorId("test_in_data");
+
+    private static final long BATCH_SIZE = 2;
+
+    private static final long[] EXAMPLE_SHAPE = {3};
+
+    private static final long EXAMPLE_SIZE = 3;
+
+    private static final int NUM_BATCHES = 5;
+
+    /**
+     * Shards hold two batches each, the last shard only holds the remaining one.
+     */
+    private static final long BATCHES_PER_SHARD = 2;
+
+    private static final int NUM_SHARDS = 3;
+
+    private DLPythonContext m_context;
+
+    private Path m_directory;
+
+    @Before
+    public void setUp() throws Exception {
+        m_context = new DLPythonDefaultContext(DLPythonPreferences.getPythonCommandPreference());
+        m_directory = FileUtil.createTempDir("knime-dl-shards-test").toPath();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        // the memory maps are closed along with the kernel, the shard files can be deleted afterwards
+        m_context.close();
+        FileUtil.deleteRecursively(m_directory.toFile());
+    }
+
+    @Test
+    public void testNpyHeaderIsAligned() throws Exception {
+        final long[][] shapes = {{5}, {10, 3}, {100000, 28, 28, 1}, {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}};
+        for (final long[] shape : shapes) {
+            final ByteBuffer header = DLPythonShardedInputProvider.createNpyHeader("<f4", shape);
+            assertEquals(0, header.remaining() % 64);
+            final byte[] magic = new byte[8];
+            header.get(magic);
+            assertEquals("\u0093NUMPY\u0001\u0000", new String(magic, StandardCharsets.ISO_8859_1));
+            final int dictLength = header.order(ByteOrder.LITTLE_ENDIAN).getShort();
+            assertEquals(header.remaining(), dictLength);
+            final byte[] dict = new byte[dictLength];
+            header.get(dict);
+            final String dictString = new String(dict, StandardCharsets.US_ASCII);
+            assertTrue(dictString, dictString.startsWith("{'descr': '<f4', 'fortran_order': False, 'shape': ("));
+            assertTrue(dictString, dictString.endsWith("\n"));
+        }
+        final ByteBuffer header = DLPythonShardedInputProvider.createNpyHeader("|b1", new long[]{5});
+        final byte[] bytes = new byte[header.remaining()];
+        header.get(bytes);
+        assertTrue(new String(bytes, StandardCharsets.ISO_8859_1).contains("'shape': (5,), }"));
+    }
+
+    @Test
+    public void testDouble() throws Exception {
+        testRoundTrip(double.class, DLPythonDoubleBuffer::new, (b, v) -> b.put(v - 15 + 0.5), Double.BYTES, "<f8",
+            "values - 15 + 0.5");
+    }
+
+    @Test
+    public void testFloat() throws Exception {
+        testRoundTrip(float.class, DLPythonFloatBuffer::new, (b, v) -> b.put(v - 15 + 0.5f), Float.BYTES, "<f4",
+            "values - 15 + 0.5");
+    }
+
+    @Test
+    public void testLong() throws Exception {
+        testRoundTrip(long.class, DLPythonLongBuffer::new, (b, v) -> b.put((v - 15) * (long)Integer.MAX_VALUE),
+            Long.BYTES, "<i8", "(values - 15) * 2147483647");
+    }
+
+    @Test
+    public void testInt() throws Exception {
+        testRoundTrip(int.class, DLPythonIntBuffer::new, (b, v) -> b.put(v - 15), Integer.BYTES, "<i4",
+            "values - 15");
+    }
+
+    @Test
+    public void testShort() throws Exception {
+        testRoundTrip(short.class, DLPythonShortBuffer::new, (b, v) -> b.put((short)((v - 15) * 1000)), Short.BYTES,
+            "<i2", "(values - 15) * 1000");
+    }
+
+    @Test
+    public void testByte() throws Exception {
+        testRoundTrip(byte.class, DLPythonByteBuffer::new, (b, v) -> b.put((byte)(v - 15)), Byte.BYTES, "|i1",
+            "values - 15");
+    }
+
+    @Test
+    public void testUnsignedByte() throws Exception {
+        // values above 127 must not be interpreted as negative
+        testRoundTrip(short.class, DLPythonUnsignedByteBuffer::new, (b, v) -> b.put((short)(v + 200)), Byte.BYTES,
+            "|u1", "values + 200");
+    }
+
+    @Test
+    public void testBit() throws Exception {
+        testRoundTrip(boolean.class, DLPythonBitBuffer::new, (b, v) -> b.put(v % 3 == 0), Byte.BYTES, "|b1",
+            "values % 3 == 0");
+    }
+
+    /**
+     * Stages {@link #NUM_BATCHES} batches whose <code>i</code>-th element (counted over all batches) is written via
+     * <code>writer</code> and checks the shard files on Python side against the array <code>expected</code>, which is
+     * a Python expression over <code>values = [0, 1, 2, ...]</code>.
+     */
+    private <B extends DLWritableBuffer> void testRoundTrip(final Class<?> elementType,
+        final LongFunction<B> bufferFactory, final ObjIntConsumer<B> writer, final int elementBytes,
+        final String numpyType, final String expected) throws Exception {
+        final DLTensorSpec spec = new DLDefaultTensorSpec(TENSOR_ID, "test_in_data", BATCH_SIZE,
+            new DLDefaultFixedTensorShape(EXAMPLE_SHAPE), elementType, DLDimensionOrder.TDHWC);
+        final B buffer = bufferFactory.apply(BATCH_SIZE * EXAMPLE_SIZE);
+        final DLTensor<B> tensor = new DLDefaultTensor<>(spec, buffer, EXAMPLE_SIZE);
+        final DLNetworkInputProvider source = new DLNetworkInputProvider() {
+
+            @Override
+            public long getNumBatches() {
+                return NUM_BATCHES;
+            }
+
+            @Override
+            public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex) {
+                for (int i = 0; i < BATCH_SIZE * EXAMPLE_SIZE; i++) {
+                    writer.accept(buffer, (int)(batchIndex * BATCH_SIZE * EXAMPLE_SIZE + i));
+                }
+                return Collections.singletonMap(TENSOR_ID, tensor);
+            }
+
+            @Override
+            public void close() {
+                // no op
+            }
+        };
+        final long batchBytes = BATCH_SIZE * EXAMPLE_SIZE * elementBytes;
+        final DLPythonShardedInputProvider provider = new DLPythonShardedInputProvider(source, m_directory,
+            BATCHES_PER_SHARD * batchBytes + batchBytes - 1, OptionalLong.empty());
+        assertTrue(provider.stage(DLMetricsRegistry.disabled(), DLNotCancelable.INSTANCE));
+        assertEquals(BATCHES_PER_SHARD, provider.getBatchesPerShard());
+        final String prefix = provider.getFilePrefixes().get(TENSOR_ID);
+        for (int k = 0; k < NUM_SHARDS; k++) {
+            assertTrue(Files.exists(m_directory.resolve(prefix + "-" + k + ".npy")));
+        }
+        assertTrue(Files.notExists(m_directory.resolve(prefix + "-" + NUM_SHARDS + ".npy")));
+
+        final String code = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import os") //
+            .n("import numpy as np") //
+            .n("from DLPythonTrainingDataShards import DLPythonTrainingDataShards") //
+            .n("directory = ").asr(m_directory.toString()) //
+            .n("values = np.arange(").a(NUM_BATCHES * BATCH_SIZE * EXAMPLE_SIZE).a(", dtype=np.int64)") //
+            .n("expected = (").a(expected).a(").reshape((-1,) + tuple(").a(EXAMPLE_SHAPE).a("))") //
+            .n("rows_per_shard = ").a(BATCHES_PER_SHARD * BATCH_SIZE) //
+            .n("for k in range(").a(NUM_SHARDS).a("):") //
+            .n("    shard = np.load(os.path.join(directory, ").as(prefix).a(" + '-' + str(k) + '.npy'), ")
+            /**/ .a("mmap_mode='r')") //
+            .n("    assert shard.offset % 64 == 0, 'Data of shard ' + str(k) + ' is not aligned.'") //
+            .n("    assert shard.dtype == np.dtype(").as(numpyType).a("), 'Unexpected type: ' + str(shard.dtype)") //
+            .n("    shard_expected = expected[k * rows_per_shard:(k + 1) * rows_per_shard]") //
+            .n("    assert shard.shape == shard_expected.shape, 'Unexpected shape: ' + str(shard.shape)") //
+            .n("    assert np.array_equal(shard, shard_expected), 'Shard ' + str(k) + ' differs: ' + str(shard)") //
+            .n("    del shard") //
+            .n("shards = DLPythonTrainingDataShards(directory, ").a(BATCH_SIZE).a(", ").a(BATCHES_PER_SHARD)
+            /**/ .a(", {'t': ").as(prefix).a("})") //
+            .n("try:") //
+            .n("    for b in range(").a(NUM_BATCHES).a("):") //
+            .n("        assert np.array_equal(shards.get_batch('t', b), ") //
+            /**/ .a("expected[b * ").a(BATCH_SIZE).a(":(b + 1) * ").a(BATCH_SIZE).a("]), ") //
+            /**/ .a("'Batch ' + str(b) + ' differs.'") //
+            .n("finally:") //
+            .n("    shards.close()") //
+            .toString();
+        m_context.executeInKernel(code, DLNotCancelable.INSTANCE);
+    }
+}
@@ -51,6 +51,9 @@ import numpy as np
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
 from DLPythonDataBuffers import DLPythonBitBuffer
 
+# Bits are received packed, eight per byte, preceded by their number as little-endian 64 bit integer.
 def deserialize(bytes):
-	return DLPythonBitBuffer(np.frombuffer(bytes, dtype=np.bool_))
+	size = int(np.frombuffer(bytes, dtype='<i8', count=1)[0])
+	bits = np.unpackbits(np.frombuffer(bytes, dtype=np.uint8, offset=8))[:size]
+	return DLPythonBitBuffer(bits.view(np.bool_))
 
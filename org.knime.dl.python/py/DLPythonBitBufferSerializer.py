@@ -51,10 +51,13 @@ import numpy as np
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
 from DLPythonDataBuffers import DLPythonBitBuffer
 
+# Bits are transmitted packed, eight per byte, preceded by their number as little-endian 64 bit integer.
 def serialize(value):
 	if not value.array.dtype == np.bool_:
 		value = DLPythonBitBuffer(value.array.astype(np.bool_))
+	bits = value.array.ravel()
 	buffer = BytesIO(bytes())
-	buffer.write(value.array.tobytes())
+	buffer.write(np.array([bits.size], dtype='<i8').tobytes())
+	buffer.write(np.packbits(bits).tobytes())
 	return buffer.getvalue()
 
@@ -49,6 +49,9 @@
 '''
 
 import abc
+import contextlib
+import threading
+import time
 
 
 _networks = {}
@@ -75,6 +78,48 @@ def remove_network(identifier):
     else:
         return False
 
+def get_metrics_as_data_frame(identifier):
+    """
+    Returns the timings recorded by the given network since the last call of this function as a data frame with the
+    columns 'name', 'nanos' and 'count' and resets them.
+    """
+    metrics = get_network(identifier).metrics
+    data_frame = metrics.to_data_frame()
+    metrics.reset()
+    return data_frame
+
+def get_trace_as_data_frame(identifier):
+    """
+    Returns the spans traced by the given network since the last call of this function as a data frame with the columns
+    'name', 'thread', 'start_micros' (since the epoch) and 'duration_micros' and discards them.
+    """
+    metrics = get_network(identifier).metrics
+    data_frame = metrics.to_trace_data_frame()
+    metrics.reset_trace()
+    return data_frame
+
+def get_memory_usage_as_data_frame():
+    """
+    Returns the current resident set size of this process in bytes as a data frame with the single column 'memory'.
+    Unlike the peak resident set size, it also decreases again, e.g. after smaller batches, and is therefore not
+    dominated by earlier phases such as loading the network. The value is -1 if it cannot be determined on this
+    platform.
+    """
+    import pandas as pd
+    memory = -1
+    try:
+        import psutil
+        memory = psutil.Process().memory_info().rss
+    except ImportError:
+        try:
+            import os
+            with open('/proc/self/statm', 'r') as f:
+                # total program size, resident set size, ... in pages
+                memory = int(f.read().split()[1]) * os.sysconf('SC_PAGE_SIZE')
+        except (OSError, ValueError, AttributeError):
+            pass
+    return pd.DataFrame({'memory': [memory]})
+
 def _get_next_network_id():
     global _network_id_suffix
     identifier = 'network_' + str(_network_id_suffix)
@@ -96,11 +141,20 @@ class DLPythonNetwork(object):
     def __init__(self, model):
         self._model = model
         self._spec = None
+        self._metrics = DLPythonNetworkMetrics()
 
     @property
     def model(self):
         return self._model
 
+    @property
+    def metrics(self):
+        """
+        Timings of the individual stages of execution and training on Python side. Reported to Java via
+        get_metrics_as_data_frame.
+        """
+        return self._metrics
+
     @abc.abstractproperty
     def spec(self):
         raise NotImplementedError()
@@ -114,6 +168,78 @@ class DLPythonNetwork(object):
         raise NotImplementedError()
 
 
+class DLPythonNetworkMetrics(object):
+
+    # maximum number of traced spans, further spans are dropped
+    MAX_SPANS = 1000000
+
+    # offset between perf_counter and the epoch, which is the clock that is shared with Java
+    _EPOCH_OFFSET = time.time() - time.perf_counter()
+
+    def __init__(self):
+        self._nanos = {}
+        self._counts = {}
+        self._names = []
+        # whether each timed interval is additionally recorded as span on a timeline, see to_trace_data_frame
+        self.tracing = False
+        self._spans = []
+
+    def record(self, name, nanos, count=1):
+        if name not in self._nanos:
+            self._names.append(name)
+            self._nanos[name] = 0
+            self._counts[name] = 0
+        self._nanos[name] += int(nanos)
+        self._counts[name] += count
+
+    def record_interval(self, name, start, end):
+        """
+        Records the interval between the given perf_counter values and, if tracing, the corresponding span.
+        """
+        self.record(name, (end - start) * 1e9)
+        if self.tracing and len(self._spans) < DLPythonNetworkMetrics.MAX_SPANS:
+            self._spans.append((name, threading.current_thread().name,
+                                int((start + DLPythonNetworkMetrics._EPOCH_OFFSET) * 1e6), int((end - start) * 1e6)))
+
+    @contextlib.contextmanager
+    def time(self, name):
+        start = time.perf_counter()
+        try:
+            yield
+        finally:
+            self.record_interval(name, start, time.perf_counter())
+
+    def merge(self, other):
+        for name in other._names:
+            self.record(name, other._nanos[name], other._counts[name])
+        self._spans.extend(other._spans[:max(DLPythonNetworkMetrics.MAX_SPANS - len(self._spans), 0)])
+
+    def reset(self):
+        self._nanos = {}
+        self._counts = {}
+        self._names = []
+
+    def reset_trace(self):
+        self._spans = []
+
+    def to_trace_data_frame(self):
+        import numpy as np
+        import pandas as pd
+        return pd.DataFrame({'name': pd.Series([s[0] for s in self._spans], dtype=object),
+                             'thread': pd.Series([s[1] for s in self._spans], dtype=object),
+                             'start_micros': np.array([s[2] for s in self._spans], dtype=np.int64),
+                             'duration_micros': np.array([s[3] for s in self._spans], dtype=np.int64)},
+                            columns=['name', 'thread', 'start_micros', 'duration_micros'])
+
+    def to_data_frame(self):
+        import numpy as np
+        import pandas as pd
+        return pd.DataFrame({'name': pd.Series(self._names, dtype=object),
+                             'nanos': np.array([self._nanos[n] for n in self._names], dtype=np.int64),
+                             'count': np.array([self._counts[n] for n in self._names], dtype=np.int64)},
+                            columns=['name', 'nanos', 'count'])
+
+
 class DLPythonNetworkSpec(object):
     __metaclass__ = abc.ABCMeta
 
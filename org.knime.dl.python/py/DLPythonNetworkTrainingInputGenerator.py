@@ -100,6 +100,12 @@ class DLPythonNetworkTrainingInputGenerator(object):
             i += 1
             yield batch
 
+    def close(self):
+        """
+        Releases the resources of this generator. Is called once training has ended, does nothing by default.
+        """
+        pass
+
     @abc.abstractmethod
     def _get_batch(self, batch_index):
         raise NotImplementedError()
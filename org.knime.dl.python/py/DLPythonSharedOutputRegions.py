@@ -0,0 +1,100 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Writes network outputs into memory-mapped files that are shared with the Java process. This avoids serializing each
+output into an intermediate byte array on both sides of the bridge. See DLPythonSharedOutputRegion on Java side.
+
+Region layout: an 8 byte little endian element count, followed by the flat, little endian payload.
+'''
+
+_HEADER_BYTES = 8
+
+# path -> memory map, mapping a file is much more expensive than writing to it
+_regions = {}
+
+
+def write_output(data, path, dtype):
+    """
+    Writes the tensor contained in the given single-cell output data frame into the region at the given path.
+    :param data: A data frame holding a DLPythonDataBuffer in its first cell.
+    :param path: The path of the region file that was created by Java.
+    :param dtype: The numpy type string of the Java-side storage, e.g. '<f4'. The output must be of this type, only
+    its byte order may differ.
+    :raises TypeError: If the output is of another type, which would otherwise be cast silently.
+    """
+    import numpy as np
+    array = np.asarray(data.iloc[0][0].array)
+    expected = np.dtype(dtype)
+    if array.dtype.kind != expected.kind or array.dtype.itemsize != expected.itemsize:
+        raise TypeError("Output of type '" + str(array.dtype) + "' does not match the type '" + str(expected)
+                        + "' of its shared region.")
+    flat = np.ascontiguousarray(array, dtype=expected).reshape(-1)
+    region = _get_region(path)
+    num_bytes = flat.nbytes
+    if _HEADER_BYTES + num_bytes > region.size:
+        raise ValueError("Output of " + str(num_bytes) + " bytes does not fit into its shared region of "
+                         + str(region.size - _HEADER_BYTES) + " bytes.")
+    region[_HEADER_BYTES:_HEADER_BYTES + num_bytes] = flat.view(np.uint8)
+    # The count is written last, Java reads it only after this call returned.
+    region[:_HEADER_BYTES].view('<i8')[0] = flat.size
+
+
+def release(path):
+    """
+    Unmaps the region at the given path. Must be called before Java deletes or remaps the file.
+    """
+    region = _regions.pop(path, None)
+    if region is not None:
+        del region
+
+
+def _get_region(path):
+    region = _regions.get(path)
+    if region is None:
+        import numpy as np
+        region = np.memmap(path, dtype=np.uint8, mode='r+')
+        _regions[path] = region
+    return region
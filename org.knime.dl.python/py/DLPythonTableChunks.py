@@ -0,0 +1,187 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+"""
+Streams tables between KNIME and a user script in chunks, see org.knime.dl.python.core.DLPythonTableStreamer.
+"""
+
+import base64
+import math
+
+import DLPythonKernelGateway
+from DLPythonSynchronousExecutor import DLPythonSynchronousExecutor
+from messaging.AbstractTaskHandler import AbstractTaskHandler
+from messaging.Message import Message
+from messaging.Message import PayloadEncoder
+from messaging.Task import Task
+
+_INPUT_CHUNKS_SUFFIX = '_chunks'
+_OUTPUT_WRITER_SUFFIX = '_writer'
+_CHUNK_SUFFIX = '_chunk'
+
+
+class DLPythonTableChunkTask(Task):
+    """
+    Executes a user script while serving its requests for input table chunks and its output table chunks via Java.
+    """
+
+    def __init__(self, reply_to, encoded_source_code, input_table_name, num_rows, rows_per_chunk,
+                 output_table_name=None):
+        self._kernel = DLPythonKernelGateway.global_workspace()['workspace']
+        self._commands = self._kernel._commands
+        self._messaging = self._commands._messaging
+        super(DLPythonTableChunkTask, self).__init__(None, None, self._messaging, self._messaging,
+                                                     self._messaging.create_receive_queue(),
+                                                     self._messaging.create_next_message_id,
+                                                     self._kernel, DLPythonSynchronousExecutor())
+        self._reply_to = str(reply_to)
+        self._source_code = base64.b64decode(encoded_source_code).decode('utf-8')
+        self._input_table_name = input_table_name
+        self._num_rows = num_rows
+        self._rows_per_chunk = rows_per_chunk
+        self._output_table_name = output_table_name
+
+    def request_from_java(self, message_category, payload=None):
+        payload = PayloadEncoder().put_string(str(payload)).payload if payload is not None else None
+        message = Message(self._message_id_supplier(), self._reply_to, payload,
+                          {AbstractTaskHandler.FIELD_KEY_MESSAGE_TYPE: message_category})
+        self._commands.create_task(DLPythonTableChunkTask._RequestTaskHandler(), message).get()
+
+    def _run_internal(self):
+        workspace = DLPythonKernelGateway.global_workspace()
+        workspace[self._input_table_name + _INPUT_CHUNKS_SUFFIX] = DLPythonInputTableChunks(
+            self, self._input_table_name, self._num_rows, self._rows_per_chunk)
+        if self._output_table_name is not None:
+            workspace[self._output_table_name + _OUTPUT_WRITER_SUFFIX] = DLPythonOutputTableWriter(
+                self, self._output_table_name)
+        exec(compile(self._source_code, '<string>', 'exec'), workspace)
+        self._set_result(None)
+
+    class _RequestTaskHandler(AbstractTaskHandler):
+        def _handle_success_message(self, message):
+            return None
+
+
+class DLPythonInputTableChunks(object):
+    """
+    Sequence of the chunks of the input table. Each chunk is a pandas data frame that is requested from Java when it
+    is accessed. Chunks are not cached, so only the chunk that is currently being processed is held in memory.
+    Sequential access is cheapest, random access requires Java to re-read the table up to the requested chunk.
+    """
+
+    def __init__(self, task, table_name, num_rows, rows_per_chunk):
+        self._task = task
+        self._table_name = table_name
+        self._num_rows = num_rows
+        self._rows_per_chunk = rows_per_chunk
+
+    @property
+    def num_rows(self):
+        return self._num_rows
+
+    @property
+    def rows_per_chunk(self):
+        return self._rows_per_chunk
+
+    def __len__(self):
+        return int(math.ceil(self._num_rows / float(self._rows_per_chunk)))
+
+    def __getitem__(self, index):
+        if index < 0:
+            index += len(self)
+        if index < 0 or index >= len(self):
+            raise IndexError("Table chunk index out of range.")
+        self._task.request_from_java('request_table_chunk', index)
+        workspace = DLPythonKernelGateway.global_workspace()
+        return workspace.pop(self._table_name + _CHUNK_SUFFIX)
+
+    def __iter__(self):
+        for i in range(len(self)):
+            yield self[i]
+
+    def as_keras_sequence(self, transform):
+        """
+        Returns a keras.utils.Sequence whose batches are the chunks of the table transformed by the given function.
+        The function maps a data frame to a batch, e.g. a tuple of inputs and targets.
+        """
+        try:
+            from keras.utils import Sequence
+        except ImportError:
+            from tensorflow.keras.utils import Sequence
+        chunks = self
+
+        class _DLPythonTableChunkSequence(Sequence):
+            def __len__(self):
+                return len(chunks)
+
+            def __getitem__(self, index):
+                return transform(chunks[index])
+
+        return _DLPythonTableChunkSequence()
+
+
+class DLPythonOutputTableWriter(object):
+    """
+    Writes the output table incrementally. Each written data frame is transferred to Java immediately and appended to
+    the output table.
+    """
+
+    def __init__(self, task, table_name):
+        self._task = task
+        self._table_name = table_name
+        self._num_chunks = 0
+
+    @property
+    def num_chunks(self):
+        return self._num_chunks
+
+    def write(self, data_frame):
+        workspace = DLPythonKernelGateway.global_workspace()
+        workspace[self._table_name + _CHUNK_SUFFIX] = data_frame
+        try:
+            self._task.request_from_java('write_table_chunk')
+        finally:
+            del workspace[self._table_name + _CHUNK_SUFFIX]
+        self._num_chunks += 1
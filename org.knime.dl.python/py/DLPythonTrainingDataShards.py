@@ -0,0 +1,101 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Reads training batches from the .npy shard files that were staged by Java. Shards are memory-mapped, so the operating
+system's page cache decides which part of the training data is held in memory. See DLPythonShardedInputProvider on Java
+side.
+
+File <prefix>-<k>.npy holds the k-th shard of the tensor with the given prefix. Each shard contains the same range of
+batches in the files of all tensors.
+'''
+
+import os
+
+import numpy as np
+
+
+class DLPythonTrainingDataShards(object):
+
+    def __init__(self, directory, batch_size, batches_per_shard, file_prefixes):
+        """
+        :param directory: The directory that contains the shard files.
+        :param batch_size: The number of rows per batch.
+        :param batches_per_shard: The number of batches per shard, the last shard may contain less.
+        :param file_prefixes: A dictionary from tensor identifier to the file name prefix of its shards.
+        """
+        assert batch_size > 0
+        assert batches_per_shard > 0
+        self._directory = directory
+        self._batch_size = batch_size
+        self._batches_per_shard = batches_per_shard
+        self._file_prefixes = file_prefixes
+        # (tensor identifier, shard index) -> memory map, mapping a file is much more expensive than reading from it
+        self._shards = {}
+
+    def get_batch(self, identifier, batch_index):
+        """
+        Returns the batch of the given tensor as array of shape [batch_size] + tensor shape. The array is copied out
+        of the memory map, it can be modified and outlives the shard.
+        """
+        shard_index, batch_in_shard = divmod(batch_index, self._batches_per_shard)
+        shard = self._get_shard(identifier, shard_index)
+        start = batch_in_shard * self._batch_size
+        return np.array(shard[start:start + self._batch_size])
+
+    def close(self):
+        """
+        Unmaps all shards. Must be called before the shard files are deleted.
+        """
+        self._shards.clear()
+
+    def _get_shard(self, identifier, shard_index):
+        key = (identifier, shard_index)
+        shard = self._shards.get(key)
+        if shard is None:
+            path = os.path.join(self._directory, self._file_prefixes[identifier] + '-' + str(shard_index) + '.npy')
+            shard = np.load(path, mmap_mode='r')
+            self._shards[key] = shard
+        return shard
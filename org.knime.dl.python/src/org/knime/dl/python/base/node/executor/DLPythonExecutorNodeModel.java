@@ -73,6 +73,7 @@
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
+import org.knime.dl.python.core.DLPythonTableStreamer;
 import org.knime.python2.kernel.PythonExecutionMonitorCancelable;
 
 /**
@@ -134,16 +135,29 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			final DLPythonNetwork network = portObject.getNetwork(getPythonCommand());
             setupNetwork(network, context, cancelable);
 			exec.createSubProgress(0.1).setProgress(1);
-			context.getKernel().putDataTable(DLPythonExecutorNodeConfig.getVariableNames().getInputTables()[0], inTable,
-					exec.createSubProgress(0.2));
-			final String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
+			final String sourceCode = getConfig().getSourceCode();
+			final String inputTableName = DLPythonExecutorNodeConfig.getVariableNames().getInputTables()[0];
+			final String outputTableName = DLPythonExecutorNodeConfig.getVariableNames().getOutputTables()[0];
+			DLPythonTableStreamer streamer = null;
+			final String[] output;
+			if (DLPythonTableStreamer.isStreamingRequested(sourceCode, inputTableName, outputTableName)) {
+				// the script consumes and/or produces the tables in chunks, keep the memory of the kernel bounded
+				streamer = new DLPythonTableStreamer(context, inTable, inputTableName, outputTableName,
+						getConfig().getChunkSize(), exec.createSubExecutionContext(0.6));
+				output = streamer.execute(sourceCode, cancelable);
+			} else {
+				context.getKernel().putDataTable(inputTableName, inTable, exec.createSubProgress(0.2));
+				output = context.executeInKernel(sourceCode, cancelable);
+				exec.createSubProgress(0.4).setProgress(1);
+			}
 			updateStdoutStderr(output);
-			exec.createSubProgress(0.4).setProgress(1);
 			final Collection<FlowVariable> variables = context.getKernel()
 					.getFlowVariables(DLPythonExecutorNodeConfig.getVariableNames().getFlowVariables());
-			outTable = context.getKernel().getDataTable(
-					DLPythonExecutorNodeConfig.getVariableNames().getOutputTables()[0], exec,
-					exec.createSubProgress(0.3));
+			if (streamer != null && streamer.hasOutputChunks()) {
+				outTable = streamer.getOutputTable();
+			} else {
+				outTable = context.getKernel().getDataTable(outputTableName, exec, exec.createSubProgress(0.3));
+			}
 			addNewVariables(variables);
 			shutdownContext(context);
 		}
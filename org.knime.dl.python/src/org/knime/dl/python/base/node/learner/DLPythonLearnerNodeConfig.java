@@ -48,6 +48,7 @@
 package org.knime.dl.python.base.node.learner;
 
 import org.knime.dl.python.base.ports.DLNetworkInputPort;
+import org.knime.dl.python.core.DLPythonTableStreamer;
 import org.knime.python2.config.PythonSourceCodeConfig;
 import org.knime.python2.generic.VariableNames;
 import org.knime.python2.ports.DataTableInputPort;
@@ -91,6 +92,8 @@ protected String getDefaultSourceCode() {
             "# " + "variable name of the input network:   " + vars.getGeneralInputObjects()[0] + "\n" + //
             "# " + "variable name of the input table:     " + vars.getInputTables()[0] + "\n" + //
             "# " + "variable name of the output network:  " + vars.getGeneralOutputObjects()[0] + "\n" + //
+            "# " + "use " + vars.getInputTables()[0] + DLPythonTableStreamer.INPUT_CHUNKS_SUFFIX + //
+            " to process large tables in chunks\n" + //
             "\n" + //
             vars.getGeneralOutputObjects()[0] + " = " + vars.getGeneralInputObjects()[0];
     }
@@ -77,6 +77,7 @@
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
+import org.knime.dl.python.core.DLPythonTableStreamer;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
 import org.knime.python2.kernel.PythonExecutionMonitorCancelable;
@@ -171,10 +172,17 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			String[] output = context.executeInKernel(loadBackendCode, cancelable);
 			updateStdoutStderr(output);
 			exec.createSubProgress(0.1).setProgress(1);
-			context.getKernel().putDataTable(DLPythonLearnerNodeConfig.getVariableNames().getInputTables()[0], inTable,
-					exec.createSubProgress(0.2));
+			final String sourceCode = getConfig().getSourceCode();
+			final String inputTableName = DLPythonLearnerNodeConfig.getVariableNames().getInputTables()[0];
 			final String outputNetworkName = DLPythonLearnerNodeConfig.getVariableNames().getGeneralOutputObjects()[0];
-			output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
+			if (DLPythonTableStreamer.isStreamingRequested(sourceCode, inputTableName, null)) {
+				// the script consumes the table in chunks, keep the memory of the kernel bounded
+				output = new DLPythonTableStreamer(context, inTable, inputTableName, null, getConfig().getChunkSize(),
+						exec.createSubExecutionContext(0.2)).execute(sourceCode, cancelable);
+			} else {
+				context.getKernel().putDataTable(inputTableName, inTable, exec.createSubProgress(0.2));
+				output = context.executeInKernel(sourceCode, cancelable);
+			}
 			updateStdoutStderr(output);
 			checkExecutePostConditions(context, cancelable);
 			output = context.executeInKernel("import DLPythonNetwork\n" + //
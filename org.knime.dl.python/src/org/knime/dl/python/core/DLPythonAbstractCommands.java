@@ -54,10 +54,12 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -80,18 +82,23 @@
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLMetricsRegistry;
 import org.knime.dl.core.DLNetworkInputProvider;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLTimer;
+import org.knime.dl.core.DLTraceRecorder;
 import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonSharedOutputRegion;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializerFactory;
 import org.knime.dl.python.core.data.serde.DLSerializerFactory;
+import org.knime.dl.python.core.training.DLPythonShardedInputProvider;
 import org.knime.dl.python.core.training.DLPythonTrainingStatus;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
@@ -166,6 +173,12 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     public static final String OUTPUT_SHAPES_NAME = "output_shapes";
 
+    public static final String NETWORK_METRICS_NAME = "network_metrics";
+
+    public static final String NETWORK_TRACE_NAME = "network_trace";
+
+    public static final String MEMORY_USAGE_NAME = "memory_usage";
+
     /** Name of the 'python version' DataFrame in python */
     public static final String PYTHON_VERSION_NAME = "python_version";
 
@@ -185,6 +198,17 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     private final Map<DLTensorId, DLPythonTableChunker> m_tableChunkers = new HashMap<>();
 
+    private final Map<DLTensorId, DLPythonSharedOutputRegion> m_outputRegions = new HashMap<>();
+
+    /**
+     * Python code that writes all outputs into their shared regions. Generated once and reused for all batches.
+     */
+    private String m_outputRegionsCode;
+
+    private Set<DLTensorId> m_outputRegionsCodeKeys;
+
+    private boolean m_outputRegionsUnavailable = false;
+
     /**
      * Set to <code>true</code> if the setup steps in {@link #getContext()} were successful.
      */
@@ -431,53 +455,118 @@ public Object getTable() {
     public void getNetworkOutputs(final DLPythonNetworkHandle network,
         final Map<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> outputs,
         final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        boolean hasSharedOutputs = false;
         for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> output : outputs
             .entrySet()) {
-            final DLTensorId tensorIdentifier = output.getKey();
-            final DLTensor<? extends DLReadableBuffer> tensor = output.getValue();
-
-            getContext(cancelable).getDataFromKernel(tensorIdentifier.getIdentifierString(),
-                (tableSpec, tableSize) -> new TableCreator<DLTensor<? extends DLReadableBuffer>>() {
-
-                    @Override
-                    public void addRow(final Row row) {
-                        final String deserializerId =
-                            tableSpec.getColumnSerializers().get(tensorIdentifier.getIdentifierString());
-                        final DeserializerFactory deserializerFactory =
-                            PythonToKnimeExtensions.getExtension(deserializerId).getJavaDeserializerFactory();
-                        if (!(deserializerFactory instanceof DLPythonDeserializerFactory)) {
-                            LOGGER.coding(
-                                "Deep learning Python to KNIME serialization factory must implement DLSerializerFactory.");
-                        }
-                        final Deserializer deserializer = deserializerFactory.createDeserializer();
-                        if (!(deserializer instanceof DLPythonDeserializer)) {
-                            final String msg =
-                                "An exception occurred while collecting network output from Python. Unsupported deserializer.";
-                            LOGGER.error(msg);
-                            // TODO
-                            throw new RuntimeException(msg);
-                        }
-                        final Cell cell = row.getCell(0);
-                        try {
-                            ((DLPythonDeserializer)deserializer).deserialize(cell.getBytesValue(), tensor);
-                        } catch (final IllegalStateException e) {
-                            LOGGER.error(
-                                "An exception occurred while collecting network output from Python: " + e.getMessage(),
-                                e);
-                        }
+            if (getOutputRegion(output.getKey(), output.getValue(), cancelable) != null) {
+                hasSharedOutputs = true;
+            } else {
+                getNetworkOutputViaBridge(output.getKey(), output.getValue(), cancelable);
+            }
+        }
+        if (hasSharedOutputs) {
+            if (m_outputRegionsCode == null || !outputs.keySet().equals(m_outputRegionsCodeKeys)) {
+                final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+                    .a("import DLPythonSharedOutputRegions");
+                for (final DLTensorId tensorId : outputs.keySet()) {
+                    final DLPythonSharedOutputRegion region = m_outputRegions.get(tensorId);
+                    if (region != null) {
+                        b.n("DLPythonSharedOutputRegions.write_output(globals()[").as(tensorId.getIdentifierString())
+                            .a("], ").asr(region.getPath()).a(", ").as(region.getNumpyType()).a(")");
                     }
+                }
+                m_outputRegionsCode = b.toString();
+                m_outputRegionsCodeKeys = new HashSet<>(outputs.keySet());
+            }
+            getContext(cancelable).executeInKernel(m_outputRegionsCode, cancelable);
+            for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> output : outputs
+                .entrySet()) {
+                final DLPythonSharedOutputRegion region = m_outputRegions.get(output.getKey());
+                if (region != null) {
+                    region.readInto(output.getValue());
+                }
+            }
+        }
+    }
 
-                    @Override
-                    public TableSpec getTableSpec() {
-                        return tableSpec;
-                    }
+    /**
+     * Returns the shared region into which Python writes the given output, creating or growing it if necessary.
+     *
+     * @return the region or <code>null</code> if the output has to be transferred through the Python bridge
+     */
+    private DLPythonSharedOutputRegion getOutputRegion(final DLTensorId tensorId,
+        final DLTensor<? extends DLReadableBuffer> tensor, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        if (m_outputRegionsUnavailable || !DLPythonSharedOutputRegion.isSupported(tensor.getBuffer())) {
+            return null;
+        }
+        DLPythonSharedOutputRegion region = m_outputRegions.get(tensorId);
+        if (region == null || !region.canHold(tensor)) {
+            if (region != null) {
+                getContext(cancelable).executeInKernel(DLPythonUtils.createSourceCodeBuilder() //
+                    .a("import DLPythonSharedOutputRegions") //
+                    .n("DLPythonSharedOutputRegions.release(").asr(region.getPath()).a(")").toString(), cancelable);
+                region.close();
+                m_outputRegions.remove(tensorId);
+            }
+            try {
+                region = new DLPythonSharedOutputRegion(tensor);
+            } catch (final IOException e) {
+                LOGGER.debug("Shared output regions are not available, falling back to transferring network outputs "
+                    + "through the Python bridge.", e);
+                m_outputRegionsUnavailable = true;
+                return null;
+            }
+            m_outputRegions.put(tensorId, region);
+            m_outputRegionsCode = null;
+        }
+        return region;
+    }
+
+    private void getNetworkOutputViaBridge(final DLTensorId tensorIdentifier,
+        final DLTensor<? extends DLReadableBuffer> tensor, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        getContext(cancelable).getDataFromKernel(tensorIdentifier.getIdentifierString(),
+            (tableSpec, tableSize) -> new TableCreator<DLTensor<? extends DLReadableBuffer>>() {
 
-                    @Override
-                    public DLTensor<? extends DLReadableBuffer> getTable() {
-                        return tensor;
+                @Override
+                public void addRow(final Row row) {
+                    final String deserializerId =
+                        tableSpec.getColumnSerializers().get(tensorIdentifier.getIdentifierString());
+                    final DeserializerFactory deserializerFactory =
+                        PythonToKnimeExtensions.getExtension(deserializerId).getJavaDeserializerFactory();
+                    if (!(deserializerFactory instanceof DLPythonDeserializerFactory)) {
+                        LOGGER.coding(
+                            "Deep learning Python to KNIME serialization factory must implement DLSerializerFactory.");
                     }
-                }, cancelable);
-        }
+                    final Deserializer deserializer = deserializerFactory.createDeserializer();
+                    if (!(deserializer instanceof DLPythonDeserializer)) {
+                        final String msg =
+                            "An exception occurred while collecting network output from Python. Unsupported deserializer.";
+                        LOGGER.error(msg);
+                        // TODO
+                        throw new RuntimeException(msg);
+                    }
+                    final Cell cell = row.getCell(0);
+                    try {
+                        ((DLPythonDeserializer)deserializer).deserialize(cell.getBytesValue(), tensor);
+                    } catch (final IllegalStateException e) {
+                        LOGGER.error(
+                            "An exception occurred while collecting network output from Python: " + e.getMessage(),
+                            e);
+                    }
+                }
+
+                @Override
+                public TableSpec getTableSpec() {
+                    return tableSpec;
+                }
+
+                @Override
+                public DLTensor<? extends DLReadableBuffer> getTable() {
+                    return tensor;
+                }
+            }, cancelable);
     }
 
     @Override
@@ -515,10 +604,24 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
         final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
             .a("import DLPythonNetwork") //
             .n("network = DLPythonNetwork.get_network(").as(network.getIdentifier()).a(")") //
-            .n("from DLKerasNetworkTrainingInputGenerator import DLKerasNetworkTrainingInputGenerator") //
-            .n("training_data_supplier = DLKerasNetworkTrainingInputGenerator(network, ")
-            /**/ .a(trainingInputProvider.getNumBatches()).a(", network.spec.training_config.batch_size, ")
-            /**/ .as("request_training_data").a(")");
+            .n("from DLKerasNetworkTrainingInputGenerator import DLKerasNetworkTrainingInputGenerator");
+        if (trainingInputProvider instanceof DLPythonShardedInputProvider
+            && ((DLPythonShardedInputProvider)trainingInputProvider).isStaged()) {
+            // Training data has been staged on disk, Python reads it directly from the shard files.
+            final DLPythonShardedInputProvider shards = (DLPythonShardedInputProvider)trainingInputProvider;
+            b.n("from DLKerasNetworkTrainingInputGenerator import DLKerasShardedTrainingInputGenerator") //
+                .n("training_data_supplier = DLKerasShardedTrainingInputGenerator(network, ")
+                /**/ .a(shards.getNumBatches()).a(", network.spec.training_config.batch_size, ")
+                /**/ .asr(shards.getDirectory().toString()).a(", ").a(shards.getBatchesPerShard()).a(", {");
+            for (final Entry<DLTensorId, String> prefix : shards.getFilePrefixes().entrySet()) {
+                b.as(prefix.getKey().getIdentifierString()).a(": ").as(prefix.getValue()).a(", ");
+            }
+            b.a("}, shuffle_seed=").a(DLPythonUtils.toPython(shards.getShuffleSeed())).a(")");
+        } else {
+            b.n("training_data_supplier = DLKerasNetworkTrainingInputGenerator(network, ")
+                .a(trainingInputProvider.getNumBatches()).a(", network.spec.training_config.batch_size, ")
+                .as("request_training_data").a(")");
+        }
         if (validationInputProvider != null) {
             b.n("validation_data_supplier = DLKerasNetworkTrainingInputGenerator(network, ")
                 .a(validationInputProvider.getNumBatches()).a(", network.spec.training_config.validation_batch_size, ")
@@ -564,17 +667,132 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
         }
     }
 
+    @Override
+    public void setNetworkTracing(final DLPythonNetworkHandle network, final boolean enabled,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("DLPythonNetwork.get_network(").as(network.getIdentifier()).a(").metrics.tracing = ")
+            .a(DLPythonUtils.toPython(enabled));
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
+    @Override
+    public void collectNetworkMetrics(final DLPythonNetworkHandle network, final DLMetricsRegistry metrics,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("global ").a(NETWORK_METRICS_NAME) //
+            .n(NETWORK_METRICS_NAME).a(" = DLPythonNetwork.get_metrics_as_data_frame(").as(network.getIdentifier())
+            .a(")");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        getContext(cancelable).getDataFromKernel(NETWORK_METRICS_NAME,
+            (tableSpec, tableSize) -> new TableCreator<Object>() {
+
+                @Override
+                public void addRow(final Row row) {
+                    // columns: name, total nanoseconds, count
+                    metrics.timer(PYTHON_METRICS_PREFIX + row.getCell(0).getStringValue())
+                        .record(row.getCell(1).getLongValue(), row.getCell(2).getLongValue());
+                }
+
+                @Override
+                public TableSpec getTableSpec() {
+                    return tableSpec;
+                }
+
+                @Override
+                public Object getTable() {
+                    return null;
+                }
+            }, cancelable);
+        final Optional<DLTraceRecorder> trace = metrics.getTraceRecorder();
+        if (trace.isPresent()) {
+            collectNetworkTrace(network, trace.get(), cancelable);
+        }
+    }
+
+    private void collectNetworkTrace(final DLPythonNetworkHandle network, final DLTraceRecorder trace,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("global ").a(NETWORK_TRACE_NAME) //
+            .n(NETWORK_TRACE_NAME).a(" = DLPythonNetwork.get_trace_as_data_frame(").as(network.getIdentifier())
+            .a(")");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        getContext(cancelable).getDataFromKernel(NETWORK_TRACE_NAME,
+            (tableSpec, tableSize) -> new TableCreator<Object>() {
+
+                @Override
+                public void addRow(final Row row) {
+                    // columns: name, thread, start microseconds since the epoch, duration microseconds
+                    trace.recordSpan(row.getCell(0).getStringValue(), DLTraceRecorder.PROCESS_PYTHON,
+                        row.getCell(1).getStringValue(), row.getCell(2).getLongValue(),
+                        row.getCell(3).getLongValue());
+                }
+
+                @Override
+                public TableSpec getTableSpec() {
+                    return tableSpec;
+                }
+
+                @Override
+                public Object getTable() {
+                    return null;
+                }
+            }, cancelable);
+    }
+
+    @Override
+    public long getMemoryUsage(final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("global ").a(MEMORY_USAGE_NAME) //
+            .n(MEMORY_USAGE_NAME).a(" = DLPythonNetwork.get_memory_usage_as_data_frame()");
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        final long[] memoryUsage = {-1};
+        getContext(cancelable).getDataFromKernel(MEMORY_USAGE_NAME,
+            (tableSpec, tableSize) -> new TableCreator<Object>() {
+
+                @Override
+                public void addRow(final Row row) {
+                    memoryUsage[0] = row.getCell(0).getLongValue();
+                }
+
+                @Override
+                public TableSpec getTableSpec() {
+                    return tableSpec;
+                }
+
+                @Override
+                public Object getTable() {
+                    return null;
+                }
+            }, cancelable);
+        return memoryUsage[0];
+    }
+
     /**
      * Closes the underlying {@link DLPythonContext Python context}.
      */
     @Override
     public synchronized void close() {
         m_context.close();
+        closeOutputRegions();
     }
 
     @Override
-    public Future<Void> asynchronousClose() throws Exception {
-        return m_context.asynchronousClose();
+    public synchronized Future<Void> asynchronousClose() throws Exception {
+        final Future<Void> future = m_context.asynchronousClose();
+        closeOutputRegions();
+        return future;
+    }
+
+    private void closeOutputRegions() {
+        m_outputRegions.values().forEach(DLPythonSharedOutputRegion::close);
+        m_outputRegions.clear();
+        m_outputRegionsCode = null;
     }
 
     protected String getRegisterNetworkCode(final String networkVariable, final String networkIdentifier) {
@@ -800,8 +1018,9 @@ public String createReader() {
      * <li>Removed code where the handler is unregisters itself. Requests for training data might come in after the
      * training is done. In this case this MessageHandler must be still registered to handle the request.</li>
      * </ul>
+     * Also used by {@link DLPythonTableStreamer} to serve table chunk requests while a user script is running.
      */
-    private static final class DLTrainingTask implements RunnableFuture<Void>, MessageHandler {
+    static final class DLTrainingTask implements RunnableFuture<Void>, MessageHandler {
 
         private static final int RECEIVE_QUEUE_LENGTH = 10;
 
@@ -833,7 +1052,7 @@ private static final class DLTrainingTask implements RunnableFuture<Void>, Messa
 
         private String m_taskCategory = null;
 
-        private DLTrainingTask(final Message message, final TaskHandler<Void> taskHandler, final MessageSender sender,
+        DLTrainingTask(final Message message, final TaskHandler<Void> taskHandler, final MessageSender sender,
             final MessageHandlerCollection messageHandlers, final IntSupplier messageIdSupplier,
             final ExecutorService executor, final PythonExecutionMonitor monitor) {
             m_initiatingMessage = message;
@@ -956,6 +1175,40 @@ private void setResult(final Void result) {
 
     protected static class DLPythonNetworkTrainingTaskHandler extends AbstractTaskHandler<Void> {
 
+        /**
+         * Name of the {@link DLTrainingMonitor#getMetrics() timer} that measures the preparation of training batches
+         * (reading the input rows and converting them into tensors).
+         */
+        public static final String METRIC_TRAINING_DATA_PREPARATION = "Training data preparation";
+
+        /**
+         * Name of the {@link DLTrainingMonitor#getMetrics() timer} that measures the transfer of training batches to
+         * Python.
+         */
+        public static final String METRIC_TRAINING_DATA_TRANSFER = "Training data transfer to Python";
+
+        /**
+         * Name of the {@link DLTrainingMonitor#getMetrics() timer} that measures the preparation of validation
+         * batches.
+         */
+        public static final String METRIC_VALIDATION_DATA_PREPARATION = "Validation data preparation";
+
+        /**
+         * Name of the {@link DLTrainingMonitor#getMetrics() timer} that measures the transfer of validation batches to
+         * Python.
+         */
+        public static final String METRIC_VALIDATION_DATA_TRANSFER = "Validation data transfer to Python";
+
+        /**
+         * Name of the {@link DLTrainingMonitor#getMetrics() counter} of training batches sent to Python.
+         */
+        public static final String METRIC_TRAINING_BATCHES = "Training batches";
+
+        /**
+         * Name of the {@link DLTrainingMonitor#getMetrics() counter} of validation batches sent to Python.
+         */
+        public static final String METRIC_VALIDATION_BATCHES = "Validation batches";
+
         protected final DLPythonContext m_context;
 
         protected final DLTrainingMonitor<? extends DLPythonTrainingStatus> m_monitor;
@@ -990,6 +1243,9 @@ protected DLPythonNetworkTrainingTaskHandler(final DLPythonContext context,
             // Default values.
             epochMetrics.put("val_accuracy", new DLReportedMetric("val_accuracy", 0f));
             epochMetrics.put("val_loss", new DLReportedMetric("val_loss", 0f));
+            // half-widths of the confidence intervals if the metrics are estimated on a subset of the validation data
+            epochMetrics.put("val_accuracy_ci", new DLReportedMetric("val_accuracy_ci", Float.NaN));
+            epochMetrics.put("val_loss_ci", new DLReportedMetric("val_loss_ci", Float.NaN));
 
             batchMetrics.put("accuracy", new DLReportedMetric("accuracy", 0f));
             batchMetrics.put("loss", new DLReportedMetric("loss", 0f));
@@ -1049,7 +1305,13 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
         private Message handleTrainingDataRequest(final Message message, final IntSupplier responseMessageIdSupplier)
             throws Exception {
             final long batchIndex = Long.parseLong(new PayloadDecoder(message.getPayload()).getNextString());
+            final DLMetricsRegistry metrics = m_monitor.getMetrics();
+            final DLTimer preparation = metrics.timer(METRIC_TRAINING_DATA_PREPARATION);
+            long start = preparation.start();
             final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = m_trainingInputProvider.get(batchIndex);
+            preparation.stop(start);
+            final DLTimer transfer = metrics.timer(METRIC_TRAINING_DATA_TRANSFER);
+            start = transfer.start();
             for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
                 final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
                 final TableChunker tableChunker = m_singleTensorTableChunkerCreator.apply(entry.getKey(), tensor);
@@ -1061,6 +1323,8 @@ private Message handleTrainingDataRequest(final Message message, final IntSuppli
                     tensor.getBuffer().reset();
                 }
             }
+            transfer.stop(start);
+            metrics.counter(METRIC_TRAINING_BATCHES).increment();
 
             final HashMap<String, String> options = new HashMap<>(1);
             options.put(FIELD_KEY_MESSAGE_TYPE, MESSAGE_TYPE_SUCCESS);
@@ -1071,8 +1335,14 @@ private Message handleTrainingDataRequest(final Message message, final IntSuppli
         private Message handleValidationDataRequest(final Message message, final IntSupplier responseMessageIdSupplier)
             throws Exception {
             final long batchIndex = Long.parseLong(new PayloadDecoder(message.getPayload()).getNextString());
+            final DLMetricsRegistry metrics = m_monitor.getMetrics();
+            final DLTimer preparation = metrics.timer(METRIC_VALIDATION_DATA_PREPARATION);
+            long start = preparation.start();
             final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input =
                 m_validationInputProvider.get(batchIndex);
+            preparation.stop(start);
+            final DLTimer transfer = metrics.timer(METRIC_VALIDATION_DATA_TRANSFER);
+            start = transfer.start();
             for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
                 final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
                 final TableChunker tableChunker = m_singleTensorTableChunkerCreator.apply(entry.getKey(), tensor);
@@ -1085,6 +1355,8 @@ private Message handleValidationDataRequest(final Message message, final IntSupp
                     tensor.getBuffer().reset();
                 }
             }
+            transfer.stop(start);
+            metrics.counter(METRIC_VALIDATION_BATCHES).increment();
 
             final HashMap<String, String> options = new HashMap<>(1);
             options.put(FIELD_KEY_MESSAGE_TYPE, MESSAGE_TYPE_SUCCESS);
@@ -1100,6 +1372,12 @@ private void handleEpochEnd(final Message message) {
             final String[] metricsStr = new PayloadDecoder(message.getPayload()).getNextString().split(";");
             int i = 0;
             for (final DLReportedMetric m : epochMetrics.values()) {
+                if (i >= metricsStr.length) {
+                    // not reported by the back end
+                    m.setValue(Float.NaN);
+                    i++;
+                    continue;
+                }
                 try {
                     m.setValue(Float.parseFloat(metricsStr[i]));
                 } catch (final NumberFormatException e) {
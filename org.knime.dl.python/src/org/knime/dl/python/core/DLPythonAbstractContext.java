@@ -56,6 +56,7 @@
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
@@ -262,7 +263,8 @@ public Future<Void> asynchronousClose() throws RuntimeException {
     /**
      * Create the Python kernel. Overwrite this method to take control of the kernel creation. The default
      * implementation takes the next {@link PythonKernel} from the {@link PythonKernelQueue} with the
-     * {@link PythonCommand} from {@link #getPythonCommand()}.
+     * {@link PythonCommand} from {@link #getPythonCommand()}. The queue pre-starts its kernels with the
+     * {@link #getPreloadedModules() preloaded modules} already imported.
      *
      * @return a new Python kernel for this {@link DLPythonContext} using the appropriate preferences
      * @throws DLInvalidEnvironmentException if the Python kernel could not be started
@@ -271,7 +273,7 @@ protected PythonKernel createKernel() throws DLInvalidEnvironmentException {
         try {
             final PythonKernelOptions options = getKernelOptions();
             final PythonCommand command = getPythonCommand();
-            return PythonKernelQueue.getNextKernel(command, Collections.emptySet(), Collections.emptySet(), options,
+            return PythonKernelQueue.getNextKernel(command, Collections.emptySet(), getPreloadedModules(), options,
                 PythonCancelable.NOT_CANCELABLE);
         } catch (final IOException e) {
             final String msg = !Strings.isNullOrEmpty(e.getMessage())
@@ -284,6 +286,17 @@ protected PythonKernel createKernel() throws DLInvalidEnvironmentException {
         }
     }
 
+    /**
+     * Returns the modules that the {@link PythonKernelQueue} imports when it pre-starts kernels for this context. Modules
+     * that are not available in the environment are skipped. Modules whose import depends on environment variables that
+     * are only set once the kernel is in use must not be preloaded. The default implementation returns an empty set.
+     *
+     * @return the names of the modules to preload
+     */
+    protected Set<String> getPreloadedModules() {
+        return Collections.emptySet();
+    }
+
     private static PythonKernelOptions getKernelOptions() {
         final SerializationOptions serializerOptions =
             new SerializationOptions().forSerializerId(DLPythonPreferences.getSerializerPreference());
@@ -55,6 +55,7 @@
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLMetricsRegistry;
 import org.knime.dl.core.DLNetworkInputProvider;
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLTensor;
@@ -71,6 +72,12 @@
  */
 public interface DLPythonCommands extends AsynchronousCloseable<Exception> {
 
+	/**
+	 * Prefix of the names of the timers that are reported by the Python side of a network, see
+	 * {@link #collectNetworkMetrics(DLPythonNetworkHandle, DLMetricsRegistry, DLCancelable)}.
+	 */
+	String PYTHON_METRICS_PREFIX = "Python: ";
+
 	/**
 	 * @return the Python context
 	 * @throws DLInvalidEnvironmentException if failed to properly setup the Python context. This includes failures
@@ -127,6 +134,41 @@ void trainNetwork(DLPythonNetworkHandle network, DLNetworkInputProvider training
 			DLNetworkInputProvider validationInputProvider, DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
+	/**
+	 * Sets whether the Python side of the given network records each timed interval as span on a timeline. The spans
+	 * are transferred by {@link #collectNetworkMetrics(DLPythonNetworkHandle, DLMetricsRegistry, DLCancelable)}.
+	 *
+	 * @param network the network handle
+	 * @param enabled whether to record spans
+	 * @param cancelable to check if the operation has been canceled
+	 */
+	void setNetworkTracing(DLPythonNetworkHandle network, boolean enabled, DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
+	/**
+	 * Transfers the timings that were recorded on Python side since the last call of this method (e.g. input
+	 * formatting, prediction, output formatting) to the given registry. Each Python timer is recorded under its name
+	 * prefixed with {@link #PYTHON_METRICS_PREFIX}. If the registry has a {@link DLMetricsRegistry#getTraceRecorder()
+	 * trace recorder}, the spans that were recorded on Python side are added to it as well, see
+	 * {@link #setNetworkTracing(DLPythonNetworkHandle, boolean, DLCancelable)}.
+	 *
+	 * @param network the network handle
+	 * @param metrics the registry to record the timings in
+	 * @param cancelable to check if the operation has been canceled
+	 */
+	void collectNetworkMetrics(DLPythonNetworkHandle network, DLMetricsRegistry metrics, DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
+	/**
+	 * Returns the current memory consumption of the Python process.
+	 *
+	 * @param cancelable to check if the operation has been canceled
+	 * @return the current resident set size of the Python process in bytes, or <code>-1</code> if it cannot be
+	 *         determined on this platform
+	 */
+	long getMemoryUsage(DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
 	@Override
 	default Future<Void> asynchronousClose() throws Exception {
 	    close();
@@ -0,0 +1,394 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.python.core.DLPythonAbstractCommands.DLTrainingTask;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+import org.knime.python2.extensions.serializationlibrary.interfaces.impl.BufferedDataTableChunker;
+import org.knime.python2.kernel.Python2KernelBackend;
+import org.knime.python2.kernel.PythonCommands;
+import org.knime.python2.kernel.messaging.AbstractTaskHandler;
+import org.knime.python2.kernel.messaging.DefaultMessage;
+import org.knime.python2.kernel.messaging.DefaultMessage.PayloadDecoder;
+import org.knime.python2.kernel.messaging.Message;
+import org.knime.python2.kernel.messaging.PythonMessaging;
+import org.knime.python2.util.PythonUtils;
+
+/**
+ * Executes a user script in a Python kernel while streaming the input table to Python in chunks of a fixed number of
+ * rows and collecting the output table from Python chunk by chunk. This keeps the memory consumption of the kernel
+ * bounded regardless of the size of the input table.
+ * <P>
+ * The script can access the input table via the variable <code>&lt;input table name&gt;_chunks</code>. The variable
+ * holds a sequence of pandas data frames that are requested from Java on demand (see <code>DLPythonTableChunks</code>
+ * on Python side). Output tables can be written incrementally via the variable
+ * <code>&lt;output table name&gt;_writer</code>. Streaming is opt-in: it is only used if the script references one of
+ * these variables (see {@link #isStreamingRequested(String, String, String)}).
+ */
+public final class DLPythonTableStreamer {
+
+    /**
+     * Suffix of the name of the Python variable that gives access to the chunks of the input table.
+     */
+    public static final String INPUT_CHUNKS_SUFFIX = "_chunks";
+
+    /**
+     * Suffix of the name of the Python variable that allows writing the output table in chunks.
+     */
+    public static final String OUTPUT_WRITER_SUFFIX = "_writer";
+
+    private static final String CHUNK_SUFFIX = "_chunk";
+
+    private static final String REQUEST_TABLE_CHUNK = "request_table_chunk";
+
+    private static final String WRITE_TABLE_CHUNK = "write_table_chunk";
+
+    private static final long CANCEL_CHECK_INTERVAL_MILLIS = 200;
+
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("#.*$", Pattern.MULTILINE);
+
+    /**
+     * @param sourceCode the user script
+     * @param inputTableName the name of the input table variable on Python side
+     * @param outputTableName the name of the output table variable on Python side, may be <code>null</code> if the
+     *            script does not output a table
+     * @return <code>true</code> if the script references the chunked input table or the chunked output writer outside
+     *         of comments
+     */
+    public static boolean isStreamingRequested(final String sourceCode, final String inputTableName,
+        final String outputTableName) {
+        if (sourceCode == null) {
+            return false;
+        }
+        if (referencesVariable(sourceCode, inputTableName + INPUT_CHUNKS_SUFFIX)) {
+            return true;
+        }
+        return outputTableName != null && referencesVariable(sourceCode, outputTableName + OUTPUT_WRITER_SUFFIX);
+    }
+
+    private static boolean referencesVariable(final String sourceCode, final String variableName) {
+        return Pattern.compile("\\b" + Pattern.quote(variableName) + "\\b")
+            .matcher(COMMENT_PATTERN.matcher(sourceCode).replaceAll("")).find();
+    }
+
+    private final DLPythonContext m_context;
+
+    private final BufferedDataTable m_inTable;
+
+    private final String m_inputTableName;
+
+    /**
+     * <code>null</code> if the script does not output a table.
+     */
+    private final String m_outputTableName;
+
+    private final int m_rowsPerChunk;
+
+    private final ExecutionContext m_exec;
+
+    private final List<BufferedDataTable> m_outputChunks = new ArrayList<>();
+
+    private CloseableRowIterator m_rowIterator;
+
+    private long m_nextRowIndex;
+
+    private String[] m_output = new String[]{"", ""};
+
+    /**
+     * @param context the context whose kernel executes the script
+     * @param inTable the input table that is streamed to Python
+     * @param inputTableName the name of the input table variable on Python side
+     * @param outputTableName the name of the output table variable on Python side, may be <code>null</code> if the
+     *            script does not output a table
+     * @param rowsPerChunk the number of rows per chunk, must be positive
+     * @param exec the execution context used to create the output table and to report progress
+     */
+    public DLPythonTableStreamer(final DLPythonContext context, final BufferedDataTable inTable,
+        final String inputTableName, final String outputTableName, final int rowsPerChunk,
+        final ExecutionContext exec) {
+        if (rowsPerChunk <= 0) {
+            throw new IllegalArgumentException("The number of rows per chunk must be positive.");
+        }
+        m_context = context;
+        m_inTable = inTable;
+        m_inputTableName = inputTableName;
+        m_outputTableName = outputTableName;
+        m_rowsPerChunk = rowsPerChunk;
+        m_exec = exec;
+    }
+
+    /**
+     * Executes the given script and serves its chunk requests until it terminates.
+     *
+     * @param sourceCode the user script
+     * @param cancelable to check if execution has been canceled
+     * @return stdout and stderr of the script
+     * @throws DLInvalidEnvironmentException if the kernel is not available
+     * @throws IOException if an error occurred while executing the script or while transferring data
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public String[] execute(final String sourceCode, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final String encodedSourceCode =
+            Base64.getEncoder().encodeToString(sourceCode.getBytes(StandardCharsets.UTF_8));
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonKernelGateway") //
+            .n("if DLPythonKernelGateway._instance is None:") //
+            .n().t().a("DLPythonKernelGateway._instance = DLPythonKernelGateway.DLPythonKernelGateway(globals())") //
+            .n("from DLPythonTableChunks import DLPythonTableChunkTask") //
+            .n("reply_to = locals()['python_messaging_initiating_message_id']") //
+            .n("chunk_task = DLPythonTableChunkTask(reply_to, ").as(encodedSourceCode).a(", ") //
+            /**/ .as(m_inputTableName).a(", ").a(m_inTable.size()).a(", ").a(m_rowsPerChunk).a(", ");
+        if (m_outputTableName != null) {
+            b.as(m_outputTableName);
+        } else {
+            b.a("None");
+        }
+        b.a(")") //
+            .n("chunk_task.get()");
+
+        final Python2KernelBackend kernelBackend = DLPythonAbstractContext.getLegacyKernelBackend(m_context.getKernel());
+        @SuppressWarnings("resource") // Closed by the kernel
+        final PythonCommands pythonCommands = kernelBackend.getCommands();
+        @SuppressWarnings("resource") // Closed by the kernel
+        final PythonMessaging pythonMessaging = pythonCommands.getMessaging();
+        final DLTrainingTask task = new DLTrainingTask(pythonCommands.createExecuteCommand(b.toString()),
+            new DLTableChunkTaskHandler(cancelable), pythonMessaging, pythonMessaging,
+            pythonMessaging::createNextMessageId, pythonCommands.getExecutor(), pythonCommands.getMonitor());
+        try {
+            task.run();
+            while (true) {
+                try {
+                    task.get(CANCEL_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (final TimeoutException ex) {
+                    try {
+                        cancelable.checkCanceled();
+                    } catch (final DLCanceledExecutionException e) {
+                        task.cancel(true);
+                        throw e;
+                    }
+                }
+            }
+        } catch (final ExecutionException ex) {
+            final Throwable exception = PythonUtils.Misc.unwrapExecutionException(ex).orElse(ex);
+            if (exception instanceof IOException) {
+                throw (IOException)exception;
+            } else {
+                throw new IOException(exception.getMessage(), exception);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DLCanceledExecutionException();
+        } finally {
+            closeRowIterator();
+        }
+        return m_output;
+    }
+
+    /**
+     * @return <code>true</code> if the script wrote at least one chunk of the output table
+     */
+    public boolean hasOutputChunks() {
+        return !m_outputChunks.isEmpty();
+    }
+
+    /**
+     * @return the concatenation of the chunks written by the script, <code>null</code> if the script did not write
+     *         any chunk
+     * @throws CanceledExecutionException if the execution has been canceled while concatenating the chunks
+     */
+    public BufferedDataTable getOutputTable() throws CanceledExecutionException {
+        if (m_outputChunks.isEmpty()) {
+            return null;
+        } else if (m_outputChunks.size() == 1) {
+            return m_outputChunks.get(0);
+        }
+        return m_exec.createConcatenateTable(m_exec, Optional.of("_dup"), true,
+            m_outputChunks.toArray(new BufferedDataTable[0]));
+    }
+
+    private void seekRowIterator(final long rowIndex) {
+        if (m_rowIterator == null || m_nextRowIndex != rowIndex) {
+            // Random access (e.g. by a shuffling Keras sequence or a new epoch) reopens the table at the requested row
+            // instead of skipping all preceding rows. Subsequent chunks are read sequentially from there.
+            closeRowIterator();
+            m_rowIterator = m_inTable.filter(TableFilter.filterRangeOfRows(rowIndex, m_inTable.size() - 1));
+            m_nextRowIndex = rowIndex;
+        }
+    }
+
+    private void closeRowIterator() {
+        if (m_rowIterator != null) {
+            m_rowIterator.close();
+            m_rowIterator = null;
+        }
+    }
+
+    private final class DLTableChunkTaskHandler extends AbstractTaskHandler<Void> {
+
+        private final DLCancelable m_cancelable;
+
+        private DLTableChunkTaskHandler(final DLCancelable cancelable) {
+            m_cancelable = cancelable;
+        }
+
+        @Override
+        protected Void handleSuccessMessage(final Message message) throws Exception {
+            final PayloadDecoder decoder = new PayloadDecoder(message.getPayload());
+            m_output = new String[]{decoder.getNextString(), decoder.getNextString()};
+            return null;
+        }
+
+        @Override
+        protected boolean handleCustomMessage(final Message message, final IntSupplier responseMessageIdSupplier,
+            final Consumer<Message> responseConsumer, final Consumer<Void> resultConsumer) throws ExecutionException {
+            final String messageType = message.getHeaderField(FIELD_KEY_MESSAGE_TYPE);
+            try {
+                switch (messageType) {
+                    case REQUEST_TABLE_CHUNK:
+                        handleChunkRequest(message);
+                        break;
+                    case WRITE_TABLE_CHUNK:
+                        handleChunkWrite();
+                        break;
+                    default:
+                        return false;
+                }
+            } catch (final Exception ex) {
+                throw new ExecutionException(ex.getMessage(), ex);
+            }
+            final HashMap<String, String> options = new HashMap<>(1);
+            options.put(FIELD_KEY_MESSAGE_TYPE, MESSAGE_TYPE_SUCCESS);
+            responseConsumer.accept(new DefaultMessage(responseMessageIdSupplier.getAsInt(),
+                Integer.toString(message.getId()), null, options));
+            return true;
+        }
+
+        private void handleChunkRequest(final Message message) throws Exception {
+            m_cancelable.checkCanceled();
+            final long chunkIndex = Long.parseLong(new PayloadDecoder(message.getPayload()).getNextString());
+            final long firstRow = chunkIndex * m_rowsPerChunk;
+            final long numRows = Math.min(m_rowsPerChunk, m_inTable.size() - firstRow);
+            if (chunkIndex < 0 || numRows <= 0) {
+                throw new IndexOutOfBoundsException("Table chunk index " + chunkIndex + " is out of bounds.");
+            }
+            seekRowIterator(firstRow);
+            final TableChunker tableChunker = new BufferedDataTableChunker(m_inTable.getDataTableSpec(),
+                new DLChunkRowIterator(numRows), (int)numRows);
+            try {
+                m_context.putDataInKernel(m_inputTableName + CHUNK_SUFFIX, tableChunker, m_rowsPerChunk,
+                    m_cancelable);
+            } catch (final IOException ex) {
+                throw new IOException("Transmitting input table chunk " + chunkIndex + " to Python failed.", ex);
+            }
+            m_exec.setProgress(m_nextRowIndex / (double)m_inTable.size());
+        }
+
+        private void handleChunkWrite() throws Exception {
+            m_cancelable.checkCanceled();
+            if (m_outputTableName == null) {
+                throw new IllegalStateException("The script does not output a table.");
+            }
+            m_outputChunks.add(m_context.getKernel().getDataTable(m_outputTableName + CHUNK_SUFFIX, m_exec,
+                m_exec.createSilentSubProgress(0)));
+        }
+    }
+
+    /**
+     * Exposes the next rows of the shared row iterator. Closing it does not close the shared iterator.
+     */
+    private final class DLChunkRowIterator extends CloseableRowIterator {
+
+        private final long m_endRowIndex;
+
+        private DLChunkRowIterator(final long numRows) {
+            m_endRowIndex = m_nextRowIndex + numRows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_nextRowIndex < m_endRowIndex && m_rowIterator.hasNext();
+        }
+
+        @Override
+        public DataRow next() {
+            m_nextRowIndex++;
+            return m_rowIterator.next();
+        }
+
+        @Override
+        public void close() {
+            // no op, the shared iterator is closed by the streamer
+        }
+    }
+}
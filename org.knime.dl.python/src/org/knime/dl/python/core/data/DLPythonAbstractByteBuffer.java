@@ -83,6 +83,11 @@ public void putAll(boolean[] values) throws BufferOverflowException {
         m_buffer.putAll(values);
     }
 
+    @Override
+    public void putAllBits(final long[] words, final int length) throws BufferOverflowException {
+        m_buffer.putAllBits(words, length);
+    }
+
     @Override
     public void put(short value) throws BufferOverflowException {
         m_buffer.put(value);
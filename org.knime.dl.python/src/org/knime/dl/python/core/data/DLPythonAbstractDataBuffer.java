@@ -113,6 +113,11 @@ public S getStorageForWriting(final long startPos, final long length) throws Buf
 		return m_buffer.getStorageForWriting(startPos, length);
 	}
 
+	@Override
+	public void truncate(final long size) throws IllegalArgumentException {
+		m_buffer.truncate(size);
+	}
+
 	@Override
 	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
 		m_buffer.zeroPad(length);
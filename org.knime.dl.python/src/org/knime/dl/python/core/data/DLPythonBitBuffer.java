@@ -53,8 +53,7 @@
 
 import org.knime.core.data.DataType;
 import org.knime.dl.core.data.DLDefaultBitBuffer;
-import org.knime.dl.core.data.DLReadableBitBuffer;
-import org.knime.dl.core.data.DLWritableBitBuffer;
+import org.knime.dl.core.data.DLPackedBitBuffer;
 
 /**
  * Bit type implementation of {@link DLPythonAbstractDataBuffer}.
@@ -64,8 +63,8 @@
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 @SuppressWarnings("serial") // not intended for serialization
-public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLDefaultBitBuffer, boolean[]>
-    implements DLWritableBitBuffer, DLReadableBitBuffer {
+public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLDefaultBitBuffer, long[]>
+    implements DLPackedBitBuffer {
 
     /**
      * This buffer's {@link DataType}.
@@ -96,6 +95,11 @@ public void readToBitArray(boolean[] dest, int destPos, int length) {
         m_buffer.readToBitArray(dest, destPos, length);
     }
 
+    @Override
+    public void readToBitWords(final long[] dest, final int length) {
+        m_buffer.readToBitWords(dest, length);
+    }
+
     @Override
     public byte readNextByte() throws BufferUnderflowException {
         return m_buffer.readNextByte();
@@ -195,4 +199,9 @@ public void put(final boolean value) throws BufferOverflowException {
     public void putAll(final boolean[] values) throws BufferOverflowException {
         m_buffer.putAll(values);
     }
+
+    @Override
+    public void putAllBits(final long[] words, final int length) throws BufferOverflowException {
+        m_buffer.putAllBits(words, length);
+    }
 }
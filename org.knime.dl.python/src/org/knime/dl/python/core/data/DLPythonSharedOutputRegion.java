@@ -0,0 +1,361 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLBuffer;
+
+/**
+ * A memory-mapped file that is shared with the Python process and into which Python writes the output of a network
+ * after each execution. Java reads the output directly from the mapped region into the preallocated storage of the
+ * output tensor's buffer. Compared to transferring the output through the Python bridge, this avoids an intermediate
+ * byte array per output and batch on Java side. The region, its mapping and its typed view are created once and reused
+ * for all subsequent batches.
+ * <P>
+ * Layout: an 8 byte little endian element count, followed by the flat, little endian payload. See
+ * DLPythonSharedOutputRegions.py for the Python side.
+ * <P>
+ * Only buffers with primitive numeric storage are supported, see {@link #isSupported(DLBuffer)}. Reading and closing
+ * are synchronized, as reading from a region that was unmapped by {@link #close()} would crash the JVM.
+ */
+public final class DLPythonSharedOutputRegion implements AutoCloseable {
+
+    private static final int HEADER_BYTES = Long.BYTES;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonSharedOutputRegion.class);
+
+    /**
+     * Unmaps a mapped byte buffer, <code>null</code> if not available on this JVM. There is no public API for this, see
+     * JDK-4724038.
+     */
+    private static final MethodHandle UNMAPPER = createUnmapper();
+
+    private static MethodHandle createUnmapper() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(unsafeField.get(null));
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Shared output regions cannot be unmapped explicitly, they are unmapped once they are "
+                + "garbage collected.", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param buffer the buffer of an output tensor
+     * @return <code>true</code> if outputs can be read into the given buffer via a shared region
+     */
+    public static boolean isSupported(final DLBuffer buffer) {
+        return ElementType.of(buffer) != null;
+    }
+
+    // supported buffers are Python data buffers, see ElementType#of
+    private static long getCapacity(final DLTensor<?> tensor) {
+        return ((DLPythonAbstractDataBuffer<?, ?>)tensor.getBuffer()).getCapacity();
+    }
+
+    private final File m_file;
+
+    private final ElementType m_type;
+
+    private final long m_capacity;
+
+    private final MappedByteBuffer m_region;
+
+    private final Buffer m_payload;
+
+    private boolean m_closed;
+
+    /**
+     * Creates a region that is large enough to hold the contents of the buffer of the given tensor.
+     *
+     * @param tensor the output tensor, its buffer must be {@link #isSupported(DLBuffer) supported}
+     * @throws IOException if creating or mapping the backing file failed
+     */
+    public DLPythonSharedOutputRegion(final DLTensor<?> tensor) throws IOException {
+        m_type = ElementType.of(tensor.getBuffer());
+        checkArgument(m_type != null, "Buffer type '%s' is not supported by shared output regions.",
+            tensor.getBuffer().getClass().getName());
+        m_capacity = getCapacity(tensor);
+        final long payloadBytes = m_capacity * m_type.m_bytes;
+        checkArgument(payloadBytes <= Integer.MAX_VALUE - HEADER_BYTES,
+            "Output tensor is too large to be mapped into a shared region.");
+        m_file = FileUtil.createTempFile("dl-python-output-", ".bin", true);
+        try (final RandomAccessFile raf = new RandomAccessFile(m_file, "rw")) {
+            raf.setLength(HEADER_BYTES + payloadBytes);
+            // The mapping stays valid after the file has been closed.
+            m_region = raf.getChannel().map(MapMode.READ_WRITE, 0, HEADER_BYTES + payloadBytes);
+        } catch (final IOException e) {
+            m_file.delete();
+            throw e;
+        }
+        m_region.order(ByteOrder.LITTLE_ENDIAN);
+        m_region.putLong(0, -1);
+        m_payload =
+            m_type.view(m_region.slice(HEADER_BYTES, (int)payloadBytes).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * @return the path of the backing file
+     */
+    public String getPath() {
+        return m_file.getAbsolutePath();
+    }
+
+    /**
+     * @return the numpy type string of the payload, e.g. <code>'&lt;f4'</code>
+     */
+    public String getNumpyType() {
+        return m_type.m_numpyType;
+    }
+
+    /**
+     * @param tensor an output tensor
+     * @return <code>true</code> if this region can hold the contents of the given tensor's buffer
+     */
+    public boolean canHold(final DLTensor<?> tensor) {
+        return ElementType.of(tensor.getBuffer()) == m_type && getCapacity(tensor) <= m_capacity;
+    }
+
+    /**
+     * Appends the elements that were last written by Python to the buffer of the given tensor. Does not allocate.
+     *
+     * @param tensor the output tensor, its buffer must match the one this region was created for
+     * @throws IllegalStateException if this region is closed, if Python did not write into the region or wrote more
+     *             elements than fit into the tensor
+     */
+    public synchronized void readInto(final DLTensor<?> tensor) {
+        checkState(!m_closed, "Shared output region is closed.");
+        final long numElements = m_region.getLong(0);
+        checkState(numElements >= 0, "Python did not write the output into its shared region.");
+        checkState(numElements <= m_capacity, "Python wrote more elements (%s) than fit into the output tensor (%s).",
+            numElements, m_capacity);
+        m_type.read(m_payload, tensor.getBuffer(), (int)numElements);
+        // Mark as consumed to detect outputs that were not updated by the next execution.
+        m_region.putLong(0, -1);
+    }
+
+    /**
+     * Unmaps the region and deletes the backing file. If the JVM does not support unmapping explicitly, the mapping is
+     * released once this instance is garbage collected and, on platforms that do not allow deleting mapped files, the
+     * file is deleted when the JVM exits. Python must have released its own mapping of the file beforehand.
+     */
+    @Override
+    public synchronized void close() {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        if (UNMAPPER != null) {
+            try {
+                UNMAPPER.invokeExact((ByteBuffer)m_region);
+            } catch (final Throwable t) { // NOSONAR invokeExact is declared to throw Throwable
+                LOGGER.debug("Failed to unmap shared output region '" + m_file + "'.", t);
+            }
+        }
+        m_file.delete();
+    }
+
+    private enum ElementType {
+
+            DOUBLE("<f8", Double.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return payload.asDoubleBuffer();
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    final DLPythonDoubleBuffer buffer = (DLPythonDoubleBuffer)target;
+                    final int start = (int)buffer.size();
+                    ((DoubleBuffer)payload).get(0, buffer.getStorageForWriting(start, length), start, length);
+                }
+            },
+            FLOAT("<f4", Float.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return payload.asFloatBuffer();
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    final DLPythonFloatBuffer buffer = (DLPythonFloatBuffer)target;
+                    final int start = (int)buffer.size();
+                    ((FloatBuffer)payload).get(0, buffer.getStorageForWriting(start, length), start, length);
+                }
+            },
+            LONG("<i8", Long.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return payload.asLongBuffer();
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    final DLPythonLongBuffer buffer = (DLPythonLongBuffer)target;
+                    final int start = (int)buffer.size();
+                    ((LongBuffer)payload).get(0, buffer.getStorageForWriting(start, length), start, length);
+                }
+            },
+            INT("<i4", Integer.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return payload.asIntBuffer();
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    final DLPythonIntBuffer buffer = (DLPythonIntBuffer)target;
+                    final int start = (int)buffer.size();
+                    ((IntBuffer)payload).get(0, buffer.getStorageForWriting(start, length), start, length);
+                }
+            },
+            SHORT("<i2", Short.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return payload.asShortBuffer();
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    final DLPythonShortBuffer buffer = (DLPythonShortBuffer)target;
+                    final int start = (int)buffer.size();
+                    ((ShortBuffer)payload).get(0, buffer.getStorageForWriting(start, length), start, length);
+                }
+            },
+            BYTE("i1", Byte.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return payload;
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    final DLPythonAbstractByteBuffer<?> buffer = (DLPythonAbstractByteBuffer<?>)target;
+                    final int start = (int)buffer.size();
+                    ((ByteBuffer)payload).get(0, buffer.getStorageForWriting(start, length), start, length);
+                }
+            },
+            UNSIGNED_BYTE("u1", Byte.BYTES) {
+
+                @Override
+                Buffer view(final ByteBuffer payload) {
+                    return BYTE.view(payload);
+                }
+
+                @Override
+                void read(final Buffer payload, final DLBuffer target, final int length) {
+                    BYTE.read(payload, target, length);
+                }
+            };
+
+        private static ElementType of(final DLBuffer buffer) {
+            if (buffer instanceof DLPythonDoubleBuffer) {
+                return DOUBLE;
+            } else if (buffer instanceof DLPythonFloatBuffer) {
+                return FLOAT;
+            } else if (buffer instanceof DLPythonLongBuffer) {
+                return LONG;
+            } else if (buffer instanceof DLPythonIntBuffer) {
+                return INT;
+            } else if (buffer instanceof DLPythonShortBuffer) {
+                return SHORT;
+            } else if (buffer instanceof DLPythonUnsignedByteBuffer) {
+                return UNSIGNED_BYTE;
+            } else if (buffer instanceof DLPythonByteBuffer) {
+                return BYTE;
+            }
+            return null;
+        }
+
+        private final String m_numpyType;
+
+        private final int m_bytes;
+
+        private ElementType(final String numpyType, final int bytes) {
+            m_numpyType = numpyType;
+            m_bytes = bytes;
+        }
+
+        abstract Buffer view(ByteBuffer payload);
+
+        abstract void read(Buffer payload, DLBuffer target, int length);
+    }
+}
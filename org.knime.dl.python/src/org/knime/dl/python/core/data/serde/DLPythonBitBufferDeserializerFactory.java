@@ -92,9 +92,9 @@ public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStore
                 // for (int i = 0; i < numDimensions; i++) {
                 // shape[i] = buffer.getLong();
                 // }
-                final DLPythonBitBuffer value = new DLPythonBitBuffer(bytes.length);
-                final boolean[] storage = value.getStorageForWriting(0, bytes.length);
-                writeToStorage(bytes, storage, 0, bytes.length);
+                final int numBits = DLPythonPackedBits.getNumBits(bytes);
+                final DLPythonBitBuffer value = new DLPythonBitBuffer(numBits);
+                value.putAllBits(DLPythonPackedBits.toWords(bytes, numBits), numBits);
                 return value;
             }
 
@@ -106,17 +106,8 @@ public void deserialize(final byte[] bytes, final DLTensor<DLPythonBitBuffer> da
                 // for (int i = 0; i < numDimensions; i++) {
                 // shape[i] = buffer.getLong();
                 // }
-                final DLPythonBitBuffer tensorBuffer = data.getBuffer();
-                final int writeStart = (int)tensorBuffer.size();
-                final boolean[] storage = tensorBuffer.getStorageForWriting(writeStart, bytes.length);
-                writeToStorage(bytes, storage, writeStart, bytes.length);
-            }
-
-            private void writeToStorage(final byte[] bytes, final boolean[] storage, final int start,
-                final int length) {
-                for (int i = start; i < start + length; i++) {
-                    storage[i] = bytes[i] != 0;
-                }
+                final int numBits = DLPythonPackedBits.getNumBits(bytes);
+                data.getBuffer().putAllBits(DLPythonPackedBits.toWords(bytes, numBits), numBits);
             }
         };
     }
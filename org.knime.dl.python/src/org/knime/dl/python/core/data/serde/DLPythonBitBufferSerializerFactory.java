@@ -51,6 +51,7 @@
 import java.io.IOException;
 
 import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDefaultBitBuffer;
 import org.knime.dl.python.core.data.DLPythonBitBuffer;
 import org.knime.python.typeextension.Serializer;
 import org.knime.python.typeextension.SerializerFactory;
@@ -83,14 +84,14 @@ public Serializer<? extends DLPythonBitBuffer> createSerializer() {
             // final int numDimensions = value.getNumDimensions();
             // final long[] shape = value.getShape();
             final long size = value.size() - value.getNextReadPosition();
-            final long numBytes = size;
-            if (numBytes > Integer.MAX_VALUE) {
+            if (size > Integer.MAX_VALUE) {
                 throw new IOException(
-                    "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+                    "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 elements.");
             }
-            // Create the target array
-            final byte[] target = new byte[(int)numBytes];
-            value.readToByteArray(target, 0, (int)size);
+            // Bits are transmitted packed, eight per byte
+            final long[] words = new long[DLDefaultBitBuffer.getNumWords(size)];
+            value.readToBitWords(words, (int)size);
+            final byte[] target = DLPythonPackedBits.toBytes(words, (int)size);
             // TODO: we serialize to flat buffers for now
             // buffer.putInt(numDimensions);
             // for (final long dim : shape) {
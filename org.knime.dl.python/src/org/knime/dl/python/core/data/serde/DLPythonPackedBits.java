@@ -0,0 +1,139 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.dl.core.data.DLDefaultBitBuffer;
+import org.knime.dl.core.data.DLPackedBitBuffer;
+
+/**
+ * Converts between the packed words of a {@link DLPackedBitBuffer} and the wire format that is exchanged with Python.
+ * The wire format consists of the number of bits as little-endian 64 bit integer followed by the bits packed into
+ * bytes in the order produced by <code>numpy.packbits</code>, i.e. the first bit is the most significant bit of the
+ * first byte. Unused bits of the last byte are zero.
+ */
+final class DLPythonPackedBits {
+
+    private DLPythonPackedBits() {
+    }
+
+    /**
+     * Serializes the given number of packed bits.
+     *
+     * @param words the packed bits
+     * @param numBits the number of bits to serialize
+     * @return the serialized bits
+     * @throws IOException if the serialized bits would exceed the maximum array size
+     */
+    static byte[] toBytes(final long[] words, final int numBits) throws IOException {
+        final long numBytes = Long.BYTES + (numBits + 7L) / 8;
+        if (numBytes > Integer.MAX_VALUE) {
+            throw new IOException(
+                "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int)numBytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(numBits);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < DLDefaultBitBuffer.getNumWords(numBits); i++) {
+            // reversing moves bit 0 of the word to the most significant position of the first byte
+            final long reversed = Long.reverse(words[i]);
+            if (buffer.remaining() >= Long.BYTES) {
+                buffer.putLong(reversed);
+            } else {
+                for (int shift = Long.SIZE - Byte.SIZE; buffer.hasRemaining(); shift -= Byte.SIZE) {
+                    buffer.put((byte)(reversed >>> shift));
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Returns the number of bits of the given serialized bits.
+     *
+     * @param bytes the serialized bits
+     * @return the number of bits
+     * @throws IllegalArgumentException if the serialized bits do not start with a valid number of bits
+     */
+    static int getNumBits(final byte[] bytes) {
+        final long numBits = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        if (numBits < 0 || numBits > Integer.MAX_VALUE || (numBits + 7) / 8 > bytes.length - Long.BYTES) {
+            throw new IllegalArgumentException(
+                "Receiving data from Python failed. Invalid number of bits: " + numBits + ".");
+        }
+        return (int)numBits;
+    }
+
+    /**
+     * Deserializes packed bits.
+     *
+     * @param bytes the serialized bits
+     * @param numBits the number of bits as returned by {@link #getNumBits(byte[])}
+     * @return the packed bits
+     */
+    static long[] toWords(final byte[] bytes, final int numBits) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, Long.BYTES, (numBits + 7) / 8);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        final long[] words = new long[DLDefaultBitBuffer.getNumWords(numBits)];
+        for (int i = 0; i < words.length; i++) {
+            long reversed = 0L;
+            if (buffer.remaining() >= Long.BYTES) {
+                reversed = buffer.getLong();
+            } else {
+                for (int shift = Long.SIZE - Byte.SIZE; buffer.hasRemaining(); shift -= Byte.SIZE) {
+                    reversed |= (buffer.get() & 0xFFL) << shift;
+                }
+            }
+            words[i] = Long.reverse(reversed);
+        }
+        return words;
+    }
+}
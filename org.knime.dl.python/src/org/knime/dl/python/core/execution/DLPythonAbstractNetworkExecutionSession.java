@@ -48,6 +48,7 @@
  */
 package org.knime.dl.python.core.execution;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -56,14 +57,18 @@
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.knime.core.util.asynclose.AsynchronousCloseable;
+import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLCounter;
 import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLMetricsRegistry;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLTimer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.execution.DLAbstractNetworkExecutionSession;
 import org.knime.dl.core.execution.DLExecutionMonitor;
@@ -83,6 +88,30 @@
 public abstract class DLPythonAbstractNetworkExecutionSession<N extends DLPythonNetwork, C extends DLPythonCommands>
 	extends DLAbstractNetworkExecutionSession<N> implements DLPythonNetworkExecutionSession {
 
+    /**
+     * Name of the {@link DLExecutionMonitor#getMetrics() timer} that measures loading the network into Python.
+     */
+    public static final String METRIC_NETWORK_LOADING = "Network loading";
+
+    /**
+     * Name of the {@link DLExecutionMonitor#getMetrics() timer} that measures the transfer of the input tensors to
+     * Python.
+     */
+    public static final String METRIC_INPUT_TRANSFER = "Input transfer to Python";
+
+    /**
+     * Name of the {@link DLExecutionMonitor#getMetrics() timer} that measures the network execution in Python. A
+     * breakdown of the time spent on Python side is available via the timers that are prefixed with
+     * {@link DLPythonCommands#PYTHON_METRICS_PREFIX}.
+     */
+    public static final String METRIC_NETWORK_EXECUTION = "Network execution";
+
+    /**
+     * Name of the {@link DLExecutionMonitor#getMetrics() timer} that measures the transfer of the output tensors from
+     * Python.
+     */
+    public static final String METRIC_OUTPUT_TRANSFER = "Output transfer from Python";
+
     private final DLPythonContext m_context;
 
     /**
@@ -129,37 +158,66 @@ public Future<Void> asynchronousClose() throws Exception {
 
 	@Override
 	protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		final DLMetricsRegistry metrics = monitor.getMetrics();
 		if (m_commands == null) {
-			m_commands = createCommands(m_context);
-            @SuppressWarnings("resource") // Closed in #close
-            final DLPythonContext context = m_commands.getContext(monitor);
-            for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
-                context.setEnvironmentVariable(var.getKey(), var.getValue(), monitor);
-            }
-            m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
-                .orElseThrow(
-                    () -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network, m_commands.getContext(monitor), false, monitor);
+			final DLTimer networkLoading = metrics.timer(METRIC_NETWORK_LOADING);
+			final long loadStart = networkLoading.start();
+			try {
+				m_commands = createCommands(m_context);
+				@SuppressWarnings("resource") // Closed in #close
+				final DLPythonContext context = m_commands.getContext(monitor);
+				for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
+					context.setEnvironmentVariable(var.getKey(), var.getValue(), monitor);
+				}
+				m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
+					.orElseThrow(() -> new DLMissingExtensionException(
+						"Python back end '" + m_network.getClass().getCanonicalName()
+							+ "' could not be found. Are you missing a KNIME Deep Learning extension?"))
+					.load(m_network, m_commands.getContext(monitor), false, monitor);
+				networkLoaded(m_commands, m_handle, monitor);
+				if (metrics.getTraceRecorder().isPresent()) {
+					m_commands.setNetworkTracing(m_handle, true, monitor);
+				}
+			} finally {
+				networkLoading.stop(loadStart);
+			}
 		}
+		final DLTimer inputPreparation = metrics.timer(METRIC_INPUT_PREPARATION);
+		final DLTimer inputTransfer = metrics.timer(METRIC_INPUT_TRANSFER);
+		final DLTimer networkExecution = metrics.timer(METRIC_NETWORK_EXECUTION);
+		final DLTimer outputTransfer = metrics.timer(METRIC_OUTPUT_TRANSFER);
+		final DLTimer outputConsumption = metrics.timer(METRIC_OUTPUT_CONSUMPTION);
+		final DLCounter batches = metrics.counter(METRIC_BATCHES);
 		final DLExecutionStatus status = monitor.getExecutionStatus();
 		long currentInBatchSize = m_expectedBatchSize;
         while (m_inputPreparer.hasNext()) {
 			monitor.checkCanceled();
+			if (updateBatchSize()) {
+				currentInBatchSize = m_expectedBatchSize;
+			}
+			final boolean tuneBatchSize = m_batchSizeTuner != null && !m_batchSizeTuner.isSettled();
+			final long batchStart = tuneBatchSize ? System.nanoTime() : 0;
+			long start = inputPreparation.start();
             m_inputPreparer.prepareNext(m_input);
+			inputPreparation.stop(start);
 			monitor.checkCanceled();
             if (!m_inputPreparer.hasNext()) {
 				// last batch might be incomplete
 				final DLTensor<? extends DLWritableBuffer> tensor = m_input.values().stream().findAny().get();
 				currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
 			}
+			start = inputTransfer.start();
 			m_commands.setNetworkInputs(m_handle, m_input, monitor);
+			inputTransfer.stop(start);
 			monitor.checkCanceled();
+			start = networkExecution.start();
 			m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
+			networkExecution.stop(start);
 			monitor.checkCanceled();
 			for (final DLTensor<?> input : m_input.values()) {
 				input.getBuffer().reset();
 			}
+			start = outputTransfer.start();
 			if (m_output == null) {
 				m_output = new HashMap<>(m_requestedOutputs.size());
 				final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
@@ -179,15 +237,42 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 				}
 			}
 			m_commands.getNetworkOutputs(m_handle, m_output, monitor);
+			outputTransfer.stop(start);
 			monitor.checkCanceled();
+			start = outputConsumption.start();
 			m_outputConsumer.accept(m_output);
+			outputConsumption.stop(start);
 			for (final DLTensor<?> output : m_output.values()) {
 				output.getBuffer().reset();
 			}
+			batches.increment();
+			if (tuneBatchSize) {
+				final long batchNanos = System.nanoTime() - batchStart;
+				m_batchSizeTuner.batchEnded(currentInBatchSize, batchNanos, m_commands.getMemoryUsage(monitor));
+			}
 			status.batchEnded().raise(null);
 		}
+		if (metrics.isEnabled()) {
+			m_commands.collectNetworkMetrics(m_handle, metrics, monitor);
+		}
 	}
 
+    /**
+     * Called once after the network was loaded into the Python kernel and before the first batch is executed. Allows
+     * subclasses to configure the loaded network. Does nothing by default.
+     *
+     * @param commands the commands of this session
+     * @param handle the handle of the loaded network
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if configuring the network failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    protected void networkLoaded(final C commands, final DLPythonNetworkHandle handle, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        // no op
+    }
+
     @Override
     public void setKernelEnvironmentVariable(final String name, final String value) {
         m_additionalEnvVars.put(name, value);
@@ -46,7 +46,9 @@
  */
 package org.knime.dl.python.core.execution;
 
+import org.knime.dl.core.DLThreadingOptions;
 import org.knime.dl.core.execution.DLNetworkExecutionSession;
+import org.knime.dl.python.util.DLPythonUtils;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -61,4 +63,14 @@ public interface DLPythonNetworkExecutionSession extends DLNetworkExecutionSessi
      * @param value value of the environment variable
      */
     void setKernelEnvironmentVariable(final String name, final String value);
+
+    /**
+     * Sets the environment variables that apply the given threading options to the Python kernel of the execution
+     * session. The variables take effect because they are set before the back end is imported.
+     *
+     * @param options the threading options, must not be {@link DLThreadingOptions#isAutomatic() automatic}
+     */
+    default void setThreadingOptions(final DLThreadingOptions options) {
+        DLPythonUtils.toEnvironmentVariables(options).forEach(this::setKernelEnvironmentVariable);
+    }
 }
@@ -47,19 +47,24 @@
 package org.knime.dl.python.core.training;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.Future;
 
+import org.knime.core.node.NodeLogger;
 import org.knime.core.util.asynclose.AsynchronousCloseable;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLFixedTensorShape;
 import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLNetworkInputProvider;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.training.DLAbstractNetworkTrainingSession;
@@ -87,7 +92,10 @@
 		CFG extends DLTrainingConfig, C extends DLPythonCommands>
 	extends DLAbstractNetworkTrainingSession<S, N, CFG> implements DLPythonNetworkTrainingSession<S> {
 
-    private final DLPythonContext m_context;
+	/**
+	 * The context in which the {@link #m_commands commands} are created.
+	 */
+	protected final DLPythonContext m_context;
 
 	/**
 	 * The Python commands that are used to control the training process on Python side. Is instantiated via
@@ -103,6 +111,10 @@
 
     private final Map<String, String> m_additionalEnvVars;
 
+	/**
+	 * Stages the training data on disk if set, see {@link #setInputStaging(Path, long, OptionalLong)}.
+	 */
+	private DLPythonShardedInputProvider m_stagedTrainingInputProvider;
 
 	/**
 	 * @param network the network to train
@@ -178,23 +190,77 @@ protected void trainInternal(final DLTrainingMonitor<? extends S> monitor)
 			throws DLCanceledExecutionException, Exception {
 		if (m_commands == null) {
 			m_commands = createCommands(m_context);
-            @SuppressWarnings("resource") // Closed in #close
-            final DLPythonContext context = m_commands.getContext(monitor);
-            for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
-                context.setEnvironmentVariable(var.getKey(), var.getValue(), monitor);
-            }
-            m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
-                .orElseThrow(
-                    () -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network, m_commands.getContext(monitor), true, monitor);
+			m_handle = loadNetwork(m_commands, monitor);
 			setNetworkTrainingConfig(m_handle, m_trainingConfig, monitor);
+			if (monitor.getMetrics().getTraceRecorder().isPresent()) {
+				m_commands.setNetworkTracing(m_handle, true, monitor);
+			}
+		}
+		m_commands.trainNetwork(m_handle, getTrainingInputProvider(monitor), m_validationInputProvider, monitor);
+		if (monitor.getMetrics().isEnabled()) {
+			m_commands.collectNetworkMetrics(m_handle, monitor.getMetrics(), monitor);
+		}
+	}
+
+	/**
+	 * Stages the training data on disk if requested and not done yet.
+	 *
+	 * @param monitor the monitor that times the staging and checks for cancellation
+	 * @return the staged training data if staging was requested and possible, the regular training data provider
+	 *         otherwise
+	 * @throws DLCanceledExecutionException if the operation has been canceled
+	 * @throws Exception if staging the training data failed
+	 */
+	protected DLNetworkInputProvider getTrainingInputProvider(final DLTrainingMonitor<? extends S> monitor)
+			throws DLCanceledExecutionException, Exception {
+		if (m_stagedTrainingInputProvider != null) {
+			if (m_stagedTrainingInputProvider.stage(monitor.getMetrics(), monitor)) {
+				return m_stagedTrainingInputProvider;
+			}
+			NodeLogger.getLogger(DLPythonAbstractNetworkTrainingSession.class)
+				.warn("The training data contains tensors that cannot be staged on disk. "
+					+ "Training data is transferred to Python in each epoch instead.");
+			m_stagedTrainingInputProvider = null;
 		}
-		m_commands.trainNetwork(m_handle, m_trainingInputProvider, m_validationInputProvider, monitor);
+		return m_trainingInputProvider;
+	}
+
+	/**
+	 * Sets the additional environment variables of this session in the context of the given commands and loads the
+	 * network to train into it.
+	 *
+	 * @param commands the commands in whose context to load the network
+	 * @param cancelable to check if the operation has been canceled
+	 * @return the handle of the loaded network
+	 * @throws DLMissingExtensionException if the Python back end of the network could not be found
+	 * @throws DLInvalidSourceException if the source of the network is unavailable or invalid
+	 * @throws DLInvalidEnvironmentException if the Python side was not properly set up
+	 * @throws IOException if an error occurred while communication with Python
+	 * @throws DLCanceledExecutionException if the operation has been canceled
+	 */
+	protected DLPythonNetworkHandle loadNetwork(final C commands, final DLCancelable cancelable)
+			throws DLMissingExtensionException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException,
+			DLCanceledExecutionException {
+		@SuppressWarnings("resource") // Closed along with the commands.
+		final DLPythonContext context = commands.getContext(cancelable);
+		for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
+			context.setEnvironmentVariable(var.getKey(), var.getValue(), cancelable);
+		}
+		return DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
+				.orElseThrow(
+					() -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
+						+ "' could not be found. Are you missing a KNIME Deep Learning extension?"))
+				.load(m_network, context, true, cancelable);
 	}
 
     @Override
     public void setKernelEnvironmentVariable(final String name, final String value) {
         m_additionalEnvVars.put(name, value);
     }
+
+	@Override
+	public void setInputStaging(final Path directory, final long maxShardBytes, final OptionalLong shuffleSeed) {
+		m_stagedTrainingInputProvider =
+			new DLPythonShardedInputProvider(m_trainingInputProvider, directory, maxShardBytes, shuffleSeed);
+	}
 }
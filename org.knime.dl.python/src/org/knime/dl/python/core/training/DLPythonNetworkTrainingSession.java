@@ -46,8 +46,13 @@
  */
 package org.knime.dl.python.core.training;
 
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+import org.knime.dl.core.DLThreadingOptions;
 import org.knime.dl.core.training.DLNetworkTrainingSession;
 import org.knime.dl.core.training.DLTrainingStatus;
+import org.knime.dl.python.util.DLPythonUtils;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -62,4 +67,26 @@
      * @param value value of the environment variable
      */
     void setKernelEnvironmentVariable(final String name, final String value);
+
+    /**
+     * Sets the environment variables that apply the given threading options to the Python kernel of the training
+     * session. The variables take effect because they are set before the back end is imported.
+     *
+     * @param options the threading options, must not be {@link DLThreadingOptions#isAutomatic() automatic}
+     */
+    default void setThreadingOptions(final DLThreadingOptions options) {
+        DLPythonUtils.toEnvironmentVariables(options).forEach(this::setKernelEnvironmentVariable);
+    }
+
+    /**
+     * Stages the training data on disk before the first epoch, see {@link DLPythonShardedInputProvider}. Python then
+     * reads the training batches from the staged shard files instead of requesting them from Java in each epoch.
+     * Validation data is not affected. Training data whose tensors cannot be staged is transferred as usual.
+     *
+     * @param directory the directory the shard files are written to, the caller is responsible for deleting it
+     * @param maxShardBytes the maximum size of a shard over all tensors (in bytes)
+     * @param shuffleSeed if present, the staged batches are visited in a different random order in each epoch after
+     *            the first one
+     */
+    void setInputStaging(Path directory, long maxShardBytes, OptionalLong shuffleSeed);
 }
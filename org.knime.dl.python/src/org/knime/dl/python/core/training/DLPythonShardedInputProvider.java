@@ -0,0 +1,485 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLMetricsRegistry;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTimer;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.DLPythonAbstractCommands.DLPythonNetworkTrainingTaskHandler;
+import org.knime.dl.python.core.data.DLPythonAbstractByteBuffer;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonIntBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Stages the training data of a network on disk. All batches of the wrapped provider are converted once and written
+ * into <code>.npy</code> shard files that the Python side memory-maps and reads the batches from, instead of requesting
+ * each batch from Java through the Python bridge. Subsequent epochs thus neither re-read the input table nor transfer
+ * data through a socket, and the operating system's page cache decides which part of the data is held in memory.
+ * <P>
+ * Each tensor gets its own files. A shard comprises the same range of batches in the files of all tensors, its size is
+ * bounded by the configured number of bytes (but contains at least one batch). File
+ * <code>&lt;prefix&gt;-&lt;k&gt;.npy</code> holds the <code>k</code>-th shard of the tensor with the given
+ * {@link #getFilePrefixes() prefix} and has the shape <code>(batches in shard * batch size, *tensor shape)</code>. See
+ * DLPythonTrainingDataShards.py for the Python side.
+ * <P>
+ * Only buffers with primitive storage are supported, see {@link #stage(DLMetricsRegistry, DLCancelable)}.
+ */
+public final class DLPythonShardedInputProvider implements DLNetworkInputProvider {
+
+    /**
+     * Name of the {@link DLMetricsRegistry#timer(String) timer} that measures writing the shard files.
+     */
+    public static final String METRIC_TRAINING_DATA_STAGING = "Training data staging";
+
+    private static final byte[] NPY_MAGIC = {(byte)0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0};
+
+    private static final int NPY_HEADER_ALIGNMENT = 64;
+
+    private final DLNetworkInputProvider m_source;
+
+    private final Path m_directory;
+
+    private final long m_maxShardBytes;
+
+    private final OptionalLong m_shuffleSeed;
+
+    private Map<DLTensorId, String> m_filePrefixes;
+
+    private long m_batchesPerShard = -1;
+
+    /**
+     * @param source the provider of the batches to stage, is not closed by this instance
+     * @param directory the directory the shard files are written to, created if it does not exist
+     * @param maxShardBytes the maximum size of a shard over all tensors (in bytes)
+     * @param shuffleSeed if present, the Python side visits the staged batches in a different random order in each
+     *            epoch after the first one, using this seed
+     */
+    public DLPythonShardedInputProvider(final DLNetworkInputProvider source, final Path directory,
+        final long maxShardBytes, final OptionalLong shuffleSeed) {
+        checkArgument(maxShardBytes > 0, "Shard size must be positive.");
+        m_source = checkNotNull(source);
+        m_directory = checkNotNull(directory);
+        m_maxShardBytes = maxShardBytes;
+        m_shuffleSeed = checkNotNull(shuffleSeed);
+    }
+
+    /**
+     * Converts all batches of the source provider and writes them into shard files. Does nothing if the batches have
+     * already been staged.
+     *
+     * @param metrics the registry that times the preparation and staging of the batches
+     * @param cancelable to check if the operation has been canceled
+     * @return <code>false</code> if the buffers of the source provider's tensors cannot be staged, in which case no
+     *         files are written and the batches must be transferred as usual
+     * @throws DLCanceledExecutionException if the operation has been canceled
+     * @throws DLInvalidNetworkInputException if preparing a batch failed
+     * @throws IOException if writing a shard file failed
+     */
+    public boolean stage(final DLMetricsRegistry metrics, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidNetworkInputException, IOException {
+        if (isStaged()) {
+            return true;
+        }
+        final long numBatches = m_source.getNumBatches();
+        if (numBatches == 0) {
+            return false;
+        }
+        final DLTimer preparation = metrics.timer(DLPythonNetworkTrainingTaskHandler.METRIC_TRAINING_DATA_PREPARATION);
+        final DLTimer staging = metrics.timer(METRIC_TRAINING_DATA_STAGING);
+        LinkedHashMap<DLTensorId, ShardWriter> writers = null;
+        long batchesPerShard = 1;
+        try {
+            for (long i = 0; i < numBatches; i++) {
+                cancelable.checkCanceled();
+                long start = preparation.start();
+                final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = m_source.get(i);
+                preparation.stop(start);
+                start = staging.start();
+                if (writers == null) {
+                    writers = createWriters(input);
+                    if (writers == null) {
+                        input.values().forEach(t -> t.getBuffer().reset());
+                        return false;
+                    }
+                    Files.createDirectories(m_directory);
+                    final long bytesPerBatch = writers.values().stream().mapToLong(w -> w.m_batchBytes).sum();
+                    batchesPerShard = Math.max(1, m_maxShardBytes / bytesPerBatch);
+                }
+                if (i % batchesPerShard == 0) {
+                    final long batchesInShard = Math.min(batchesPerShard, numBatches - i);
+                    for (final ShardWriter writer : writers.values()) {
+                        writer.startShard(i / batchesPerShard, batchesInShard);
+                    }
+                }
+                for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+                    final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+                    try {
+                        writers.get(entry.getKey()).write(tensor.getBuffer());
+                    } finally {
+                        tensor.getBuffer().reset();
+                    }
+                }
+                staging.stop(start);
+            }
+        } finally {
+            if (writers != null) {
+                for (final ShardWriter writer : writers.values()) {
+                    writer.close();
+                }
+            }
+        }
+        m_filePrefixes = Collections.unmodifiableMap(writers.entrySet().stream()
+            .collect(Collectors.toMap(Entry::getKey, e -> e.getValue().m_prefix, (a, b) -> a, LinkedHashMap::new)));
+        m_batchesPerShard = batchesPerShard;
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if the batches have been {@link #stage(DLMetricsRegistry, DLCancelable) staged}
+     */
+    public boolean isStaged() {
+        return m_filePrefixes != null;
+    }
+
+    /**
+     * @return the directory that contains the shard files
+     */
+    public Path getDirectory() {
+        return m_directory;
+    }
+
+    /**
+     * @return the number of batches per shard, the last shard may contain less
+     * @throws IllegalStateException if the batches have not been staged yet
+     */
+    public long getBatchesPerShard() {
+        checkState(isStaged(), "Training data has not been staged yet.");
+        return m_batchesPerShard;
+    }
+
+    /**
+     * @return the file name prefix of the shards of each tensor
+     * @throws IllegalStateException if the batches have not been staged yet
+     */
+    public Map<DLTensorId, String> getFilePrefixes() {
+        checkState(isStaged(), "Training data has not been staged yet.");
+        return m_filePrefixes;
+    }
+
+    /**
+     * @return the seed the Python side uses to shuffle the order of the staged batches, empty if they are visited in
+     *         the staged order in each epoch
+     */
+    public OptionalLong getShuffleSeed() {
+        return m_shuffleSeed;
+    }
+
+    @Override
+    public long getNumBatches() {
+        return m_source.getNumBatches();
+    }
+
+    /**
+     * Delegates to the source provider. Only used if the batches could not be staged.
+     */
+    @Override
+    public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
+        throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+        return m_source.get(batchIndex);
+    }
+
+    /**
+     * Does nothing. The source provider is owned by the caller, the shard files are deleted along with their
+     * directory by the caller.
+     */
+    @Override
+    public void close() {
+        // no op
+    }
+
+    private LinkedHashMap<DLTensorId, ShardWriter> createWriters(
+        final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+        final LinkedHashMap<DLTensorId, ShardWriter> writers = new LinkedHashMap<>(input.size());
+        int i = 0;
+        for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+            final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+            final ElementType type = ElementType.of(tensor.getBuffer());
+            if (type == null) {
+                return null;
+            }
+            // specs of training tensors are fully defined
+            final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+            final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape()).get();
+            // tensor identifiers are not necessarily valid file names
+            writers.put(entry.getKey(), new ShardWriter("tensor" + i++, type, batchSize, shape,
+                tensor.getBuffer().size()));
+        }
+        return writers;
+    }
+
+    private final class ShardWriter implements AutoCloseable {
+
+        private final String m_prefix;
+
+        private final ElementType m_type;
+
+        private final long m_batchSize;
+
+        private final long[] m_shape;
+
+        private final long m_batchElements;
+
+        private final long m_batchBytes;
+
+        private final ByteBuffer m_batch;
+
+        private FileChannel m_channel;
+
+        private ShardWriter(final String prefix, final ElementType type, final long batchSize, final long[] shape,
+            final long batchElements) {
+            m_prefix = prefix;
+            m_type = type;
+            m_batchSize = batchSize;
+            m_shape = shape;
+            m_batchElements = batchElements;
+            m_batchBytes = batchElements * type.m_bytes;
+            checkArgument(m_batchBytes <= Integer.MAX_VALUE, "Batch of tensor is too large to be staged.");
+            m_batch = ByteBuffer.allocateDirect((int)m_batchBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void startShard(final long shardIndex, final long numBatches) throws IOException {
+            close();
+            final long[] shape = new long[m_shape.length + 1];
+            shape[0] = numBatches * m_batchSize;
+            System.arraycopy(m_shape, 0, shape, 1, m_shape.length);
+            m_channel = FileChannel.open(m_directory.resolve(m_prefix + "-" + shardIndex + ".npy"),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            writeFully(createNpyHeader(m_type.m_numpyType, shape));
+        }
+
+        private void write(final DLBuffer buffer) throws IOException {
+            checkState(buffer.size() == m_batchElements, "Batch size of staged tensor changed.");
+            m_batch.clear();
+            m_type.write(buffer, m_batch, (int)m_batchElements);
+            m_batch.position(0).limit((int)m_batchBytes);
+            writeFully(m_batch);
+        }
+
+        private void writeFully(final ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                m_channel.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (m_channel != null) {
+                m_channel.close();
+                m_channel = null;
+            }
+        }
+    }
+
+    /**
+     * Creates the header of a version 1.0 <code>.npy</code> file with C-contiguous data of the given type and shape.
+     */
+    static ByteBuffer createNpyHeader(final String numpyType, final long[] shape) {
+        final String shapeString = shape.length == 1 ? "(" + shape[0] + ",)"
+            : Arrays.stream(shape).mapToObj(Long::toString).collect(Collectors.joining(", ", "(", ")"));
+        final StringBuilder dict = new StringBuilder("{'descr': '").append(numpyType)
+            .append("', 'fortran_order': False, 'shape': ").append(shapeString).append(", }");
+        // magic and version, header length, dictionary and terminating newline are padded to the alignment
+        final int unpadded = NPY_MAGIC.length + Short.BYTES + dict.length() + 1;
+        for (int i = 0; i < (NPY_HEADER_ALIGNMENT - unpadded % NPY_HEADER_ALIGNMENT) % NPY_HEADER_ALIGNMENT; i++) {
+            dict.append(' ');
+        }
+        dict.append('\n');
+        final byte[] dictBytes = dict.toString().getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer header =
+            ByteBuffer.allocate(NPY_MAGIC.length + Short.BYTES + dictBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(NPY_MAGIC).putShort((short)dictBytes.length).put(dictBytes);
+        header.flip();
+        return header;
+    }
+
+    private enum ElementType {
+
+            DOUBLE("<f8", Double.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    target.asDoubleBuffer().put(((DLPythonDoubleBuffer)source).getStorageForReading(0, length), 0,
+                        length);
+                }
+            },
+            FLOAT("<f4", Float.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    target.asFloatBuffer().put(((DLPythonFloatBuffer)source).getStorageForReading(0, length), 0,
+                        length);
+                }
+            },
+            LONG("<i8", Long.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    target.asLongBuffer().put(((DLPythonLongBuffer)source).getStorageForReading(0, length), 0,
+                        length);
+                }
+            },
+            INT("<i4", Integer.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    target.asIntBuffer().put(((DLPythonIntBuffer)source).getStorageForReading(0, length), 0, length);
+                }
+            },
+            SHORT("<i2", Short.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    target.asShortBuffer().put(((DLPythonShortBuffer)source).getStorageForReading(0, length), 0,
+                        length);
+                }
+            },
+            BYTE("|i1", Byte.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    target.put(((DLPythonAbstractByteBuffer<?>)source).getStorageForReading(0, length), 0, length);
+                }
+            },
+            UNSIGNED_BYTE("|u1", Byte.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    BYTE.write(source, target, length);
+                }
+            },
+            BIT("|b1", Byte.BYTES) {
+
+                @Override
+                void write(final DLBuffer source, final ByteBuffer target, final int length) {
+                    final byte[] bits = new byte[length];
+                    ((DLPythonBitBuffer)source).readToByteArray(bits, 0, length);
+                    target.put(bits, 0, length);
+                }
+            };
+
+        private static ElementType of(final DLBuffer buffer) {
+            if (buffer instanceof DLPythonDoubleBuffer) {
+                return DOUBLE;
+            } else if (buffer instanceof DLPythonFloatBuffer) {
+                return FLOAT;
+            } else if (buffer instanceof DLPythonLongBuffer) {
+                return LONG;
+            } else if (buffer instanceof DLPythonIntBuffer) {
+                return INT;
+            } else if (buffer instanceof DLPythonShortBuffer) {
+                return SHORT;
+            } else if (buffer instanceof DLPythonUnsignedByteBuffer) {
+                return UNSIGNED_BYTE;
+            } else if (buffer instanceof DLPythonByteBuffer) {
+                return BYTE;
+            } else if (buffer instanceof DLPythonBitBuffer) {
+                return BIT;
+            } else {
+                return null;
+            }
+        }
+
+        private final String m_numpyType;
+
+        private final int m_bytes;
+
+        private ElementType(final String numpyType, final int bytes) {
+            m_numpyType = numpyType;
+            m_bytes = bytes;
+        }
+
+        /**
+         * Writes the first <code>length</code> elements of the source buffer into the target, starting at its current
+         * position. May advance the read position of the source, which is reset after writing anyway.
+         */
+        abstract void write(DLBuffer source, ByteBuffer target, int length);
+    }
+}
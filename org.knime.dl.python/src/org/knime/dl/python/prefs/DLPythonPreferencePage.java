@@ -170,6 +170,10 @@ protected Control createContents(final Composite parent) {
 
         m_serializerPanel = new SerializerPreferencePanel(m_config.m_serializer, m_container);
 
+        // Threading and memory defaults (independent of the selected configuration):
+        @SuppressWarnings("unused") // Reference to object is not needed here; everything is done in its constructor.
+        final Object unused2 = new DLPythonThreadingPreferencePanel(m_config.m_threading, m_container);
+
         // Load config
         m_config.load();
         updateConfigSelection();
@@ -339,6 +343,8 @@ private static final class Config {
 
         private final SerializerConfig m_serializer = new SerializerConfig();
 
+        private final DLPythonThreadingConfig m_threading = new DLPythonThreadingConfig();
+
         private void save() {
             final PythonConfigStorage currentPrefs = DLPythonPreferences.CURRENT;
             m_configSelection.saveConfigTo(currentPrefs);
@@ -347,6 +353,7 @@ private void save() {
             m_condaEnvs.saveConfigTo(currentPrefs);
             m_manualEnvs.saveConfigTo(currentPrefs);
             m_serializer.saveConfigTo(currentPrefs);
+            m_threading.saveConfigTo(currentPrefs);
         }
 
         private void load() {
@@ -357,6 +364,7 @@ private void load() {
             m_condaEnvs.loadConfigFrom(currentPrefs);
             m_manualEnvs.loadConfigFrom(currentPrefs);
             m_serializer.loadConfigFrom(currentPrefs);
+            m_threading.loadConfigFrom(currentPrefs);
         }
 
         private void loadDefaults() {
@@ -367,6 +375,7 @@ private void loadDefaults() {
             m_condaEnvs.loadConfigFrom(defaultPrefs);
             m_manualEnvs.loadConfigFrom(defaultPrefs);
             m_serializer.loadConfigFrom(defaultPrefs);
+            m_threading.loadConfigFrom(defaultPrefs);
         }
     }
 }
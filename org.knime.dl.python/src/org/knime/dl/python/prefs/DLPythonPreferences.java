@@ -53,6 +53,7 @@
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.knime.conda.prefs.CondaPreferences;
 import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLThreadingOptions;
 import org.knime.python2.PythonCommand;
 import org.knime.python2.PythonModuleSpec;
 import org.knime.python2.config.PythonConfigStorage;
@@ -175,6 +176,15 @@ public static Collection<PythonModuleSpec> getCurrentlyRequiredSerializerModules
             .getRequiredExternalModules();
     }
 
+    /**
+     * @return the default threading and memory options of the deep learning Python back ends
+     */
+    public static DLThreadingOptions getThreadingPreference() {
+        final DLPythonThreadingConfig threadingConfig = new DLPythonThreadingConfig();
+        threadingConfig.loadConfigFrom(CURRENT);
+        return threadingConfig.toThreadingOptions();
+    }
+
     /** @return the python command for the given environment selection */
     private static PythonCommand getPythonCommandFor(final DLPythonLibrarySelection envSelection) {
         if (usePythonPreferences()) {
@@ -75,5 +75,7 @@ public void initializeDefaultPreferences() {
         new DLManualEnvironmentsConfig().saveDefaultsTo(defaultPreferences);
 
         new SerializerConfig().saveDefaultsTo(defaultPreferences);
+
+        new DLPythonThreadingConfig().saveDefaultsTo(defaultPreferences);
     }
 }
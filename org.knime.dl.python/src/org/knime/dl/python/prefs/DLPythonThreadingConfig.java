@@ -0,0 +1,136 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.prefs;
+
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.dl.core.DLThreadingOptions;
+import org.knime.python2.config.PythonConfig;
+import org.knime.python2.config.PythonConfigStorage;
+
+/**
+ * The default threading and memory options of the deep learning Python back ends. Nodes may override them.
+ */
+final class DLPythonThreadingConfig implements PythonConfig {
+
+    private static final String CFG_KEY_INTRA_OP_THREADS = "intraOpThreads";
+
+    private static final String CFG_KEY_INTER_OP_THREADS = "interOpThreads";
+
+    private static final String CFG_KEY_AUTO_THREADS = "autoThreads";
+
+    private static final String CFG_KEY_GPU_MEMORY_GROWTH = "gpuMemoryGrowth";
+
+    static final int MAX_THREADS = 1024;
+
+    private final SettingsModelIntegerBounded m_intraOpThreads;
+
+    private final SettingsModelIntegerBounded m_interOpThreads;
+
+    private final SettingsModelBoolean m_autoThreads;
+
+    private final SettingsModelBoolean m_gpuMemoryGrowth;
+
+    DLPythonThreadingConfig() {
+        m_intraOpThreads = new SettingsModelIntegerBounded(CFG_KEY_INTRA_OP_THREADS,
+            DLThreadingOptions.DEFAULT.getIntraOpThreads(), 0, MAX_THREADS);
+        m_interOpThreads = new SettingsModelIntegerBounded(CFG_KEY_INTER_OP_THREADS,
+            DLThreadingOptions.DEFAULT.getInterOpThreads(), 0, MAX_THREADS);
+        m_autoThreads = new SettingsModelBoolean(CFG_KEY_AUTO_THREADS, DLThreadingOptions.DEFAULT.isAutomatic());
+        m_gpuMemoryGrowth =
+            new SettingsModelBoolean(CFG_KEY_GPU_MEMORY_GROWTH, DLThreadingOptions.DEFAULT.isGpuMemoryGrowth());
+    }
+
+    /**
+     * @return the number of threads used to parallelize a single operation, zero means back end default
+     */
+    SettingsModelIntegerBounded getIntraOpThreads() {
+        return m_intraOpThreads;
+    }
+
+    /**
+     * @return the number of threads used to run independent operations in parallel, zero means back end default
+     */
+    SettingsModelIntegerBounded getInterOpThreads() {
+        return m_interOpThreads;
+    }
+
+    /**
+     * @return whether the cores are divided automatically among the concurrently running deep learning nodes
+     */
+    SettingsModelBoolean getAutoThreads() {
+        return m_autoThreads;
+    }
+
+    /**
+     * @return whether GPU memory is allocated on demand
+     */
+    SettingsModelBoolean getGpuMemoryGrowth() {
+        return m_gpuMemoryGrowth;
+    }
+
+    DLThreadingOptions toThreadingOptions() {
+        return new DLThreadingOptions(m_intraOpThreads.getIntValue(), m_interOpThreads.getIntValue(),
+            m_autoThreads.getBooleanValue(), m_gpuMemoryGrowth.getBooleanValue());
+    }
+
+    @Override
+    public void saveConfigTo(final PythonConfigStorage storage) {
+        storage.saveIntegerModel(m_intraOpThreads);
+        storage.saveIntegerModel(m_interOpThreads);
+        storage.saveBooleanModel(m_autoThreads);
+        storage.saveBooleanModel(m_gpuMemoryGrowth);
+    }
+
+    @Override
+    public void loadConfigFrom(final PythonConfigStorage storage) {
+        storage.loadIntegerModel(m_intraOpThreads);
+        storage.loadIntegerModel(m_interOpThreads);
+        storage.loadBooleanModel(m_autoThreads);
+        storage.loadBooleanModel(m_gpuMemoryGrowth);
+    }
+}
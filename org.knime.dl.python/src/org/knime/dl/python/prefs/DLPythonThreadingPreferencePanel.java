@@ -0,0 +1,130 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.prefs;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.python2.config.AbstractPythonConfigPanel;
+
+/**
+ * Preference panel for the default threading and memory options of the deep learning Python back ends.
+ */
+final class DLPythonThreadingPreferencePanel extends AbstractPythonConfigPanel<DLPythonThreadingConfig, Group> {
+
+    private final Spinner m_intraOpThreads;
+
+    private final Spinner m_interOpThreads;
+
+    DLPythonThreadingPreferencePanel(final DLPythonThreadingConfig config, final Composite parent) {
+        super(config, parent);
+        final Group panel = getPanel();
+        m_intraOpThreads = createSpinner(config.getIntraOpThreads(), "Threads per operation (0 = back end default)",
+            panel);
+        m_interOpThreads = createSpinner(config.getInterOpThreads(),
+            "Threads for independent operations (0 = back end default)", panel);
+        createCheckbox(config.getAutoThreads(), "Divide the available cores among concurrently running nodes",
+            panel);
+        createCheckbox(config.getGpuMemoryGrowth(), "Allocate GPU memory on demand", panel);
+        final SettingsModelBoolean autoThreads = config.getAutoThreads();
+        updateThreadCountsEnabled(autoThreads.getBooleanValue());
+        autoThreads.addChangeListener(e -> updateThreadCountsEnabled(autoThreads.getBooleanValue()));
+    }
+
+    @Override
+    protected Group createPanel(final Composite parent) {
+        final Group panel = new Group(parent, SWT.NONE);
+        panel.setText("Back end threading and memory (defaults for the Keras nodes)");
+        panel.setLayout(new GridLayout(2, false));
+        panel.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        return panel;
+    }
+
+    private void updateThreadCountsEnabled(final boolean automatic) {
+        m_intraOpThreads.setEnabled(!automatic);
+        m_interOpThreads.setEnabled(!automatic);
+    }
+
+    private static Spinner createSpinner(final SettingsModelIntegerBounded model, final String label,
+        final Composite parent) {
+        new Label(parent, SWT.NONE).setText(label + ":");
+        final Spinner spinner = new Spinner(parent, SWT.BORDER);
+        spinner.setValues(model.getIntValue(), model.getLowerBound(), model.getUpperBound(), 0, 1, 4);
+        spinner.addModifyListener(e -> model.setIntValue(spinner.getSelection()));
+        model.addChangeListener(e -> {
+            if (spinner.getSelection() != model.getIntValue()) {
+                spinner.setSelection(model.getIntValue());
+            }
+        });
+        return spinner;
+    }
+
+    private static void createCheckbox(final SettingsModelBoolean model, final String label,
+        final Composite parent) {
+        final Button checkbox = new Button(parent, SWT.CHECK);
+        checkbox.setText(label);
+        checkbox.setSelection(model.getBooleanValue());
+        checkbox.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+        checkbox.addSelectionListener(new SelectionAdapter() {
+
+            @Override
+            public void widgetSelected(final SelectionEvent e) {
+                model.setBooleanValue(checkbox.getSelection());
+            }
+        });
+        model.addChangeListener(e -> checkbox.setSelection(model.getBooleanValue()));
+    }
+}
@@ -47,12 +47,16 @@
 package org.knime.dl.python.util;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.function.Function;
 
+import org.knime.dl.core.DLThreadingOptions;
+
 /**
  * Various Python specific utility methods and classes.
  *
@@ -269,5 +273,33 @@ public static Long[] parseShape(String shapeString) {
 	            .map(s -> s.equals("?") ? null : Long.parseLong(s)) //
 	            .toArray(Long[]::new);
 	}
+
+	/**
+	 * Translates the given threading options into the environment variables that are respected by the numerical
+	 * libraries of the Python back ends (OpenMP, MKL, TensorFlow). These variables are only evaluated when the
+	 * libraries are loaded and therefore have to be set before the back end is imported.
+	 *
+	 * @param options the threading options, must not be {@link DLThreadingOptions#isAutomatic() automatic}
+	 * @return the environment variables, empty if all settings are left to the back end
+	 */
+	public static Map<String, String> toEnvironmentVariables(final DLThreadingOptions options) {
+		if (options.isAutomatic()) {
+			throw new IllegalArgumentException("Automatic threading options must be resolved first.");
+		}
+		final Map<String, String> vars = new LinkedHashMap<>(6);
+		if (options.getIntraOpThreads() > 0) {
+			final String intraOpThreads = Integer.toString(options.getIntraOpThreads());
+			vars.put("OMP_NUM_THREADS", intraOpThreads);
+			vars.put("MKL_NUM_THREADS", intraOpThreads);
+			vars.put("TF_NUM_INTRAOP_THREADS", intraOpThreads);
+		}
+		if (options.getInterOpThreads() > 0) {
+			vars.put("TF_NUM_INTEROP_THREADS", Integer.toString(options.getInterOpThreads()));
+		}
+		if (options.isGpuMemoryGrowth()) {
+			vars.put("TF_FORCE_GPU_ALLOW_GROWTH", "true");
+		}
+		return vars;
+	}
 	
 }
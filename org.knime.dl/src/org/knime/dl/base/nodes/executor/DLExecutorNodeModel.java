@@ -501,7 +501,7 @@ private DataTableSpec createOutputSpec(final DataTableSpec inDataSpec) {
                 return null;
             }
             for (int i = 0; i < count.getAsLong(); i++) {
-                outputSpecs.add(nameGenerator.newColumn(prefix + Integer.toString(i), converter.getDestType()));
+                outputSpecs.add(nameGenerator.newColumn(prefix + Integer.toString(i), converter.getDestType(i)));
             }
         }
         final DataTableSpec outDataSpec = new DataTableSpec(outputSpecs.toArray(new DataColumnSpec[0]));
@@ -50,12 +50,14 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -99,11 +101,13 @@
 import org.knime.dl.base.portobjects.DLNetworkPortObjectSpec;
 import org.knime.dl.base.settings.DLDataTypeColumnFilter;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLCounter;
 import org.knime.dl.core.DLDefaultTensorId;
 import org.knime.dl.core.DLException;
 import org.knime.dl.core.DLExecutionSpecCreator;
 import org.knime.dl.core.DLInstallationTestTimeout;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
+import org.knime.dl.core.DLMetricsRegistry;
 import org.knime.dl.core.DLMissingDependencyException;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetwork;
@@ -113,11 +117,16 @@
 import org.knime.dl.core.DLRowInputRowIterator;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLThreadingOptions;
+import org.knime.dl.core.DLTimer;
+import org.knime.dl.core.DLTraceRecorder;
 import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
 import org.knime.dl.core.execution.DLDefaultExecutionStatus;
 import org.knime.dl.core.execution.DLExecutionContext;
+import org.knime.dl.core.execution.DLExecutionBatchSizeTuner;
+import org.knime.dl.core.execution.DLExecutionResultCache;
 import org.knime.dl.core.execution.DLExecutionStatus;
 import org.knime.dl.core.execution.DLKnimeExecutionMonitor;
 import org.knime.dl.core.execution.DLKnimeNetworkExecutionInputPreparer;
@@ -507,7 +516,7 @@ private DataTableSpec createOutputSpec(final DataTableSpec inDataSpec) {
                 return null;
             }
             for (int i = 0; i < count.getAsLong(); i++) {
-                outputSpecs.add(nameGenerator.newColumn(prefix + Integer.toString(i), converter.getDestType()));
+                outputSpecs.add(nameGenerator.newColumn(prefix + Integer.toString(i), converter.getDestType(i)));
             }
         }
         final DataTableSpec outDataSpec = new DataTableSpec(outputSpecs.toArray(new DataColumnSpec[0]));
@@ -544,23 +553,63 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
         final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId =
             createOutputConverterMap();
 
+        final DLExecutionResultCache cache = m_generalCfg.getCacheResultsEntry().getValue()
+            ? new DLExecutionResultCache(m_generalCfg.getCacheSizeEntry().getValue() * 1024L * 1024L,
+                m_generalCfg.getContextEntry().getValue().getTensorFactory())
+            : null;
+
+        final DLExecutionBatchSizeTuner batchSizeTuner =
+            m_generalCfg.getAutoBatchSizeEntry().getValue() && !isPredefinedBatchSize
+                ? new DLExecutionBatchSizeTuner(batchSize,
+                    Math.max(batchSize, m_generalCfg.getMaxBatchSizeEntry().getValue()),
+                    m_generalCfg.getMemoryBudgetEntry().getValue() * 1024L * 1024L)
+                : null;
+
         final C context = getContext(m_generalCfg.getContextEntry().getValue());
+        DLThreadingOptions.nodeExecutionStarted();
         try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId);
                 final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
-                    rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
+                    rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId, cache);
                 final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
-                    inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
+                    inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec, cache);
                 final DLNetworkExecutionSession session =
                     createExecutionSession(context, network, batchSize, columnsForTensorId, outputConverterForTensorId,
                         rowIterator.peek(), inputPreparer, outputConsumer)) {
+            if (batchSizeTuner != null) {
+                inputPreparer.setBatchSizeTuner(batchSizeTuner);
+                session.setBatchSizeTuner(batchSizeTuner);
+            }
             final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer.getNumBatches());
+            final DLTraceRecorder trace =
+                m_generalCfg.getTraceTimelineEntry().getValue() ? new DLTraceRecorder() : null;
+            if (trace != null) {
+                monitor.getMetrics().setTraceRecorder(trace);
+            }
             session.run(monitor);
+            if (cache != null) {
+                reportCacheStatistics(cache, monitor.getMetrics());
+            }
+            if (batchSizeTuner != null) {
+                LOGGER.debug(batchSizeTuner.getSummary());
+                monitor.getMetrics().counter(DLExecutionBatchSizeTuner.METRIC_TUNED_BATCH_SIZE)
+                    .add(batchSizeTuner.getBatchSize());
+            }
+            publishMetrics(monitor.getMetrics());
+            if (trace != null) {
+                final Path traceFile =
+                    trace.writeChromeTrace(m_generalCfg.getTraceDirectoryEntry().getValue(), exec);
+                pushFlowVariableString(DLTraceRecorder.TRACE_FLOW_VARIABLE, traceFile.toString());
+            }
             m_sessionShutdownTracker.closeAsynchronously(session);
         } catch (final CanceledExecutionException | DLCanceledExecutionException e) {
             throw e;
         } catch (final Exception e) {
             handleGeneralException(e);
         } finally {
+            DLThreadingOptions.nodeExecutionFinished();
+            if (cache != null) {
+                cache.close();
+            }
             if (context instanceof AutoCloseable) {
                 ((AutoCloseable)context).close();
             }
@@ -609,6 +658,14 @@ protected <N extends DLNetwork> DLNetworkExecutionSession createExecutionSession
             outputConverterForTensorId.keySet(), inputPreparer, outputConsumer);
     }
 
+    /**
+     * @return the threading and memory options configured in the node, empty if the defaults of the back end's
+     *         preferences should be used
+     */
+    protected Optional<DLThreadingOptions> getThreadingOptions() {
+        return m_generalCfg.getThreadingOptions();
+    }
+
     /**
      * @return the configured execution context
      * @throws InvalidSettingsException if the execution context is not available
@@ -680,6 +737,35 @@ private static void handleGeneralException(final Exception e) throws CanceledExe
         throw new RuntimeException(message, e);
     }
 
+    /**
+     * Logs the timing summary of the last execution and exposes the total time of each stage (in milliseconds) as well
+     * as all counters as flow variables.
+     */
+    private void publishMetrics(final DLMetricsRegistry metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Execution metrics:\n" + metrics.getSummary());
+        for (final DLTimer timer : metrics.getTimers()) {
+            pushFlowVariableDouble(DLMetricsRegistry.getFlowVariableName(timer), timer.getTotalMillis());
+        }
+        for (final DLCounter counter : metrics.getCounters()) {
+            pushFlowVariableInt(DLMetricsRegistry.getFlowVariableName(counter),
+                (int)Math.min(counter.getValue(), Integer.MAX_VALUE));
+        }
+    }
+
+    private static void reportCacheStatistics(final DLExecutionResultCache cache, final DLMetricsRegistry metrics) {
+        if (!cache.isEnabled()) {
+            LOGGER.info("Results could not be cached for the selected network outputs. All rows were executed.");
+        } else {
+            LOGGER.debug(String.format(Locale.ROOT, "Result cache: %d hits, %d misses (%.1f%% hit rate), %d entries.",
+                cache.getHits(), cache.getMisses(), cache.getHitRate() * 100, cache.size()));
+        }
+        metrics.counter(DLExecutionResultCache.METRIC_HITS).add(cache.getHits());
+        metrics.counter(DLExecutionResultCache.METRIC_MISSES).add(cache.getMisses());
+    }
+
     private static DLKnimeExecutionMonitor createExecutionMonitor(final ExecutionContext exec,
         final OptionalLong numBatches) {
         final DLExecutionStatus status;
@@ -49,6 +49,7 @@
 package org.knime.dl.base.nodes.executor2;
 
 import java.util.Collection;
+import java.util.Optional;
 
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
@@ -56,9 +57,11 @@
 import org.knime.dl.base.settings.AbstractConfig;
 import org.knime.dl.base.settings.AbstractConfigEntry;
 import org.knime.dl.base.settings.ConfigEntry;
+import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
 import org.knime.dl.base.settings.SettingsModelConfigEntries;
 import org.knime.dl.core.DLNetwork;
+import org.knime.dl.core.DLThreadingOptions;
 import org.knime.dl.core.execution.DLExecutionContext;
 import org.knime.dl.core.execution.DLExecutionContextRegistry;
 
@@ -81,6 +84,30 @@ class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<
 
     private static final String CFG_KEY_KEEP_INPUT_COLS = "keep_input_columns";
 
+    private static final String CFG_KEY_CACHE_RESULTS = "cache_results";
+
+    private static final String CFG_KEY_CACHE_SIZE = "cache_size";
+
+    private static final String CFG_KEY_AUTO_BATCH_SIZE = "auto_batch_size";
+
+    private static final String CFG_KEY_MAX_BATCH_SIZE = "max_batch_size";
+
+    private static final String CFG_KEY_MEMORY_BUDGET = "memory_budget";
+
+    private static final String CFG_KEY_THREADING_FROM_PREFS = "threading_from_preferences";
+
+    private static final String CFG_KEY_INTRA_OP_THREADS = "intra_op_threads";
+
+    private static final String CFG_KEY_INTER_OP_THREADS = "inter_op_threads";
+
+    private static final String CFG_KEY_AUTO_THREADS = "auto_threads";
+
+    private static final String CFG_KEY_GPU_MEMORY_GROWTH = "gpu_memory_growth";
+
+    private static final String CFG_KEY_TRACE_TIMELINE = "trace_timeline";
+
+    private static final String CFG_KEY_TRACE_DIRECTORY = "trace_directory";
+
     @SuppressWarnings("rawtypes") // java limitation
     DLExecutorGeneralConfig(final String defaultBackendName, final String defaultBackendId,
         final int defaultBatchSize) {
@@ -114,6 +141,115 @@ public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettin
         put(SettingsModelConfigEntries.createIntegerBoundedConfigEntry(CFG_KEY_BATCH_SIZE, defaultBatchSize, 1,
             Integer.MAX_VALUE));
         put(SettingsModelConfigEntries.createBooleanConfigEntry(CFG_KEY_KEEP_INPUT_COLS, false));
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_CACHE_RESULTS, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): results were not cached before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_CACHE_SIZE, Integer.class, 64) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): default size if entry is not present in the settings
+                m_value = 64;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_AUTO_BATCH_SIZE, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): batch size was not tuned before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_MAX_BATCH_SIZE, Integer.class, 4096) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): default maximum if entry is not present in the settings
+                m_value = 4096;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_MEMORY_BUDGET, Integer.class, 4096) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): default budget if entry is not present in the settings
+                m_value = 4096;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_THREADING_FROM_PREFS, Boolean.class, true) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): threading was not configurable before, preferences default to the
+                // back end's own settings
+                m_value = true;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_INTRA_OP_THREADS, Integer.class, 0) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): back end default if entry is not present in the settings
+                m_value = 0;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Integer>(CFG_KEY_INTER_OP_THREADS, Integer.class, 0) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): back end default if entry is not present in the settings
+                m_value = 0;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_AUTO_THREADS, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): cores were not divided among nodes before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_GPU_MEMORY_GROWTH, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): GPU memory was reserved up front before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<Boolean>(CFG_KEY_TRACE_TIMELINE, Boolean.class, false) {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9): execution was not traced before
+                m_value = false;
+                return true;
+            }
+        });
+        put(new DefaultConfigEntry<String>(CFG_KEY_TRACE_DIRECTORY, String.class, "") {
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (5.9)
+                m_value = "";
+                return true;
+            }
+        });
     }
 
     ConfigEntry<Integer> getBatchSizeEntry() {
@@ -130,6 +266,103 @@ public ConfigEntry<Boolean> getKeepInputColumnsEntry() {
         return get(CFG_KEY_KEEP_INPUT_COLS, Boolean.class);
     }
 
+    /**
+     * @return whether the outputs of rows are cached so that identical rows are only executed once
+     */
+    ConfigEntry<Boolean> getCacheResultsEntry() {
+        return get(CFG_KEY_CACHE_RESULTS, Boolean.class);
+    }
+
+    /**
+     * @return the maximum size of the result cache in megabytes
+     */
+    ConfigEntry<Integer> getCacheSizeEntry() {
+        return get(CFG_KEY_CACHE_SIZE, Integer.class);
+    }
+
+    /**
+     * @return whether the batch size is tuned at runtime, starting at the configured batch size
+     */
+    ConfigEntry<Boolean> getAutoBatchSizeEntry() {
+        return get(CFG_KEY_AUTO_BATCH_SIZE, Boolean.class);
+    }
+
+    /**
+     * @return the maximum batch size that is considered when tuning the batch size
+     */
+    ConfigEntry<Integer> getMaxBatchSizeEntry() {
+        return get(CFG_KEY_MAX_BATCH_SIZE, Integer.class);
+    }
+
+    /**
+     * @return the maximum peak memory consumption of the back end in megabytes that is allowed when tuning the batch
+     *         size
+     */
+    ConfigEntry<Integer> getMemoryBudgetEntry() {
+        return get(CFG_KEY_MEMORY_BUDGET, Integer.class);
+    }
+
+    /**
+     * @return whether the threading and memory options are taken from the preferences instead of from this config
+     */
+    ConfigEntry<Boolean> getThreadingFromPreferencesEntry() {
+        return get(CFG_KEY_THREADING_FROM_PREFS, Boolean.class);
+    }
+
+    /**
+     * @return the number of threads used to parallelize a single operation, zero means back end default
+     */
+    ConfigEntry<Integer> getIntraOpThreadsEntry() {
+        return get(CFG_KEY_INTRA_OP_THREADS, Integer.class);
+    }
+
+    /**
+     * @return the number of threads used to run independent operations in parallel, zero means back end default
+     */
+    ConfigEntry<Integer> getInterOpThreadsEntry() {
+        return get(CFG_KEY_INTER_OP_THREADS, Integer.class);
+    }
+
+    /**
+     * @return whether the available cores are divided among the concurrently running deep learning nodes
+     */
+    ConfigEntry<Boolean> getAutoThreadsEntry() {
+        return get(CFG_KEY_AUTO_THREADS, Boolean.class);
+    }
+
+    /**
+     * @return whether GPU memory is allocated on demand instead of reserving all of it up front
+     */
+    ConfigEntry<Boolean> getGpuMemoryGrowthEntry() {
+        return get(CFG_KEY_GPU_MEMORY_GROWTH, Boolean.class);
+    }
+
+    /**
+     * @return whether the stages of the execution are recorded on a timeline that is written as Chrome trace
+     */
+    ConfigEntry<Boolean> getTraceTimelineEntry() {
+        return get(CFG_KEY_TRACE_TIMELINE, Boolean.class);
+    }
+
+    /**
+     * @return the directory the trace is written to, empty to write it to the node's file store
+     */
+    ConfigEntry<String> getTraceDirectoryEntry() {
+        return get(CFG_KEY_TRACE_DIRECTORY, String.class);
+    }
+
+    /**
+     * @return the configured threading options, empty if they are taken from the preferences
+     */
+    Optional<DLThreadingOptions> getThreadingOptions() {
+        if (getThreadingFromPreferencesEntry().getValue()) {
+            return Optional.empty();
+        }
+        return Optional.of(new DLThreadingOptions(getIntraOpThreadsEntry().getValue(),
+            getInterOpThreadsEntry().getValue(), getAutoThreadsEntry().getValue(),
+            getGpuMemoryGrowthEntry().getValue()));
+    }
+
     static Collection<DLExecutionContext<?, ?>> // NOSONAR Internal API. Types will be checked at a later point in time.
     getAvailableExecutionContexts(final Class<? extends DLNetwork> networkType) {
         return DLExecutionContextRegistry.getInstance().getExecutionContextsForNetworkType(networkType);
@@ -59,6 +59,7 @@
 import org.knime.dl.base.nodes.AbstractGridBagDialogComponentGroup;
 import org.knime.dl.base.nodes.DialogComponentObjectSelection;
 import org.knime.dl.base.portobjects.DLNetworkPortObjectSpec;
+import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.ConfigUtil;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkSpec;
@@ -73,6 +74,8 @@
  */
 class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
 
+    private static final int MAX_THREADS = 1024;
+
     private final DLExecutorGeneralConfig m_cfg;
 
     private final DialogComponentObjectSelection<DLExecutionContext<?, ?>> m_dcBackend;
@@ -94,6 +97,56 @@ class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
             "Input batch size", 100);
         addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getKeepInputColumnsEntry()),
             "Keep input columns in output table", true);
+
+        final ConfigEntry<Boolean> cacheResultsEntry = m_cfg.getCacheResultsEntry();
+        addCheckboxRow(ConfigUtil.toSettingsModelBoolean(cacheResultsEntry), "Execute identical rows only once", true);
+        final ConfigEntry<Integer> cacheSizeEntry = m_cfg.getCacheSizeEntry();
+        addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(cacheSizeEntry, 1, 2047),
+            "Result cache size (MB)", 16);
+        cacheSizeEntry.setEnabled(cacheResultsEntry.getValue());
+        cacheResultsEntry.addValueChangeListener((e, oldValue) -> cacheSizeEntry.setEnabled(e.getValue()));
+        cacheResultsEntry.addLoadListener(e -> cacheSizeEntry.setEnabled(e.getValue()));
+        final ConfigEntry<Boolean> autoBatchSizeEntry = m_cfg.getAutoBatchSizeEntry();
+        addCheckboxRow(ConfigUtil.toSettingsModelBoolean(autoBatchSizeEntry), "Tune batch size automatically", true);
+        final ConfigEntry<Integer> maxBatchSizeEntry = m_cfg.getMaxBatchSizeEntry();
+        addNumberSpinnerRowComponent(
+            ConfigUtil.toSettingsModelIntegerBounded(maxBatchSizeEntry, 1, Integer.MAX_VALUE),
+            "Maximum batch size", 100);
+        final ConfigEntry<Integer> memoryBudgetEntry = m_cfg.getMemoryBudgetEntry();
+        addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(memoryBudgetEntry, 1, Integer.MAX_VALUE),
+            "Memory budget of the back end (MB)", 256);
+        updateBatchSizeTuningEnabled();
+        autoBatchSizeEntry.addValueChangeListener((e, oldValue) -> updateBatchSizeTuningEnabled());
+        autoBatchSizeEntry.addLoadListener(e -> updateBatchSizeTuningEnabled());
+
+        final ConfigEntry<Boolean> threadingFromPrefsEntry = m_cfg.getThreadingFromPreferencesEntry();
+        addCheckboxRow(ConfigUtil.toSettingsModelBoolean(threadingFromPrefsEntry),
+            "Use threading and memory settings from preferences", true);
+        addNumberSpinnerRowComponent(
+            ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getIntraOpThreadsEntry(), 0, MAX_THREADS),
+            "Threads per operation (0 = back end default)", 1);
+        addNumberSpinnerRowComponent(
+            ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getInterOpThreadsEntry(), 0, MAX_THREADS),
+            "Threads for independent operations (0 = back end default)", 1);
+        final ConfigEntry<Boolean> autoThreadsEntry = m_cfg.getAutoThreadsEntry();
+        addCheckboxRow(ConfigUtil.toSettingsModelBoolean(autoThreadsEntry),
+            "Divide cores among concurrently running nodes", true);
+        addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getGpuMemoryGrowthEntry()),
+            "Allocate GPU memory on demand", true);
+        updateThreadingEnabled();
+        threadingFromPrefsEntry.addValueChangeListener((e, oldValue) -> updateThreadingEnabled());
+        threadingFromPrefsEntry.addLoadListener(e -> updateThreadingEnabled());
+        autoThreadsEntry.addValueChangeListener((e, oldValue) -> updateThreadingEnabled());
+        autoThreadsEntry.addLoadListener(e -> updateThreadingEnabled());
+
+        final ConfigEntry<Boolean> traceTimelineEntry = m_cfg.getTraceTimelineEntry();
+        final ConfigEntry<String> traceDirectoryEntry = m_cfg.getTraceDirectoryEntry();
+        addCheckboxRow(ConfigUtil.toSettingsModelBoolean(traceTimelineEntry), "Record timeline trace", true);
+        addStringEditRowComponent(ConfigUtil.toSettingsModelString(traceDirectoryEntry),
+            "Trace directory (empty = node file store)");
+        traceDirectoryEntry.setEnabled(traceTimelineEntry.getValue());
+        traceTimelineEntry.addValueChangeListener((e, oldValue) -> traceDirectoryEntry.setEnabled(e.getValue()));
+        traceTimelineEntry.addLoadListener(e -> traceDirectoryEntry.setEnabled(e.getValue()));
     }
 
     @Override
@@ -129,6 +182,24 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
         } else {
             m_cfg.getBatchSizeEntry().setEnabled(true);
         }
+        // a batch size that is pre-defined by the network cannot be tuned
+        m_cfg.getAutoBatchSizeEntry().setEnabled(batchSize == -1);
+        updateBatchSizeTuningEnabled();
+    }
+
+    private void updateBatchSizeTuningEnabled() {
+        final boolean enabled = m_cfg.getAutoBatchSizeEntry().getEnabled() && m_cfg.getAutoBatchSizeEntry().getValue();
+        m_cfg.getMaxBatchSizeEntry().setEnabled(enabled);
+        m_cfg.getMemoryBudgetEntry().setEnabled(enabled);
+    }
+
+    private void updateThreadingEnabled() {
+        final boolean custom = !m_cfg.getThreadingFromPreferencesEntry().getValue();
+        final boolean manualThreads = custom && !m_cfg.getAutoThreadsEntry().getValue();
+        m_cfg.getIntraOpThreadsEntry().setEnabled(manualThreads);
+        m_cfg.getInterOpThreadsEntry().setEnabled(manualThreads);
+        m_cfg.getAutoThreadsEntry().setEnabled(custom);
+        m_cfg.getGpuMemoryGrowthEntry().setEnabled(custom);
     }
 
     void refreshAvailableBackends(final Class<? extends DLNetwork> networkType) throws NotConfigurableException {
@@ -52,6 +52,8 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.knime.core.data.filestore.FileStore;
@@ -89,6 +91,12 @@
      */
     protected S m_spec;
 
+    /**
+     * Completes once the network has been completely written to the file store of this port object. Is
+     * <code>null</code> if no write is pending, see {@link #setPendingFlush(Future)}.
+     */
+    private volatile Future<?> m_pendingFlush;
+
     /**
      * Creates a new instance of this port object. The given network is stored in (i.e. copied to if not already there)
      * the given file store if the file store is non-<code>null</code>.
@@ -142,6 +150,47 @@ protected DLAbstractNetworkPortObject() {
      */
     protected abstract void flushToFileStoreInternal(N network, FileStore fileStore) throws IOException;
 
+    /**
+     * Marks the network of this port object as still being written to file store, e.g. by a Python process in the
+     * background. This allows handing the port object downstream immediately. Accessing the network via
+     * {@link #getNetwork()} as well as persisting the port object's file store block until the given future completes.
+     *
+     * @param pendingFlush completes once the network has been completely written to file store, fails if writing
+     *            failed
+     */
+    protected final void setPendingFlush(final Future<?> pendingFlush) {
+        m_pendingFlush = pendingFlush;
+    }
+
+    /**
+     * Blocks until a {@link #setPendingFlush(Future) pending write} of the network to file store has completed.
+     * Returns immediately if no write is pending.
+     *
+     * @throws IOException if writing the network to file store failed or waiting for it was interrupted
+     */
+    protected final void awaitPendingFlush() throws IOException {
+        final Future<?> pendingFlush = m_pendingFlush;
+        if (pendingFlush != null) {
+            try {
+                pendingFlush.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the deep learning network to be written to file "
+                    + "store.", e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new IOException("Failed to write deep learning network to file store."
+                    + (cause.getMessage() != null ? "\nCause: " + cause.getMessage() : ""), cause);
+            }
+            m_pendingFlush = null;
+        }
+    }
+
+    @Override
+    protected void flushToFileStore() throws IOException {
+        awaitPendingFlush();
+    }
+
     protected abstract void hashCodeInternal(HashCodeBuilder b);
 
     protected abstract boolean equalsInternal(DLNetworkPortObject other);
@@ -171,6 +220,7 @@ protected DLAbstractNetworkPortObject() {
     @SuppressWarnings("deprecation") // HACK
     @Override
     public final N getNetwork() throws DLInvalidSourceException, IOException {
+        awaitPendingFlush();
         if (m_network == null) {
             try {
                 m_network = getNetworkInternal(m_spec);
@@ -50,14 +50,17 @@
 
 import java.nio.BufferOverflowException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.knime.core.data.DataValue;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLPrimitiveDataValueToTensorConverter;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -71,6 +74,11 @@ public abstract class DLAbstractKnimeNetworkInputPreparer implements DLNetworkIn
 
 	protected final Map<DLTensorId, DLDataValueToTensorConverter<?, ?>> m_converters;
 
+	/**
+	 * The tensors whose values are read as primitives by the iterator and written in bulk by their converters.
+	 */
+	private final Set<DLTensorId> m_primitiveTensors;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}.
@@ -86,6 +94,14 @@ public DLAbstractKnimeNetworkInputPreparer(final DLRowIterator iterator, final i
 		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
 			m_converters.put(converter.getKey(), converter.getValue().createConverter());
 		}
+		final Set<DLTensorId> primitiveCandidates = new HashSet<>();
+		for (final Entry<DLTensorId, DLDataValueToTensorConverter<?, ?>> converter : m_converters.entrySet()) {
+			if (converter.getValue() instanceof DLPrimitiveDataValueToTensorConverter) {
+				primitiveCandidates.add(converter.getKey());
+			}
+		}
+		m_primitiveTensors = primitiveCandidates.isEmpty() ? primitiveCandidates
+				: m_iterator.enablePrimitiveReading(primitiveCandidates);
 	}
 
 	@Override
@@ -94,7 +110,9 @@ public void close() throws Exception {
 	}
 
 	/**
-	 * @param dataValues the data values which to write in the tensors
+	 * @param dataValues the data values which to write in the tensors, as returned by
+	 *            {@link DLRowIterator#groupByTensor(org.knime.core.data.DataRow)}. The values of tensors whose columns
+	 *            are read as primitives by the iterator are taken from the iterator instead.
 	 * @param tensors the tensors in which to write the data values
 	 * @throws DLBufferOverflowExceptionForTensor if writing in a tensor exceeds its buffer's capacity. The affected
 	 *             tensor can be retrieved via {@link DLBufferOverflowExceptionForTensor#getTensor()}.
@@ -107,7 +125,12 @@ protected final void writeDataValuesInTensors(final Map<DLTensorId, List<DataVal
 			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
 			final DLDataValueToTensorConverter converter = m_converters.get(identifier);
 			try {
-				converter.convert(dataValues.get(identifier), tensor);
+				if (m_primitiveTensors.contains(identifier)) {
+					((DLPrimitiveDataValueToTensorConverter) converter)
+							.convertPrimitives(m_iterator.getPrimitiveValues(identifier), tensor);
+				} else {
+					converter.convert(dataValues.get(identifier), tensor);
+				}
 			} catch (final BufferOverflowException ex) {
 				throw new DLBufferOverflowExceptionForTensor(ex, tensor);
 			}
@@ -62,8 +62,18 @@ public abstract class DLAbstractKnimeSessionMonitor implements DLSessionMonitor
 
 	protected final ExecutionMonitor m_knimeMonitor;
 
+	protected final DLMetricsRegistry m_metrics;
+
 	protected DLAbstractKnimeSessionMonitor(final ExecutionMonitor knimeMonitor) {
+		this(knimeMonitor, new DLMetricsRegistry());
+	}
+
+	/**
+	 * @param metrics the metrics registry of this monitor, typically shared with a parent monitor
+	 */
+	protected DLAbstractKnimeSessionMonitor(final ExecutionMonitor knimeMonitor, final DLMetricsRegistry metrics) {
 		m_knimeMonitor = checkNotNull(knimeMonitor);
+		m_metrics = checkNotNull(metrics);
 	}
 
 	public ExecutionMonitor getKnimeMonitor() {
@@ -130,4 +140,9 @@ public void cancel() {
 	public void reset() {
 		m_knimeMonitor.getProgressMonitor().reset();
 	}
+
+	@Override
+	public DLMetricsRegistry getMetrics() {
+		return m_metrics;
+	}
 }
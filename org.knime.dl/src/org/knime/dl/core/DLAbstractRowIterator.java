@@ -54,12 +54,18 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -73,6 +79,11 @@ public abstract class DLAbstractRowIterator implements DLRowIterator {
 
 	protected final Map<DLTensorId, List<DataValue>> m_temp;
 
+	/**
+	 * The tensors whose values are read as primitives, see {@link #enablePrimitiveReading(Set)}.
+	 */
+	private final Map<DLTensorId, DLPrimitiveValues> m_primitives = new HashMap<>(4);
+
 	protected DLAbstractRowIterator(final DataTableSpec tableSpec, final Map<DLTensorId, int[]> columns) {
 		m_tableSpec = checkNotNull(tableSpec);
 		m_columns = new HashMap<>(checkNotNull(columns));
@@ -85,21 +96,80 @@ protected DLAbstractRowIterator(final DataTableSpec tableSpec, final Map<DLTenso
 		}
 	}
 
+	@Override
+	public final Set<DLTensorId> enablePrimitiveReading(final Set<DLTensorId> tensors) {
+		for (final DLTensorId tensor : tensors) {
+			final int[] columns = m_columns.get(tensor);
+			if (columns == null) {
+				continue;
+			}
+			boolean primitive = true;
+			boolean integral = true;
+			for (final int column : columns) {
+				final DataType type = m_tableSpec.getColumnSpec(column).getType();
+				if (type.equals(DoubleCell.TYPE)) {
+					integral = false;
+				} else if (!type.equals(IntCell.TYPE) && !type.equals(LongCell.TYPE)) {
+					primitive = false;
+					break;
+				}
+			}
+			if (primitive) {
+				m_primitives.put(tensor, new DLPrimitiveValues(columns.length, integral));
+			}
+		}
+		return Collections.unmodifiableSet(m_primitives.keySet());
+	}
+
+	@Override
+	public final DLPrimitiveValues getPrimitiveValues(final DLTensorId tensor) {
+		final DLPrimitiveValues values = m_primitives.get(tensor);
+		if (values == null) {
+			throw new IllegalArgumentException("Primitive reading is not enabled for tensor '" + tensor + "'.");
+		}
+		return values;
+	}
+
 	@Override
 	public final Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
 		for (final Entry<DLTensorId, int[]> entry : m_columns.entrySet()) {
 			final int[] columns = entry.getValue();
+			final DLPrimitiveValues primitives = m_primitives.get(entry.getKey());
+			if (primitives != null) {
+				readPrimitives(row, columns, primitives);
+				continue;
+			}
 			final List<DataValue> list = m_temp.get(entry.getKey());
 			for (int i = 0; i < columns.length; i++) {
 				final int column = columns[i];
-				final DataCell cell = row.getCell(column);
-				if (cell.isMissing()) {
-					throw new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey()
-							+ "', column '" + m_tableSpec.getColumnSpec(column).getName() + "'.");
-				}
-				list.set(i, cell);
+				list.set(i, getNonMissingCell(row, column));
 			}
 		}
 		return m_temp;
 	}
+
+	private void readPrimitives(final DataRow row, final int[] columns, final DLPrimitiveValues primitives) {
+		// columns that are declared to be of a primitive type may still contain other compatible cells, so we have to
+		// go through the value interfaces instead of the concrete cell classes
+		if (primitives.isIntegral()) {
+			final long[] values = primitives.getLongs();
+			for (int i = 0; i < columns.length; i++) {
+				values[i] = ((LongValue) getNonMissingCell(row, columns[i])).getLongValue();
+			}
+		} else {
+			final double[] values = primitives.getDoubles();
+			for (int i = 0; i < columns.length; i++) {
+				values[i] = ((DoubleValue) getNonMissingCell(row, columns[i])).getDoubleValue();
+			}
+		}
+	}
+
+	private DataCell getNonMissingCell(final DataRow row, final int column) {
+		final DataCell cell = row.getCell(column);
+		if (cell.isMissing()) {
+			throw new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey() + "', column '"
+					+ m_tableSpec.getColumnSpec(column).getName() + "'.");
+		}
+		return cell;
+	}
 }
@@ -0,0 +1,222 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Collects {@link DLTimer timers} and {@link DLCounter counters} of the individual stages of a deep learning session
+ * (e.g. data conversion, transfer to and from the back end, network execution). Registries are attached to
+ * {@link DLSessionMonitor session monitors}, see {@link DLSessionMonitor#getMetrics()}.
+ * <P>
+ * Timers and counters are identified by their names and are reported in the order of their registration. Looking up a
+ * timer or counter is synchronized, recording is not. Clients that record in tight loops should therefore look up the
+ * timers and counters once and keep a reference.
+ */
+public final class DLMetricsRegistry {
+
+    /**
+     * The prefix of the names of the flow variables via which nodes expose timers and counters.
+     */
+    public static final String FLOW_VARIABLE_PREFIX = "dl.metrics.";
+
+    private static final DLMetricsRegistry DISABLED = new DLMetricsRegistry(false);
+
+    private static final Pattern NON_IDENTIFIER_CHARS = Pattern.compile("[^a-z0-9]+");
+
+    /**
+     * @return a registry that does not record anything
+     */
+    public static DLMetricsRegistry disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param timer the timer
+     * @return the name of the flow variable that exposes the total time of the given timer in milliseconds, e.g.
+     *         <code>dl.metrics.network_loading_ms</code> for a timer named "Network loading"
+     */
+    public static String getFlowVariableName(final DLTimer timer) {
+        return FLOW_VARIABLE_PREFIX + toIdentifier(timer.getName()) + "_ms";
+    }
+
+    /**
+     * @param counter the counter
+     * @return the name of the flow variable that exposes the value of the given counter, e.g.
+     *         <code>dl.metrics.cache_hits</code> for a counter named "Cache hits"
+     */
+    public static String getFlowVariableName(final DLCounter counter) {
+        return FLOW_VARIABLE_PREFIX + toIdentifier(counter.getName());
+    }
+
+    private static String toIdentifier(final String name) {
+        final String identifier = NON_IDENTIFIER_CHARS.matcher(name.toLowerCase(Locale.ROOT)).replaceAll("_");
+        return identifier.replaceAll("^_+|_+$", "");
+    }
+
+    private final boolean m_enabled;
+
+    private final Map<String, DLTimer> m_timers = new LinkedHashMap<>();
+
+    private final Map<String, DLCounter> m_counters = new LinkedHashMap<>();
+
+    private DLTraceRecorder m_trace;
+
+    public DLMetricsRegistry() {
+        this(true);
+    }
+
+    private DLMetricsRegistry(final boolean enabled) {
+        m_enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return m_enabled;
+    }
+
+    /**
+     * @param name the name of the timer
+     * @return the timer of the given name, created if not yet present
+     */
+    public synchronized DLTimer timer(final String name) {
+        if (!m_enabled) {
+            return DLTimer.DISABLED;
+        }
+        return m_timers.computeIfAbsent(name, n -> {
+            final DLTimer timer = new DLTimer(n, true);
+            timer.setTraceRecorder(m_trace);
+            return timer;
+        });
+    }
+
+    /**
+     * @param name the name of the counter
+     * @return the counter of the given name, created if not yet present
+     */
+    public synchronized DLCounter counter(final String name) {
+        if (!m_enabled) {
+            return DLCounter.DISABLED;
+        }
+        return m_counters.computeIfAbsent(name, n -> new DLCounter(n, true));
+    }
+
+    /**
+     * Attaches a trace recorder to this registry. All of its timers (including the ones that are already registered)
+     * then additionally record a span for each interval they measure. Has no effect if this registry is disabled.
+     *
+     * @param trace the trace recorder, null to stop tracing
+     */
+    public synchronized void setTraceRecorder(final DLTraceRecorder trace) {
+        if (!m_enabled) {
+            return;
+        }
+        m_trace = trace;
+        m_timers.values().forEach(t -> t.setTraceRecorder(trace));
+    }
+
+    /**
+     * @return the attached trace recorder, if any
+     */
+    public synchronized Optional<DLTraceRecorder> getTraceRecorder() {
+        return Optional.ofNullable(m_trace);
+    }
+
+    /**
+     * @return a snapshot of all timers in the order of their registration
+     */
+    public synchronized List<DLTimer> getTimers() {
+        return new ArrayList<>(m_timers.values());
+    }
+
+    /**
+     * @return a snapshot of all counters in the order of their registration
+     */
+    public synchronized List<DLCounter> getCounters() {
+        return new ArrayList<>(m_counters.values());
+    }
+
+    public synchronized boolean isEmpty() {
+        return m_timers.isEmpty() && m_counters.isEmpty();
+    }
+
+    /**
+     * Resets the values of all timers and counters. Previously obtained references stay valid.
+     */
+    public synchronized void reset() {
+        m_timers.values().forEach(DLTimer::reset);
+        m_counters.values().forEach(DLCounter::reset);
+    }
+
+    /**
+     * @return a one-line-per-entry, human readable summary of all timers and counters, timers sorted by their share
+     *         of the total time in descending order
+     */
+    public String getSummary() {
+        final List<DLTimer> timers = getTimers();
+        timers.sort((t1, t2) -> Long.compare(t2.getTotalNanos(), t1.getTotalNanos()));
+        final StringBuilder sb = new StringBuilder();
+        for (final DLTimer timer : timers) {
+            sb.append(String.format(Locale.US, "%s: %.1f ms (%d x, %.2f ms avg)%n", timer.getName(),
+                timer.getTotalMillis(), timer.getCount(), timer.getMeanMillis()));
+        }
+        for (final DLCounter counter : getCounters()) {
+            sb.append(counter.getName()).append(": ").append(counter.getValue()).append(System.lineSeparator());
+        }
+        return sb.toString().trim();
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The values of the columns of a single row that belong to a tensor whose columns are all primitive numeric columns
+ * (double, integer or long), or the elements of a collection cell whose elements are all primitive numeric cells. The
+ * values of integral columns are stored as longs to avoid a loss of precision, all others as doubles.
+ * <P>
+ * Instances are reused across rows by {@link DLRowIterator row iterators}. Thus, it is not safe to keep references to
+ * their contents.
+ *
+ * @see DLRowIterator#enablePrimitiveReading(java.util.Set)
+ */
+public final class DLPrimitiveValues {
+
+	private final double[] m_doubles;
+
+	private final long[] m_longs;
+
+	/**
+	 * @param size the number of values, i.e. the number of columns of the tensor
+	 * @param integral whether all columns are integral (integer or long) columns
+	 */
+	public DLPrimitiveValues(final int size, final boolean integral) {
+		checkArgument(size >= 0, "Number of values must not be negative.");
+		m_doubles = integral ? null : new double[size];
+		m_longs = integral ? new long[size] : null;
+	}
+
+	/**
+	 * @return the number of values
+	 */
+	public int size() {
+		return m_longs != null ? m_longs.length : m_doubles.length;
+	}
+
+	/**
+	 * @return <code>true</code> if the values are stored as longs, i.e. {@link #getLongs()} is available,
+	 *         <code>false</code> if they are stored as doubles, i.e. {@link #getDoubles()} is available
+	 */
+	public boolean isIntegral() {
+		return m_longs != null;
+	}
+
+	/**
+	 * @return the values, must not be modified
+	 * @throws IllegalStateException if the values are {@link #isIntegral() integral}
+	 */
+	public double[] getDoubles() {
+		if (m_doubles == null) {
+			throw new IllegalStateException("Values are integral and therefore not stored as doubles.");
+		}
+		return m_doubles;
+	}
+
+	/**
+	 * @return the values, must not be modified
+	 * @throws IllegalStateException if the values are not {@link #isIntegral() integral}
+	 */
+	public long[] getLongs() {
+		if (m_longs == null) {
+			throw new IllegalStateException("Values are not integral and therefore not stored as longs.");
+		}
+		return m_longs;
+	}
+}
@@ -46,10 +46,12 @@
  */
 package org.knime.dl.core;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
@@ -80,6 +82,34 @@ public interface DLRowIterator extends Iterator<DataRow>, AutoCloseable {
 	 */
 	Map<DLTensorId, List<DataValue>> groupByTensor(DataRow row);
 
+	/**
+	 * Makes subsequent runs of {@link #groupByTensor(DataRow)} read the values of the columns of the given tensors
+	 * directly into {@link DLPrimitiveValues} instead of grouping the data cells. This is only possible for tensors
+	 * whose columns are all primitive numeric columns (double, integer or long). The values can be retrieved via
+	 * {@link #getPrimitiveValues(DLTensorId)}, the lists of data values returned by {@link #groupByTensor(DataRow)} are
+	 * not updated anymore for these tensors.
+	 * <P>
+	 * The default implementation does not support reading primitive values and returns an empty set.
+	 *
+	 * @param tensors the tensors whose values should be read as primitives if possible
+	 * @return the subset of the given tensors whose values will be read as primitives
+	 */
+	default Set<DLTensorId> enablePrimitiveReading(final Set<DLTensorId> tensors) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Returns the primitive values of the given tensor in the row last passed to {@link #groupByTensor(DataRow)}. The
+	 * returned instance may be reused by subsequent runs of {@link #groupByTensor(DataRow)}.
+	 *
+	 * @param tensor a tensor for which primitive reading was {@link #enablePrimitiveReading(Set) enabled}
+	 * @return the primitive values
+	 * @throws IllegalArgumentException if primitive reading was not enabled for the given tensor
+	 */
+	default DLPrimitiveValues getPrimitiveValues(final DLTensorId tensor) {
+		throw new IllegalArgumentException("Primitive reading is not enabled for tensor '" + tensor + "'.");
+	}
+
 	/**
 	 * @throws UnsupportedOperationException if the iterator does not support reset, e.g. when streaming
 	 */
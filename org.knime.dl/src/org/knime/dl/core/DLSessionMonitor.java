@@ -78,4 +78,14 @@ default void setMessage(final Supplier<String> message) {
 	void reset();
 
 	DLSessionMonitor createSubMonitor(double fraction);
+
+	/**
+	 * Returns the registry that collects the timers and counters of the individual stages of the monitored session.
+	 * Sub monitors share the registry of their parent monitor.
+	 *
+	 * @return the metrics registry, {@link DLMetricsRegistry#disabled() disabled} by default
+	 */
+	default DLMetricsRegistry getMetrics() {
+		return DLMetricsRegistry.disabled();
+	}
 }
@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threading and memory options of a deep learning back end. Thread counts of zero leave the respective thread pool
+ * size to the back end, which usually means that it is sized to all available cores. This oversubscribes the CPU if
+ * several deep learning nodes run concurrently.
+ * <P>
+ * In {@link #isAutomatic() automatic} mode, the available cores are divided among all deep learning nodes that are
+ * running at the time their back end is set up. Nodes take part in this by calling {@link #nodeExecutionStarted()}
+ * and {@link #nodeExecutionFinished()}.
+ */
+public final class DLThreadingOptions {
+
+	/**
+	 * Leaves all settings to the back end.
+	 */
+	public static final DLThreadingOptions DEFAULT = new DLThreadingOptions(0, 0, false, false);
+
+	private static final AtomicInteger RUNNING_NODES = new AtomicInteger();
+
+	/**
+	 * Registers a running deep learning node for the automatic division of the available cores. Must be followed by
+	 * a call to {@link #nodeExecutionFinished()} once the node's back end is not used anymore.
+	 *
+	 * @return the number of running nodes including the calling one
+	 */
+	public static int nodeExecutionStarted() {
+		return RUNNING_NODES.incrementAndGet();
+	}
+
+	/**
+	 * Unregisters a deep learning node that was registered via {@link #nodeExecutionStarted()}.
+	 */
+	public static void nodeExecutionFinished() {
+		RUNNING_NODES.updateAndGet(n -> Math.max(0, n - 1));
+	}
+
+	/**
+	 * @return the number of currently running deep learning nodes
+	 */
+	public static int getNumRunningNodes() {
+		return RUNNING_NODES.get();
+	}
+
+	private final int m_intraOpThreads;
+
+	private final int m_interOpThreads;
+
+	private final boolean m_automatic;
+
+	private final boolean m_gpuMemoryGrowth;
+
+	/**
+	 * @param intraOpThreads the number of threads used to parallelize a single operation, zero to leave this to the
+	 *            back end, ignored in automatic mode
+	 * @param interOpThreads the number of threads used to run independent operations in parallel, zero to leave this
+	 *            to the back end, ignored in automatic mode
+	 * @param automatic whether the thread counts are derived from the number of available cores and the number of
+	 *            concurrently running deep learning nodes
+	 * @param gpuMemoryGrowth whether GPU memory is allocated on demand instead of reserving all of it up front
+	 */
+	public DLThreadingOptions(final int intraOpThreads, final int interOpThreads, final boolean automatic,
+			final boolean gpuMemoryGrowth) {
+		checkArgument(intraOpThreads >= 0, "Number of intra-op threads must not be negative.");
+		checkArgument(interOpThreads >= 0, "Number of inter-op threads must not be negative.");
+		m_intraOpThreads = intraOpThreads;
+		m_interOpThreads = interOpThreads;
+		m_automatic = automatic;
+		m_gpuMemoryGrowth = gpuMemoryGrowth;
+	}
+
+	/**
+	 * @return the number of threads used to parallelize a single operation, zero if left to the back end
+	 */
+	public int getIntraOpThreads() {
+		return m_intraOpThreads;
+	}
+
+	/**
+	 * @return the number of threads used to run independent operations in parallel, zero if left to the back end
+	 */
+	public int getInterOpThreads() {
+		return m_interOpThreads;
+	}
+
+	/**
+	 * @return whether the thread counts are derived automatically, see {@link #resolve(int)}
+	 */
+	public boolean isAutomatic() {
+		return m_automatic;
+	}
+
+	/**
+	 * @return whether GPU memory is allocated on demand instead of reserving all of it up front
+	 */
+	public boolean isGpuMemoryGrowth() {
+		return m_gpuMemoryGrowth;
+	}
+
+	/**
+	 * Returns options with fixed thread counts. If these options are not automatic, they are returned as they are.
+	 * Otherwise, the available cores are divided evenly among the currently running deep learning nodes and the given
+	 * number of back end processes that the calling node uses.
+	 *
+	 * @param numProcesses the number of back end processes (e.g. Python kernels) the calling node runs in parallel
+	 * @return options whose thread counts are not automatic
+	 */
+	public DLThreadingOptions resolve(final int numProcesses) {
+		checkArgument(numProcesses > 0, "Number of processes must be positive.");
+		if (!m_automatic) {
+			return this;
+		}
+		final int numConsumers = Math.max(1, getNumRunningNodes()) * numProcesses;
+		final int intraOpThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / numConsumers);
+		// a small inter-op pool suffices for the mostly sequential graphs of the supported networks
+		final int interOpThreads = Math.min(2, intraOpThreads);
+		return new DLThreadingOptions(intraOpThreads, interOpThreads, false, m_gpuMemoryGrowth);
+	}
+
+	@Override
+	public String toString() {
+		return m_automatic ? "automatic" : m_intraOpThreads + " intra-op, " + m_interOpThreads + " inter-op threads";
+	}
+}
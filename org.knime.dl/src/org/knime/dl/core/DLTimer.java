@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead nanosecond timer of a {@link DLMetricsRegistry}. Accumulates the total elapsed time and the number of
+ * recorded intervals. Thread-safe.
+ */
+public final class DLTimer {
+
+    static final DLTimer DISABLED = new DLTimer("<disabled>", false);
+
+    private final String m_name;
+
+    private final boolean m_enabled;
+
+    private final LongAdder m_totalNanos = new LongAdder();
+
+    private final LongAdder m_count = new LongAdder();
+
+    private volatile DLTraceRecorder m_trace;
+
+    DLTimer(final String name, final boolean enabled) {
+        m_name = name;
+        m_enabled = enabled;
+    }
+
+    public String getName() {
+        return m_name;
+    }
+
+    /**
+     * @return the start timestamp that has to be passed to {@link #stop(long)}
+     */
+    public long start() {
+        return m_enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since the given start timestamp.
+     *
+     * @param start the timestamp returned by {@link #start()}
+     */
+    public void stop(final long start) {
+        if (m_enabled) {
+            final long end = System.nanoTime();
+            record(end - start);
+            final DLTraceRecorder trace = m_trace;
+            if (trace != null) {
+                trace.recordSpan(m_name, start, end);
+            }
+        }
+    }
+
+    /**
+     * Records an interval that was measured elsewhere (e.g. on Python side).
+     *
+     * @param nanos the length of the interval in nanoseconds
+     */
+    public void record(final long nanos) {
+        record(nanos, 1);
+    }
+
+    /**
+     * Records a number of intervals that were measured elsewhere (e.g. on Python side).
+     *
+     * @param nanos the total length of the intervals in nanoseconds
+     * @param count the number of intervals
+     */
+    public void record(final long nanos, final long count) {
+        if (m_enabled) {
+            m_totalNanos.add(nanos);
+            m_count.add(count);
+        }
+    }
+
+    public long getTotalNanos() {
+        return m_totalNanos.sum();
+    }
+
+    public long getCount() {
+        return m_count.sum();
+    }
+
+    public double getTotalMillis() {
+        return getTotalNanos() / (double)TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMeanMillis() {
+        final long count = getCount();
+        return count != 0 ? getTotalMillis() / count : 0d;
+    }
+
+    /**
+     * @param trace the recorder to which each interval measured via {@link #stop(long)} is added as span, may be null
+     */
+    void setTraceRecorder(final DLTraceRecorder trace) {
+        m_trace = trace;
+    }
+
+    void reset() {
+        m_totalNanos.reset();
+        m_count.reset();
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+
+import com.google.common.base.Strings;
+
+/**
+ * Records the spans of the individual stages of a deep learning session on a timeline and writes them as a
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome trace</a> that can
+ * be opened in trace viewers such as chrome://tracing or Perfetto. A recorder is attached to a
+ * {@link DLMetricsRegistry}, whose {@link DLTimer timers} then record a span for each measured interval. Spans measured
+ * in other processes (e.g. Python) can be added via {@link #recordSpan(String, String, String, long, long)}.
+ * <P>
+ * All spans are placed on a shared clock: the time since the epoch in microseconds. Timestamps of different processes
+ * are therefore only as comparable as the processes' wall clocks, which is sufficient for spans that last longer than a
+ * few milliseconds. The number of recorded spans is limited, further spans are dropped. Thread-safe.
+ */
+public final class DLTraceRecorder {
+
+    /**
+     * The name of the process of spans recorded on Java side.
+     */
+    public static final String PROCESS_JAVA = "Java";
+
+    /**
+     * The name of the process of spans recorded on Python side.
+     */
+    public static final String PROCESS_PYTHON = "Python";
+
+    /**
+     * The default maximum number of spans.
+     */
+    public static final long DEFAULT_MAX_SPANS = 1_000_000;
+
+    /**
+     * The name of the flow variable via which nodes expose the path of the written trace file.
+     */
+    public static final String TRACE_FLOW_VARIABLE = "dl.trace.file";
+
+    private static final String TRACE_FILE_STORE_PREFIX = "dl-trace-";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLTraceRecorder.class);
+
+    private static final long EPOCH_OFFSET_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * @param nanoTime a timestamp obtained via {@link System#nanoTime()}
+     * @return the corresponding time since the epoch in microseconds
+     */
+    public static long toEpochMicros(final long nanoTime) {
+        return TimeUnit.NANOSECONDS.toMicros(nanoTime + EPOCH_OFFSET_NANOS);
+    }
+
+    private final long m_maxSpans;
+
+    private final Queue<Span> m_spans = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong m_numSpans = new AtomicLong();
+
+    private final AtomicLong m_numDroppedSpans = new AtomicLong();
+
+    /**
+     * Creates a recorder that records up to {@link #DEFAULT_MAX_SPANS} spans.
+     */
+    public DLTraceRecorder() {
+        this(DEFAULT_MAX_SPANS);
+    }
+
+    /**
+     * @param maxSpans the maximum number of spans, further spans are dropped
+     */
+    public DLTraceRecorder(final long maxSpans) {
+        m_maxSpans = maxSpans;
+    }
+
+    /**
+     * Records a span of the current thread of the Java process.
+     *
+     * @param name the name of the span
+     * @param startNanoTime the start of the span as obtained via {@link System#nanoTime()}
+     * @param endNanoTime the end of the span as obtained via {@link System#nanoTime()}
+     */
+    public void recordSpan(final String name, final long startNanoTime, final long endNanoTime) {
+        final long start = toEpochMicros(startNanoTime);
+        recordSpan(name, PROCESS_JAVA, Thread.currentThread().getName(), start,
+            toEpochMicros(endNanoTime) - start);
+    }
+
+    /**
+     * Records a span that was measured elsewhere.
+     *
+     * @param name the name of the span
+     * @param process the name of the process the span was measured in, e.g. {@link #PROCESS_PYTHON}
+     * @param thread the name of the thread the span was measured in
+     * @param startEpochMicros the start of the span in microseconds since the epoch
+     * @param durationMicros the duration of the span in microseconds
+     */
+    public void recordSpan(final String name, final String process, final String thread, final long startEpochMicros,
+        final long durationMicros) {
+        if (m_numSpans.incrementAndGet() > m_maxSpans) {
+            m_numSpans.decrementAndGet();
+            m_numDroppedSpans.incrementAndGet();
+            return;
+        }
+        m_spans.add(new Span(name, process, thread, startEpochMicros, durationMicros));
+    }
+
+    /**
+     * @return the number of recorded spans
+     */
+    public long getNumSpans() {
+        return m_numSpans.get();
+    }
+
+    /**
+     * @return the number of spans that were dropped because the maximum number of spans was reached
+     */
+    public long getNumDroppedSpans() {
+        return m_numDroppedSpans.get();
+    }
+
+    /**
+     * Writes the recorded spans as Chrome trace to a new, time-stamped file in the given directory.
+     *
+     * @param directory the directory, created if it does not exist
+     * @return the path of the written file
+     * @throws IOException if writing the file failed
+     */
+    public Path writeChromeTrace(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        final Path file = directory.resolve("dl-trace-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".json");
+        try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeChromeTrace(writer);
+        }
+        return file;
+    }
+
+    /**
+     * Writes the recorded spans as Chrome trace to a new, time-stamped file in the given directory or, if no directory
+     * is given, in a new file store of the given execution context. Warns if spans were dropped.
+     *
+     * @param directory the directory, created if it does not exist, may be <code>null</code> or empty
+     * @param exec the execution context of the node that recorded the spans
+     * @return the path of the written file
+     * @throws IOException if creating the file store or writing the file failed
+     */
+    public Path writeChromeTrace(final String directory, final ExecutionContext exec) throws IOException {
+        final Path traceDirectory = Strings.isNullOrEmpty(directory)
+            ? exec.createFileStore(TRACE_FILE_STORE_PREFIX + UUID.randomUUID()).getFile().toPath()
+            : Paths.get(directory);
+        final Path traceFile = writeChromeTrace(traceDirectory);
+        if (getNumDroppedSpans() > 0) {
+            LOGGER.warn("Timeline trace is incomplete, " + getNumDroppedSpans()
+                + " spans were dropped after reaching the span limit.");
+        }
+        LOGGER.info("Timeline trace written to '" + traceFile + "'.");
+        return traceFile;
+    }
+
+    /**
+     * Writes the recorded spans as Chrome trace (JSON object format) to the given appendable. The process and thread
+     * metadata is written first, the spans are then streamed without being buffered. Spans that are recorded while
+     * writing are not included.
+     *
+     * @param out the appendable to write to
+     * @throws IOException if writing failed
+     */
+    public void writeChromeTrace(final Appendable out) throws IOException {
+        final Map<String, Integer> processIds = new LinkedHashMap<>();
+        final Map<String, Map<String, Integer>> threadIds = new LinkedHashMap<>();
+        long numSpans = 0;
+        for (final Span span : m_spans) {
+            processIds.computeIfAbsent(span.m_process, p -> processIds.size() + 1);
+            final Map<String, Integer> processThreadIds = threadIds.computeIfAbsent(span.m_process,
+                p -> new LinkedHashMap<>());
+            processThreadIds.computeIfAbsent(span.m_thread, t -> processThreadIds.size() + 1);
+            numSpans++;
+        }
+        out.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (final Map.Entry<String, Integer> process : processIds.entrySet()) {
+            first = appendEvent(out, "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + process.getValue()
+                + ",\"args\":{\"name\":" + quote(process.getKey()) + "}}", first);
+            for (final Map.Entry<String, Integer> thread : threadIds.get(process.getKey()).entrySet()) {
+                first = appendEvent(out, "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + process.getValue()
+                    + ",\"tid\":" + thread.getValue() + ",\"args\":{\"name\":" + quote(thread.getKey()) + "}}", first);
+            }
+        }
+        // The queue is append-only, so its first numSpans elements are exactly the spans visited above.
+        final Iterator<Span> spans = m_spans.iterator();
+        for (long i = 0; i < numSpans; i++) {
+            final Span span = spans.next();
+            out.append(first ? "\n" : ",\n").append("{\"name\":").append(quote(span.m_name)).append(",\"cat\":")
+                .append(quote(span.m_process)).append(",\"ph\":\"X\",\"ts\":").append(Long.toString(span.m_start))
+                .append(",\"dur\":").append(Long.toString(Math.max(span.m_duration, 0))).append(",\"pid\":")
+                .append(Integer.toString(processIds.get(span.m_process))).append(",\"tid\":")
+                .append(Integer.toString(threadIds.get(span.m_process).get(span.m_thread))).append('}');
+            first = false;
+        }
+        out.append("\n]}\n");
+    }
+
+    private static boolean appendEvent(final Appendable out, final String event, final boolean first)
+        throws IOException {
+        out.append(first ? "\n" : ",\n").append(event);
+        return false;
+    }
+
+    private static String quote(final String s) {
+        final StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int)c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static final class Span {
+
+        private final String m_name;
+
+        private final String m_process;
+
+        private final String m_thread;
+
+        private final long m_start;
+
+        private final long m_duration;
+
+        private Span(final String name, final String process, final String thread, final long start,
+            final long duration) {
+            m_name = name;
+            m_process = process;
+            m_thread = thread;
+            m_start = start;
+            m_duration = duration;
+        }
+    }
+}
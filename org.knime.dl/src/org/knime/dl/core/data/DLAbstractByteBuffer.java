@@ -103,6 +103,16 @@ public void putAll(boolean[] values) throws BufferOverflowException {
         }
     }
 
+    @Override
+    public void putAllBits(final long[] words, final int length) throws BufferOverflowException {
+        checkArgument(length >= 0 && length <= (long)words.length * Long.SIZE,
+            "Number of bits to copy exceeds the number of packed bits.");
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        for (int i = 0; i < length; i++) {
+            m_storage[m_nextWrite++] = (byte)((words[i >>> 6] >>> i) & 1L);
+        }
+    }
+
     @Override
     public void put(byte value) throws BufferOverflowException {
         checkOverflow(m_nextWrite < m_capacity);
@@ -149,6 +149,14 @@ public S getStorageForWriting(final long startPos, final long length) throws Buf
 		return m_storage;
 	}
 
+	@Override
+	public void truncate(final long size) throws IllegalArgumentException {
+		checkArgument(size >= 0 && size <= m_nextWrite,
+				"Invalid size. Buffer can only be truncated to a size between 0 and " + m_nextWrite + ".");
+		m_nextWrite = (int) size;
+		m_nextRead = Math.min(m_nextRead, m_nextWrite);
+	}
+
 	@Override
 	public void resetRead() {
 		m_nextRead = 0;
@@ -52,15 +52,66 @@
 import java.nio.BufferUnderflowException;
 
 /**
- * Bit type implementation of {@link DLWrappingDataBuffer}.
+ * Bit type implementation of {@link DLWrappingDataBuffer}. The bits are packed into a <code>long[]</code> storage, see
+ * {@link DLPackedBitBuffer} for the layout.
  *
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  * @author Benjamin Wilhelm, KNIME GmbH, Konstanz, Germany
  */
-public class DLDefaultBitBuffer extends DLAbstractFlatWrappingDataBuffer<boolean[]>
-    implements DLWritableBitBuffer, DLReadableBitBuffer {
+public class DLDefaultBitBuffer extends DLAbstractFlatWrappingDataBuffer<long[]> implements DLPackedBitBuffer {
+
+    /**
+     * Returns the number of words that are needed to hold the given number of packed bits.
+     *
+     * @param numBits the number of bits
+     * @return the number of words
+     */
+    public static int getNumWords(final long numBits) {
+        return (int)((numBits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Copies <code>length</code> packed bits from <code>src</code>, starting at bit <code>srcPos</code>, to
+     * <code>dest</code>, starting at bit <code>destPos</code>. Both arrays are expected to follow the layout described
+     * in {@link DLPackedBitBuffer}. Bits of <code>dest</code> outside of the copied range are left untouched. The
+     * ranges must not overlap if <code>src</code> and <code>dest</code> are the same array.
+     *
+     * @param src the source words
+     * @param srcPos the first bit to copy
+     * @param dest the destination words
+     * @param destPos the first bit to write
+     * @param length the number of bits to copy
+     */
+    public static void copyBits(final long[] src, final int srcPos, final long[] dest, final int destPos,
+        final int length) {
+        for (int i = 0; i < length; i += Long.SIZE) {
+            final int count = Math.min(Long.SIZE, length - i);
+            writeBits(dest, destPos + i, readBits(src, srcPos + i, count), count);
+        }
+    }
+
+    private static long readBits(final long[] words, final int pos, final int count) {
+        final int word = pos >>> 6;
+        final int offset = pos & 63;
+        long bits = words[word] >>> offset;
+        if (offset + count > Long.SIZE) {
+            bits |= words[word + 1] << (Long.SIZE - offset);
+        }
+        return count == Long.SIZE ? bits : bits & ((1L << count) - 1);
+    }
+
+    private static void writeBits(final long[] words, final int pos, final long bits, final int count) {
+        final int word = pos >>> 6;
+        final int offset = pos & 63;
+        final long mask = count == Long.SIZE ? -1L : (1L << count) - 1;
+        words[word] = (words[word] & ~(mask << offset)) | (bits << offset);
+        if (offset + count > Long.SIZE) {
+            final int shift = Long.SIZE - offset;
+            words[word + 1] = (words[word + 1] & ~(mask >>> shift)) | (bits >>> shift);
+        }
+    }
 
     /**
      * Creates a new instance of this buffer.
@@ -72,64 +123,82 @@ public DLDefaultBitBuffer(final long capacity) {
     }
 
     @Override
-    public void setStorage(final boolean[] storage, final long storageSize) throws IllegalArgumentException {
-        checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
+    public void setStorage(final long[] storage, final long storageSize) throws IllegalArgumentException {
+        checkArgument(storage.length == getNumWords(m_capacity),
+            "Input storage capacity does not match buffer capacity.");
         m_storage = storage;
         m_nextWrite = (int)storageSize;
         resetRead();
     }
 
     @Override
-    public void zeroPad(long length) throws IllegalArgumentException, BufferOverflowException {
+    public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
         checkArgument(length > 0);
         checkOverflow(m_nextWrite + length <= m_capacity);
-        for (int i = 0; i < length; i++) {
-            m_storage[m_nextWrite++] = false;
+        for (int i = 0; i < length; i += Long.SIZE) {
+            final int count = (int)Math.min(Long.SIZE, length - i);
+            writeBits(m_storage, m_nextWrite, 0L, count);
+            m_nextWrite += count;
         }
     }
 
     @Override
     public boolean readNextBit() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++];
+        return getBit(m_nextRead++) != 0;
     }
 
     @Override
     public boolean[] toBitArray() {
-        return m_storage.clone();
+        final boolean[] tmp = new boolean[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) != 0;
+        }
+        return tmp;
     }
 
     @Override
-    public void readToBitArray(boolean[] dest, int destPos, int length) {
+    public void readToBitArray(final boolean[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
-        System.arraycopy(m_storage, m_nextRead, dest, destPos, length);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i) != 0;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public void readToBitWords(final long[] dest, final int length) {
+        checkArgument(length >= 0 && length <= (long)dest.length * Long.SIZE,
+            "Number of bits to read exceeds the capacity of the destination words.");
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        copyBits(m_storage, m_nextRead, dest, 0, length);
         m_nextRead += length;
     }
 
     @Override
     public byte readNextByte() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return (byte)(m_storage[m_nextRead++] ? 1 : 0);
+        return (byte)getBit(m_nextRead++);
     }
 
     @Override
     public byte[] toByteArray() {
-        final byte[] tmp = new byte[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = (byte)(m_storage[i] ? 1 : 0);
+        final byte[] tmp = new byte[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (byte)getBit(i);
         }
         return tmp;
     }
 
     @Override
-    public void readToByteArray(byte[] dest, int destPos, int length) {
+    public void readToByteArray(final byte[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = (byte)(m_storage[m_nextRead + i] ? 1 : 0);
+            dest[destPos + i] = (byte)getBit(m_nextRead + i);
         }
         m_nextRead += length;
     }
@@ -137,25 +206,25 @@ public void readToByteArray(byte[] dest, int destPos, int length) {
     @Override
     public short readNextShort() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return (short)(m_storage[m_nextRead++] ? 1 : 0);
+        return (short)getBit(m_nextRead++);
     }
 
     @Override
     public short[] toShortArray() {
-        final short[] tmp = new short[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = (short)(m_storage[i] ? 1 : 0);
+        final short[] tmp = new short[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (short)getBit(i);
         }
         return tmp;
     }
 
     @Override
-    public void readToShortArray(short[] dest, int destPos, int length) {
+    public void readToShortArray(final short[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = (short)(m_storage[m_nextRead + i] ? 1 : 0);
+            dest[destPos + i] = (short)getBit(m_nextRead + i);
         }
         m_nextRead += length;
     }
@@ -163,25 +232,25 @@ public void readToShortArray(short[] dest, int destPos, int length) {
     @Override
     public int readNextInt() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1 : 0;
+        return getBit(m_nextRead++);
     }
 
     @Override
     public int[] toIntArray() {
-        final int[] tmp = new int[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1 : 0;
+        final int[] tmp = new int[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i);
         }
         return tmp;
     }
 
     @Override
-    public void readToIntArray(int[] dest, int destPos, int length) {
+    public void readToIntArray(final int[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1 : 0;
+            dest[destPos + i] = getBit(m_nextRead + i);
         }
         m_nextRead += length;
     }
@@ -189,25 +258,25 @@ public void readToIntArray(int[] dest, int destPos, int length) {
     @Override
     public long readNextLong() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1L : 0L;
+        return getBit(m_nextRead++) != 0 ? 1L : 0L;
     }
 
     @Override
     public long[] toLongArray() {
-        final long[] tmp = new long[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1L : 0L;
+        final long[] tmp = new long[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) != 0 ? 1L : 0L;
         }
         return tmp;
     }
 
     @Override
-    public void readToLongArray(long[] dest, int destPos, int length) {
+    public void readToLongArray(final long[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1L : 0L;
+            dest[destPos + i] = getBit(m_nextRead + i) != 0 ? 1L : 0L;
         }
         m_nextRead += length;
     }
@@ -215,25 +284,25 @@ public void readToLongArray(long[] dest, int destPos, int length) {
     @Override
     public float readNextFloat() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1f : 0f;
+        return getBit(m_nextRead++) != 0 ? 1f : 0f;
     }
 
     @Override
     public float[] toFloatArray() {
-        final float[] tmp = new float[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1f : 0f;
+        final float[] tmp = new float[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) != 0 ? 1f : 0f;
         }
         return tmp;
     }
 
     @Override
-    public void readToFloatArray(float[] dest, int destPos, int length) {
+    public void readToFloatArray(final float[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1f : 0f;
+            dest[destPos + i] = getBit(m_nextRead + i) != 0 ? 1f : 0f;
         }
         m_nextRead += length;
     }
@@ -241,44 +310,66 @@ public void readToFloatArray(float[] dest, int destPos, int length) {
     @Override
     public double readNextDouble() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1. : 0.;
+        return getBit(m_nextRead++) != 0 ? 1. : 0.;
     }
 
     @Override
     public double[] toDoubleArray() {
-        final double[] tmp = new double[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1. : 0.;
+        final double[] tmp = new double[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) != 0 ? 1. : 0.;
         }
         return tmp;
     }
 
     @Override
-    public void readToDoubleArray(double[] dest, int destPos, int length) {
+    public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1. : 0.;
+            dest[destPos + i] = getBit(m_nextRead + i) != 0 ? 1. : 0.;
         }
         m_nextRead += length;
     }
 
     @Override
-    public void put(boolean value) throws BufferOverflowException {
+    public void put(final boolean value) throws BufferOverflowException {
         checkOverflow(m_nextWrite < m_capacity);
-        m_storage[m_nextWrite++] = value;
+        setBit(m_nextWrite++, value);
     }
 
     @Override
-    public void putAll(boolean[] values) throws BufferOverflowException {
+    public void putAll(final boolean[] values) throws BufferOverflowException {
         checkOverflow(m_nextWrite + values.length <= m_capacity);
-        System.arraycopy(values, 0, m_storage, m_nextWrite, values.length);
-        m_nextWrite += values.length;
+        for (final boolean value : values) {
+            setBit(m_nextWrite++, value);
+        }
     }
 
     @Override
-    protected boolean[] createStorage() {
-        return new boolean[m_capacity];
+    public void putAllBits(final long[] words, final int length) throws BufferOverflowException {
+        checkArgument(length >= 0 && length <= (long)words.length * Long.SIZE,
+            "Number of bits to copy exceeds the number of packed bits.");
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        copyBits(words, 0, m_storage, m_nextWrite, length);
+        m_nextWrite += length;
+    }
+
+    @Override
+    protected long[] createStorage() {
+        return new long[getNumWords(m_capacity)];
+    }
+
+    private int getBit(final int pos) {
+        return (int)(m_storage[pos >>> 6] >>> pos) & 1;
+    }
+
+    private void setBit(final int pos, final boolean value) {
+        if (value) {
+            m_storage[pos >>> 6] |= 1L << pos;
+        } else {
+            m_storage[pos >>> 6] &= ~(1L << pos);
+        }
     }
 }
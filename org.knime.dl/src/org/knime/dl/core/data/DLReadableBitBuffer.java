@@ -82,4 +82,16 @@ public interface DLReadableBitBuffer extends DLReadableByteBuffer {
      * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
      */
     void readToBitArray(boolean[] dest, int destPos, int length);
+
+    /**
+     * Reads <b>length</b> values from the buffer into the <b>dest</b> array of packed bits starting from the next value
+     * in the buffer. The packed bits are laid out as described in {@link DLWritableBitBuffer#putAllBits(long[], int)}.
+     * Bits of <b>dest</b> beyond <b>length</b> are left untouched.
+     *
+     * @param dest destination words
+     * @param length number of bits to read from the buffer
+     * @throws IllegalArgumentException if <b>dest</b> cannot hold <b>length</b> bits
+     * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
+     */
+    void readToBitWords(long[] dest, int length);
 }
@@ -83,6 +83,16 @@
 	 */
 	S getStorageForWriting(long startPos, long length) throws BufferOverflowException;
 
+	/**
+	 * Discards the elements at and after the given position. Elements before that position are retained, i.e.
+	 * {@link #size()} returns the argument immediately after this method returns. Allows to remove the elements that
+	 * were written last, e.g. an example that turned out not to be needed.
+	 *
+	 * @param size the new size of the buffer
+	 * @throws IllegalArgumentException if the argument is negative or exceeds the current {@link #size() size}
+	 */
+	void truncate(long size) throws IllegalArgumentException;
+
 	/**
 	 * Sets the buffer's internal storage to the first argument if its capacity matches {@link #getCapacity()}. Sets the
 	 * buffer's size to the second argument, i.e. {@link #size()} reports that value immediately after this method
@@ -25,4 +25,16 @@ public interface DLWritableBitBuffer extends DLWritableBuffer {
 	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
 	 */
 	void putAll(boolean[] values) throws BufferOverflowException;
+
+	/**
+	 * Copies the first <code>length</code> bits of an array of packed bits into the buffer. Bit <code>i</code> is
+	 * expected at position <code>i % 64</code> (counting from the least significant bit) of word <code>i / 64</code>,
+	 * which is the layout used by KNIME's dense bit vectors.
+	 *
+	 * @param words the packed bits
+	 * @param length the number of bits to copy
+	 * @throws IllegalArgumentException if <code>words</code> holds fewer than <code>length</code> bits
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
+	 */
+	void putAllBits(long[] words, int length) throws BufferOverflowException;
 }
@@ -26,4 +26,13 @@ public interface DLWritableUnsignedByteBuffer extends DLWritableBitBuffer {
 	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
 	 */
 	void putAll(short[] values) throws BufferOverflowException;
+
+	/**
+	 * Copies an array of unsigned byte values into the buffer. The values are given by their bit patterns, i.e. a
+	 * negative byte <code>b</code> denotes the unsigned value <code>b + 256</code>.
+	 *
+	 * @param values the array
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
+	 */
+	void putAll(byte[] values) throws BufferOverflowException;
 }
@@ -54,6 +54,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableBitBuffer;
@@ -93,6 +94,12 @@ public DLDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer> createC
 			@Override
 			public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableBitBuffer> output) {
 				final DLWritableBitBuffer buffer = output.getBuffer();
+				if (input instanceof DenseBitVectorCell) {
+					// copy the packed words at once instead of reading and writing bit by bit
+					buffer.putAllBits(((DenseBitVectorCell) input).getBitVectorCopy().getAllBits(),
+							(int) input.length());
+					return;
+				}
 				for (int i = 0; i < input.length(); i++) {
 					buffer.put(input.get(i));
 				}
@@ -54,6 +54,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableUnsignedByteBuffer;
@@ -93,6 +94,11 @@ public DLDataValueToTensorConverter<ByteVectorValue, DLWritableUnsignedByteBuffe
 			@Override
 			public void convertInternal(final ByteVectorValue input, final DLTensor<DLWritableUnsignedByteBuffer> output) {
 				final DLWritableUnsignedByteBuffer buf = output.getBuffer();
+				if (input instanceof DenseByteVectorCell) {
+					// dense byte vectors store their counts as unsigned bytes, which can be copied at once
+					buf.putAll(((DenseByteVectorCell) input).getByteVectorCopy().getAllCountsAsBytes());
+					return;
+				}
 				for (int i = 0; i < input.length(); i++) {
 					buf.put((short)input.get(i));
 				}
@@ -52,8 +52,15 @@
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
 import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableBuffer;
@@ -110,13 +117,58 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 	@Override
 	public DLDataValueToTensorConverter<CollectionDataValue, O> createConverter() {
 		final DLDataValueToTensorConverter<IE, O> elementConverter = m_elementConverterFactory.createConverter();
+		final Class<IE> elementType = m_elementConverterFactory.getSourceType();
 		return new DLAbstractTensorDataValueToTensorConverter<CollectionDataValue, O>() {
 
+			private DLPrimitiveValues m_primitives;
+
 			@Override
 			public void convertInternal(final CollectionDataValue input, final DLTensor<O> output) {
+				if (elementConverter instanceof DLPrimitiveDataValueToTensorConverter && readPrimitives(input)) {
+					// the elements are written at once instead of one by one
+					((DLPrimitiveDataValueToTensorConverter<IE, O>) elementConverter).convertPrimitives(m_primitives,
+							output);
+					return;
+				}
 				final Iterable<? extends IE> casted = ((Iterable<? extends IE>) input);
 				elementConverter.convert(casted, output);
 			}
+
+			/**
+			 * Reads the elements of the given collection into {@link #m_primitives} if they are all primitive numeric
+			 * cells, analogous to {@link org.knime.dl.core.DLRowIterator#enablePrimitiveReading(java.util.Set)}.
+			 */
+			private boolean readPrimitives(final CollectionDataValue input) {
+				final DataType type = input.getElementType();
+				final boolean integral;
+				if (type.equals(DoubleCell.TYPE)) {
+					integral = false;
+				} else if (type.equals(IntCell.TYPE) || type.equals(LongCell.TYPE)) {
+					integral = true;
+				} else {
+					return false;
+				}
+				if (!type.isCompatible(elementType)) {
+					return false;
+				}
+				final int size = input.size();
+				if (m_primitives == null || m_primitives.size() != size || m_primitives.isIntegral() != integral) {
+					m_primitives = new DLPrimitiveValues(size, integral);
+				}
+				int i = 0;
+				if (integral) {
+					final long[] values = m_primitives.getLongs();
+					for (final DataCell element : input) {
+						values[i++] = ((LongValue) element).getLongValue();
+					}
+				} else {
+					final double[] values = m_primitives.getDoubles();
+					for (final DataCell element : input) {
+						values[i++] = ((DoubleValue) element).getDoubleValue();
+					}
+				}
+				return true;
+			}
 		};
 	}
 
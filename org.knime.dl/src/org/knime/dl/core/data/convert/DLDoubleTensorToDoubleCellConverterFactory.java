@@ -52,6 +52,8 @@
 
 import org.knime.core.data.DataType;
 import org.knime.core.data.def.DoubleCell;
+import org.knime.core.node.ExecutionContext;
+import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableDoubleBuffer;
 import org.knime.dl.util.DLUtils;
@@ -85,10 +87,27 @@ public OptionalLong getDestCount(final DLTensorSpec spec) {
 
 	@Override
 	public DLTensorToDataCellConverter<DLReadableDoubleBuffer, DoubleCell> createConverter() {
-		return (input, out, exec) -> {
-			final DLReadableDoubleBuffer buf = input.getBuffer();
-			for (int i = 0; i < buf.size(); i++) {
-				out[i] = new DoubleCell(buf.readNextDouble());
+		return new DLTensorToDataCellConverter<DLReadableDoubleBuffer, DoubleCell>() {
+
+			// reused across batches, a converter only converts one batch at a time
+			private double[] m_values = new double[0];
+
+			@Override
+			public void convert(final DLTensor<DLReadableDoubleBuffer> input, final DoubleCell[] out,
+				final ExecutionContext exec) {
+				final DLReadableDoubleBuffer buf = input.getBuffer();
+				final int size = (int) buf.size();
+				if (size == 0) {
+					return;
+				}
+				if (m_values.length < size) {
+					m_values = new double[size];
+				}
+				// read the whole batch at once instead of element by element
+				buf.readToDoubleArray(m_values, 0, size);
+				for (int i = 0; i < size; i++) {
+					out[i] = new DoubleCell(m_values[i]);
+				}
 			}
 		};
 	}
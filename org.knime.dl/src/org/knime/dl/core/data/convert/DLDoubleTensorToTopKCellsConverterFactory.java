@@ -0,0 +1,198 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.convert;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.OptionalLong;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Converts each example of a tensor into its k largest entries, e.g. the k most probable classes of a probability
+ * distribution. The output of an example consists of the k indices of the entries (in descending order of their
+ * values) followed by the k respective values. Entries that are NaN are considered smaller than all other entries.
+ * <P>
+ * Instances are not registered via the extension point as they are parameterized by k. Instead, the
+ * {@link DLTensorToDataCellConverterRegistry registry} offers them for all tensors whose examples consist of more than
+ * one entry.
+ */
+public final class DLDoubleTensorToTopKCellsConverterFactory
+	implements DLTensorToDataCellConverterFactory<DLReadableDoubleBuffer, DataCell> {
+
+	/**
+	 * The values of k that are offered by the registry.
+	 */
+	static final int[] DEFAULT_KS = { 1, 3, 5, 10 };
+
+	private final int m_k;
+
+	/**
+	 * @param k the number of largest entries to output per example, must be positive
+	 */
+	public DLDoubleTensorToTopKCellsConverterFactory(final int k) {
+		checkArgument(k > 0, "k must be positive.");
+		m_k = k;
+	}
+
+	/**
+	 * @return the number of largest entries per example
+	 */
+	public int getK() {
+		return m_k;
+	}
+
+	@Override
+	public String getIdentifier() {
+		return getClass().getName() + "(" + m_k + ")";
+	}
+
+	@Override
+	public String getName() {
+		return "Top " + m_k + " entries (" + IntCell.TYPE.toPrettyString() + " indices and "
+				+ DoubleCell.TYPE.toPrettyString() + " values)";
+	}
+
+	@Override
+	public Class<DLReadableDoubleBuffer> getBufferType() {
+		return DLReadableDoubleBuffer.class;
+	}
+
+	@Override
+	public DataType getDestType() {
+		return DataType.getType(DataCell.class);
+	}
+
+	@Override
+	public DataType getDestType(final int index) {
+		return index < m_k ? IntCell.TYPE : DoubleCell.TYPE;
+	}
+
+	@Override
+	public OptionalLong getDestCount(final DLTensorSpec spec) {
+		final OptionalLong exampleSize = DLUtils.Shapes.getFixedSize(spec.getShape());
+		if (exampleSize.isPresent() && exampleSize.getAsLong() < m_k) {
+			// not applicable
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(2l * m_k);
+	}
+
+	@Override
+	public DLTensorToDataCellConverter<DLReadableDoubleBuffer, DataCell> createConverter() {
+		return (input, out, exec) -> {
+			final long exampleSize = DLUtils.Shapes.getFixedSize(input.getSpec().getShape()).getAsLong();
+			if (exampleSize > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("The number of entries of one sample, " + exampleSize
+						+ ", is larger than 2^31-1. This is currently not supported.");
+			}
+			if (exampleSize < m_k) {
+				throw new IllegalArgumentException("The number of entries of one sample, " + exampleSize
+						+ ", is smaller than the number of requested largest entries, " + m_k + ".");
+			}
+			final DLReadableDoubleBuffer buf = input.getBuffer();
+			final long batchSize = buf.size() / exampleSize;
+			final double[] values = new double[(int) exampleSize];
+			final int[] top = new int[m_k];
+			for (int i = 0; i < batchSize; i++) {
+				buf.readToDoubleArray(values, 0, values.length);
+				selectTopK(values, top);
+				final int offset = i * 2 * m_k;
+				for (int j = 0; j < m_k; j++) {
+					out[offset + j] = new IntCell(top[j]);
+					out[offset + m_k + j] = new DoubleCell(values[top[j]]);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Writes the indices of the largest values into the given array, in descending order of the values. Ties are
+	 * resolved in favor of the smaller index.
+	 */
+	static void selectTopK(final double[] values, final int[] top) {
+		int numSelected = 0;
+		for (int i = 0; i < values.length; i++) {
+			final double value = values[i];
+			if (numSelected == top.length && !isGreater(value, values[top[numSelected - 1]])) {
+				continue;
+			}
+			int j = numSelected < top.length ? numSelected++ : numSelected - 1;
+			while (j > 0 && isGreater(value, values[top[j - 1]])) {
+				top[j] = top[j - 1];
+				j--;
+			}
+			top[j] = i;
+		}
+	}
+
+	private static boolean isGreater(final double a, final double b) {
+		return a > b || (Double.isNaN(b) && !Double.isNaN(a));
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode() * 37 + m_k;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		return ((DLDoubleTensorToTopKCellsConverterFactory) obj).m_k == m_k;
+	}
+}
@@ -54,6 +54,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.ExtensibleUtilityFactory;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLWritableDoubleBuffer;
 
@@ -86,7 +87,9 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer>() {
+		return new DLAbstractPrimitiveDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer>() {
+
+			private double[] m_values;
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -96,6 +99,23 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put(val.getDoubleValue());
 				}
 			}
+
+			@Override
+			public void convertPrimitives(final DLPrimitiveValues input,
+					final DLTensor<DLWritableDoubleBuffer> output) {
+				if (!input.isIntegral()) {
+					output.getBuffer().putAll(input.getDoubles());
+					return;
+				}
+				if (m_values == null || m_values.length != input.size()) {
+					m_values = new double[input.size()];
+				}
+				final long[] longs = input.getLongs();
+				for (int i = 0; i < longs.length; i++) {
+					m_values[i] = longs[i];
+				}
+				output.getBuffer().putAll(m_values);
+			}
 		};
 	}
 }
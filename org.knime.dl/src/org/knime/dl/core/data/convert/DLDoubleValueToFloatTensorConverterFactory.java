@@ -54,6 +54,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.ExtensibleUtilityFactory;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
 
@@ -86,7 +87,9 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>() {
+		return new DLAbstractPrimitiveDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>() {
+
+			private float[] m_values;
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -97,6 +100,27 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put((float) val.getDoubleValue());
 				}
 			}
+
+			@Override
+			public void convertPrimitives(final DLPrimitiveValues input,
+					final DLTensor<DLWritableFloatBuffer> output) {
+				if (m_values == null || m_values.length != input.size()) {
+					m_values = new float[input.size()];
+				}
+				if (input.isIntegral()) {
+					final long[] longs = input.getLongs();
+					for (int i = 0; i < longs.length; i++) {
+						m_values[i] = longs[i];
+					}
+				} else {
+					final double[] doubles = input.getDoubles();
+					for (int i = 0; i < doubles.length; i++) {
+						// explicitly lossy cast
+						m_values[i] = (float) doubles[i];
+					}
+				}
+				output.getBuffer().putAll(m_values);
+			}
 		};
 	}
 }
@@ -52,6 +52,8 @@
 
 import org.knime.core.data.DataType;
 import org.knime.core.data.def.IntCell;
+import org.knime.core.node.ExecutionContext;
+import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableIntBuffer;
 import org.knime.dl.util.DLUtils;
@@ -85,10 +87,27 @@ public OptionalLong getDestCount(final DLTensorSpec spec) {
 
 	@Override
 	public DLTensorToDataCellConverter<DLReadableIntBuffer, IntCell> createConverter() {
-		return (input, out, exec) -> {
-			final DLReadableIntBuffer buf = input.getBuffer();
-			for (int i = 0; i < buf.size(); i++) {
-				out[i] = new IntCell(buf.readNextInt());
+		return new DLTensorToDataCellConverter<DLReadableIntBuffer, IntCell>() {
+
+			// reused across batches, a converter only converts one batch at a time
+			private int[] m_values = new int[0];
+
+			@Override
+			public void convert(final DLTensor<DLReadableIntBuffer> input, final IntCell[] out,
+				final ExecutionContext exec) {
+				final DLReadableIntBuffer buf = input.getBuffer();
+				final int size = (int) buf.size();
+				if (size == 0) {
+					return;
+				}
+				if (m_values.length < size) {
+					m_values = new int[size];
+				}
+				// read the whole batch at once instead of element by element
+				buf.readToIntArray(m_values, 0, size);
+				for (int i = 0; i < size; i++) {
+					out[i] = new IntCell(m_values[i]);
+				}
 			}
 		};
 	}
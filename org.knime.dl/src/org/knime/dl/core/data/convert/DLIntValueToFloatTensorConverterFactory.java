@@ -52,6 +52,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.IntValue;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
 
@@ -84,7 +85,9 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableFloatBuffer>() {
+		return new DLAbstractPrimitiveDataValueToTensorConverter<IntValue, DLWritableFloatBuffer>() {
+
+			private float[] m_values;
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input,
@@ -97,6 +100,20 @@ public void convert(final Iterable<? extends IntValue> input,
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			public void convertPrimitives(final DLPrimitiveValues input,
+					final DLTensor<DLWritableFloatBuffer> output) {
+				if (m_values == null || m_values.length != input.size()) {
+					m_values = new float[input.size()];
+				}
+				// integer columns are always read as longs
+				final long[] longs = input.getLongs();
+				for (int i = 0; i < longs.length; i++) {
+					m_values[i] = (int) longs[i];
+				}
+				output.getBuffer().putAll(m_values);
+			}
 		};
 	}
 }
@@ -54,6 +54,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.IntValue;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLWritableIntBuffer;
 
@@ -86,7 +87,9 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableIntBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableIntBuffer>() {
+		return new DLAbstractPrimitiveDataValueToTensorConverter<IntValue, DLWritableIntBuffer>() {
+
+			private int[] m_values;
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLWritableIntBuffer> output) {
@@ -95,6 +98,19 @@ public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLW
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			public void convertPrimitives(final DLPrimitiveValues input, final DLTensor<DLWritableIntBuffer> output) {
+				if (m_values == null || m_values.length != input.size()) {
+					m_values = new int[input.size()];
+				}
+				// integer columns are always read as longs
+				final long[] longs = input.getLongs();
+				for (int i = 0; i < longs.length; i++) {
+					m_values[i] = (int) longs[i];
+				}
+				output.getBuffer().putAll(m_values);
+			}
 		};
 	}
 }
@@ -52,6 +52,8 @@
 
 import org.knime.core.data.DataType;
 import org.knime.core.data.def.LongCell;
+import org.knime.core.node.ExecutionContext;
+import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableLongBuffer;
 import org.knime.dl.util.DLUtils;
@@ -85,10 +87,27 @@ public OptionalLong getDestCount(final DLTensorSpec spec) {
 
 	@Override
 	public DLTensorToDataCellConverter<DLReadableLongBuffer, LongCell> createConverter() {
-		return (input, out, exec) -> {
-			final DLReadableLongBuffer buf = input.getBuffer();
-			for (int i = 0; i < buf.size(); i++) {
-				out[i] = new LongCell(buf.readNextLong());
+		return new DLTensorToDataCellConverter<DLReadableLongBuffer, LongCell>() {
+
+			// reused across batches, a converter only converts one batch at a time
+			private long[] m_values = new long[0];
+
+			@Override
+			public void convert(final DLTensor<DLReadableLongBuffer> input, final LongCell[] out,
+				final ExecutionContext exec) {
+				final DLReadableLongBuffer buf = input.getBuffer();
+				final int size = (int) buf.size();
+				if (size == 0) {
+					return;
+				}
+				if (m_values.length < size) {
+					m_values = new long[size];
+				}
+				// read the whole batch at once instead of element by element
+				buf.readToLongArray(m_values, 0, size);
+				for (int i = 0; i < size; i++) {
+					out[i] = new LongCell(m_values[i]);
+				}
 			}
 		};
 	}
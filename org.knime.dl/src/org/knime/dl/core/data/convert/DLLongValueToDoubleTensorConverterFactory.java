@@ -52,6 +52,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.LongValue;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLWritableDoubleBuffer;
 
@@ -84,7 +85,9 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<LongValue, DLWritableDoubleBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<LongValue, DLWritableDoubleBuffer>() {
+		return new DLAbstractPrimitiveDataValueToTensorConverter<LongValue, DLWritableDoubleBuffer>() {
+
+			private double[] m_values;
 
 			@Override
 			public void convert(final Iterable<? extends LongValue> input,
@@ -97,6 +100,19 @@ public void convert(final Iterable<? extends LongValue> input,
 					buf.put((double) val.getLongValue());
 				}
 			}
+
+			@Override
+			public void convertPrimitives(final DLPrimitiveValues input,
+					final DLTensor<DLWritableDoubleBuffer> output) {
+				if (m_values == null || m_values.length != input.size()) {
+					m_values = new double[input.size()];
+				}
+				final long[] longs = input.getLongs();
+				for (int i = 0; i < longs.length; i++) {
+					m_values[i] = longs[i];
+				}
+				output.getBuffer().putAll(m_values);
+			}
 		};
 	}
 }
@@ -52,6 +52,7 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.LongValue;
+import org.knime.dl.core.DLPrimitiveValues;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLWritableLongBuffer;
 
@@ -84,7 +85,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<LongValue, DLWritableLongBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<LongValue, DLWritableLongBuffer>() {
+		return new DLAbstractPrimitiveDataValueToTensorConverter<LongValue, DLWritableLongBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends LongValue> input,
@@ -94,6 +95,12 @@ public void convert(final Iterable<? extends LongValue> input,
 					buf.put(val.getLongValue());
 				}
 			}
+
+			@Override
+			public void convertPrimitives(final DLPrimitiveValues input,
+					final DLTensor<DLWritableLongBuffer> output) {
+				output.getBuffer().putAll(input.getLongs());
+			}
 		};
 	}
 }
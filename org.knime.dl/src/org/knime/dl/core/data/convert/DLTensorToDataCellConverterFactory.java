@@ -101,6 +101,18 @@ default String getIdentifier() {
 	 */
 	DataType getDestType();
 
+	/**
+	 * Returns the output {@link DataType data type} of the element at the given position of the output of a single
+	 * example. By default, all output elements are of type {@link #getDestType()}. Factories whose output elements are
+	 * of different types must override this method and return a common super type in {@link #getDestType()}.
+	 *
+	 * @param index the position of the output element, less than the {@link #getDestCount(DLTensorSpec) dest count}
+	 * @return the output data type of the element
+	 */
+	default DataType getDestType(final int index) {
+		return getDestType();
+	}
+
 	/**
 	 * Returns the number of elements that will make up the output of converters created by this factory given an input
 	 * spec.
@@ -63,6 +63,8 @@
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.util.DLUtils;
 
 /**
  * Registry for deep learning output converter factories that allow conversion of {@link DLTensor tensor} types into
@@ -143,6 +145,15 @@ private DLTensorToDataCellConverterRegistry() {
 		                + candidate.getIdentifier() + "'.", t);
 		    }
 		}
+		if (DLReadableDoubleBuffer.class.isAssignableFrom(sourceType)) {
+		    // the largest entries of an example, e.g. the most probable classes
+		    final OptionalLong exampleSize = DLUtils.Shapes.getFixedSize(sourceSpec.getShape());
+		    for (final int k : DLDoubleTensorToTopKCellsConverterFactory.DEFAULT_KS) {
+		        if (exampleSize.isPresent() && k <= exampleSize.getAsLong()) {
+		            convs.add(new DLDoubleTensorToTopKCellsConverterFactory(k));
+		        }
+		    }
+		}
 		convs.sort(Comparator.comparing(DLTensorToDataCellConverterFactory::getIdentifier));
 		return convs;
 	}
@@ -162,7 +173,8 @@ private DLTensorToDataCellConverterRegistry() {
 		// remove redundant converters
 		for (int i = convs.size() - 1; i >= 0; i--) {
 			final DLTensorToDataCellConverterFactory<?, ? extends DataCell> conv = convs.get(i);
-			if (conv.getBufferType() != sourceType) {
+			// top k converters of different k share their dest type but are not redundant
+			if (conv.getBufferType() != sourceType && !(conv instanceof DLDoubleTensorToTopKCellsConverterFactory)) {
 				for (int j = 0; j < convs.size(); j++) {
 					if (i != j && convs.get(j).getDestType().equals(conv.getDestType())) {
 						convs.remove(i);
@@ -195,6 +207,13 @@ private DLTensorToDataCellConverterRegistry() {
 				return Optional.empty();
 			}
 		}
+        if (isTopKConverter(identifier)) {
+            try {
+                return Optional.of(new DLDoubleTensorToTopKCellsConverterFactory(extractK(identifier)));
+            } catch (final IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
         return Optional.ofNullable(m_allConverters.get(identifier));
 	}
 
@@ -213,6 +232,9 @@ public final boolean isDeprecated(final String identifier) {
         if (isCollectionConverter(identifier)) {
             return isDeprecated(extractElementConverter(identifier));
         }
+        if (isTopKConverter(identifier)) {
+            return false;
+        }
         // If the identifier is not known at all we throw an exception
         if (!m_allConverters.containsKey(identifier)) {
             throw new IllegalArgumentException("The converter with the identifier " + identifier
@@ -234,6 +256,18 @@ private static String extractElementConverter(final String identifier) {
             identifier.length() - 1);
     }
 
+    private static boolean isTopKConverter(final String identifier) {
+        return identifier.startsWith(DLDoubleTensorToTopKCellsConverterFactory.class.getName() + "(");
+    }
+
+    /**
+     * @throws IllegalArgumentException if the identifier does not contain a valid k
+     */
+    private static int extractK(final String identifier) {
+        return Integer.parseInt(identifier
+            .substring(DLDoubleTensorToTopKCellsConverterFactory.class.getName().length() + 1, identifier.length() - 1));
+    }
+
     // :static helpers
 
 	// registration:
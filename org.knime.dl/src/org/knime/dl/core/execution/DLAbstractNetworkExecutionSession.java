@@ -65,6 +65,7 @@
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.util.DLUtils;
 
 import com.google.common.collect.Sets;
 
@@ -74,6 +75,23 @@
  */
 public abstract class DLAbstractNetworkExecutionSession<N extends DLNetwork> implements DLNetworkExecutionSession {
 
+	/**
+	 * Name of the {@link DLExecutionMonitor#getMetrics() timer} that measures the preparation of the network input
+	 * (reading the input rows and converting them into tensors).
+	 */
+	public static final String METRIC_INPUT_PREPARATION = "Input preparation";
+
+	/**
+	 * Name of the {@link DLExecutionMonitor#getMetrics() timer} that measures the consumption of the network output
+	 * (converting the output tensors into cells and writing the output rows).
+	 */
+	public static final String METRIC_OUTPUT_CONSUMPTION = "Output consumption";
+
+	/**
+	 * Name of the {@link DLExecutionMonitor#getMetrics() counter} of executed batches.
+	 */
+	public static final String METRIC_BATCHES = "Batches";
+
 	private static boolean areInputSpecsValid(final DLNetwork network, final Set<DLTensorSpec> executionInputSpecs) {
 		final DLTensorSpec[] inputSpecs = network.getSpec().getInputSpecs();
 		if (inputSpecs.length != executionInputSpecs.size()) {
@@ -102,9 +120,10 @@ private static boolean areOutputSpecsValid(final DLNetwork network, final Set<DL
 	protected final Set<DLTensorSpec> m_executionInputSpecs;
 
 	/**
-	 * Might not hold for the last batch which could be incomplete.
+	 * Might not hold for the last batch which could be incomplete. Changes during execution if a
+	 * {@link #setBatchSizeTuner(DLExecutionBatchSizeTuner) batch size tuner} is set.
 	 */
-	protected final long m_expectedBatchSize;
+	protected long m_expectedBatchSize;
 
 	protected final Set<DLTensorId> m_requestedOutputs;
 
@@ -124,6 +143,11 @@ private static boolean areOutputSpecsValid(final DLNetwork network, final Set<DL
 	 */
 	protected Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_output;
 
+	/**
+	 * May be <code>null</code>.
+	 */
+	protected DLExecutionBatchSizeTuner m_batchSizeTuner;
+
 	protected DLAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
 			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
 			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
@@ -150,6 +174,11 @@ public N getNetwork() {
 		return m_network;
 	}
 
+	@Override
+	public void setBatchSizeTuner(final DLExecutionBatchSizeTuner tuner) {
+		m_batchSizeTuner = tuner;
+	}
+
 	@Override
 	public void run(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		// lazily preallocate input tensors
@@ -162,6 +191,33 @@ public void run(final DLExecutionMonitor monitor) throws DLCanceledExecutionExce
 		executeInternal(monitor);
 	}
 
+	/**
+	 * Adopts the current batch size of the {@link #setBatchSizeTuner(DLExecutionBatchSizeTuner) batch size tuner}, if
+	 * any. If it changed, the input tensors are reallocated and the output tensors are closed and reset to
+	 * <code>null</code> such that implementations reallocate them. Must be called between two batches.
+	 *
+	 * @return <code>true</code> if the batch size changed
+	 */
+	protected boolean updateBatchSize() {
+		if (m_batchSizeTuner == null || m_batchSizeTuner.getBatchSize() == m_expectedBatchSize) {
+			return false;
+		}
+		m_expectedBatchSize = m_batchSizeTuner.getBatchSize();
+		m_input.values().forEach(DLTensor::close);
+		m_input.clear();
+		for (final DLTensorSpec spec : m_executionInputSpecs) {
+			// execution specs are fully defined, no need to check if optionals are present
+			final DLTensorSpec resizedSpec = m_tensorFactory.createExecutionTensorSpec(spec, m_expectedBatchSize,
+					DLUtils.Shapes.getFixedShape(spec.getShape()).get());
+			m_input.put(resizedSpec.getIdentifier(), m_tensorFactory.createWritableTensor(resizedSpec));
+		}
+		if (m_output != null) {
+			m_output.values().forEach(DLTensor::close);
+			m_output = null;
+		}
+		return true;
+	}
+
 	@Override
 	public void close() throws Exception {
 		if (m_input != null) {
@@ -0,0 +1,192 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Determines the batch size of a network execution at runtime. Starting at an initial batch size, the batch size is
+ * doubled as long as this improves the throughput (examples per second) and the memory consumption of the back end is
+ * expected to stay within a budget. Afterwards, the tuner settles on the batch size with the best throughput. The
+ * tuner never settles on a batch size that it did not measure, in particular not on one below the initial batch
+ * size.
+ * <P>
+ * The tuner is shared between an {@link DLNetworkExecutionSession execution session} and its input preparer: both use
+ * {@link #getBatchSize()} to size the next batch, the session reports the measurements of each executed batch via
+ * {@link #batchEnded(long, long, long)}. The batch size only changes within that method.
+ */
+public final class DLExecutionBatchSizeTuner {
+
+	/**
+	 * Name of the {@link DLExecutionMonitor#getMetrics() counter} that holds the batch size the tuner settled on.
+	 */
+	public static final String METRIC_TUNED_BATCH_SIZE = "Tuned batch size";
+
+	/**
+	 * Number of batches that are executed per probed batch size. Only the last of them is measured, the others serve
+	 * as warm-up (e.g. for back ends that compile the network for each new input shape).
+	 */
+	private static final int BATCHES_PER_STEP = 2;
+
+	/**
+	 * The relative throughput improvement that is required to keep increasing the batch size.
+	 */
+	private static final double MIN_IMPROVEMENT = 0.05;
+
+	private final int m_maxBatchSize;
+
+	private final long m_memoryBudget;
+
+	private final List<String> m_steps = new ArrayList<>();
+
+	private int m_batchSize;
+
+	private int m_numBatchesAtBatchSize;
+
+	private boolean m_settled;
+
+	private int m_bestBatchSize = -1;
+
+	private double m_bestThroughput;
+
+	private int m_lastBatchSize = -1;
+
+	private long m_lastMemory = -1;
+
+	/**
+	 * @param initialBatchSize the batch size of the first batches, must be positive
+	 * @param maxBatchSize the maximum batch size, must not be less than the initial batch size
+	 * @param memoryBudget the maximum memory consumption (in bytes) of the back end, non-positive if there is no budget
+	 */
+	public DLExecutionBatchSizeTuner(final int initialBatchSize, final int maxBatchSize, final long memoryBudget) {
+		checkArgument(initialBatchSize > 0, "Initial batch size must be positive.");
+		checkArgument(maxBatchSize >= initialBatchSize, "Maximum batch size must not be less than initial batch size.");
+		m_batchSize = initialBatchSize;
+		m_maxBatchSize = maxBatchSize;
+		m_memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * @return the size of the next batch
+	 */
+	public int getBatchSize() {
+		return m_batchSize;
+	}
+
+	/**
+	 * @return <code>true</code> if the batch size will not change anymore, in which case no further measurements are
+	 *         needed
+	 */
+	public boolean isSettled() {
+		return m_settled;
+	}
+
+	/**
+	 * Reports the measurements of an executed batch and possibly adapts the batch size.
+	 *
+	 * @param numExamples the number of examples in the batch. Incomplete batches are not taken into account.
+	 * @param nanos the wall time it took to prepare, execute and consume the batch
+	 * @param memory the current memory consumption (in bytes) of the back end after the batch, negative if unknown
+	 */
+	public void batchEnded(final long numExamples, final long nanos, final long memory) {
+		if (m_settled || numExamples < m_batchSize || nanos <= 0) {
+			return;
+		}
+		if (++m_numBatchesAtBatchSize < BATCHES_PER_STEP) {
+			return;
+		}
+		final double throughput = numExamples / (nanos / 1e9);
+		m_steps.add(String.format(Locale.ROOT, "%d: %.1f rows/s%s", m_batchSize, throughput,
+				memory >= 0 ? String.format(Locale.ROOT, ", %d MB memory", memory >> 20) : ""));
+		if (m_memoryBudget > 0 && memory > m_memoryBudget) {
+			// exceeded the budget, fall back to the last batch size that stayed within it or, if the initial batch size
+			// already exceeded it, keep that one as smaller batch sizes were not measured
+			settle(m_bestBatchSize != -1 ? m_bestBatchSize : m_batchSize);
+			return;
+		}
+		if (m_bestBatchSize != -1 && throughput < m_bestThroughput * (1 + MIN_IMPROVEMENT)) {
+			settle(m_bestBatchSize);
+			return;
+		}
+		m_bestBatchSize = m_batchSize;
+		m_bestThroughput = throughput;
+		final int next = (int) Math.min(2L * m_batchSize, m_maxBatchSize);
+		if (next == m_batchSize) {
+			settle(m_batchSize);
+			return;
+		}
+		if (m_memoryBudget > 0 && memory >= 0 && m_lastMemory >= 0 && memory > m_lastMemory) {
+			// assume that memory consumption grows linearly with the batch size
+			final double bytesPerExample = (memory - m_lastMemory) / (double) (m_batchSize - m_lastBatchSize);
+			if (memory + bytesPerExample * (next - m_batchSize) > m_memoryBudget) {
+				settle(m_batchSize);
+				return;
+			}
+		}
+		m_lastBatchSize = m_batchSize;
+		m_lastMemory = memory;
+		m_batchSize = next;
+		m_numBatchesAtBatchSize = 0;
+	}
+
+	/**
+	 * @return a human readable summary of the probed batch sizes and the result
+	 */
+	public String getSummary() {
+		return (m_settled ? "Settled on batch size " : "Did not settle, last batch size was ") + m_batchSize
+				+ ". Probed batch sizes:\n" + String.join("\n", m_steps);
+	}
+
+	private void settle(final int batchSize) {
+		m_batchSize = batchSize;
+		m_settled = true;
+	}
+}
@@ -0,0 +1,664 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDefaultBitBuffer;
+import org.knime.dl.core.data.DLPackedBitBuffer;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.util.DLUtils;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Memoizes the network output of single examples (i.e. rows) during one execution of a network for one set of
+ * requested outputs. Examples are identified by a 128-bit hash of their converted network input. The output of an
+ * example is stored off-heap in a fixed-size slot of a single direct buffer whose size is bounded by the capacity
+ * given on construction. If all slots are taken, the least recently used entry is evicted.
+ * <P>
+ * The cache is shared between {@link DLKnimeNetworkExecutionInputPreparer} and {@link DLKnimeNetworkOutputConsumer}:
+ * the input preparer looks up each example right after it was written into the input tensors and removes it from the
+ * batch in case of a hit. The output consumer stores the output of each executed example and emits the rows of cache
+ * hits in their original order. Cached entries that are referenced by pending hits are not evicted.
+ * <P>
+ * Caching is only supported for tensors whose buffers are {@link DLWrappingDataBuffer wrapping buffers} of primitive
+ * (or, in case of inputs, string) storage. The cache disables itself if this is not the case. Examples that repeat
+ * within the same batch are not served from the cache but executed again.
+ */
+public final class DLExecutionResultCache implements AutoCloseable {
+
+	/**
+	 * Name of the {@link DLExecutionMonitor#getMetrics() counter} of rows that were served from the cache.
+	 */
+	public static final String METRIC_HITS = "Result cache hits";
+
+	/**
+	 * Name of the {@link DLExecutionMonitor#getMetrics() counter} of rows that had to be executed.
+	 */
+	public static final String METRIC_MISSES = "Result cache misses";
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLExecutionResultCache.class);
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	/**
+	 * Marks examples that could not be hashed. Compared by identity.
+	 */
+	private static final HashCode NOT_CACHEABLE = HashCode.fromLong(0);
+
+	private final long m_capacity;
+
+	private final DLTensorFactory m_tensorFactory;
+
+	/**
+	 * Access-ordered, i.e. iteration starts at the least recently used entry.
+	 */
+	private final LinkedHashMap<HashCode, CacheEntry> m_entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Queue<HashCode> m_pendingMisses = new ArrayDeque<>();
+
+	private final Queue<PendingHit> m_pendingHits = new ArrayDeque<>();
+
+	private boolean m_enabled = true;
+
+	/**
+	 * <code>null</code> until the ordering of the input tensors is known.
+	 */
+	private List<DLTensorId> m_inputOrder;
+
+	/**
+	 * <code>null</code> until the layout of the outputs is known, see {@link #initializeSlots(Map)}.
+	 */
+	private ByteBuffer m_slots;
+
+	private OutputLayout[] m_outputLayouts;
+
+	/**
+	 * Scratch space for aligning packed bits of an output example, sized for the largest bit output.
+	 */
+	private long[] m_outputWords;
+
+	/**
+	 * Scratch space for aligning packed bits of an input example, grown on demand.
+	 */
+	private long[] m_inputWords = new long[0];
+
+	private int m_slotSize;
+
+	private int m_numSlots;
+
+	private int m_numUsedSlots;
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_hitTensors;
+
+	private long m_numQueuedMisses;
+
+	private long m_numEmittedMisses;
+
+	private long m_hits;
+
+	private long m_misses;
+
+	/**
+	 * @param capacity the maximum number of bytes used to store network outputs
+	 * @param tensorFactory the tensor factory of the execution back end, used to create the tensors from which the
+	 *            output of cache hits is converted
+	 */
+	public DLExecutionResultCache(final long capacity, final DLTensorFactory tensorFactory) {
+		m_capacity = capacity;
+		m_tensorFactory = tensorFactory;
+	}
+
+	/**
+	 * @return <code>false</code> if caching turned out to be unsupported for the executed network
+	 */
+	public boolean isEnabled() {
+		return m_enabled;
+	}
+
+	/**
+	 * @return the number of rows that were served from the cache
+	 */
+	public long getHits() {
+		return m_hits;
+	}
+
+	/**
+	 * @return the number of rows that had to be executed
+	 */
+	public long getMisses() {
+		return m_misses;
+	}
+
+	/**
+	 * @return the fraction of rows that were served from the cache, or zero if no row was processed yet
+	 */
+	public double getHitRate() {
+		final long total = m_hits + m_misses;
+		return total == 0 ? 0d : m_hits / (double) total;
+	}
+
+	/**
+	 * @return the number of currently cached examples
+	 */
+	public int size() {
+		return m_entries.size();
+	}
+
+	// -- input side --
+
+	/**
+	 * Hashes the example that was written last into the given input tensors and looks it up. In case of a hit, the
+	 * example is removed from the input tensors and the row is queued until the output consumer emits it. Otherwise
+	 * the caller must add the row to the batch, its output will be cached once it is available.
+	 *
+	 * @param row the row from which the example was created
+	 * @param input the input tensors, each of which must contain the example in its last <code>exampleSize</code>
+	 *            elements
+	 * @return <code>true</code> if the example is cached (cache hit)
+	 */
+	boolean lookUpLastExample(final DataRow row, final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		final HashCode key = m_enabled ? hashLastExample(input) : NOT_CACHEABLE;
+		if (key != NOT_CACHEABLE) {
+			final CacheEntry entry = m_entries.get(key);
+			if (entry != null) {
+				entry.m_pins++;
+				m_pendingHits.add(new PendingHit(row, entry, m_numQueuedMisses));
+				for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+					final DLWrappingDataBuffer<?> buffer = (DLWrappingDataBuffer<?>) tensor.getBuffer();
+					buffer.truncate(buffer.size() - tensor.getExampleSize());
+				}
+				m_hits++;
+				return true;
+			}
+		}
+		m_pendingMisses.add(key);
+		m_numQueuedMisses++;
+		m_misses++;
+		return false;
+	}
+
+	private HashCode hashLastExample(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		if (m_inputOrder == null) {
+			m_inputOrder = new ArrayList<>(input.keySet());
+			m_inputOrder.sort(Comparator.comparing(DLTensorId::getIdentifierString));
+		}
+		final Hasher hasher = HASH_FUNCTION.newHasher();
+		for (final DLTensorId id : m_inputOrder) {
+			final DLTensor<? extends DLWritableBuffer> tensor = input.get(id);
+			final DLWritableBuffer buffer = tensor.getBuffer();
+			final long exampleSize = tensor.getExampleSize();
+			final long start = buffer.size() - exampleSize;
+			if (!(buffer instanceof DLWrappingDataBuffer) || start < 0 || start % exampleSize != 0) {
+				// example was not written completely, this is reported by the input preparer
+				return disableIfUnsupported(buffer);
+			}
+			final Object storage = ((DLWrappingDataBuffer<?>) buffer).getStorageForReading(start, exampleSize);
+			if (buffer instanceof DLPackedBitBuffer) {
+				putBits(hasher, (long[]) storage, (int) start, (int) exampleSize);
+			} else if (!putAll(hasher, storage, (int) start, (int) exampleSize)) {
+				return disableIfUnsupported(buffer);
+			}
+		}
+		return hasher.hash();
+	}
+
+	private HashCode disableIfUnsupported(final DLBuffer buffer) {
+		if (!(buffer instanceof DLWrappingDataBuffer) || StorageType.of(buffer) == null) {
+			disable("Input buffer type '" + buffer.getClass().getSimpleName() + "' is not supported.");
+		}
+		return NOT_CACHEABLE;
+	}
+
+	private static boolean putAll(final Hasher hasher, final Object storage, final int start, final int length) {
+		final int end = start + length;
+		if (storage instanceof float[]) {
+			final float[] s = (float[]) storage;
+			for (int i = start; i < end; i++) {
+				hasher.putFloat(s[i]);
+			}
+		} else if (storage instanceof double[]) {
+			final double[] s = (double[]) storage;
+			for (int i = start; i < end; i++) {
+				hasher.putDouble(s[i]);
+			}
+		} else if (storage instanceof int[]) {
+			final int[] s = (int[]) storage;
+			for (int i = start; i < end; i++) {
+				hasher.putInt(s[i]);
+			}
+		} else if (storage instanceof long[]) {
+			final long[] s = (long[]) storage;
+			for (int i = start; i < end; i++) {
+				hasher.putLong(s[i]);
+			}
+		} else if (storage instanceof short[]) {
+			final short[] s = (short[]) storage;
+			for (int i = start; i < end; i++) {
+				hasher.putShort(s[i]);
+			}
+		} else if (storage instanceof byte[]) {
+			hasher.putBytes((byte[]) storage, start, length);
+		} else if (storage instanceof String[]) {
+			final String[] s = (String[]) storage;
+			for (int i = start; i < end; i++) {
+				if (s[i] == null) {
+					hasher.putInt(-1);
+				} else {
+					hasher.putInt(s[i].length());
+					hasher.putUnencodedChars(s[i]);
+				}
+			}
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private void putBits(final Hasher hasher, final long[] storage, final int start, final int length) {
+		final int numWords = DLDefaultBitBuffer.getNumWords(length);
+		if (m_inputWords.length < numWords) {
+			m_inputWords = new long[numWords];
+		}
+		alignBits(storage, start, length, m_inputWords);
+		for (int i = 0; i < numWords; i++) {
+			hasher.putLong(m_inputWords[i]);
+		}
+	}
+
+	/**
+	 * Copies the given range of packed bits into the given words such that the first bit of the range becomes the first
+	 * bit of the first word. Unused bits of the last copied word are zero.
+	 *
+	 * @return the number of copied words
+	 */
+	private static int alignBits(final long[] storage, final int start, final int length, final long[] words) {
+		final int numWords = DLDefaultBitBuffer.getNumWords(length);
+		if (numWords > 0) {
+			words[numWords - 1] = 0;
+		}
+		DLDefaultBitBuffer.copyBits(storage, start, words, 0, length);
+		return numWords;
+	}
+
+	// -- output side --
+
+	/**
+	 * Stores the output of an executed example and assigns it to the key that was computed when the example was
+	 * {@link #lookUpLastExample(DataRow, Map) looked up}. Must be called once for each cache miss, in order.
+	 *
+	 * @param output the output tensors of the batch that contains the example
+	 * @param exampleIndex the index of the example within the batch
+	 */
+	void putNextMiss(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output, final int exampleIndex) {
+		final HashCode key = m_pendingMisses.remove();
+		m_numEmittedMisses++;
+		if (key == NOT_CACHEABLE || !m_enabled || (m_slots == null && !initializeSlots(output))) {
+			return;
+		}
+		CacheEntry entry = m_entries.get(key);
+		if (entry == null) {
+			final int slot = acquireSlot();
+			if (slot == -1) {
+				// all slots are referenced by pending hits
+				return;
+			}
+			entry = new CacheEntry(slot);
+			m_entries.put(key, entry);
+		}
+		int offset = entry.m_slot * m_slotSize;
+		for (final OutputLayout layout : m_outputLayouts) {
+			final DLTensor<? extends DLReadableBuffer> tensor = output.get(layout.m_id);
+			final long start = exampleIndex * layout.m_exampleSize;
+			final Object storage = ((DLWrappingDataBuffer<?>) tensor.getBuffer()).getStorageForReading(start,
+					layout.m_exampleSize);
+			layout.m_type.write(storage, (int) start, layout.m_exampleSize, view(offset), m_outputWords);
+			offset += (int) layout.m_type.getNumBytes(layout.m_exampleSize);
+		}
+	}
+
+	/**
+	 * Returns the row of the next pending cache hit if the output consumer is supposed to emit it now, i.e. if all
+	 * executed rows that precede it have already been emitted. The output of the hit can then be obtained via
+	 * {@link #getHitOutput()}.
+	 *
+	 * @return the row of the next cache hit or <code>null</code> if there is none that can be emitted now
+	 */
+	DataRow pollHit() {
+		final PendingHit hit = m_pendingHits.peek();
+		if (hit == null || hit.m_numPrecedingMisses > m_numEmittedMisses) {
+			return null;
+		}
+		m_pendingHits.remove();
+		final CacheEntry entry = hit.m_entry;
+		entry.m_pins--;
+		int offset = entry.m_slot * m_slotSize;
+		for (final OutputLayout layout : m_outputLayouts) {
+			final DLReadableBuffer buffer = m_hitTensors.get(layout.m_id).getBuffer();
+			final DLWrappingDataBuffer<?> wrapping = (DLWrappingDataBuffer<?>) buffer;
+			wrapping.reset();
+			layout.m_type.read(view(offset), wrapping.getStorageForWriting(0, layout.m_exampleSize),
+					layout.m_exampleSize);
+			offset += (int) layout.m_type.getNumBytes(layout.m_exampleSize);
+		}
+		return hit.m_row;
+	}
+
+	/**
+	 * @return single-example tensors that hold the output of the row last returned by {@link #pollHit()}
+	 */
+	Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> getHitOutput() {
+		return m_hitTensors;
+	}
+
+	private boolean initializeSlots(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output) {
+		final OutputLayout[] layouts = new OutputLayout[output.size()];
+		long slotSize = 0;
+		int i = 0;
+		for (final Entry<DLTensorId, DLTensor<? extends DLReadableBuffer>> entry : output.entrySet()) {
+			final DLTensor<? extends DLReadableBuffer> tensor = entry.getValue();
+			final StorageType type = StorageType.of(tensor.getBuffer());
+			if (type == null || type == StorageType.STRING) {
+				disable("Output buffer type '" + tensor.getBuffer().getClass().getSimpleName()
+						+ "' is not supported.");
+				return false;
+			}
+			layouts[i++] = new OutputLayout(entry.getKey(), tensor.getSpec(), type, (int) tensor.getExampleSize());
+			slotSize += type.getNumBytes(tensor.getExampleSize());
+		}
+		final long numSlots = slotSize == 0 ? 0 : Math.min(m_capacity / slotSize, Integer.MAX_VALUE / slotSize);
+		if (numSlots == 0) {
+			disable("The output of a single row (" + slotSize + " bytes) exceeds the cache size.");
+			return false;
+		}
+		int maxNumWords = 0;
+		for (final OutputLayout layout : layouts) {
+			if (layout.m_type == StorageType.BIT) {
+				maxNumWords = Math.max(maxNumWords, DLDefaultBitBuffer.getNumWords(layout.m_exampleSize));
+			}
+		}
+		final LinkedHashMap<DLTensorId, DLTensor<? extends DLReadableBuffer>> hitTensors =
+				new LinkedHashMap<>(layouts.length);
+		for (final OutputLayout layout : layouts) {
+			final long[] shape = DLUtils.Shapes.getFixedShape(layout.m_spec.getShape())
+					.orElseThrow(() -> new IllegalStateException("Output '" + layout.m_spec.getName()
+							+ "' does not have a fixed shape at execution time."));
+			final DLTensorSpec hitSpec = m_tensorFactory.createExecutionTensorSpec(layout.m_spec, 1, shape);
+			final DLTensor<? extends DLReadableBuffer> hitTensor = m_tensorFactory.createReadableTensor(hitSpec);
+			hitTensors.put(layout.m_id, hitTensor);
+			if (StorageType.of(hitTensor.getBuffer()) != layout.m_type) {
+				hitTensors.values().forEach(DLTensor::close);
+				disable("Output buffer type '" + hitTensor.getBuffer().getClass().getSimpleName()
+						+ "' is not supported.");
+				return false;
+			}
+		}
+		m_outputLayouts = layouts;
+		m_outputWords = new long[maxNumWords];
+		m_slotSize = (int) slotSize;
+		m_numSlots = (int) numSlots;
+		m_slots = ByteBuffer.allocateDirect(m_slotSize * m_numSlots).order(ByteOrder.nativeOrder());
+		m_hitTensors = hitTensors;
+		return true;
+	}
+
+	private int acquireSlot() {
+		if (m_numUsedSlots < m_numSlots) {
+			return m_numUsedSlots++;
+		}
+		final Iterator<CacheEntry> it = m_entries.values().iterator();
+		while (it.hasNext()) {
+			final CacheEntry eldest = it.next();
+			if (eldest.m_pins == 0) {
+				it.remove();
+				return eldest.m_slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the slots, positioned at the given offset; only valid until the next call
+	 */
+	private ByteBuffer view(final int offset) {
+		return m_slots.position(offset);
+	}
+
+	private void disable(final String reason) {
+		if (m_enabled) {
+			LOGGER.debug("Caching of network outputs is disabled. " + reason);
+			m_enabled = false;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (m_hitTensors != null) {
+			m_hitTensors.values().forEach(DLTensor::close);
+			m_hitTensors = null;
+		}
+		m_entries.clear();
+		m_pendingMisses.clear();
+		m_pendingHits.clear();
+		m_slots = null;
+	}
+
+	private enum StorageType {
+
+			DOUBLE(Double.BYTES), FLOAT(Float.BYTES), LONG(Long.BYTES), INT(Integer.BYTES), SHORT(Short.BYTES),
+			BYTE(Byte.BYTES), BIT(Long.BYTES), STRING(0);
+
+		private static StorageType of(final DLBuffer buffer) {
+			if (!(buffer instanceof DLWrappingDataBuffer)) {
+				return null;
+			}
+			if (buffer instanceof DLPackedBitBuffer) {
+				// packed bit storage is a long[] as well, check it first
+				return BIT;
+			}
+			final Object storage = ((DLWrappingDataBuffer<?>) buffer).getStorageForReading(0, 0);
+			if (storage instanceof double[]) {
+				return DOUBLE;
+			} else if (storage instanceof float[]) {
+				return FLOAT;
+			} else if (storage instanceof long[]) {
+				return LONG;
+			} else if (storage instanceof int[]) {
+				return INT;
+			} else if (storage instanceof short[]) {
+				return SHORT;
+			} else if (storage instanceof byte[]) {
+				return BYTE;
+			} else if (storage instanceof String[]) {
+				return STRING;
+			}
+			return null;
+		}
+
+		private final int m_bytes;
+
+		StorageType(final int bytes) {
+			m_bytes = bytes;
+		}
+
+		/**
+		 * @return the number of bytes that are needed to cache an example of the given number of elements, bits are
+		 *         cached in whole words
+		 */
+		private long getNumBytes(final long exampleSize) {
+			return this == BIT ? (long) DLDefaultBitBuffer.getNumWords(exampleSize) * m_bytes : exampleSize * m_bytes;
+		}
+
+		private void write(final Object storage, final int start, final int length, final ByteBuffer dest,
+				final long[] words) {
+			switch (this) {
+				case DOUBLE:
+					dest.asDoubleBuffer().put((double[]) storage, start, length);
+					break;
+				case FLOAT:
+					dest.asFloatBuffer().put((float[]) storage, start, length);
+					break;
+				case LONG:
+					dest.asLongBuffer().put((long[]) storage, start, length);
+					break;
+				case INT:
+					dest.asIntBuffer().put((int[]) storage, start, length);
+					break;
+				case SHORT:
+					dest.asShortBuffer().put((short[]) storage, start, length);
+					break;
+				case BYTE:
+					dest.put((byte[]) storage, start, length);
+					break;
+				case BIT:
+					dest.asLongBuffer().put(words, 0, alignBits((long[]) storage, start, length, words));
+					break;
+				default:
+					throw new IllegalStateException("Storage type " + this + " cannot be cached.");
+			}
+		}
+
+		private void read(final ByteBuffer src, final Object storage, final int length) {
+			switch (this) {
+				case DOUBLE:
+					src.asDoubleBuffer().get((double[]) storage, 0, length);
+					break;
+				case FLOAT:
+					src.asFloatBuffer().get((float[]) storage, 0, length);
+					break;
+				case LONG:
+					src.asLongBuffer().get((long[]) storage, 0, length);
+					break;
+				case INT:
+					src.asIntBuffer().get((int[]) storage, 0, length);
+					break;
+				case SHORT:
+					src.asShortBuffer().get((short[]) storage, 0, length);
+					break;
+				case BYTE:
+					src.get((byte[]) storage, 0, length);
+					break;
+				case BIT:
+					src.asLongBuffer().get((long[]) storage, 0, DLDefaultBitBuffer.getNumWords(length));
+					break;
+				default:
+					throw new IllegalStateException("Storage type " + this + " cannot be cached.");
+			}
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final int m_slot;
+
+		/**
+		 * Number of pending hits that reference this entry. Pinned entries are not evicted.
+		 */
+		private int m_pins;
+
+		private CacheEntry(final int slot) {
+			m_slot = slot;
+		}
+	}
+
+	private static final class OutputLayout {
+
+		private final DLTensorId m_id;
+
+		private final DLTensorSpec m_spec;
+
+		private final StorageType m_type;
+
+		private final int m_exampleSize;
+
+		private OutputLayout(final DLTensorId id, final DLTensorSpec spec, final StorageType type,
+				final int exampleSize) {
+			m_id = id;
+			m_spec = spec;
+			m_type = type;
+			m_exampleSize = exampleSize;
+		}
+	}
+
+	private static final class PendingHit {
+
+		private final DataRow m_row;
+
+		private final CacheEntry m_entry;
+
+		private final long m_numPrecedingMisses;
+
+		private PendingHit(final DataRow row, final CacheEntry entry, final long numPrecedingMisses) {
+			m_row = row;
+			m_entry = entry;
+			m_numPrecedingMisses = numPrecedingMisses;
+		}
+	}
+}
@@ -48,6 +48,7 @@
 
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.dl.core.DLAbstractKnimeSessionMonitor;
+import org.knime.dl.core.DLMetricsRegistry;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -62,6 +63,12 @@ public DLKnimeExecutionMonitor(final ExecutionMonitor knimeMonitor, final DLExec
 		m_executionStatus = trainingStatus;
 	}
 
+	private DLKnimeExecutionMonitor(final ExecutionMonitor knimeMonitor, final DLExecutionStatus trainingStatus,
+		final DLMetricsRegistry metrics) {
+		super(knimeMonitor, metrics);
+		m_executionStatus = trainingStatus;
+	}
+
 	@Override
 	public DLExecutionStatus getExecutionStatus() {
 		return m_executionStatus;
@@ -69,6 +76,6 @@ public DLExecutionStatus getExecutionStatus() {
 
 	@Override
 	public DLKnimeExecutionMonitor createSubMonitor(final double fraction) {
-		return new DLKnimeExecutionMonitor(m_knimeMonitor.createSubProgress(fraction), m_executionStatus);
+		return new DLKnimeExecutionMonitor(m_knimeMonitor.createSubProgress(fraction), m_executionStatus, m_metrics);
 	}
 }
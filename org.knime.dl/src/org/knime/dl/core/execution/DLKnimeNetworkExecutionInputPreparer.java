@@ -73,6 +73,10 @@ public final class DLKnimeNetworkExecutionInputPreparer extends DLAbstractKnimeN
 
 	private final Queue<DataRow> m_baseRows;
 
+	private final DLExecutionResultCache m_cache;
+
+	private DLExecutionBatchSizeTuner m_batchSizeTuner;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size. It must be in a proper initial
@@ -87,12 +91,52 @@ public final class DLKnimeNetworkExecutionInputPreparer extends DLAbstractKnimeN
 	public DLKnimeNetworkExecutionInputPreparer(final DLRowIterator iterator, final int batchSize,
 			final boolean isPredefinedBatchSize,
 			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters) {
+		this(iterator, batchSize, isPredefinedBatchSize, converters, null);
+	}
+
+	/**
+	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
+	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size. It must be in a proper initial
+	 *            state (i.e. reset).
+	 * @param batchSize the batch size of the tensors that will be prepared by this instance
+	 * @param isPredefinedBatchSize true if the batch size is defined by the network specification (rather than by the
+	 *            user). In this case, incomplete last batches will be zero-padded to match the expected batch size.
+	 *            Otherwise false, in which case incomplete batches are not handled.
+	 * @param converters the converters that are used to write the data rows into the tensors. The given tensor ids
+	 *            determine the set of tensors supported by {@link #prepare(Map, long)}.
+	 * @param cache the result cache that is shared with the output consumer, may be <code>null</code>. If present,
+	 *            rows whose output is cached are not added to the batches (and to the {@link #getBaseRows() base
+	 *            rows}) but are emitted by the output consumer.
+	 */
+	public DLKnimeNetworkExecutionInputPreparer(final DLRowIterator iterator, final int batchSize,
+			final boolean isPredefinedBatchSize,
+			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters,
+			final DLExecutionResultCache cache) {
 		super(iterator, batchSize, converters);
 		m_isPredefinedBatchSize = isPredefinedBatchSize;
 		m_baseRows = new ArrayDeque<>(batchSize);
+		m_cache = cache;
+	}
+
+	/**
+	 * Lets the given tuner determine the size of the prepared batches instead of the batch size that was passed to the
+	 * constructor. The tuner must be shared with the execution session. Must not be used if the batch size is
+	 * predefined by the network.
+	 *
+	 * @param tuner the batch size tuner
+	 */
+	public void setBatchSizeTuner(final DLExecutionBatchSizeTuner tuner) {
+		if (m_isPredefinedBatchSize) {
+			throw new IllegalStateException("The batch size is predefined by the network and cannot be tuned.");
+		}
+		m_batchSizeTuner = tuner;
 	}
 
     public OptionalLong getNumBatches() {
+        if (m_batchSizeTuner != null) {
+            // batch size changes during execution
+            return OptionalLong.empty();
+        }
 	    try {
 	        return OptionalLong.of((long) Math.ceil(m_iterator.size() / (double) m_batchSize));
         } catch (final UnsupportedOperationException e) {
@@ -113,26 +157,32 @@ public boolean hasNext() {
     @Override
     public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
         throws DLCanceledExecutionException {
-		long i;
-		for (i = 0; i < m_batchSize; i++) {
+		final long batchSize = m_batchSizeTuner != null ? m_batchSizeTuner.getBatchSize() : m_batchSize;
+		long i = 0;
+		while (i < batchSize) {
 			if (!m_iterator.hasNext()) {
 				// last batch will be incomplete, handled below
 				break;
 			}
 			final DataRow row = m_iterator.next();
-			m_baseRows.add(row);
 			try {
 				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
+				if (m_cache != null && m_cache.lookUpLastExample(row, input)) {
+					// cache hit, the row does not take up space in the batch
+					continue;
+				}
+				m_baseRows.add(row);
+				i++;
 			} catch (final DLBufferOverflowExceptionForTensor e) {
 				final DLTensor<?> tensor = e.getTensor();
 				// must be present
 				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
 				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+				final long tensorBatchSize = tensor.getSpec().getBatchSize().getAsLong();
 				throw new DLInvalidNetworkInputException(
 						"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
-								+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
-								+ ". Thus, expected input data size is " + exampleSize * batchSize
+								+ "'. Neuron count is " + exampleSize + ", batch size is " + tensorBatchSize
+								+ ". Thus, expected input data size is " + exampleSize * tensorBatchSize
 								+ ". Please check the column selection for this input "
 								+ "and validate the node's input data.",
 						e);
@@ -142,15 +192,19 @@ public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffe
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
 			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
 			final DLWritableBuffer buffer = tensor.getBuffer();
-			final long expectedSize = tensor.getExampleSize() * m_batchSize;
+			final long expectedSize = tensor.getExampleSize() * batchSize;
 			if (buffer.size() != expectedSize) {
-				if (i < m_batchSize && buffer.size() / tensor.getExampleSize() == i) {
+				if (i < batchSize && buffer.size() / tensor.getExampleSize() == i) {
 					// Last batch is incomplete but was correctly filled: if the batch size is pre-defined in the
 					// network, we have to pad the input batch in order to adhere to the network's input specification.
 					// Else, we ignore it - downstream code will have to make sure the incomplete batch is processed
 					// properly.
 					if (m_isPredefinedBatchSize) {
 						buffer.zeroPad(expectedSize - buffer.size());
+					} else if (i == 0) {
+						// All remaining rows were cache hits. Execute a single padding example, its output is
+						// discarded by the output consumer.
+						buffer.zeroPad(tensor.getExampleSize());
 					}
 				} else {
 					// Must be present. Note that exampleSize == tensor.getExampleSize() does not necessarily hold
@@ -160,8 +214,8 @@ public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffe
 					throw new DLInvalidNetworkInputException(
 							"Node input data size does not match the expected size of network input '"
 									+ tensor.getSpec().getName() + "'. Neuron count is " + exampleSize
-									+ ", batch size is " + m_batchSize + ". Thus, expected input size is "
-									+ exampleSize * m_batchSize + ". However, node input data size is "
+									+ ", batch size is " + batchSize + ". Thus, expected input size is "
+									+ exampleSize * batchSize + ". However, node input data size is "
 									+ bufferSizeInNeurons + ". Please check the column selection for this input "
 									+ "and validate the node's input data.");
 				}
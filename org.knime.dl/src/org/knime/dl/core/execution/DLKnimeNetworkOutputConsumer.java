@@ -83,6 +83,8 @@ public final class DLKnimeNetworkOutputConsumer implements DLNetworkOutputConsum
 
 	private final ExecutionContext m_exec;
 
+	private final DLExecutionResultCache m_cache;
+
     /**
      * The iteration order of this map determines the order in which cells are appended to each output row.
      */
@@ -93,6 +95,8 @@ public final class DLKnimeNetworkOutputConsumer implements DLNetworkOutputConsum
      */
     private DataCell[] m_temp;
 
+    private long m_batchSize;
+
     /**
      * @param append if true, the output cells created by this instance will be appended to their respective base rows.
      *            Otherwise new rows will be created which retain the row keys of their respective base rows.
@@ -104,10 +108,28 @@ public final class DLKnimeNetworkOutputConsumer implements DLNetworkOutputConsum
     public DLKnimeNetworkOutputConsumer(final RowOutput output, final Supplier<DataRow> baseRows, final boolean append,
         final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> converters,
         final ExecutionContext exec) {
+		this(output, baseRows, append, converters, exec, null);
+	}
+
+    /**
+     * @param append if true, the output cells created by this instance will be appended to their respective base rows.
+     *            Otherwise new rows will be created which retain the row keys of their respective base rows.
+     * @param converters the iteration order of this linked map determines the order in which cells are appended to each
+     *            output row. Each key that is present in this map is expected to be present in the argument of
+     *            {@link #accept(Map)}.
+     * @param exec needed for the creation of {@link FileStoreCell file store cells}.
+     * @param cache the result cache that is shared with the input preparer, may be <code>null</code>. If present, the
+     *            output of each executed row is stored in the cache and the rows of cache hits are emitted in their
+     *            original order.
+     */
+    public DLKnimeNetworkOutputConsumer(final RowOutput output, final Supplier<DataRow> baseRows, final boolean append,
+        final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> converters,
+        final ExecutionContext exec, final DLExecutionResultCache cache) {
 		m_output = output;
 		m_baseRows = baseRows;
 		m_append = append;
 		m_exec = exec;
+		m_cache = cache;
 		m_helpers = new LinkedHashMap<>(converters.size());
 		for (final Entry<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> entry : converters.entrySet()) {
 			final DLKnimeOutputConsumerHelperStruct helper = new DLKnimeOutputConsumerHelperStruct();
@@ -119,8 +141,11 @@ public DLKnimeNetworkOutputConsumer(final RowOutput output, final Supplier<DataR
 
 	@Override
 	public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> tensors) {
-		if (m_temp == null) {
-			// initialize output structs the first time we know how the network output looks like
+		// must be present
+		final long specBatchSize = tensors.values().iterator().next().getSpec().getBatchSize().getAsLong();
+		if (m_temp == null || specBatchSize != m_batchSize) {
+			// initialize output structs the first time we know how the network output looks like and whenever the
+			// batch size changes (e.g. due to batch size tuning)
 			initialize(tensors);
 		}
 		for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
@@ -142,6 +167,9 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 		final DLTensor<? extends DLReadableBuffer> tensor = tensors.values().iterator().next();
 		final long batchSize = tensor.getBuffer().size() / tensor.getExampleSize();
 		for (int r = 0; r < batchSize; r++) {
+			if (m_cache != null && !pushCacheHits()) {
+				return;
+			}
 			int c = 0;
 	        for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
 	            final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
@@ -160,17 +188,16 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 				// this should only occur in case of incomplete last batches and pre-defined batch size
 				break;
 			}
-			try {
-				if (m_append) {
-					m_output.push(new AppendedColumnRow(baseRow, m_temp.clone()));
-				} else {
-					m_output.push(new DefaultRow(baseRow.getKey(), m_temp));
-				}
-			} catch (final InterruptedException ex) {
-				Thread.currentThread().interrupt();
+			if (m_cache != null) {
+				m_cache.putNextMiss(tensors, r);
+			}
+			if (!push(baseRow, m_temp)) {
 				return;
 			}
 		}
+		if (m_cache != null) {
+			pushCacheHits();
+		}
 	}
 
 	@Override
@@ -178,6 +205,55 @@ public void close() throws Exception {
 		m_output.close();
 	}
 
+	/**
+	 * @return <code>false</code> if the thread was interrupted
+	 */
+	private boolean push(final DataRow baseRow, final DataCell[] cells) {
+		try {
+			if (m_append) {
+				m_output.push(new AppendedColumnRow(baseRow, cells.clone()));
+			} else {
+				m_output.push(new DefaultRow(baseRow.getKey(), cells));
+			}
+			return true;
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Emits the rows of all pending cache hits that precede the next executed row.
+	 *
+	 * @return <code>false</code> if the thread was interrupted
+	 */
+	private boolean pushCacheHits() {
+		DataRow baseRow;
+		while ((baseRow = m_cache.pollHit()) != null) {
+			final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> tensors = m_cache.getHitOutput();
+			int c = 0;
+			for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
+				final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
+				if (helper.m_hitTemp == null) {
+					helper.m_hitTemp = (DataCell[]) Array.newInstance(helper.m_factory.getDestType().getCellClass(),
+							(int) helper.m_numOutputElements);
+				}
+				try {
+					final DLTensorToDataCellConverter converter = helper.m_converter;
+					converter.convert(tensors.get(entry.getKey()), helper.m_hitTemp, m_exec);
+				} catch (final Exception e) {
+					throw new RuntimeException(e);
+				}
+				System.arraycopy(helper.m_hitTemp, 0, m_temp, c, (int) helper.m_numOutputElements);
+				c += helper.m_numOutputElements;
+			}
+			if (!push(baseRow, m_temp)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void initialize(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> tensors) {
 		// must be present
 		final long batchSize = tensors.values().iterator().next().getSpec().getBatchSize().getAsLong();
@@ -185,6 +261,7 @@ private void initialize(final Map<DLTensorId, DLTensor<? extends DLReadableBuffe
 			throw new IllegalArgumentException(
 					"Batch size (" + batchSize + ") is larger than 2^31-1. This is currently not supported.");
 		}
+		m_batchSize = batchSize;
 		long totalNumOutputElements = 0;
         for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
             final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
@@ -221,5 +298,10 @@ private static final class DLKnimeOutputConsumerHelperStruct {
 		private long m_numOutputElements;
 
 		private DataCell[] m_temp;
+
+		/**
+		 * Holds the cells of a single cache hit, <code>null</code> until the first hit.
+		 */
+		private DataCell[] m_hitTemp;
 	}
 }
@@ -60,4 +60,16 @@
 public interface DLNetworkExecutionSession extends DLNetworkSession {
 
 	void run(DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception;
+
+	/**
+	 * Lets the given tuner determine the batch size of this session. The input preparer of the session must use the
+	 * same tuner. Must be called before {@link #run(DLExecutionMonitor)}. Sessions that do not support changing the
+	 * batch size at runtime ignore the tuner, which then keeps its initial batch size as it never receives
+	 * measurements.
+	 *
+	 * @param tuner the batch size tuner
+	 */
+	default void setBatchSizeTuner(final DLExecutionBatchSizeTuner tuner) {
+		// no op
+	}
 }
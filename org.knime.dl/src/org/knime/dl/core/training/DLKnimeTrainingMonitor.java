@@ -48,6 +48,7 @@
 
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.dl.core.DLAbstractKnimeSessionMonitor;
+import org.knime.dl.core.DLMetricsRegistry;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -63,6 +64,12 @@ public DLKnimeTrainingMonitor(final ExecutionMonitor knimeMonitor, final S train
 		m_trainingStatus = trainingStatus;
 	}
 
+	private DLKnimeTrainingMonitor(final ExecutionMonitor knimeMonitor, final S trainingStatus,
+		final DLMetricsRegistry metrics) {
+		super(knimeMonitor, metrics);
+		m_trainingStatus = trainingStatus;
+	}
+
 	@Override
 	public S getTrainingStatus() {
 		return m_trainingStatus;
@@ -70,6 +77,6 @@ public S getTrainingStatus() {
 
 	@Override
 	public DLKnimeTrainingMonitor<S> createSubMonitor(final double fraction) {
-		return new DLKnimeTrainingMonitor<>(m_knimeMonitor.createSubProgress(fraction), m_trainingStatus);
+		return new DLKnimeTrainingMonitor<>(m_knimeMonitor.createSubProgress(fraction), m_trainingStatus, m_metrics);
 	}
 }
@@ -0,0 +1,278 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDefaultBitBuffer;
+import org.knime.dl.core.data.DLPackedBitBuffer;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Splits each batch of a {@link DLNetworkInputProvider} into disjoint shards, one per data-parallel network replica.
+ * <P>
+ * Each of the {@link #getShard(int) shard providers} is expected to be queried for the same sequence of batches, but
+ * they may run ahead of or fall behind each other. Every global batch is prepared once, when it is first requested by
+ * any of the shards, and is kept until all shards have consumed their part of it. Shard <code>i</code> receives the
+ * examples <code>[getShardOffset(i), getShardOffset(i + 1))</code> of each global batch.
+ */
+public final class DLNetworkInputSharder implements AutoCloseable {
+
+	/**
+	 * Distributes the examples of a batch as evenly as possible among the given number of shards.
+	 *
+	 * @param batchSize the size of the global batch
+	 * @param numShards the number of shards
+	 * @return the batch sizes of the shards, the first <code>batchSize % numShards</code> shards contain one more
+	 *         example than the others
+	 */
+	public static long[] getShardBatchSizes(final long batchSize, final int numShards) {
+		checkArgument(numShards > 0, "Number of shards must be greater than zero.");
+		checkArgument(batchSize >= numShards, "Batch size (%s) must not be smaller than the number of shards (%s).",
+				batchSize, numShards);
+		final long[] sizes = new long[numShards];
+		for (int i = 0; i < numShards; i++) {
+			sizes[i] = batchSize / numShards + (i < batchSize % numShards ? 1 : 0);
+		}
+		return sizes;
+	}
+
+	private final DLNetworkInputProvider m_provider;
+
+	private final long[] m_shardOffsets;
+
+	private final List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_shardInputs;
+
+	private final List<DLNetworkInputProvider> m_shards;
+
+	/**
+	 * Number of batches that have been requested by each of the shards.
+	 */
+	private final long[] m_numRequestedBatches;
+
+	/**
+	 * Global batches that have not been consumed by all shards yet, by sequence number.
+	 */
+	private final Map<Long, Batch> m_batches = new HashMap<>();
+
+	private long m_numPreparedBatches;
+
+	/**
+	 * @param provider the provider of the global batches, not closed by this instance
+	 * @param executionInputSpecs the fully defined specs of the global input tensors
+	 * @param numShards the number of shards
+	 * @param tensorFactory the tensor factory that is used to create the input tensors of the shards
+	 */
+	public DLNetworkInputSharder(final DLNetworkInputProvider provider, final Set<DLTensorSpec> executionInputSpecs,
+			final int numShards, final DLTensorFactory tensorFactory) {
+		m_provider = checkNotNull(provider);
+		checkArgument(!executionInputSpecs.isEmpty(), "Execution input specs must not be empty.");
+		final long batchSize = executionInputSpecs.iterator().next().getBatchSize()
+				.orElseThrow(() -> new IllegalArgumentException("Execution input specs are not fully defined."));
+		final long[] shardBatchSizes = getShardBatchSizes(batchSize, numShards);
+		m_shardOffsets = new long[numShards + 1];
+		m_shardInputs = new ArrayList<>(numShards);
+		m_shards = new ArrayList<>(numShards);
+		for (int i = 0; i < numShards; i++) {
+			m_shardOffsets[i + 1] = m_shardOffsets[i] + shardBatchSizes[i];
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> shardInput =
+					new HashMap<>(executionInputSpecs.size());
+			for (final DLTensorSpec spec : executionInputSpecs) {
+				final DLTensorSpec shardSpec = tensorFactory.createExecutionTensorSpec(spec, shardBatchSizes[i],
+						DLUtils.Shapes.getFixedShape(spec.getShape()).get());
+				shardInput.put(spec.getIdentifier(), tensorFactory.createWritableTensor(shardSpec));
+			}
+			m_shardInputs.add(shardInput);
+			final int shard = i;
+			m_shards.add(new DLNetworkInputProvider() {
+
+				@Override
+				public long getNumBatches() {
+					return m_provider.getNumBatches();
+				}
+
+				@Override
+				public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
+						throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+					return DLNetworkInputSharder.this.get(shard, batchIndex);
+				}
+
+				@Override
+				public void close() throws Exception {
+					// the shard tensors are closed along with the sharder
+				}
+			});
+		}
+		m_numRequestedBatches = new long[numShards];
+	}
+
+	/**
+	 * @return the number of shards
+	 */
+	public int getNumShards() {
+		return m_shards.size();
+	}
+
+	/**
+	 * @param shard the index of the shard
+	 * @return the provider of the given shard
+	 */
+	public DLNetworkInputProvider getShard(final int shard) {
+		return m_shards.get(shard);
+	}
+
+	/**
+	 * @param shard the index of the shard, may equal {@link #getNumShards()}
+	 * @return the index of the first example of the given shard within a global batch
+	 */
+	public long getShardOffset(final int shard) {
+		return m_shardOffsets[shard];
+	}
+
+	/**
+	 * @return the number of global batches that are currently held because not all shards have consumed them yet
+	 */
+	public synchronized int getNumPendingBatches() {
+		return m_batches.size();
+	}
+
+	@Override
+	public void close() {
+		m_shardInputs.forEach(input -> input.values().forEach(DLTensor::close));
+		synchronized (this) {
+			m_batches.clear();
+		}
+	}
+
+	private synchronized Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final int shard,
+			final long batchIndex) throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		final long sequenceNumber = m_numRequestedBatches[shard]++;
+		if (sequenceNumber == m_numPreparedBatches) {
+			m_batches.put(sequenceNumber, new Batch(m_provider.get(batchIndex)));
+			m_numPreparedBatches++;
+		}
+		final Batch batch = m_batches.get(sequenceNumber);
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> shardInput = m_shardInputs.get(shard);
+		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : shardInput.entrySet()) {
+			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+			final long exampleSize = tensor.getExampleSize();
+			final long start = Math.min(m_shardOffsets[shard] * exampleSize, batch.m_sizes.get(entry.getKey()));
+			final long end = Math.min(m_shardOffsets[shard + 1] * exampleSize, batch.m_sizes.get(entry.getKey()));
+			final DLWrappingDataBuffer<?> buffer = asWrappingBuffer(tensor.getBuffer());
+			buffer.reset();
+			if (buffer instanceof DLPackedBitBuffer) {
+				DLDefaultBitBuffer.copyBits((long[]) batch.m_storages.get(entry.getKey()), (int) start,
+						((DLPackedBitBuffer) buffer).getStorageForWriting(0, end - start), 0, (int) (end - start));
+			} else {
+				System.arraycopy(batch.m_storages.get(entry.getKey()), (int) start,
+						buffer.getStorageForWriting(0, end - start), 0, (int) (end - start));
+			}
+		}
+		if (--batch.m_numRemainingShards == 0) {
+			m_batches.remove(sequenceNumber);
+		}
+		return shardInput;
+	}
+
+	private static DLWrappingDataBuffer<?> asWrappingBuffer(final DLBuffer buffer) {
+		if (!(buffer instanceof DLWrappingDataBuffer)) {
+			throw new IllegalStateException(
+					"Buffer type '" + buffer.getClass().getCanonicalName() + "' does not support sharding.");
+		}
+		return (DLWrappingDataBuffer<?>) buffer;
+	}
+
+	/**
+	 * A copy of a global batch that is kept until all shards have consumed it.
+	 */
+	private final class Batch {
+
+		private final Map<DLTensorId, Object> m_storages;
+
+		private final Map<DLTensorId, Long> m_sizes;
+
+		private int m_numRemainingShards;
+
+		private Batch(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+			m_storages = new HashMap<>(input.size());
+			m_sizes = new HashMap<>(input.size());
+			for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+				final DLWrappingDataBuffer<?> buffer = asWrappingBuffer(entry.getValue().getBuffer());
+				final long size = buffer.size();
+				final Object storage = buffer.getStorageForReading(0, size);
+				// packed bit storage holds 64 elements per word
+				final int storageLength =
+						buffer instanceof DLPackedBitBuffer ? DLDefaultBitBuffer.getNumWords(size) : (int) size;
+				final Object copy = Array.newInstance(storage.getClass().getComponentType(), storageLength);
+				System.arraycopy(storage, 0, copy, 0, storageLength);
+				m_storages.put(entry.getKey(), copy);
+				m_sizes.put(entry.getKey(), size);
+				buffer.reset();
+			}
+			m_numRemainingShards = m_shards.size();
+		}
+	}
+}